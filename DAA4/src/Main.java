@@ -1,67 +1,147 @@
+import data.BinaryGraphFormat;
 import data.DataGenerator;
+import data.JsonGraphLoader;
 import graph.*;
+import graph.cache.ArtifactCache;
+import graph.cache.GraphArtifacts;
+import graph.dist.Coordinator;
+import graph.dist.Partitioner;
+import graph.layout.Relabeling;
+import graph.sched.ListScheduler;
+import graph.sched.Schedule;
+import graph.metrics.StripedMetrics;
+import graph.scc.CondensationResult;
+import graph.scc.SCCResult;
 import graph.scc.Tarjan;
 import graph.topo.TopologicalSort;
+import graph.dagsp.CriticalPath;
 import graph.dagsp.DAGShortestPaths;
+import graph.dagsp.ShortestPathResult;
+import service.SchedulingServer;
 
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 
 /**
- * Main class to run the Smart City Scheduling pipeline: SCC -> Condensation -> Topo -> DAG SP.
- * Parses tasks.json manually (no external JSON libs).
+ * Main class to run the Smart City Scheduling pipeline: SCC + Condensation + Topo (one fused
+ * Tarjan traversal) -> DAG SP.
+ * Loads the dataset with a streaming JSON loader (no external JSON libs).
+ * With --serve, starts the resident {@link SchedulingServer} instead (remaining arguments
+ * are passed on); with --generate, regenerates the datasets first. With --cache-dir, the
+ * SCCs, condensation and topological order are kept on disk by graph content, so a rerun
+ * on an unchanged dataset skips straight to the path queries. With --workers N, the SCCs,
+ * condensation and shortest paths are computed by N worker JVMs that each hold one partition
+ * of the graph (--partition range|hash); the output is the same. With --relabel, node ids
+ * are renumbered (topological, bfs or rcm order) for memory locality before the analysis.
+ * With --crews N, the condensation is also list-scheduled on N crews, each task lasting as
+ * long as its longest lag, and the plan is printed per crew and per task.
  */
+@SuppressWarnings("try")
 public class Main {
+    private static final long CACHE_BYTES = 256L << 20;
+
     public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--serve")) {
+            SchedulingServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         System.out.println("Working directory: " + System.getProperty("user.dir"));
-        DataGenerator.generateDatasets();
-        System.out.println("Datasets generated successfully!");
-        if (args.length < 1) {
-            System.out.println("Usage: java Main <dataset.json>");
+        List<String> files = new ArrayList<>(Arrays.asList(args));
+        Path cacheDir = null;
+        int cacheFlag = files.indexOf("--cache-dir");
+        if (cacheFlag >= 0 && cacheFlag + 1 < files.size()) {
+            cacheDir = Path.of(files.get(cacheFlag + 1));
+            files.subList(cacheFlag, cacheFlag + 2).clear();
+        }
+        int workers = 0;
+        int workersFlag = files.indexOf("--workers");
+        if (workersFlag >= 0 && workersFlag + 1 < files.size()) {
+            workers = Integer.parseInt(files.get(workersFlag + 1));
+            files.subList(workersFlag, workersFlag + 2).clear();
+        }
+        Partitioner.Scheme scheme = Partitioner.Scheme.RANGE;
+        int partitionFlag = files.indexOf("--partition");
+        if (partitionFlag >= 0 && partitionFlag + 1 < files.size()) {
+            scheme = Partitioner.Scheme.valueOf(files.get(partitionFlag + 1).toUpperCase(Locale.ROOT));
+            files.subList(partitionFlag, partitionFlag + 2).clear();
+        }
+        Relabeling.Order relabel = null;
+        int relabelFlag = files.indexOf("--relabel");
+        if (relabelFlag >= 0 && relabelFlag + 1 < files.size()) {
+            relabel = Relabeling.Order.valueOf(files.get(relabelFlag + 1).toUpperCase(Locale.ROOT));
+            files.subList(relabelFlag, relabelFlag + 2).clear();
+        }
+        int crews = 0;
+        int crewsFlag = files.indexOf("--crews");
+        if (crewsFlag >= 0 && crewsFlag + 1 < files.size()) {
+            crews = Integer.parseInt(files.get(crewsFlag + 1));
+            files.subList(crewsFlag, crewsFlag + 2).clear();
+        }
+        if (files.remove("--generate")) {
+            DataGenerator.generateDatasets();
+            System.out.println("Datasets generated successfully!");
+        }
+        if (files.isEmpty()) {
+            System.out.println("Usage: java Main [--generate] [--cache-dir DIR] [--workers N [--partition range|hash]]"
+                    + " [--relabel topological|bfs|rcm] [--crews N] <dataset.json | dataset.bin>");
+            System.out.println("       java Main --serve [--port N | --stdin] [--load name=path]...");
             return;
         }
-        String filePath = args[0];
-
-        // Parse JSON manually
-        SimpleJsonParser parser = new SimpleJsonParser();
-        Map<String, Object> data = parser.parse(filePath);
-        List<String> nodes = (List<String>) data.get("nodes");
-        List<List<String>> edgesList = (List<List<String>>) data.get("edges");
-        List<String[]> edges = new ArrayList<>();
-        for (List<String> edge : edgesList) {
-            edges.add(edge.toArray(new String[0]));
-        }
-        Map<String, Integer> weights = (Map<String, Integer>) data.get("weights");
-
-        // Build graph
-        DirectedGraph graph = new DirectedGraph(nodes, edges, weights);
-
-        // Metrics instance (simple implementation)
-        MetricsImpl metrics = new MetricsImpl();
-
-        // 1. SCC using Tarjan
-        Tarjan tarjan = new Tarjan(graph, metrics);
-        List<List<Integer>> sccs = tarjan.findSCCs();
+        String filePath = files.get(0);
+
+        // Load graph (binary file if converted, otherwise streaming JSON loader)
+        DirectedGraph graph = filePath.endsWith(".bin")
+                ? BinaryGraphFormat.read(Path.of(filePath))
+                : JsonGraphLoader.load(filePath);
+
+        // Thread-safe metrics with per-phase timers
+        StripedMetrics metrics = new StripedMetrics();
+        // Node names move with their nodes, so the report below still names the input's tasks
+        if (relabel != null) {
+            graph = Relabeling.of(graph, relabel, metrics).apply(graph);
+        }
+        // Derived results by graph content (memory only unless --cache-dir is given)
+        GraphArtifacts artifacts = new GraphArtifacts(new ArtifactCache(CACHE_BYTES, cacheDir, metrics), metrics);
+
+        // 1. SCCs, condensation and topological order from one Tarjan traversal
+        //    (or from the partition workers, which also compute the shortest paths)
+        CondensationResult condensed;
+        ShortestPathResult partitionedShortest = null;
+        if (workers > 0) {
+            try (Coordinator coordinator = new Coordinator(workers, scheme, Coordinator.Launch.PROCESS, metrics)) {
+                try (Metrics.Phase phase = metrics.phase("scc")) {
+                    condensed = coordinator.condense(graph, WeightPolicy.FIRST);
+                }
+                try (Metrics.Phase phase = metrics.phase("dagsp")) {
+                    partitionedShortest = coordinator.paths(condensed.getCondensation(), condensed.getTopoOrder()[0], false);
+                }
+            }
+            System.out.println("Workers: " + workers + " (" + scheme.name().toLowerCase(Locale.ROOT) + "), Supersteps: "
+                    + metrics.getCounter("dist_supersteps") + ", Messages: " + metrics.getCounter("dist_messages"));
+        } else {
+            try (Metrics.Phase phase = metrics.phase("scc")) {
+                condensed = artifacts.condense(graph, WeightPolicy.FIRST);
+            }
+        }
+        SCCResult sccResult = condensed.getSccs();
+        List<List<Integer>> sccs = sccResult.toLists();
         List<List<String>> namedSCCs = Tarjan.getSCCsAsNames(sccs, graph);
         List<Integer> sccSizes = Tarjan.getSCCSizes(namedSCCs);
         System.out.println("SCCs: " + namedSCCs);
         System.out.println("SCC Sizes: " + sccSizes);
-        System.out.println("SCC Time: " + metrics.getTiming() + " ns, DFS Visits: " + metrics.getCounter("dfs_visits") + ", DFS Edges: " + metrics.getCounter("dfs_edges"));
+        System.out.println("SCC Time: " + metrics.getPhaseNanos("scc") + " ns, DFS Visits: " + metrics.getCounter("dfs_visits") + ", DFS Edges: " + metrics.getCounter("dfs_edges"));
 
-        // Build condensation graph (DAG)
-        DirectedGraph condensation = graph.buildCondensation(sccs);
-
-        // 2. Topological Sort on condensation
-        TopologicalSort topoSort = new TopologicalSort(condensation, metrics);
-        List<Integer> topoOrder = topoSort.kahnSort();
-        if (topoOrder == null) {
-            System.out.println("Cycle detected in condensation graph!");
-            return;
+        // 2. Condensation (DAG) and its topological order, emitted by the same traversal
+        DirectedGraph condensation = condensed.getCondensation();
+        List<Integer> topoOrder = new ArrayList<>(condensed.getTopoOrder().length);
+        for (int comp : condensed.getTopoOrder()) {
+            topoOrder.add(comp);
         }
         List<String> namedTopoOrder = TopologicalSort.getOrderAsNames(topoOrder, condensation);
         System.out.println("Topological Order of Components: " + namedTopoOrder);
-        System.out.println("Topo Time: " + metrics.getTiming() + " ns, Pushes: " + metrics.getCounter("kahn_pushes") + ", Pops: " + metrics.getCounter("kahn_pops"));
+        System.out.println("Condensation: " + condensation.nodeCount() + " components, " + condensation.edgeCount()
+                + " edges, Cross Edges: " + metrics.getCounter("cross_edges"));
 
         // Derive order of original tasks (flatten SCCs in topo order)
         List<String> originalOrder = new ArrayList<>();
@@ -73,114 +153,50 @@ public class Main {
         // 3. DAG Shortest/Longest Paths (use first in topo order as source)
         int source = topoOrder.get(0);
         DAGShortestPaths dagSp = new DAGShortestPaths(condensation, metrics);
-        Map<Integer, Integer> shortestDist = dagSp.shortestPaths(source, topoOrder);
-        Map<Integer, Integer> longestDist = dagSp.longestPaths(source, topoOrder);
-
-        // Find critical path (longest)
-        int maxDist = Integer.MIN_VALUE;
-        int target = -1;
-        for (Map.Entry<Integer, Integer> entry : longestDist.entrySet()) {
-            if (entry.getValue() > maxDist) {
-                maxDist = entry.getValue();
-                target = entry.getKey();
-            }
+        ShortestPathResult shortest;
+        CriticalPath criticalPath;
+        try (Metrics.Phase phase = metrics.phase("dagsp")) {
+            shortest = partitionedShortest != null ? partitionedShortest : dagSp.shortestPathResult(source, topoOrder);
+            // Critical path (longest chain) with earliest/latest starts, in one forward and one backward sweep
+            criticalPath = CriticalPath.analyze(condensation, topoOrder);
         }
-        System.out.println("Critical Path Length: " + maxDist);
-        // Note: Path reconstruction would need parent tracking; omitted for brevity, but can be added.
-
-        System.out.println("Shortest Distances from Source: " + shortestDist);
-        System.out.println("DAG SP Time: " + metrics.getTiming() + " ns, Relaxations: " + metrics.getCounter("relaxations"));
-    }
-
-    // Simple JSON parser for the specific format
-    static class SimpleJsonParser {
-        public Map<String, Object> parse(String filePath) throws IOException {
-            String json = readFile(filePath);
-            Map<String, Object> result = new HashMap<>();
-            json = json.trim().substring(1, json.length() - 1); // Remove {}
-            String[] pairs = json.split(",(?=\\s*\"\\w+\":)"); // Split on , before keys
-            for (String pair : pairs) {
-                String[] keyValue = pair.split(":", 2);
-                String key = keyValue[0].trim().replaceAll("\"", "");
-                String value = keyValue[1].trim();
-                if (key.equals("nodes") || key.equals("edges")) {
-                    result.put(key, parseArray(value));
-                } else if (key.equals("weights")) {
-                    result.put(key, parseObject(value));
-                }
-            }
-            return result;
+        System.out.println("Critical Path Length: " + criticalPath.getMakespan());
+        System.out.println("Critical Path: " + criticalPath.getPath());
+        List<String> slackReport = new ArrayList<>();
+        for (int comp : topoOrder) {
+            slackReport.add(condensation.getNodes().get(comp) + "(ES=" + criticalPath.getEarliestStart()[comp]
+                    + ", LS=" + criticalPath.getLatestStart()[comp] + ", slack=" + criticalPath.slack(comp) + ")");
         }
+        System.out.println("Component Start Times: " + slackReport);
 
-        private List<?> parseArray(String value) {
-            value = value.trim();
-            if (value.startsWith("[")) {
-                value = value.substring(1, value.length() - 1);
-                List<Object> list = new ArrayList<>();
-                if (value.contains("[")) { // Nested arrays for edges
-                    String[] items = value.split("\\],\\s*\\[");
-                    for (String item : items) {
-                        item = item.replaceAll("\\[|\\]", "").trim();
-                        list.add(Arrays.asList(item.split(",\\s*")));
-                    }
-                } else { // Simple array for nodes
-                    String[] items = value.split(",\\s*");
-                    for (String item : items) {
-                        list.add(item.replaceAll("\"", ""));
-                    }
-                }
-                return list;
+        System.out.println("Shortest Distances from Source: " + shortest.toMap());
+        int farthest = source;
+        for (int comp : topoOrder) {
+            if (shortest.isReachable(comp) && shortest.distance(comp) > shortest.distance(farthest)) {
+                farthest = comp;
             }
-            return new ArrayList<>();
         }
-
-        private Map<String, Integer> parseObject(String value) {
-            value = value.trim().substring(1, value.length() - 1); // Remove {}
-            Map<String, Integer> map = new HashMap<>();
-            if (!value.isEmpty()) {
-                String[] pairs = value.split(",(?=\\s*\"[^\"]+-\")");
-                for (String pair : pairs) {
-                    String[] kv = pair.split(":", 2);
-                    String k = kv[0].trim().replaceAll("\"", "");
-                    int v = Integer.parseInt(kv[1].trim());
-                    map.put(k, v);
+        System.out.println("Shortest Path to Farthest Component: " + shortest.namedPathTo(farthest)
+                + " (distance " + shortest.distance(farthest) + ")");
+        System.out.println("DAG SP Time: " + metrics.getPhaseNanos("dagsp") + " ns, Relaxations: " + metrics.getCounter("relaxations"));
+
+        // 4. Execution plan: critical-path list scheduling of the components on the crews
+        if (crews > 0) {
+            Schedule schedule = new ListScheduler(condensation, ListScheduler.durationsFromLags(condensation), metrics)
+                    .schedule(condensed.getTopoOrder(), crews);
+            System.out.println("Schedule on " + crews + " crews: makespan " + schedule.getMakespan()
+                    + ", utilization " + String.format("%.2f", schedule.utilization()));
+            System.out.println("Crew Plan: " + schedule.describe());
+            List<String> taskPlan = new ArrayList<>(graph.nodeCount());
+            for (int comp : topoOrder) {
+                for (String task : namedSCCs.get(comp)) {
+                    taskPlan.add(task + "(" + schedule.getStart()[comp] + "-" + schedule.getFinish()[comp]
+                            + ", W" + schedule.getWorker()[comp] + ")");
                 }
             }
-            return map;
+            System.out.println("Task Schedule: " + taskPlan);
         }
-
-        private String readFile(String filePath) throws IOException {
-            StringBuilder sb = new StringBuilder();
-            try (FileReader fr = new FileReader(filePath)) {
-                int ch;
-                while ((ch = fr.read()) != -1) {
-                    sb.append((char) ch);
-                }
-            }
-            return sb.toString();
-        }
-    }
-
-    // Simple Metrics implementation
-    static class MetricsImpl implements Metrics {
-        private long startTime;
-        private final Map<String, Long> counters = new HashMap<>();
-
-        @Override
-        public void startTiming() { startTime = System.nanoTime(); }
-
-        @Override
-        public long stopTiming() { return System.nanoTime() - startTime; }
-
-        @Override
-        public void incrementCounter(String name) { counters.put(name, counters.getOrDefault(name, 0L) + 1); }
-
-        @Override
-        public long getCounter(String name) { return counters.getOrDefault(name, 0L); }
-
-        @Override
-        public void reset() { counters.clear(); startTime = 0; }
-
-        public long getTiming() { return stopTiming(); } // For output
+        System.out.println("Phase Times (ns): " + metrics.phaseSnapshot());
+        System.out.println("Artifact Cache: " + artifacts.getCache().summary());
     }
 }
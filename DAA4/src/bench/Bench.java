@@ -0,0 +1,205 @@
+package bench;
+
+import graph.DirectedGraph;
+import graph.Metrics;
+import graph.metrics.NoOpMetrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+/**
+ * Small timing harness shared by the benchmark mains: warmup runs, measured runs, median.
+ * Run a benchmark with e.g. {@code java -cp out bench.DynamicTopoBenchmark}.
+ */
+public final class Bench {
+    private Bench() {
+    }
+
+    /**
+     * Runs a task repeatedly and records each measured run.
+     * @param warmup runs discarded to let the JIT compile the hot paths
+     * @param runs measured runs
+     * @param task work to time
+     * @return elapsed nanoseconds per measured run
+     */
+    public static long[] time(int warmup, int runs, Runnable task) {
+        for (int i = 0; i < warmup; i++) {
+            task.run();
+        }
+        long[] nanos = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            task.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        return nanos;
+    }
+
+    /**
+     * Like {@link #time}, but also records allocation and GC activity of the measured runs.
+     * Allocation is counted for the calling thread only, so use it for sequential tasks.
+     * @param warmup runs discarded to let the JIT compile the hot paths
+     * @param runs measured runs
+     * @param task work to time
+     * @return median time, bytes allocated per run and GC totals
+     */
+    public static Measurement measure(int warmup, int runs, Runnable task) {
+        for (int i = 0; i < warmup; i++) {
+            task.run();
+        }
+        long bytesBefore = allocatedBytes();
+        long[] gcBefore = gcTotals();
+        long[] nanos = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            task.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        long bytes = allocatedBytes() - bytesBefore;
+        long[] gcAfter = gcTotals();
+        return new Measurement(medianMillis(nanos), bytes < 0 ? -1 : bytes / runs,
+                gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1]);
+    }
+
+    /** Result of {@link #measure}. */
+    public static final class Measurement {
+        public final double medianMillis;
+        public final long bytesPerRun;  // -1 if the JVM cannot report allocation
+        public final long gcCount;
+        public final long gcMillis;
+
+        Measurement(double medianMillis, long bytesPerRun, long gcCount, long gcMillis) {
+            this.medianMillis = medianMillis;
+            this.bytesPerRun = bytesPerRun;
+            this.gcCount = gcCount;
+            this.gcMillis = gcMillis;
+        }
+    }
+
+    /**
+     * Bytes allocated so far by the calling thread (HotSpot extension), or -1 if unsupported.
+     */
+    public static long allocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+            if (hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled()) {
+                return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    private static long[] gcTotals() {
+        long count = 0, millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[]{count, millis};
+    }
+
+    public static double medianMillis(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2] / 1e6;
+    }
+
+    /**
+     * Random DAG: edges always point from a lower to a higher position of a shuffled order.
+     * @param n number of nodes
+     * @param m number of edges
+     * @param seed random seed
+     * @return acyclic graph with weights 1..9
+     */
+    public static DirectedGraph randomDag(int n, int m, long seed) {
+        requireEdgeEndpoints(n, m);
+        Random rand = new Random(seed);
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) rank[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            int t = rank[i]; rank[i] = rank[j]; rank[j] = t;
+        }
+        int[] from = new int[m], to = new int[m], w = new int[m];
+        for (int i = 0; i < m; i++) {
+            int a = rand.nextInt(n), b = rand.nextInt(n);
+            while (a == b) b = rand.nextInt(n);
+            from[i] = rank[a] < rank[b] ? a : b;
+            to[i] = rank[a] < rank[b] ? b : a;
+            w[i] = 1 + rand.nextInt(9);
+        }
+        return new DirectedGraph(DirectedGraph.indexNames(n), from, to, w, m);
+    }
+
+    /** SCC structure of the generated benchmark graphs. */
+    public enum Shape {
+        /** Acyclic: every node is its own SCC. */
+        DAG,
+        /** Rings of 8 nodes connected acyclically: many small SCCs. */
+        SMALL_SCCS,
+        /** Uniformly random edges: one giant SCC once the average degree exceeds ~1. */
+        GIANT_SCC
+    }
+
+    /**
+     * Random graph of a given SCC structure.
+     * @param n number of nodes
+     * @param m number of edges (SMALL_SCCS uses n of them for the rings)
+     * @param shape SCC structure
+     * @param seed random seed
+     * @return graph with weights 1..9
+     */
+    public static DirectedGraph randomGraph(int n, int m, Shape shape, long seed) {
+        if (shape == Shape.DAG) {
+            return randomDag(n, m, seed);
+        }
+        requireEdgeEndpoints(n, m);
+        Random rand = new Random(seed);
+        int[] from = new int[m], to = new int[m], w = new int[m];
+        int e = 0;
+        if (shape == Shape.SMALL_SCCS) {
+            int ring = 8;
+            for (int u = 0; u < n && e < m; u++) {
+                int start = u - u % ring;
+                int end = Math.min(n, start + ring);
+                from[e] = u;
+                to[e] = u + 1 < end ? u + 1 : start;
+                w[e++] = 1 + rand.nextInt(9);
+            }
+        }
+        for (; e < m; e++) {
+            int a = rand.nextInt(n), b = rand.nextInt(n);
+            while (a == b) b = rand.nextInt(n);
+            if (shape == Shape.SMALL_SCCS && a > b) {
+                int t = a; a = b; b = t;  // Between rings, edges go forward only
+            }
+            from[e] = a;
+            to[e] = b;
+            w[e] = 1 + rand.nextInt(9);
+        }
+        return new DirectedGraph(DirectedGraph.indexNames(n), from, to, w, m);
+    }
+
+    /** Random edges join two distinct nodes, so they need at least two. */
+    private static void requireEdgeEndpoints(int n, int m) {
+        if (m > 0 && n < 2) {
+            throw new IllegalArgumentException("Need at least 2 nodes for " + m + " random edges, got " + n);
+        }
+    }
+
+    /**
+     * Formats one table row with fixed-width columns.
+     */
+    public static String row(Object... cells) {
+        StringBuilder sb = new StringBuilder();
+        for (Object cell : cells) {
+            sb.append(String.format("%-16s", cell));
+        }
+        return sb.toString().trim();
+    }
+
+    /** Metrics sink that records nothing, so benchmarks measure the algorithms only. */
+    public static final Metrics NO_METRICS = NoOpMetrics.INSTANCE;
+}
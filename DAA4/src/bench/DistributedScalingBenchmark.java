@@ -0,0 +1,63 @@
+package bench;
+
+import data.WorkloadGenerator;
+import graph.DirectedGraph;
+import graph.WeightPolicy;
+import graph.dist.Coordinator;
+import graph.dist.Partitioner;
+import graph.metrics.StripedMetrics;
+import graph.scc.CondensationResult;
+import graph.scc.FusedCondensation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Partitioned pipeline (SCCs, condensation, shortest paths) on 1, 2, 4, ... worker JVMs
+ * against the single-process fused traversal: time per run, edges per second, supersteps
+ * and boundary messages. Speedups need as many cores as workers.
+ * Usage: java bench.DistributedScalingBenchmark [nodes] [degree] [maxWorkers] [range|hash]
+ */
+public class DistributedScalingBenchmark {
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        double degree = args.length > 1 ? Double.parseDouble(args[1]) : 4;
+        int maxWorkers = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        Partitioner.Scheme scheme = args.length > 3
+                ? Partitioner.Scheme.valueOf(args[3].toUpperCase(Locale.ROOT)) : Partitioner.Scheme.RANGE;
+        DirectedGraph graph = new WorkloadGenerator(WorkloadGenerator.Shape.PLANTED_SCCS, n, 7)
+                .averageDegree(degree).generate();
+        System.out.println("Distributed pipeline: " + n + " nodes, " + graph.edgeCount() + " edges, "
+                + scheme.name().toLowerCase(Locale.ROOT) + " partitions, "
+                + Runtime.getRuntime().availableProcessors() + " cores");
+
+        double sequential = Bench.medianMillis(Bench.time(1, 3,
+                () -> new FusedCondensation(graph, Bench.NO_METRICS, WeightPolicy.FIRST).run()));
+        System.out.println(Bench.row("engine", "workers", "ms", "Medges/s", "supersteps", "messages", "load ms"));
+        System.out.println(Bench.row("fused", 1, String.format("%.1f", sequential),
+                String.format("%.2f", graph.edgeCount() / sequential / 1000), "-", "-", "-"));
+
+        for (int workers = 1; workers <= maxWorkers; workers *= 2) {
+            StripedMetrics metrics = new StripedMetrics();
+            try (Coordinator coordinator = new Coordinator(workers, scheme, Coordinator.Launch.PROCESS, metrics)) {
+                int runs = 3;
+                long[] nanos = Bench.time(1, runs, () -> {
+                    try {
+                        CondensationResult r = coordinator.condense(graph, WeightPolicy.FIRST);
+                        coordinator.paths(r.getCondensation(), r.getTopoOrder()[0], false);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                double ms = Bench.medianMillis(nanos);
+                // Counters cover the warmup run too
+                System.out.println(Bench.row("partitioned", workers, String.format("%.1f", ms),
+                        String.format("%.2f", graph.edgeCount() / ms / 1000),
+                        metrics.getCounter("dist_supersteps") / (runs + 1),
+                        metrics.getCounter("dist_messages") / (runs + 1),
+                        String.format("%.1f", metrics.getPhaseNanos("dist_load") / 1e6 / (runs + 1))));
+            }
+        }
+    }
+}
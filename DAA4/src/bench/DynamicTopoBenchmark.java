@@ -0,0 +1,124 @@
+package bench;
+
+import graph.DirectedGraph;
+import graph.WeightPolicy;
+import graph.scc.SCCResult;
+import graph.scc.Tarjan;
+import graph.topo.DynamicTopologicalOrder;
+import graph.topo.TopologicalSort;
+import graph.util.IntList;
+
+import java.util.*;
+
+/**
+ * Compares {@link DynamicTopologicalOrder} against rebuilding the order from scratch
+ * (Tarjan + condensation + Kahn, as Main does) for a stream of small edge edits.
+ * Usage: java bench.DynamicTopoBenchmark [nodes] [edges] [edits]
+ */
+public class DynamicTopoBenchmark {
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int m = args.length > 1 ? Integer.parseInt(args[1]) : 400_000;
+        int edits = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+        System.out.println("Dynamic topological order: " + n + " nodes, " + m + " edges, " + edits + " edits");
+
+        DirectedGraph dag = Bench.randomDag(n, m, 7);
+        int[][] ops = editStream(dag, edits, 11);
+
+        // Incremental: one structure updated per edit
+        long[] incremental = Bench.time(1, 3, () -> {
+            DynamicTopologicalOrder order = DynamicTopologicalOrder.of(dag, Bench.NO_METRICS);
+            applyIncremental(order, ops);
+        });
+        DynamicTopologicalOrder check = DynamicTopologicalOrder.of(dag, Bench.NO_METRICS);
+        int rejected = applyIncremental(check, ops);
+        double perEditIncremental = Bench.medianMillis(incremental) * 1000.0 / edits;
+
+        // Full recomputation after each edit (sampled: it is orders of magnitude slower)
+        int sampled = Math.min(edits, 50);
+        long[] full = Bench.time(1, 3, () -> applyFull(dag, ops, sampled));
+        double perEditFull = Bench.medianMillis(full) * 1000.0 / sampled;
+
+        System.out.println(Bench.row("mode", "us/edit", "notes"));
+        System.out.println(Bench.row("incremental", String.format("%.2f", perEditIncremental),
+                rejected + " cycle-closing inserts rejected, " + check.getReorderedCount() + " nodes moved"));
+        System.out.println(Bench.row("full rebuild", String.format("%.2f", perEditFull),
+                "sampled over " + sampled + " edits"));
+        System.out.println(String.format("Speedup: %.0fx", perEditFull / perEditIncremental));
+    }
+
+    /**
+     * Edits: 70% inserts between random nodes (some close cycles), 30% deletions of existing edges.
+     * Each op is {kind (1 insert, 0 delete), u, v}.
+     */
+    private static int[][] editStream(DirectedGraph dag, int edits, long seed) {
+        Random rand = new Random(seed);
+        int n = dag.nodeCount();
+        int[] offsets = dag.getOffsets();
+        int[] targets = dag.getTargets();
+        int[][] ops = new int[edits][];
+        for (int i = 0; i < edits; i++) {
+            if (rand.nextInt(10) < 7) {
+                int u = rand.nextInt(n), v = rand.nextInt(n);
+                ops[i] = new int[]{1, u, v == u ? (v + 1) % n : v};
+            } else {
+                int u = rand.nextInt(n);
+                while (offsets[u] == offsets[u + 1]) u = rand.nextInt(n);
+                ops[i] = new int[]{0, u, targets[offsets[u] + rand.nextInt(offsets[u + 1] - offsets[u])]};
+            }
+        }
+        return ops;
+    }
+
+    private static int applyIncremental(DynamicTopologicalOrder order, int[][] ops) {
+        int rejected = 0;
+        for (int[] op : ops) {
+            if (op[0] == 1) {
+                if (!order.insertEdge(op[1], op[2])) rejected++;
+            } else {
+                order.removeEdge(op[1], op[2]);
+            }
+        }
+        return rejected;
+    }
+
+    private static void applyFull(DirectedGraph dag, int[][] ops, int count) {
+        int n = dag.nodeCount();
+        IntList from = new IntList(dag.edgeCount()), to = new IntList(dag.edgeCount());
+        for (int u = 0; u < n; u++) {
+            for (int e = dag.getOffsets()[u]; e < dag.getOffsets()[u + 1]; e++) {
+                from.add(u);
+                to.add(dag.getTargets()[e]);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            int[] op = ops[i];
+            if (op[0] == 1) {
+                from.add(op[1]);
+                to.add(op[2]);
+            } else {
+                for (int e = 0; e < from.size(); e++) {
+                    if (from.get(e) == op[1] && to.get(e) == op[2]) {
+                        from.set(e, from.get(from.size() - 1));
+                        to.set(e, to.get(to.size() - 1));
+                        from.removeLast();
+                        to.removeLast();
+                        break;
+                    }
+                }
+            }
+            int[] w = new int[from.size()];
+            Arrays.fill(w, 1);
+            DirectedGraph g = new DirectedGraph(dag.getNodes(), from.rawArray(), to.rawArray(), w, from.size());
+            SCCResult sccs = new Tarjan(g, Bench.NO_METRICS).findComponents();
+            DirectedGraph condensation = g.buildCondensation(sccs.getComponentOf(), sccs.getComponentCount(),
+                    WeightPolicy.FIRST);
+            new TopologicalSort(condensation, Bench.NO_METRICS).kahnSort();
+            if (op[0] == 1 && sccs.getComponentCount() < n) {
+                // Mirror the incremental structure: an insert that closes a cycle is rejected
+                from.removeLast();
+                to.removeLast();
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package bench;
+
+import graph.DirectedGraph;
+import graph.GraphView;
+import graph.offheap.OffHeapGraph;
+import graph.scc.Tarjan;
+import graph.topo.TopologicalSort;
+
+import java.util.*;
+
+/**
+ * Heap against off-heap storage of the same named graph: heap retained after a full GC,
+ * off-heap bytes, name lookup and traversal times.
+ * Usage: java -XX:MaxDirectMemorySize=4g bench.OffHeapGraphBenchmark [nodes...] (default 100000 1000000);
+ * the flag is only needed when the off-heap graphs outgrow -Xmx, the default direct-memory cap.
+ */
+public class OffHeapGraphBenchmark {
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0 ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[]{100_000, 1_000_000};
+        System.out.println(Bench.row("nodes", "store", "heap MB", "off-heap MB", "lookup ns", "tarjan ms", "kahn ms"));
+        for (int n : sizes) {
+            DirectedGraph shape = Bench.randomGraph(n, 4 * n, Bench.Shape.SMALL_SCCS, 42);
+            DirectedGraph dagShape = Bench.randomDag(n, 4 * n, 42);
+
+            long base = retainedHeap();
+            OffHeapGraph off = OffHeapGraph.copyOf(named(shape));
+            OffHeapGraph offDag = OffHeapGraph.copyOf(named(dagShape));
+            long offHeapBytes = retainedHeap() - base;
+
+            base = retainedHeap();
+            DirectedGraph heap = named(shape);
+            DirectedGraph heapDag = named(dagShape);
+            heap.getNodeIndex();
+            long heapBytes = retainedHeap() - base;
+
+            report(n, "heap", heapBytes, 0, heap, heapDag, name -> heap.getNodeIndex().get(name));
+            report(n, "off-heap", offHeapBytes, off.offHeapBytes() + offDag.offHeapBytes(), off, offDag, off::indexOf);
+        }
+    }
+
+    private interface Lookup {
+        int indexOf(String name);
+    }
+
+    /** Copy of a generated graph with stored, realistic node names. */
+    private static DirectedGraph named(DirectedGraph g) {
+        List<String> names = new ArrayList<>(g.nodeCount());
+        for (int u = 0; u < g.nodeCount(); u++) {
+            names.add("task-" + u);
+        }
+        return DirectedGraph.fromCsr(names, g.getOffsets().clone(), g.getTargets().clone(), g.getEdgeWeights().clone());
+    }
+
+    private static void report(int n, String store, long heapBytes, long offHeapBytes, GraphView graph,
+                               GraphView dag, Lookup lookup) {
+        Random random = new Random(1);
+        String[] probes = new String[10_000];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = "task-" + random.nextInt(n);
+        }
+        long[] lookups = Bench.time(3, 10, () -> {
+            for (String probe : probes) {
+                lookup.indexOf(probe);
+            }
+        });
+        double tarjan = Bench.medianMillis(Bench.time(2, 5, () -> new Tarjan(graph, Bench.NO_METRICS).findComponents()));
+        double kahn = Bench.medianMillis(Bench.time(2, 5, () -> new TopologicalSort(dag, Bench.NO_METRICS).kahnOrder()));
+        System.out.println(Bench.row(n, store, String.format("%.1f", heapBytes / 1048576.0),
+                String.format("%.1f", offHeapBytes / 1048576.0),
+                String.format("%.0f", Bench.medianMillis(lookups) * 1e6 / probes.length),
+                String.format("%.2f", tarjan), String.format("%.2f", kahn)));
+    }
+
+    private static long retainedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
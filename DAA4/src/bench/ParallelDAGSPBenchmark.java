@@ -0,0 +1,46 @@
+package bench;
+
+import data.WorkloadGenerator;
+import graph.DirectedGraph;
+import graph.dagsp.DAGShortestPaths;
+import graph.dagsp.ParallelDAGShortestPaths;
+import graph.topo.TopologicalSort;
+
+import java.util.*;
+
+/**
+ * Speedup of {@link ParallelDAGShortestPaths} over the sequential {@link DAGShortestPaths}
+ * on a wide layered DAG at 1, 2, 4, 8, 16 and 32 threads (capped at the available cores).
+ * Usage: java bench.ParallelDAGSPBenchmark [nodes] [layers] [degree]
+ */
+public class ParallelDAGSPBenchmark {
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int layers = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        double degree = args.length > 2 ? Double.parseDouble(args[2]) : 8;
+        DirectedGraph dag = new WorkloadGenerator(WorkloadGenerator.Shape.LAYERED, n, 3)
+                .layers(layers, 2).averageDegree(degree).generate();
+        List<Integer> topo = new TopologicalSort(dag, Bench.NO_METRICS).kahnSort();
+        int source = topo.get(0);
+        int[] dist = new int[n], parent = new int[n];
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("Level-parallel DAG shortest paths: " + n + " nodes, " + dag.edgeCount() + " edges, "
+                + layers + " layers, " + cores + " cores available");
+
+        DAGShortestPaths sequential = new DAGShortestPaths(dag, Bench.NO_METRICS);
+        double base = Bench.medianMillis(Bench.time(2, 5, () -> sequential.shortestPathResult(source, topo)));
+        System.out.println(Bench.row("engine", "threads", "ms", "speedup"));
+        System.out.println(Bench.row("sequential", 1, String.format("%.1f", base), "1.00"));
+        for (int threads : new int[]{1, 2, 4, 8, 16, 32}) {
+            if (threads > cores) {
+                System.out.println("Skipping " + threads + " threads: only " + cores + " cores");
+                continue;
+            }
+            ParallelDAGShortestPaths engine = new ParallelDAGShortestPaths(dag, Bench.NO_METRICS, threads);
+            engine.levels();  // Levels are computed once per graph, outside the timed runs
+            double ms = Bench.medianMillis(Bench.time(2, 5,
+                    () -> engine.relax(source, null, dist, parent, false)));
+            System.out.println(Bench.row("level-pull", threads, String.format("%.1f", ms), String.format("%.2f", base / ms)));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package bench;
+
+import data.WorkloadGenerator;
+import graph.DirectedGraph;
+import graph.topo.ParallelTopologicalSort;
+import graph.topo.TopologicalLevels;
+import graph.topo.TopologicalSort;
+
+/**
+ * Compares {@link TopologicalSort#kahnSort()} with {@link ParallelTopologicalSort} at
+ * increasing thread counts on a wide layered DAG.
+ * Usage: java bench.ParallelTopoBenchmark [nodes] [layers] [degree]
+ */
+public class ParallelTopoBenchmark {
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int layers = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        double degree = args.length > 2 ? Double.parseDouble(args[2]) : 8;
+        DirectedGraph dag = new WorkloadGenerator(WorkloadGenerator.Shape.LAYERED, n, 5)
+                .layers(layers, 2).averageDegree(degree).generate();
+        System.out.println("Parallel topological sort: " + n + " nodes, " + dag.edgeCount() + " edges, "
+                + layers + " layers");
+
+        double sequential = Bench.medianMillis(Bench.time(2, 5,
+                () -> new TopologicalSort(dag, Bench.NO_METRICS).kahnSort()));
+        System.out.println(Bench.row("engine", "threads", "ms", "speedup"));
+        System.out.println(Bench.row("kahnSort", 1, String.format("%.1f", sequential), "1.00"));
+        int max = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= max; threads *= 2) {
+            int t = threads;
+            double ms = Bench.medianMillis(Bench.time(2, 5,
+                    () -> new ParallelTopologicalSort(dag, Bench.NO_METRICS, t).sort()));
+            System.out.println(Bench.row("levels", t, String.format("%.1f", ms), String.format("%.2f", sequential / ms)));
+        }
+        TopologicalLevels levels = new ParallelTopologicalSort(dag, Bench.NO_METRICS).sort();
+        System.out.println("Levels: " + levels.levelCount() + ", widest: " + levels.maxWidth());
+    }
+}
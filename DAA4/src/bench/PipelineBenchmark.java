@@ -0,0 +1,196 @@
+package bench;
+
+import data.JsonGraphLoader;
+import graph.DirectedGraph;
+import graph.WeightPolicy;
+import graph.dagsp.DAGShortestPaths;
+import graph.scc.FusedCondensation;
+import graph.scc.SCCResult;
+import graph.scc.Tarjan;
+import graph.topo.TopologicalSort;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Measures every pipeline stage (JSON load, Tarjan, condensation, Kahn, the fused
+ * Tarjan + condensation + order pass that replaces those three, DAG shortest and longest
+ * paths) across graph sizes, densities and SCC structures. For each case it reports
+ * the median time, throughput in edges per second, bytes allocated per run and GC activity;
+ * ns/edge across sizes gives the scaling curve.
+ * <p>
+ * Results can be written as CSV and compared against an earlier CSV, failing (exit code 1)
+ * when a stage got slower than the tolerance allows:
+ * <pre>
+ * java -cp out bench.PipelineBenchmark --sizes 1000,100000 --csv base.csv
+ * java -cp out bench.PipelineBenchmark --sizes 1000,100000 --baseline base.csv --tolerance 0.25
+ * </pre>
+ * Options: --sizes (default 1000,10000,100000,1000000), --degrees (average out-degree,
+ * default 2,8), --shapes (DAG,SMALL_SCCS,GIANT_SCC), --runs (default 5), --json-limit
+ * (largest size for the JSON stage, default 1000000).
+ */
+public class PipelineBenchmark {
+    private static final String[] STAGES = {"json_load", "tarjan", "condensation", "kahn", "fused", "dag_shortest", "dag_longest"};
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        int[] sizes = parseInts(options.getOrDefault("sizes", "1000,10000,100000,1000000"));
+        int[] degrees = parseInts(options.getOrDefault("degrees", "2,8"));
+        String[] shapes = options.getOrDefault("shapes", "DAG,SMALL_SCCS,GIANT_SCC").split(",");
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        int jsonLimit = Integer.parseInt(options.getOrDefault("json-limit", "1000000"));
+
+        System.out.println(Bench.row("shape", "nodes", "edges", "stage", "ms", "Medges/s", "ns/edge", "KB/run", "gc"));
+        List<String> csv = new ArrayList<>();
+        csv.add("shape,nodes,edges,stage,ms,bytes_per_run,gc_count,gc_ms");
+        for (String shapeName : shapes) {
+            Bench.Shape shape = Bench.Shape.valueOf(shapeName.trim());
+            for (int degree : degrees) {
+                for (int n : sizes) {
+                    long m = (long) n * degree;
+                    if (m > Integer.MAX_VALUE / 4) {
+                        System.out.println("Skipping " + n + " x " + degree + ": too many edges for int CSR arrays");
+                        continue;
+                    }
+                    for (String[] row : runCase(shape, n, (int) m, runs, n <= jsonLimit)) {
+                        csv.add(String.join(",", row));
+                    }
+                }
+            }
+        }
+
+        if (options.containsKey("csv")) {
+            Files.write(Path.of(options.get("csv")), csv, StandardCharsets.UTF_8);
+            System.out.println("Wrote " + (csv.size() - 1) + " rows to " + options.get("csv"));
+        }
+        if (options.containsKey("baseline")) {
+            double tolerance = Double.parseDouble(options.getOrDefault("tolerance", "0.25"));
+            int regressions = compare(Files.readAllLines(Path.of(options.get("baseline"))), csv, tolerance);
+            if (regressions > 0) {
+                System.out.println(regressions + " stage(s) regressed by more than " + (int) (tolerance * 100) + "%");
+                System.exit(1);
+            }
+            System.out.println("No regressions beyond " + (int) (tolerance * 100) + "%");
+        }
+    }
+
+    private static List<String[]> runCase(Bench.Shape shape, int n, int m, int runs, boolean withJson) throws IOException {
+        DirectedGraph graph = Bench.randomGraph(n, m, shape, 42);
+        SCCResult scc = new Tarjan(graph, Bench.NO_METRICS).findComponents();
+        DirectedGraph condensation = graph.buildCondensation(scc.getComponentOf(), scc.getComponentCount(),
+                WeightPolicy.MIN);
+        List<Integer> order = new TopologicalSort(condensation, Bench.NO_METRICS).kahnSort();
+        int source = order.get(0);
+        int warmup = n >= 1_000_000 ? 1 : n >= 100_000 ? 3 : 20;  // Small cases need more runs to reach C2
+
+        Map<String, Bench.Measurement> results = new LinkedHashMap<>();
+        if (withJson) {
+            Path json = Files.createTempFile("pipeline-bench", ".json");
+            try {
+                writeJson(graph, json);
+                results.put("json_load", Bench.measure(warmup, runs, () -> {
+                    try {
+                        JsonGraphLoader.load(json.toString());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            } finally {
+                Files.deleteIfExists(json);
+            }
+        }
+        results.put("tarjan", Bench.measure(warmup, runs,
+                () -> new Tarjan(graph, Bench.NO_METRICS).findComponents()));
+        results.put("condensation", Bench.measure(warmup, runs,
+                () -> graph.buildCondensation(scc.getComponentOf(), scc.getComponentCount(), WeightPolicy.MIN)));
+        results.put("kahn", Bench.measure(warmup, runs,
+                () -> new TopologicalSort(condensation, Bench.NO_METRICS).kahnSort()));
+        results.put("fused", Bench.measure(warmup, runs,
+                () -> new FusedCondensation(graph, Bench.NO_METRICS, WeightPolicy.MIN).run()));
+        DAGShortestPaths paths = new DAGShortestPaths(condensation, Bench.NO_METRICS);
+        results.put("dag_shortest", Bench.measure(warmup, runs, () -> paths.shortestPathResult(source, order)));
+        results.put("dag_longest", Bench.measure(warmup, runs, () -> paths.longestPathResult(source, order)));
+
+        List<String[]> rows = new ArrayList<>();
+        for (String stage : STAGES) {
+            Bench.Measurement r = results.get(stage);
+            if (r == null) {
+                continue;
+            }
+            // Stages after the condensation only see its edges
+            long edges = stage.equals("kahn") || stage.startsWith("dag_") ? condensation.edgeCount() : m;
+            double seconds = r.medianMillis / 1000.0;
+            System.out.println(Bench.row(shape, n, edges, stage, String.format("%.3f", r.medianMillis),
+                    String.format("%.1f", seconds > 0 ? edges / seconds / 1e6 : 0),
+                    String.format("%.1f", edges > 0 ? r.medianMillis * 1e6 / edges : 0),
+                    r.bytesPerRun < 0 ? "n/a" : String.valueOf(r.bytesPerRun / 1024),
+                    r.gcCount + " (" + r.gcMillis + " ms)"));
+            rows.add(new String[]{shape.name(), String.valueOf(n), String.valueOf(edges), stage,
+                    String.format(Locale.ROOT, "%.4f", r.medianMillis), String.valueOf(r.bytesPerRun),
+                    String.valueOf(r.gcCount), String.valueOf(r.gcMillis)});
+        }
+        return rows;
+    }
+
+    /** Writes the graph in the {@code {"n": .., "edges": [{"from", "to", "weight"}]}} format. */
+    private static void writeJson(DirectedGraph graph, Path path) throws IOException {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getEdgeWeights();
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            out.write("{\n  \"n\": " + graph.nodeCount() + ",\n  \"edges\": [\n");
+            boolean first = true;
+            for (int u = 0; u < graph.nodeCount(); u++) {
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    out.write(first ? "    " : ",\n    ");
+                    out.write("{\"from\": " + u + ", \"to\": " + targets[e] + ", \"weight\": " + weights[e] + "}");
+                    first = false;
+                }
+            }
+            out.write("\n  ]\n}\n");
+        }
+    }
+
+    /**
+     * Compares the median times with a baseline CSV.
+     * @return number of (shape, nodes, stage) rows slower than baseline * (1 + tolerance)
+     */
+    private static int compare(List<String> baseline, List<String> current, double tolerance) {
+        Map<String, Double> before = new HashMap<>();
+        for (String line : baseline.subList(1, baseline.size())) {
+            String[] cells = line.split(",");
+            before.put(cells[0] + "," + cells[1] + "," + cells[2] + "," + cells[3], Double.parseDouble(cells[4]));
+        }
+        int regressions = 0;
+        for (String line : current.subList(1, current.size())) {
+            String[] cells = line.split(",");
+            Double old = before.get(cells[0] + "," + cells[1] + "," + cells[2] + "," + cells[3]);
+            double now = Double.parseDouble(cells[4]);
+            // Sub-0.1 ms stages are dominated by timer noise
+            if (old != null && now > 0.1 && now > old * (1 + tolerance)) {
+                System.out.println(String.format("REGRESSION %s %s nodes %s: %.3f ms -> %.3f ms",
+                        cells[0], cells[1], cells[3], old, now));
+                regressions++;
+            }
+        }
+        return regressions;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value pairs, got " + Arrays.toString(args));
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    private static int[] parseInts(String list) {
+        return Arrays.stream(list.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    }
+}
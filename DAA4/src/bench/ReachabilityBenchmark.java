@@ -0,0 +1,89 @@
+package bench;
+
+import data.WorkloadGenerator;
+import graph.DirectedGraph;
+import graph.dagsp.DAGShortestPaths;
+import graph.metrics.StripedMetrics;
+import graph.reach.ReachabilityIndex;
+import graph.topo.TopologicalSort;
+
+import java.util.*;
+
+/**
+ * {@link ReachabilityIndex} on a layered DAG: build time and size per label count, then
+ * query cost against a full shortest-path pass per query, for random pairs (mostly
+ * unreachable) and for pairs on a random walk (always reachable), single and batched.
+ * Usage: java bench.ReachabilityBenchmark [nodes] [degree] [queries]
+ */
+public class ReachabilityBenchmark {
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        double degree = args.length > 1 ? Double.parseDouble(args[1]) : 4;
+        int queries = args.length > 2 ? Integer.parseInt(args[2]) : 200_000;
+        DirectedGraph dag = new WorkloadGenerator(WorkloadGenerator.Shape.LAYERED, n, 9)
+                .layers(100, 3).averageDegree(degree).generate();
+        int[] order = new TopologicalSort(dag, Bench.NO_METRICS).kahnOrder();
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("Reachability index: " + n + " components, " + dag.edgeCount() + " edges, "
+                + queries + " queries, " + cores + " cores");
+
+        System.out.println(Bench.row("labels", "threads", "build ms", "index MB"));
+        for (int labels = 1; labels <= 5; labels += 2) {
+            for (int threads : new int[]{1, cores}) {
+                int k = labels, t = threads;
+                double ms = Bench.medianMillis(Bench.time(1, 3,
+                        () -> ReachabilityIndex.build(dag, order, null, k, t, Bench.NO_METRICS)));
+                System.out.println(Bench.row(labels, threads, String.format("%.1f", ms), String.format("%.1f",
+                        ReachabilityIndex.build(dag, order, null, k, 1, Bench.NO_METRICS).sizeBytes() / 1048576.0)));
+                if (cores == 1) {
+                    break;
+                }
+            }
+        }
+
+        Random random = new Random(5);
+        int[] from = new int[queries], to = new int[queries];
+        int[] walkFrom = new int[queries], walkTo = new int[queries];
+        for (int q = 0; q < queries; q++) {
+            from[q] = random.nextInt(n);
+            to[q] = random.nextInt(n);
+            int u = random.nextInt(n);
+            walkFrom[q] = u;
+            for (int step = random.nextInt(20); step > 0 && dag.edgeEnd(u) > dag.edgeStart(u); step--) {
+                u = dag.target(dag.edgeStart(u) + random.nextInt(dag.edgeEnd(u) - dag.edgeStart(u)));
+            }
+            walkTo[q] = u;
+        }
+
+        DAGShortestPaths paths = new DAGShortestPaths(dag, Bench.NO_METRICS);
+        int baseline = 20;
+        double pathMs = Bench.medianMillis(Bench.time(1, 3, () -> {
+            for (int q = 0; q < baseline; q++) {
+                paths.shortestPathResult(from[q], order).isReachable(to[q]);
+            }
+        })) / baseline;
+        System.out.println(Bench.row("query", "pairs", "us/query", "vs SP pass", "searched %"));
+        System.out.println(Bench.row("SP pass", "random", String.format("%.1f", pathMs * 1000), "1", "-"));
+        for (String kind : new String[]{"random", "walk"}) {
+            int[] f = kind.equals("random") ? from : walkFrom;
+            int[] t = kind.equals("random") ? to : walkTo;
+            StripedMetrics metrics = new StripedMetrics();
+            ReachabilityIndex index = ReachabilityIndex.build(dag, order, null, ReachabilityIndex.DEFAULT_LABELS,
+                    cores, metrics);
+            double single = Bench.medianMillis(Bench.time(1, 3, () -> {
+                for (int q = 0; q < queries; q++) {
+                    index.reaches(f[q], t[q]);
+                }
+            })) / queries;
+            double searched = 100.0 * metrics.getCounter("reach_dfs_fallbacks") / metrics.getCounter("reach_queries");
+            System.out.println(Bench.row("index", kind, String.format("%.3f", single * 1000),
+                    String.format("%.0fx", pathMs / single), String.format("%.1f", searched)));
+            for (int threads = 1; threads <= cores; threads *= 2) {
+                int p = threads;
+                double batch = Bench.medianMillis(Bench.time(1, 3, () -> index.reaches(f, t, p))) / queries;
+                System.out.println(Bench.row("batch x" + threads, kind, String.format("%.3f", batch * 1000),
+                        String.format("%.0fx", pathMs / batch), "-"));
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package bench;
+
+import data.WorkloadGenerator;
+import graph.DirectedGraph;
+import graph.dagsp.DAGShortestPaths;
+import graph.layout.Relabeling;
+import graph.scc.Tarjan;
+import graph.topo.TopologicalSort;
+
+import java.util.*;
+
+/**
+ * Tarjan and DAG shortest paths on the same graphs under different node numberings:
+ * randomly shuffled ids (input order with no locality), then {@link Relabeling} by
+ * topological, BFS and reverse Cuthill-McKee order.
+ * <p>
+ * The JVM cannot read hardware cache counters, so the table gives a layout proxy next to
+ * the times: the mean id distance along an edge and the share of edges whose endpoints
+ * are more than one cache line (16 ints) apart, i.e. per-node array reads likely to miss.
+ * For real miss counts run a single order under {@code perf stat -e cache-misses}.
+ * Usage: java bench.RelabelingBenchmark [nodes] [degree] [order...] (default 1000000 4, all orders)
+ */
+public class RelabelingBenchmark {
+    private static final int INTS_PER_LINE = 16;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        double degree = args.length > 1 ? Double.parseDouble(args[1]) : 4;
+        List<String> orders = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            orders.add(args[i].toUpperCase(Locale.ROOT));
+        }
+
+        // Shuffled ids, as a loader assigning ids in arrival order would produce
+        Relabeling shuffle = Relabeling.of(shuffledIds(n, 11));
+        DirectedGraph cyclic = shuffle.apply(new WorkloadGenerator(WorkloadGenerator.Shape.PLANTED_SCCS, n, 3)
+                .averageDegree(degree).generate());
+        DirectedGraph dag = shuffle.apply(new WorkloadGenerator(WorkloadGenerator.Shape.LAYERED, n, 5)
+                .layers(200, 2).averageDegree(degree).generate());
+        System.out.println("Relabeling: " + n + " nodes, " + cyclic.edgeCount() + " edges (planted SCCs), "
+                + dag.edgeCount() + " edges (layered DAG)");
+        // The same source node under every numbering
+        int source = new TopologicalSort(dag, Bench.NO_METRICS).kahnOrder()[0];
+        System.out.println(Bench.row("order", "relabel ms", "tarjan ms", "dag sp ms", "mean gap", "far edges %"));
+
+        if (orders.isEmpty() || orders.contains("SHUFFLED")) {
+            report("SHUFFLED", 0, cyclic, dag, source);
+        }
+        for (Relabeling.Order order : Relabeling.Order.values()) {
+            if (!orders.isEmpty() && !orders.contains(order.name())) {
+                continue;
+            }
+            long start = System.nanoTime();
+            Relabeling forCyclic = Relabeling.of(cyclic, order);
+            Relabeling forDag = Relabeling.of(dag, order);
+            double relabelMs = (System.nanoTime() - start) / 2e6;
+            report(order.name(), relabelMs, forCyclic.apply(cyclic), forDag.apply(dag), forDag.toNew(source));
+        }
+    }
+
+    private static void report(String name, double relabelMs, DirectedGraph cyclic, DirectedGraph dag, int source) {
+        int[] topo = new TopologicalSort(dag, Bench.NO_METRICS).kahnOrder();
+        double tarjan = Bench.medianMillis(Bench.time(2, 5,
+                () -> new Tarjan(cyclic, Bench.NO_METRICS).findComponents()));
+        double paths = Bench.medianMillis(Bench.time(2, 5,
+                () -> new DAGShortestPaths(dag, Bench.NO_METRICS).shortestPathResult(source, topo)));
+        long gap = 0, far = 0, edges = 0;
+        for (DirectedGraph g : new DirectedGraph[]{cyclic, dag}) {
+            for (int u = 0; u < g.nodeCount(); u++) {
+                for (int e = g.edgeStart(u); e < g.edgeEnd(u); e++) {
+                    int distance = Math.abs(g.target(e) - u);
+                    gap += distance;
+                    far += distance > INTS_PER_LINE ? 1 : 0;
+                }
+            }
+            edges += g.edgeCount();
+        }
+        System.out.println(Bench.row(name, String.format("%.1f", relabelMs), String.format("%.1f", tarjan),
+                String.format("%.1f", paths), gap / Math.max(1, edges),
+                String.format("%.1f", 100.0 * far / Math.max(1, edges))));
+    }
+
+    private static int[] shuffledIds(int n, long seed) {
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i;
+        }
+        Random random = new Random(seed);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = ids[i];
+            ids[i] = ids[j];
+            ids[j] = t;
+        }
+        return ids;
+    }
+}
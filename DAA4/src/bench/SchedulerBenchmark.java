@@ -0,0 +1,35 @@
+package bench;
+
+import data.WorkloadGenerator;
+import graph.DirectedGraph;
+import graph.sched.ListScheduler;
+import graph.sched.Schedule;
+import graph.topo.TopologicalSort;
+
+/**
+ * {@link ListScheduler} throughput on layered DAGs: scheduled tasks per second by task
+ * count and worker count, with the makespan and utilization of the plan. The makespan
+ * falls towards the critical path as workers are added.
+ * Usage: java bench.SchedulerBenchmark [maxTasks] [degree] (default 4000000 4)
+ */
+public class SchedulerBenchmark {
+    public static void main(String[] args) {
+        int maxTasks = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+        double degree = args.length > 1 ? Double.parseDouble(args[1]) : 4;
+        System.out.println("List scheduling, average degree " + degree);
+        System.out.println(Bench.row("tasks", "workers", "ms", "Mtasks/s", "makespan", "utilization"));
+        for (int n = 100_000; n <= maxTasks; n *= n < 1_000_000 ? 10 : 4) {
+            DirectedGraph dag = new WorkloadGenerator(WorkloadGenerator.Shape.LAYERED, n, 7)
+                    .layers(200, 2).averageDegree(degree).generate();
+            int[] order = new TopologicalSort(dag, Bench.NO_METRICS).kahnOrder();
+            ListScheduler scheduler = new ListScheduler(dag, ListScheduler.durationsFromLags(dag), Bench.NO_METRICS);
+            for (int workers : new int[]{1, 8, 64, 1024}) {
+                double ms = Bench.medianMillis(Bench.time(1, 3, () -> scheduler.schedule(order, workers)));
+                Schedule s = scheduler.schedule(order, workers);
+                System.out.println(Bench.row(n, workers, String.format("%.1f", ms),
+                        String.format("%.2f", n / ms / 1000), s.getMakespan(),
+                        String.format("%.2f", s.utilization())));
+            }
+        }
+    }
+}
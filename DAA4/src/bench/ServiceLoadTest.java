@@ -0,0 +1,168 @@
+package bench;
+
+import data.WorkloadGenerator;
+import graph.DirectedGraph;
+import graph.metrics.LatencyHistogram;
+import graph.metrics.StripedMetrics;
+import service.GraphStore;
+import service.QueryHandler;
+import service.SchedulingServer;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test for {@link SchedulingServer}: concurrent clients, each on its own connection,
+ * send a mix of queries (70% SHORTEST, 10% each CRITICAL, SLACK and ORDER) and record the
+ * round-trip latency of every request. Reports p50/p90/p99 per command and throughput.
+ * <p>
+ * By default an in-process server is started on a free port with a generated graph; with
+ * --port the test targets a running server, querying a graph already loaded under --graph.
+ * <pre>
+ * java -cp out bench.ServiceLoadTest --clients 16 --requests 2000 --nodes 50000
+ * java -cp out bench.ServiceLoadTest --port 7070 --graph large --clients 8
+ * </pre>
+ */
+public class ServiceLoadTest {
+    private static final String[] COMMANDS = {"shortest", "critical", "slack", "order"};
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        int clients = Integer.parseInt(options.getOrDefault("clients", "16"));
+        int requests = Integer.parseInt(options.getOrDefault("requests", "2000"));
+        int nodes = Integer.parseInt(options.getOrDefault("nodes", "50000"));
+        String graphName = options.getOrDefault("graph", "load");
+
+        SchedulingServer server = null;
+        int port;
+        List<String> tasks;
+        if (options.containsKey("port")) {
+            port = Integer.parseInt(options.get("port"));
+            tasks = fetchTasks(port, graphName);
+        } else {
+            DirectedGraph graph = new WorkloadGenerator(WorkloadGenerator.Shape.PLANTED_SCCS, nodes, 42)
+                    .averageDegree(3).generate();
+            StripedMetrics metrics = new StripedMetrics();
+            GraphStore store = new GraphStore(metrics);
+            store.put(graphName, graph).getCriticalPath();  // Analyze before the clock starts
+            server = new SchedulingServer(new QueryHandler(store, metrics));
+            port = server.start(0);
+            tasks = graph.getNodes();
+            System.out.println("In-process server on port " + port + (server.usesVirtualThreads()
+                    ? " (virtual threads)" : " (platform threads)") + ", graph " + graph.nodeCount() + " nodes, "
+                    + graph.edgeCount() + " edges");
+        }
+
+        Map<String, LatencyHistogram> latency = new LinkedHashMap<>();
+        for (String command : COMMANDS) {
+            latency.put(command, new LatencyHistogram());
+        }
+        LatencyHistogram all = new LatencyHistogram();
+        AtomicLong errors = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            long seed = c;
+            int clientPort = port;
+            threads.add(new Thread(() -> runClient(clientPort, graphName, tasks, requests, seed, latency, all, errors),
+                    "load-client-" + c));
+        }
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println(clients + " clients x " + requests + " requests in " + String.format("%.2f", seconds)
+                + " s: " + String.format("%.0f", all.count() / seconds) + " requests/s, " + errors.get() + " errors");
+        System.out.println(Bench.row("command", "count", "p50 us", "p90 us", "p99 us", "max us"));
+        for (Map.Entry<String, LatencyHistogram> entry : latency.entrySet()) {
+            printRow(entry.getKey(), entry.getValue());
+        }
+        printRow("all", all);
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    private static void runClient(int port, String graph, List<String> tasks, int requests, long seed,
+                                  Map<String, LatencyHistogram> latency, LatencyHistogram all, AtomicLong errors) {
+        Random random = new Random(seed);
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            for (int i = 0; i < requests; i++) {
+                int pick = random.nextInt(10);
+                String command = pick < 7 ? "shortest" : COMMANDS[pick - 6];
+                String request;
+                switch (command) {
+                    case "shortest":
+                        request = "SHORTEST " + graph + " " + randomTask(tasks, random) + " " + randomTask(tasks, random);
+                        break;
+                    case "slack":
+                        request = "SLACK " + graph + " " + randomTask(tasks, random);
+                        break;
+                    case "order":
+                        request = "ORDER " + graph + " 20";
+                        break;
+                    default:
+                        request = "CRITICAL " + graph;
+                }
+                long sent = System.nanoTime();
+                out.write(request);
+                out.write('\n');
+                out.flush();
+                String response = in.readLine();
+                long nanos = System.nanoTime() - sent;
+                if (response == null || !response.startsWith("OK")) {
+                    errors.incrementAndGet();
+                }
+                latency.get(command).record(nanos);
+                all.record(nanos);
+            }
+            out.write("QUIT\n");
+            out.flush();
+        } catch (IOException e) {
+            errors.incrementAndGet();
+            System.err.println("Client failed: " + e.getMessage());
+        }
+    }
+
+    private static String randomTask(List<String> tasks, Random random) {
+        return tasks.get(random.nextInt(tasks.size()));
+    }
+
+    /** Task names of a graph on a running server, from an unlimited ORDER query. */
+    private static List<String> fetchTasks(int port, String graph) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            out.write("ORDER " + graph + "\nQUIT\n");
+            out.flush();
+            String response = in.readLine();
+            if (response == null || !response.startsWith("OK [")) {
+                throw new IOException("Cannot list tasks of " + graph + ": " + response);
+            }
+            return Arrays.asList(response.substring(4, response.length() - 1).split(", "));
+        }
+    }
+
+    private static void printRow(String name, LatencyHistogram histogram) {
+        System.out.println(Bench.row(name, histogram.count(), micros(histogram.percentile(50)),
+                micros(histogram.percentile(90)), micros(histogram.percentile(99)), micros(histogram.max())));
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1f", nanos / 1000.0);
+    }
+}
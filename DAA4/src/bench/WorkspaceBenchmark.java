@@ -0,0 +1,50 @@
+package bench;
+
+import graph.DirectedGraph;
+import graph.WeightPolicy;
+import graph.dagsp.DAGShortestPaths;
+import graph.scc.SCCResult;
+import graph.scc.Tarjan;
+import graph.topo.TopologicalSort;
+import graph.util.Workspace;
+
+/**
+ * Repeated Tarjan, Kahn and DAG shortest path runs with fresh buffers against runs on a
+ * per-thread {@link Workspace}: median time, bytes allocated per run and GC activity.
+ * Usage: java bench.WorkspaceBenchmark [nodes] [degree] [runs]
+ */
+public class WorkspaceBenchmark {
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int degree = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        DirectedGraph graph = Bench.randomGraph(n, n * degree, Bench.Shape.SMALL_SCCS, 42);
+        SCCResult scc = new Tarjan(graph, Bench.NO_METRICS).findComponents();
+        DirectedGraph dag = graph.buildCondensation(scc.getComponentOf(), scc.getComponentCount(), WeightPolicy.MIN);
+        int[] order = new TopologicalSort(dag, Bench.NO_METRICS).kahnOrder();
+        int source = order[0];
+        System.out.println("Workspace reuse: " + n + " nodes, " + graph.edgeCount() + " edges, condensation "
+                + dag.nodeCount() + " nodes, " + runs + " runs");
+        System.out.println(Bench.row("stage", "buffers", "ms", "KB/run", "gc", "gc ms"));
+
+        Workspace workspace = Workspace.perThread();
+        report("tarjan", "fresh", Bench.measure(20, runs,
+                () -> new Tarjan(graph, Bench.NO_METRICS).findComponents()));
+        report("tarjan", "workspace", Bench.measure(20, runs,
+                () -> new Tarjan(graph, Bench.NO_METRICS, workspace).findComponents()));
+        report("kahn", "fresh", Bench.measure(20, runs,
+                () -> new TopologicalSort(dag, Bench.NO_METRICS).kahnOrder()));
+        report("kahn", "workspace", Bench.measure(20, runs,
+                () -> new TopologicalSort(dag, Bench.NO_METRICS, workspace).kahnOrder()));
+        DAGShortestPaths fresh = new DAGShortestPaths(dag, Bench.NO_METRICS);
+        DAGShortestPaths pooled = new DAGShortestPaths(dag, Bench.NO_METRICS, workspace);
+        report("dag_shortest", "fresh", Bench.measure(20, runs, () -> fresh.shortestPathResult(source, order)));
+        report("dag_shortest", "workspace", Bench.measure(20, runs, () -> pooled.shortestPathResult(source, order)));
+        System.out.println("Workspace buffers allocated: " + workspace.allocations());
+    }
+
+    private static void report(String stage, String buffers, Bench.Measurement m) {
+        System.out.println(Bench.row(stage, buffers, String.format("%.3f", m.medianMillis),
+                m.bytesPerRun < 0 ? "n/a" : String.format("%.1f", m.bytesPerRun / 1024.0), m.gcCount, m.gcMillis));
+    }
+}
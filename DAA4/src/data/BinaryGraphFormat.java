@@ -0,0 +1,218 @@
+package data;
+
+import graph.DirectedGraph;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned binary graph file: a 64-byte header followed by the CSR arrays and an
+ * optional node-name table, all little-endian.
+ * <pre>
+ *  0  int   magic "DAAG"          24 long  name table length (bytes, 0 if absent)
+ *  4  int   version               32 int   CRC32 of offsets     36 int CRC32 of targets
+ *  8  int   flags (1 = names)     40 int   CRC32 of weights     44 int CRC32 of name table
+ * 12  int   node count n          48 int   CRC32 of header bytes 0..47
+ * 16  long  edge count m          52..63   reserved (zero)
+ * then: offsets (n + 1 ints), targets (m ints), weights (m ints),
+ *       name table: name offsets (n + 1 ints) followed by UTF-8 name bytes
+ * </pre>
+ * Files are read with {@link FileChannel#map}, so edge arrays are accessed without copying.
+ */
+public final class BinaryGraphFormat {
+    public static final int MAGIC = 0x44414147;  // "DAAG"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 64;
+    static final int FLAG_NAMES = 1;
+
+    private static final int CHUNK = 1 << 20;  // Write buffer size in bytes
+
+    private BinaryGraphFormat() {
+    }
+
+    /**
+     * Writes a graph. Node names are stored unless they are the generated index names.
+     * @param graph graph to write
+     * @param path output file (replaced if it exists)
+     */
+    public static void write(DirectedGraph graph, Path path) throws IOException {
+        write(graph, path, !graph.hasIndexNames());
+    }
+
+    /**
+     * Writes a graph.
+     * @param graph graph to write
+     * @param path output file (replaced if it exists)
+     * @param includeNames whether to store the node-name table
+     */
+    public static void write(DirectedGraph graph, Path path, boolean includeNames) throws IOException {
+        int n = graph.nodeCount();
+        int m = graph.edgeCount();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(HEADER_SIZE);
+            ByteBuffer buf = ByteBuffer.allocateDirect(CHUNK).order(ByteOrder.LITTLE_ENDIAN);
+            int offsetsCrc = writeInts(channel, buf, graph.getOffsets(), n + 1);
+            int targetsCrc = writeInts(channel, buf, graph.getTargets(), m);
+            int weightsCrc = writeInts(channel, buf, graph.getEdgeWeights(), m);
+            long namesLength = 0;
+            int namesCrc = 0;
+            if (includeNames) {
+                long start = channel.position();
+                namesCrc = writeNames(channel, buf, graph.getNodes());
+                namesLength = channel.position() - start;
+            }
+            ByteBuffer header = header(includeNames ? FLAG_NAMES : 0, n, m, namesLength,
+                    offsetsCrc, targetsCrc, weightsCrc, namesCrc);
+            channel.write(header, 0);
+        }
+    }
+
+    /**
+     * Maps a graph file and verifies its checksums.
+     * @param path file written by {@link #write}
+     * @return zero-copy view of the file
+     */
+    public static MappedGraph map(Path path) throws IOException {
+        return map(path, true);
+    }
+
+    /**
+     * Maps a graph file.
+     * @param path file written by {@link #write}
+     * @param verify whether to check section checksums (the header is always checked)
+     * @return zero-copy view of the file
+     */
+    public static MappedGraph map(Path path, boolean verify) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new GraphFormatException(path + ": truncated header (" + size + " bytes)");
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new GraphFormatException(path + ": files over 2 GB are not supported by version " + VERSION);
+            }
+            MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            file.order(ByteOrder.LITTLE_ENDIAN);
+            return MappedGraph.open(path, file, verify);
+        }
+    }
+
+    /**
+     * Reads a graph file into an in-heap {@link DirectedGraph} (bulk copy from the mapping).
+     * @param path file written by {@link #write}
+     * @return graph
+     */
+    public static DirectedGraph read(Path path) throws IOException {
+        return map(path).toGraph();
+    }
+
+    static ByteBuffer header(int flags, int n, long m, long namesLength,
+                             int offsetsCrc, int targetsCrc, int weightsCrc, int namesCrc) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(flags).putInt(n)
+                .putLong(m).putLong(namesLength)
+                .putInt(offsetsCrc).putInt(targetsCrc).putInt(weightsCrc).putInt(namesCrc);
+        CRC32 crc = new CRC32();
+        crc.update(header.array(), 0, 48);
+        header.putInt((int) crc.getValue());
+        header.clear();
+        return header;
+    }
+
+    static int writeInts(FileChannel channel, ByteBuffer buf, int[] values, int count) throws IOException {
+        CRC32 crc = new CRC32();
+        int i = 0;
+        while (i < count) {
+            buf.clear();
+            int len = Math.min(count - i, buf.capacity() / Integer.BYTES);
+            buf.asIntBuffer().put(values, i, len);
+            buf.limit(len * Integer.BYTES);
+            crc.update(buf);
+            buf.flip();
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+            i += len;
+        }
+        return (int) crc.getValue();
+    }
+
+    private static int writeNames(FileChannel channel, ByteBuffer buf, List<String> names) throws IOException {
+        int n = names.size();
+        byte[][] encoded = new byte[n][];
+        int[] nameOffsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            encoded[i] = names.get(i).getBytes(StandardCharsets.UTF_8);
+            long next = (long) nameOffsets[i] + encoded[i].length;
+            if (next > Integer.MAX_VALUE) {
+                throw new IOException("Name table exceeds 2 GB");
+            }
+            nameOffsets[i + 1] = (int) next;
+        }
+        CRC32 crc = new CRC32();
+        int i = 0;
+        while (i <= n) {
+            buf.clear();
+            int len = Math.min(n + 1 - i, buf.capacity() / Integer.BYTES);
+            buf.asIntBuffer().put(nameOffsets, i, len);
+            buf.limit(len * Integer.BYTES);
+            i += len;
+            flush(channel, buf, crc);
+        }
+        buf.clear();
+        for (byte[] name : encoded) {
+            int written = 0;
+            while (written < name.length) {
+                if (!buf.hasRemaining()) {
+                    buf.flip();
+                    flush(channel, buf, crc);
+                    buf.clear();
+                }
+                int len = Math.min(name.length - written, buf.remaining());
+                buf.put(name, written, len);
+                written += len;
+            }
+        }
+        buf.flip();
+        flush(channel, buf, crc);
+        return (int) crc.getValue();
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buf, CRC32 crc) throws IOException {
+        int start = buf.position();
+        crc.update(buf);
+        buf.position(start);
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+    }
+
+    /**
+     * Converts JSON datasets to binary files next to them ({@code x.json -> x.bin}).
+     * Usage: java data.BinaryGraphFormat data/small_1.json [more.json ...]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: java data.BinaryGraphFormat <dataset.json> [...]");
+            return;
+        }
+        for (String jsonPath : args) {
+            DirectedGraph graph = JsonGraphLoader.load(jsonPath);
+            String base = jsonPath.endsWith(".json") ? jsonPath.substring(0, jsonPath.length() - 5) : jsonPath;
+            Path out = new File(base + ".bin").toPath();
+            write(graph, out);
+            System.out.println(jsonPath + " -> " + out + " (" + graph.nodeCount() + " nodes, "
+                    + graph.edgeCount() + " edges)");
+        }
+    }
+}
@@ -37,9 +37,17 @@ public class DataGenerator {
     }
 
     public static void generateDataset(String name, int n, int edgeCount, boolean cyclic) {
+        generateDataset(name, n, edgeCount, cyclic, new Random().nextLong());
+    }
+
+    /**
+     * Same as {@link #generateDataset(String, int, int, boolean)}, but reproducible.
+     * For large or structured graphs use {@link WorkloadGenerator}.
+     */
+    public static void generateDataset(String name, int n, int edgeCount, boolean cyclic, long seed) {
         GraphData g = new GraphData();
         g.n = n;
-        Random rand = new Random();
+        Random rand = new Random(seed);
 
         for (int i = 0; i < edgeCount; i++) {
             int u = rand.nextInt(n);
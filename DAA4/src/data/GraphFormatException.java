@@ -0,0 +1,14 @@
+package data;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a binary graph file is truncated, corrupted or of an unsupported version.
+ */
+public class GraphFormatException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public GraphFormatException(String message) {
+        super(message);
+    }
+}
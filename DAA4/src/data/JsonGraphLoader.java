@@ -0,0 +1,236 @@
+package data;
+
+import graph.DirectedGraph;
+import graph.util.IntList;
+import graph.util.LongIntHashMap;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Streaming loader for graph JSON files. Edges go straight into primitive
+ * arrays as they are read; the document is never held as one string.
+ * Accepts both dataset formats used in this project:
+ * <ul>
+ *   <li>{@code {"n": 8, "edges": [{"from": 0, "to": 1, "weight": 4}, ...]}} as written by {@link DataGenerator}
+ *       (nodes are named "0" .. "n-1")</li>
+ *   <li>{@code {"nodes": ["A", ...], "edges": [["A", "B"], ...], "weights": {"A-B": 4, ...}}}</li>
+ * </ul>
+ * Edge endpoints given as numbers are node indices; strings are node names.
+ * Edges without a weight get {@link DirectedGraph#DEFAULT_WEIGHT}. Unknown keys are skipped.
+ */
+public class JsonGraphLoader {
+    private int declaredNodes = -1;  // "n", if present
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> nameIndex = new HashMap<>();
+    private final IntList from = new IntList(1024);
+    private final IntList to = new IntList(1024);
+    private final IntList weight = new IntList(1024);
+    private final BitSet weighted = new BitSet();  // Edges that carry their own weight
+    private final LongIntHashMap keyedWeights = new LongIntHashMap();  // From the "weights" object
+    private final Map<String, Integer> unresolvedWeights = new HashMap<>();  // Keys seen before their nodes
+    private int maxIndex = -1;
+
+    private JsonGraphLoader() {
+    }
+
+    /**
+     * Loads a graph from a JSON file.
+     * @param filePath path to the dataset
+     * @return graph in CSR form
+     */
+    public static DirectedGraph load(String filePath) throws IOException {
+        try (Reader reader = Files.newBufferedReader(Path.of(filePath), StandardCharsets.UTF_8)) {
+            return load(reader);
+        }
+    }
+
+    /**
+     * Loads a graph from a character stream. The stream is not closed.
+     * @param reader JSON source
+     * @return graph in CSR form
+     */
+    public static DirectedGraph load(Reader reader) throws IOException {
+        return new JsonGraphLoader().parse(new JsonTokenizer(reader));
+    }
+
+    private DirectedGraph parse(JsonTokenizer json) throws IOException {
+        json.expect('{');
+        if (!json.consumeIf('}')) {
+            do {
+                String key = json.readString();
+                json.expect(':');
+                switch (key) {
+                    case "n": declaredNodes = json.readInt(); break;
+                    case "nodes": readNodes(json); break;
+                    case "edges": readEdges(json); break;
+                    case "weights": readWeights(json); break;
+                    default: json.skipValue();
+                }
+            } while (json.consumeIf(','));
+            json.expect('}');
+        }
+        json.expectEnd();
+        return build(json);
+    }
+
+    private void readNodes(JsonTokenizer json) throws IOException {
+        json.expect('[');
+        if (json.consumeIf(']')) {
+            return;
+        }
+        do {
+            intern(json.readString());
+        } while (json.consumeIf(','));
+        json.expect(']');
+    }
+
+    private void readEdges(JsonTokenizer json) throws IOException {
+        json.expect('[');
+        if (json.consumeIf(']')) {
+            return;
+        }
+        do {
+            if (json.peek() == '[') {
+                json.expect('[');
+                int u = readEndpoint(json);
+                json.expect(',');
+                int v = readEndpoint(json);
+                boolean hasWeight = json.consumeIf(',');
+                int w = hasWeight ? json.readInt() : 0;
+                json.expect(']');
+                addEdge(u, v, w, hasWeight);
+            } else {
+                readEdgeObject(json);
+            }
+        } while (json.consumeIf(','));
+        json.expect(']');
+    }
+
+    private void readEdgeObject(JsonTokenizer json) throws IOException {
+        int u = -1, v = -1, w = 0;
+        boolean hasWeight = false;
+        json.expect('{');
+        if (!json.consumeIf('}')) {
+            do {
+                String key = json.readString();
+                json.expect(':');
+                switch (key) {
+                    case "from": u = readEndpoint(json); break;
+                    case "to": v = readEndpoint(json); break;
+                    case "weight": w = json.readInt(); hasWeight = true; break;
+                    default: json.skipValue();
+                }
+            } while (json.consumeIf(','));
+            json.expect('}');
+        }
+        if (u < 0 || v < 0) {
+            throw json.error("edge needs \"from\" and \"to\"");
+        }
+        addEdge(u, v, w, hasWeight);
+    }
+
+    private void readWeights(JsonTokenizer json) throws IOException {
+        json.expect('{');
+        if (json.consumeIf('}')) {
+            return;
+        }
+        do {
+            String key = json.readString();
+            json.expect(':');
+            int w = json.readInt();
+            long edgeKey = resolveWeightKey(key);
+            if (edgeKey >= 0) {
+                keyedWeights.put(edgeKey, w, 0);
+            } else {
+                unresolvedWeights.put(key, w);
+            }
+        } while (json.consumeIf(','));
+        json.expect('}');
+    }
+
+    private int readEndpoint(JsonTokenizer json) throws IOException {
+        if (json.peek() == '"') {
+            return intern(json.readString());
+        }
+        int index = json.readInt();
+        if (index < 0) {
+            throw json.error("negative node index " + index);
+        }
+        maxIndex = Math.max(maxIndex, index);
+        return index;
+    }
+
+    /** Edges without their own weight are resolved against the weights object at build time. */
+    private void addEdge(int u, int v, int w, boolean hasWeight) {
+        if (hasWeight) {
+            weighted.set(from.size());
+        }
+        from.add(u);
+        to.add(v);
+        weight.add(w);
+    }
+
+    private int intern(String name) {
+        Integer index = nameIndex.get(name);
+        if (index == null) {
+            index = names.size();
+            names.add(name);
+            nameIndex.put(name, index);
+        }
+        return index;
+    }
+
+    /**
+     * Splits a "from-to" weight key into a packed (from, to) pair. Names may contain '-',
+     * so every split point is tried until both halves are known nodes.
+     * @return packed key, or -1 if the names are not known (yet)
+     */
+    private long resolveWeightKey(String key) {
+        for (int dash = key.indexOf('-'); dash >= 0; dash = key.indexOf('-', dash + 1)) {
+            Integer u = nameIndex.get(key.substring(0, dash));
+            Integer v = nameIndex.get(key.substring(dash + 1));
+            if (u != null && v != null) {
+                return LongIntHashMap.pairKey(u, v);
+            }
+        }
+        return -1;
+    }
+
+    private DirectedGraph build(JsonTokenizer json) throws IOException {
+        for (Map.Entry<String, Integer> entry : unresolvedWeights.entrySet()) {
+            long edgeKey = resolveWeightKey(entry.getKey());
+            if (edgeKey >= 0) {
+                keyedWeights.put(edgeKey, entry.getValue(), 0);
+            }
+        }
+        int n;
+        if (!names.isEmpty()) {
+            if (declaredNodes >= 0 && declaredNodes != names.size()) {
+                throw json.error("\"n\" is " + declaredNodes + " but " + names.size() + " nodes are named");
+            }
+            n = names.size();
+        } else {
+            n = declaredNodes >= 0 ? declaredNodes : maxIndex + 1;
+        }
+        if (maxIndex >= n) {
+            throw json.error("node index " + maxIndex + " out of range for " + n + " nodes");
+        }
+
+        int m = from.size();
+        int[] fromArr = from.rawArray();
+        int[] toArr = to.rawArray();
+        int[] weightArr = weight.rawArray();
+        for (int i = 0; i < m; i++) {
+            if (!weighted.get(i)) {
+                weightArr[i] = keyedWeights.getOrDefault(LongIntHashMap.pairKey(fromArr[i], toArr[i]),
+                        DirectedGraph.DEFAULT_WEIGHT);
+            }
+        }
+        List<String> nodes = names.isEmpty() ? DirectedGraph.indexNames(n) : names;
+        return new DirectedGraph(nodes, fromArr, toArr, weightArr, m);
+    }
+}
@@ -0,0 +1,202 @@
+package data;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Minimal pull tokenizer over a character stream. Reads through a fixed
+ * buffer, so documents of any size are processed without holding them in memory.
+ */
+class JsonTokenizer implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Reader in;
+    private final char[] buf = new char[BUFFER_SIZE];
+    private final StringBuilder text = new StringBuilder();
+    private int pos, limit;
+    private long consumed;  // Characters before buf[0], for error positions
+
+    JsonTokenizer(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Next non-whitespace character without consuming it.
+     * @return the character, or -1 at end of input
+     */
+    int peek() throws IOException {
+        while (true) {
+            if (pos == limit && !fill()) {
+                return -1;
+            }
+            char c = buf[pos];
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                pos++;
+            } else {
+                return c;
+            }
+        }
+    }
+
+    void expect(char c) throws IOException {
+        int next = peek();
+        if (next != c) {
+            throw error("expected '" + c + "' but found " + describe(next));
+        }
+        pos++;
+    }
+
+    /** Fails unless only whitespace is left, so trailing garbage or a second document is rejected. */
+    void expectEnd() throws IOException {
+        int next = peek();
+        if (next != -1) {
+            throw error("expected end of input but found " + describe(next));
+        }
+    }
+
+    boolean consumeIf(char c) throws IOException {
+        if (peek() == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    String readString() throws IOException {
+        expect('"');
+        text.setLength(0);
+        while (true) {
+            char c = nextRaw();
+            if (c == '"') {
+                return text.toString();
+            }
+            if (c != '\\') {
+                text.append(c);
+                continue;
+            }
+            char esc = nextRaw();
+            switch (esc) {
+                case '"': case '\\': case '/': text.append(esc); break;
+                case 'b': text.append('\b'); break;
+                case 'f': text.append('\f'); break;
+                case 'n': text.append('\n'); break;
+                case 'r': text.append('\r'); break;
+                case 't': text.append('\t'); break;
+                case 'u':
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(nextRaw(), 16);
+                        if (digit < 0) {
+                            throw error("bad unicode escape");
+                        }
+                        code = code * 16 + digit;
+                    }
+                    text.append((char) code);
+                    break;
+                default:
+                    throw error("bad escape '\\" + esc + "'");
+            }
+        }
+    }
+
+    int readInt() throws IOException {
+        long value = readLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw error("integer out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    long readLong() throws IOException {
+        int c = peek();
+        boolean negative = c == '-';
+        if (negative) {
+            pos++;
+            c = peek();
+        }
+        if (c < '0' || c > '9') {
+            throw error("expected a number but found " + describe(c));
+        }
+        long value = 0;
+        while (pos < limit || fill()) {
+            c = buf[pos];
+            if (c < '0' || c > '9') {
+                break;
+            }
+            if (value > (Long.MAX_VALUE - (c - '0')) / 10) {
+                throw error("number too large");
+            }
+            value = value * 10 + (c - '0');
+            pos++;
+        }
+        if (pos < limit && (buf[pos] == '.' || buf[pos] == 'e' || buf[pos] == 'E')) {
+            throw error("expected an integer");
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Skips one value of any type, including nested objects and arrays.
+     */
+    void skipValue() throws IOException {
+        int c = peek();
+        if (c == '"') {
+            readString();
+        } else if (c == '{' || c == '[') {
+            int depth = 0;
+            do {
+                c = peek();
+                if (c == '"') {
+                    readString();
+                    continue;
+                }
+                if (c == -1) {
+                    throw error("unterminated " + (depth > 0 ? "container" : "value"));
+                }
+                if (c == '{' || c == '[') depth++;
+                if (c == '}' || c == ']') depth--;
+                pos++;
+            } while (depth > 0);
+        } else if (c == -1) {
+            throw error("unexpected end of input");
+        } else {
+            // Number or literal: consume until a structural character
+            while ((pos < limit || fill()) && ",}] \n\r\t".indexOf(buf[pos]) < 0) {
+                pos++;
+            }
+        }
+    }
+
+    IOException error(String message) {
+        return new IOException("Malformed JSON at character " + (consumed + pos) + ": " + message);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private char nextRaw() throws IOException {
+        if (pos == limit && !fill()) {
+            throw error("unexpected end of input");
+        }
+        return buf[pos++];
+    }
+
+    private boolean fill() throws IOException {
+        consumed += limit;
+        pos = 0;
+        limit = 0;
+        int read = in.read(buf, 0, buf.length);
+        if (read <= 0) {
+            return false;
+        }
+        limit = read;
+        return true;
+    }
+
+    private static String describe(int c) {
+        return c == -1 ? "end of input" : "'" + (char) c + "'";
+    }
+}
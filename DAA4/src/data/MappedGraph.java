@@ -0,0 +1,176 @@
+package data;
+
+import graph.DirectedGraph;
+import graph.GraphView;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Zero-copy, read-only view of a graph file produced by {@link BinaryGraphFormat}.
+ * The int buffers returned here are views over the memory-mapped file, and the graph can be
+ * traversed in place through {@link GraphView}.
+ */
+public class MappedGraph implements GraphView {
+    private final int nodeCount;
+    private final int edgeCount;
+    private final IntBuffer offsets, targets, weights;
+    private final IntBuffer nameOffsets;  // Null when the file has no name table
+    private final ByteBuffer nameBytes;
+
+    private MappedGraph(int nodeCount, int edgeCount, IntBuffer offsets, IntBuffer targets, IntBuffer weights,
+                        IntBuffer nameOffsets, ByteBuffer nameBytes) {
+        this.nodeCount = nodeCount;
+        this.edgeCount = edgeCount;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.nameOffsets = nameOffsets;
+        this.nameBytes = nameBytes;
+    }
+
+    static MappedGraph open(Path path, ByteBuffer file, boolean verify) throws GraphFormatException {
+        int magic = file.getInt(0);
+        if (magic != BinaryGraphFormat.MAGIC) {
+            throw new GraphFormatException(path + ": not a graph file (bad magic)");
+        }
+        CRC32 headerCrc = new CRC32();
+        headerCrc.update(file.duplicate().position(0).limit(48));
+        if ((int) headerCrc.getValue() != file.getInt(48)) {
+            throw new GraphFormatException(path + ": header checksum mismatch");
+        }
+        int version = file.getInt(4);
+        if (version != BinaryGraphFormat.VERSION) {
+            throw new GraphFormatException(path + ": unsupported version " + version);
+        }
+        int flags = file.getInt(8);
+        int n = file.getInt(12);
+        long m = file.getLong(16);
+        long namesLength = file.getLong(24);
+        boolean hasNames = (flags & BinaryGraphFormat.FLAG_NAMES) != 0;
+        if (n < 0 || m < 0 || m > Integer.MAX_VALUE || namesLength < 0 || (!hasNames && namesLength != 0)) {
+            throw new GraphFormatException(path + ": invalid header fields");
+        }
+        long offsetsStart = BinaryGraphFormat.HEADER_SIZE;
+        long targetsStart = offsetsStart + 4L * (n + 1);
+        long weightsStart = targetsStart + 4L * m;
+        long namesStart = weightsStart + 4L * m;
+        long expectedSize = namesStart + namesLength;
+        if (file.capacity() != expectedSize) {
+            throw new GraphFormatException(path + ": expected " + expectedSize + " bytes but file has "
+                    + file.capacity() + " (truncated or stale)");
+        }
+
+        ByteBuffer offsetsBytes = slice(file, offsetsStart, 4L * (n + 1));
+        ByteBuffer targetsBytes = slice(file, targetsStart, 4L * m);
+        ByteBuffer weightsBytes = slice(file, weightsStart, 4L * m);
+        ByteBuffer namesSection = slice(file, namesStart, namesLength);
+        if (verify) {
+            check(path, "offsets", offsetsBytes, file.getInt(32));
+            check(path, "targets", targetsBytes, file.getInt(36));
+            check(path, "weights", weightsBytes, file.getInt(40));
+            if (hasNames) {
+                check(path, "name table", namesSection, file.getInt(44));
+            }
+        }
+
+        IntBuffer offsets = offsetsBytes.asIntBuffer();
+        if (offsets.get(0) != 0 || offsets.get(n) != m) {
+            throw new GraphFormatException(path + ": offsets do not match the edge count");
+        }
+        IntBuffer nameOffsets = null;
+        ByteBuffer nameBytes = null;
+        if (hasNames) {
+            if (namesLength < 4L * (n + 1)) {
+                throw new GraphFormatException(path + ": truncated name table");
+            }
+            nameOffsets = slice(namesSection, 0, 4L * (n + 1)).asIntBuffer();
+            nameBytes = slice(namesSection, 4L * (n + 1), namesLength - 4L * (n + 1));
+            if (nameOffsets.get(n) != nameBytes.capacity()) {
+                throw new GraphFormatException(path + ": name table length mismatch");
+            }
+        }
+        return new MappedGraph(n, (int) m, offsets, targetsBytes.asIntBuffer(), weightsBytes.asIntBuffer(),
+                nameOffsets, nameBytes);
+    }
+
+    private static ByteBuffer slice(ByteBuffer buf, long start, long length) {
+        return buf.duplicate().position((int) start).limit((int) (start + length)).slice()
+                .order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void check(Path path, String section, ByteBuffer bytes, int expected) throws GraphFormatException {
+        CRC32 crc = new CRC32();
+        crc.update(bytes.duplicate());
+        if ((int) crc.getValue() != expected) {
+            throw new GraphFormatException(path + ": " + section + " checksum mismatch");
+        }
+    }
+
+    @Override
+    public int nodeCount() { return nodeCount; }
+    @Override
+    public int edgeCount() { return edgeCount; }
+    public boolean hasNames() { return nameOffsets != null; }
+
+    /** CSR offsets (n + 1 entries), backed by the mapped file. */
+    public IntBuffer offsets() { return offsets.duplicate(); }
+    /** CSR edge targets, backed by the mapped file. */
+    public IntBuffer targets() { return targets.duplicate(); }
+    /** CSR edge weights, backed by the mapped file. */
+    public IntBuffer weights() { return weights.duplicate(); }
+
+    @Override
+    public int edgeStart(int node) { return offsets.get(node); }
+    @Override
+    public int edgeEnd(int node) { return offsets.get(node + 1); }
+    @Override
+    public int target(int edge) { return targets.get(edge); }
+    @Override
+    public int weight(int edge) { return weights.get(edge); }
+
+    /**
+     * Name of one node, decoded from the mapped name table.
+     * @param node node index
+     * @return the stored name, or the index as a string if the file has no names
+     */
+    @Override
+    public String nodeName(int node) {
+        Objects.checkIndex(node, nodeCount);
+        if (nameOffsets == null) {
+            return Integer.toString(node);
+        }
+        int start = nameOffsets.get(node);
+        int end = nameOffsets.get(node + 1);
+        byte[] bytes = new byte[end - start];
+        nameBytes.duplicate().position(start).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Copies the edge arrays into an in-heap graph. Names stay backed by the mapping
+     * and are decoded on access.
+     * @return graph
+     */
+    public DirectedGraph toGraph() {
+        int[] o = new int[nodeCount + 1];
+        int[] t = new int[edgeCount];
+        int[] w = new int[edgeCount];
+        offsets().get(o);
+        targets().get(t);
+        weights().get(w);
+        List<String> names = nameOffsets == null ? DirectedGraph.indexNames(nodeCount) : new AbstractList<String>() {
+            @Override
+            public String get(int i) { return nodeName(i); }
+
+            @Override
+            public int size() { return nodeCount; }
+        };
+        return DirectedGraph.fromCsr(names, o, t, w);
+    }
+}
@@ -0,0 +1,528 @@
+package data;
+
+import graph.DirectedGraph;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+/**
+ * Reproducible synthetic graphs with controllable structure, generated in parallel and
+ * streamed to disk.
+ * <ul>
+ *   <li>Every node draws its out-edges from its own random stream, seeded from
+ *       (seed, node). The output depends only on the seed and the settings, never on
+ *       the number of threads, and any block of nodes can be generated independently.</li>
+ *   <li>Writers generate blocks of nodes on worker threads and write them in order, so
+ *       the output is one sequential stream and memory stays bounded by a few blocks.</li>
+ * </ul>
+ * Shapes:
+ * <ul>
+ *   <li>{@link Shape#LAYERED}: DAG of layers; edges go from a layer to one of the next few.</li>
+ *   <li>{@link Shape#POWER_LAW}: Pareto-distributed out-degrees (a few huge hubs).</li>
+ *   <li>{@link Shape#PLANTED_SCCS}: consecutive blocks of nodes joined by a ring, with
+ *       edges between blocks going forward only, so the SCCs are exactly the blocks.</li>
+ *   <li>{@link Shape#CHAINS}: long paths with short forward skips.</li>
+ *   <li>{@link Shape#FAN_OUT}: a few hub nodes with very wide fan-out over a sparse rest.</li>
+ * </ul>
+ * Parallel edges may occur. Binary output uses {@link BinaryGraphFormat}, which holds at most
+ * 2^31 - 1 edges; JSON output has no limit on the edge count.
+ */
+public class WorkloadGenerator {
+    public enum Shape { LAYERED, POWER_LAW, PLANTED_SCCS, CHAINS, FAN_OUT }
+
+    private static final int BLOCK_NODES = 1 << 14;
+    private static final int CHAIN_SKIP = 64;  // Longest forward skip inside a chain
+    private static final int DEFAULT_LAYERS = 16;
+
+    private final Shape shape;
+    private final int n;
+    private final long seed;
+    private double averageDegree = 4;
+    private int layers;
+    private int layerSpan = 1;
+    private double exponent = 2.1;
+    private int maxDegree = 10_000;
+    private boolean acyclic = true;
+    private int minSccSize = 1, maxSccSize = 8;
+    private int chains = 1;
+    private int hubs = -1;
+    private int hubDegree = 10_000;
+    private int minWeight = 1, maxWeight = 9;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int[] sccStarts;  // PLANTED_SCCS block boundaries, built on first use
+
+    /**
+     * @param shape graph structure
+     * @param n number of nodes
+     * @param seed random seed; equal seeds and settings give identical graphs
+     */
+    public WorkloadGenerator(Shape shape, int n, long seed) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Need at least one node");
+        }
+        this.shape = shape;
+        this.n = n;
+        this.seed = seed;
+        this.layers = Math.min(DEFAULT_LAYERS, n);  // Every layer needs a node
+    }
+
+    /** Average out-degree of ordinary nodes (default 4). */
+    public WorkloadGenerator averageDegree(double degree) {
+        this.averageDegree = degree;
+        return this;
+    }
+
+    /**
+     * LAYERED: number of layers (default 16) and how many following layers an edge may reach (default 1).
+     */
+    public WorkloadGenerator layers(int count, int span) {
+        this.layers = Math.max(1, Math.min(count, n));
+        this.layerSpan = Math.max(1, span);
+        return this;
+    }
+
+    /** POWER_LAW: degree exponent (default 2.1) and degree cap (default 10000). */
+    public WorkloadGenerator powerLaw(double exponent, int maxDegree) {
+        if (exponent <= 1) {
+            throw new IllegalArgumentException("Exponent must be above 1");
+        }
+        this.exponent = exponent;
+        this.maxDegree = maxDegree;
+        return this;
+    }
+
+    /** POWER_LAW and FAN_OUT: whether edges only point to higher indices (default true). */
+    public WorkloadGenerator acyclic(boolean acyclic) {
+        this.acyclic = acyclic;
+        return this;
+    }
+
+    /** PLANTED_SCCS: SCC sizes drawn uniformly from [min, max] (default 1..8). */
+    public WorkloadGenerator sccSizes(int min, int max) {
+        if (min < 1 || max < min) {
+            throw new IllegalArgumentException("Invalid SCC size range " + min + ".." + max);
+        }
+        this.minSccSize = min;
+        this.maxSccSize = max;
+        this.sccStarts = null;
+        return this;
+    }
+
+    /** CHAINS: number of independent chains (default 1). */
+    public WorkloadGenerator chains(int count) {
+        this.chains = Math.max(1, Math.min(count, n));
+        return this;
+    }
+
+    /** FAN_OUT: number of hubs (default n / 1000 + 1) and their out-degree (default 10000). */
+    public WorkloadGenerator fanOut(int hubs, int hubDegree) {
+        this.hubs = hubs;
+        this.hubDegree = hubDegree;
+        return this;
+    }
+
+    /** Edge weights drawn uniformly from [min, max] (default 1..9). */
+    public WorkloadGenerator weights(int min, int max) {
+        this.minWeight = min;
+        this.maxWeight = max;
+        return this;
+    }
+
+    /** Worker threads (default: available processors). Does not affect the output. */
+    public WorkloadGenerator parallelism(int threads) {
+        this.parallelism = Math.max(1, threads);
+        return this;
+    }
+
+    /**
+     * Generates the graph in memory.
+     * @return graph with index names
+     */
+    public DirectedGraph generate() {
+        int[] offsets = offsets();
+        int[] targets = new int[offsets[n]];
+        int[] weights = new int[offsets[n]];
+        parallelBlocks(block -> {
+            NodeRandom r = new NodeRandom();
+            for (int u = blockStart(block); u < blockEnd(block); u++) {
+                int e = offsets[u];
+                int degree = begin(u, r);
+                for (int i = 0; i < degree; i++, e++) {
+                    targets[e] = target(u, i, r);
+                    weights[e] = weight(r);
+                }
+            }
+        });
+        return DirectedGraph.fromCsr(DirectedGraph.indexNames(n), offsets, targets, weights);
+    }
+
+    /**
+     * Streams the graph to a {@link BinaryGraphFormat} file (without a name table).
+     * @param path output file (replaced if it exists)
+     * @return number of edges written
+     */
+    public long writeBinary(Path path) throws IOException {
+        int[] offsets = offsets();
+        int m = offsets[n];
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(BinaryGraphFormat.HEADER_SIZE);
+            ByteBuffer buf = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            int offsetsCrc = BinaryGraphFormat.writeInts(channel, buf, offsets, n + 1);
+            int targetsCrc = writeSection(channel, offsets, true);
+            int weightsCrc = writeSection(channel, offsets, false);
+            ByteBuffer header = BinaryGraphFormat.header(0, n, m, 0, offsetsCrc, targetsCrc, weightsCrc, 0);
+            channel.write(header, 0);
+        }
+        return m;
+    }
+
+    /**
+     * Streams the graph as JSON in the {@code {"n": .., "edges": [{"from", "to", "weight"}]}}
+     * format read by {@link JsonGraphLoader}.
+     * @param path output file (replaced if it exists)
+     * @return number of edges written
+     */
+    public long writeJson(Path path) throws IOException {
+        long[] edges = {0};
+        try (OutputStream out = Files.newOutputStream(path)) {
+            out.write(("{\n  \"n\": " + n + ",\n  \"edges\": [").getBytes(StandardCharsets.UTF_8));
+            boolean[] first = {true};
+            writeOrdered(block -> {
+                StringBuilder sb = new StringBuilder();
+                NodeRandom r = new NodeRandom();
+                int count = 0;
+                for (int u = blockStart(block); u < blockEnd(block); u++) {
+                    int degree = begin(u, r);
+                    for (int i = 0; i < degree; i++) {
+                        int t = target(u, i, r);
+                        sb.append(",\n    {\"from\": ").append(u).append(", \"to\": ").append(t)
+                                .append(", \"weight\": ").append(weight(r)).append('}');
+                        count++;
+                    }
+                }
+                byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+                ByteBuffer result = ByteBuffer.allocate(bytes.length + 4);
+                result.putInt(count).put(bytes).flip();
+                return result;
+            }, buffer -> {
+                edges[0] += buffer.getInt();
+                if (first[0] && buffer.hasRemaining()) {
+                    buffer.get();  // The first edge has no separating comma
+                    first[0] = false;
+                }
+                out.write(buffer.array(), buffer.position(), buffer.remaining());
+            });
+            out.write("\n  ]\n}\n".getBytes(StandardCharsets.UTF_8));
+        }
+        return edges[0];
+    }
+
+    /**
+     * Component id of each node for PLANTED_SCCS (the planted block it belongs to).
+     * @return block index per node
+     */
+    public int[] plantedComponents() {
+        if (shape != Shape.PLANTED_SCCS) {
+            throw new IllegalStateException("Only PLANTED_SCCS has planted components");
+        }
+        int[] starts = sccStarts();
+        int[] result = new int[n];
+        for (int c = 0; c + 1 < starts.length; c++) {
+            Arrays.fill(result, starts[c], starts[c + 1], c);
+        }
+        return result;
+    }
+
+    private int writeSection(FileChannel channel, int[] offsets, boolean targets) throws IOException {
+        CRC32 crc = new CRC32();
+        writeOrdered(block -> {
+            int start = blockStart(block), end = blockEnd(block);
+            ByteBuffer buf = ByteBuffer.allocate((offsets[end] - offsets[start]) * Integer.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            NodeRandom r = new NodeRandom();
+            for (int u = start; u < end; u++) {
+                int degree = begin(u, r);
+                for (int i = 0; i < degree; i++) {
+                    int t = target(u, i, r);
+                    int w = weight(r);  // Drawn in both passes to keep the streams aligned
+                    buf.putInt(targets ? t : w);
+                }
+            }
+            buf.flip();
+            return buf;
+        }, buf -> {
+            crc.update(buf.array(), 0, buf.limit());
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+        });
+        return (int) crc.getValue();
+    }
+
+    /** Out-degrees in parallel, as CSR offsets. */
+    private int[] offsets() {
+        int[] degrees = new int[n];
+        parallelBlocks(block -> {
+            NodeRandom r = new NodeRandom();
+            for (int u = blockStart(block); u < blockEnd(block); u++) {
+                degrees[u] = begin(u, r);
+            }
+        });
+        int[] offsets = new int[n + 1];
+        long total = 0;
+        for (int u = 0; u < n; u++) {
+            total += degrees[u];
+            if (total > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("More than 2^31 edges do not fit in CSR arrays; use writeJson");
+            }
+            offsets[u + 1] = (int) total;
+        }
+        return offsets;
+    }
+
+    private interface BlockSink {
+        void accept(ByteBuffer buffer) throws IOException;
+    }
+
+    /**
+     * Produces blocks on worker threads, a bounded window ahead, and hands them to the sink in order.
+     */
+    private void writeOrdered(IntFunction<ByteBuffer> producer, BlockSink sink) throws IOException {
+        int blocks = blockCount();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "workload-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Deque<Future<ByteBuffer>> window = new ArrayDeque<>();
+            int next = 0;
+            for (int b = 0; b < blocks; b++) {
+                while (next < blocks && window.size() < parallelism * 2) {
+                    int block = next++;
+                    window.add(pool.submit(() -> producer.apply(block)));
+                }
+                sink.accept(window.poll().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Block generation failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void parallelBlocks(java.util.function.IntConsumer task) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> IntStream.range(0, blockCount()).parallel().forEach(task)).join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private int blockCount() { return (n + BLOCK_NODES - 1) / BLOCK_NODES; }
+    private int blockStart(int block) { return block * BLOCK_NODES; }
+    private int blockEnd(int block) { return (int) Math.min(n, (long) (block + 1) * BLOCK_NODES); }
+
+    /**
+     * Seeds the node's stream and draws its out-degree; the targets and weights follow
+     * from the same stream in {@link #target} / {@link #weight} order.
+     */
+    private int begin(int u, NodeRandom r) {
+        r.reset(seed, u);
+        switch (shape) {
+            case LAYERED:
+                return layerOf(u) == layers - 1 ? 0 : uniformDegree(r, averageDegree);
+            case POWER_LAW: {
+                double a = exponent;
+                double scale = a > 2 ? Math.max(1, averageDegree * (a - 2) / (a - 1)) : 1;
+                double x = scale * Math.pow(1 - r.nextDouble(), -1 / (a - 1));
+                return clampForward(u, (int) Math.min(maxDegree, x));
+            }
+            case PLANTED_SCCS: {
+                int[] starts = sccStarts();
+                int c = componentIndex(starts, u);
+                int ring = starts[c + 1] - starts[c] > 1 ? 1 : 0;
+                int extra = starts[c + 1] < n ? uniformDegree(r, Math.max(0, averageDegree - ring)) : 0;
+                return ring + extra;
+            }
+            case CHAINS:
+                return u + 1 < chainEnd(u) ? 1 + uniformDegree(r, Math.max(0, averageDegree - 1)) : 0;
+            case FAN_OUT:
+                return clampForward(u, u < hubCount() ? hubDegree : uniformDegree(r, averageDegree));
+            default:
+                throw new IllegalStateException("Unknown shape " + shape);
+        }
+    }
+
+    private int target(int u, int i, NodeRandom r) {
+        switch (shape) {
+            case LAYERED: {
+                int layer = layerOf(u);
+                int to = layer + 1 + r.nextInt(Math.min(layerSpan, layers - 1 - layer));
+                int first = layerStart(to);
+                return first + r.nextInt(layerStart(to + 1) - first);
+            }
+            case PLANTED_SCCS: {
+                int[] starts = sccStarts();
+                int c = componentIndex(starts, u);
+                if (i == 0 && starts[c + 1] - starts[c] > 1) {
+                    return u + 1 < starts[c + 1] ? u + 1 : starts[c];  // Ring inside the block
+                }
+                return starts[c + 1] + r.nextInt(n - starts[c + 1]);
+            }
+            case CHAINS: {
+                if (i == 0) {
+                    return u + 1;
+                }
+                return u + 1 + r.nextInt(Math.min(CHAIN_SKIP, chainEnd(u) - u - 1));
+            }
+            default:
+                return randomOther(u, r);
+        }
+    }
+
+    private int weight(NodeRandom r) {
+        return minWeight + r.nextInt(maxWeight - minWeight + 1);
+    }
+
+    private int randomOther(int u, NodeRandom r) {
+        if (acyclic) {
+            return u + 1 + r.nextInt(n - 1 - u);
+        }
+        int t = r.nextInt(n - 1);
+        return t >= u ? t + 1 : t;  // Skip self-loops
+    }
+
+    private int clampForward(int u, int degree) {
+        int limit = acyclic ? n - 1 - u : n - 1;
+        return Math.max(0, Math.min(degree, limit));
+    }
+
+    private static int uniformDegree(NodeRandom r, double average) {
+        return r.nextInt((int) Math.round(2 * average) + 1);
+    }
+
+    private int hubCount() {
+        return hubs >= 0 ? Math.min(hubs, n) : n / 1000 + 1;
+    }
+
+    private int layerOf(int u) {
+        return (int) ((long) u * layers / n);
+    }
+
+    private int layerStart(int layer) {
+        return (int) (((long) layer * n + layers - 1) / layers);
+    }
+
+    private int chainEnd(int u) {
+        int chain = (int) ((long) u * chains / n);
+        return (int) (((long) (chain + 1) * n + chains - 1) / chains);
+    }
+
+    private static int componentIndex(int[] starts, int u) {
+        int i = Arrays.binarySearch(starts, u);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    private synchronized int[] sccStarts() {
+        if (sccStarts == null) {
+            // Sequential but cheap: one draw per block
+            Random rand = new Random(seed ^ 0x5CC5L);
+            int[] starts = new int[Math.max(2, n / minSccSize + 2)];
+            int count = 0;
+            int start = 0;
+            while (start < n) {
+                starts[count++] = start;
+                start += minSccSize + rand.nextInt(maxSccSize - minSccSize + 1);
+            }
+            starts[count++] = n;
+            sccStarts = Arrays.copyOf(starts, count);
+        }
+        return sccStarts;
+    }
+
+    /** SplitMix64 stream, re-seeded per node without allocating. */
+    private static final class NodeRandom {
+        private long state;
+
+        void reset(long seed, int node) {
+            state = seed ^ (node * 0xD1B54A32D192ED03L);
+            state = nextLong();  // Decorrelate neighbouring node ids
+        }
+
+        long nextLong() {
+            long z = (state += 0x9E3779B97F4A7C15L);
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+
+        int nextInt(int bound) {
+            return (int) (((nextLong() >>> 33) * bound) >>> 31);
+        }
+
+        double nextDouble() {
+            return (nextLong() >>> 11) * 0x1.0p-53;
+        }
+    }
+
+    /**
+     * Usage: java data.WorkloadGenerator --shape LAYERED --nodes 1000000 --degree 8 --seed 1
+     * --out graph.bin [--layers 100] [--span 2] [--exponent 2.1] [--max-degree 10000]
+     * [--scc 4,32] [--chains 10] [--hubs 100] [--hub-degree 50000] [--cyclic true] [--threads 8].
+     * The output format follows the extension (.bin or .json).
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        if (!options.containsKey("out") || !options.containsKey("nodes")) {
+            System.out.println("Usage: java data.WorkloadGenerator --shape <" + Arrays.toString(Shape.values())
+                    + "> --nodes N --degree D --seed S --out <file.bin|file.json> [shape options]");
+            return;
+        }
+        WorkloadGenerator generator = new WorkloadGenerator(
+                Shape.valueOf(options.getOrDefault("shape", "LAYERED")),
+                Integer.parseInt(options.get("nodes")),
+                Long.parseLong(options.getOrDefault("seed", "1")))
+                .averageDegree(Double.parseDouble(options.getOrDefault("degree", "4")))
+                .layers(Integer.parseInt(options.getOrDefault("layers", "16")),
+                        Integer.parseInt(options.getOrDefault("span", "1")))
+                .powerLaw(Double.parseDouble(options.getOrDefault("exponent", "2.1")),
+                        Integer.parseInt(options.getOrDefault("max-degree", "10000")))
+                .chains(Integer.parseInt(options.getOrDefault("chains", "1")))
+                .fanOut(Integer.parseInt(options.getOrDefault("hubs", "-1")),
+                        Integer.parseInt(options.getOrDefault("hub-degree", "10000")))
+                .acyclic(!Boolean.parseBoolean(options.getOrDefault("cyclic", "false")));
+        if (options.containsKey("scc")) {
+            String[] range = options.get("scc").split(",");
+            generator.sccSizes(Integer.parseInt(range[0]), Integer.parseInt(range[range.length - 1]));
+        }
+        if (options.containsKey("threads")) {
+            generator.parallelism(Integer.parseInt(options.get("threads")));
+        }
+        Path out = Path.of(options.get("out"));
+        long start = System.nanoTime();
+        long edges = out.toString().endsWith(".json") ? generator.writeJson(out) : generator.writeBinary(out);
+        System.out.println("Wrote " + out + ": " + options.get("nodes") + " nodes, " + edges + " edges in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+}
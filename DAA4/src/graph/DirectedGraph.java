@@ -1,77 +1,321 @@
 package graph;
 
+import graph.util.IntList;
+import graph.util.LongIntHashMap;
+
 import java.util.*;
 
 /**
  * Represents a directed graph with nodes (strings) and weighted edges.
+ * Edges are stored in compressed sparse row (CSR) form: the out-edges of node u
+ * occupy positions offsets[u] .. offsets[u + 1] - 1 of the targets and weights arrays.
  */
-public class DirectedGraph {
+public class DirectedGraph implements GraphView {
+    /** Weight used for edges that have no explicit weight. */
+    public static final int DEFAULT_WEIGHT = 1;
+
     private final List<String> nodes;
-    private final Map<String, Integer> nodeIndex;
-    private final List<List<Integer>> adj;  // Adjacency list (indices)
-    private final List<Map<Integer, Integer>> weights;  // Weights per edge (from index to map of to-index -> weight)
+    private Map<String, Integer> nodeIndex;  // Built lazily for index-named graphs
+    private final int[] offsets;  // Length n + 1
+    private final int[] targets;  // Edge targets (indices), grouped by source
+    private final int[] edgeWeights;  // Weight per edge, parallel to targets
+    private List<List<Integer>> adj;  // Boxed adjacency view, built on first request
+    private List<Map<Integer, Integer>> weights;  // Boxed weight view, built on first request
+    private DirectedGraph reversed;  // Cached transpose
 
     public DirectedGraph(List<String> nodes, List<String[]> edges, Map<String, Integer> edgeWeights) {
         this.nodes = new ArrayList<>(nodes);
-        this.nodeIndex = new HashMap<>();
-        for (int i = 0; i < nodes.size(); i++) {
-            nodeIndex.put(nodes.get(i), i);
+        this.nodeIndex = indexOf(this.nodes);
+        int m = edges.size();
+        int[] from = new int[m];
+        int[] to = new int[m];
+        int[] w = new int[m];
+        for (int i = 0; i < m; i++) {
+            String[] edge = edges.get(i);
+            from[i] = nodeIndex.get(edge[0]);
+            to[i] = nodeIndex.get(edge[1]);
+            Integer weight = edgeWeights.get(edge[0] + "-" + edge[1]);
+            w[i] = weight != null ? weight : DEFAULT_WEIGHT;
         }
-        this.adj = new ArrayList<>();
-        this.weights = new ArrayList<>();
+        int n = this.nodes.size();
+        this.offsets = new int[n + 1];
+        this.targets = new int[m];
+        this.edgeWeights = new int[m];
+        fillCsr(n, from, to, w, m, offsets, targets, this.edgeWeights);
+    }
+
+    /**
+     * Builds a graph from parallel edge arrays in one counting pass.
+     * Edges keep their input order within each source node.
+     * @param nodes node names (index i names node i)
+     * @param from source index per edge
+     * @param to target index per edge
+     * @param w weight per edge
+     * @param edgeCount number of valid entries in the edge arrays
+     */
+    public DirectedGraph(List<String> nodes, int[] from, int[] to, int[] w, int edgeCount) {
+        this.nodes = nodes;
+        int n = nodes.size();
+        this.offsets = new int[n + 1];
+        this.targets = new int[edgeCount];
+        this.edgeWeights = new int[edgeCount];
+        fillCsr(n, from, to, w, edgeCount, offsets, targets, edgeWeights);
+    }
+
+    private DirectedGraph(List<String> nodes, int[] offsets, int[] targets, int[] edgeWeights) {
+        this.nodes = nodes;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.edgeWeights = edgeWeights;
+    }
+
+    /**
+     * Wraps existing CSR arrays without copying them.
+     * @param nodes node names
+     * @param offsets edge offsets per node (length n + 1)
+     * @param targets edge targets
+     * @param edgeWeights edge weights
+     * @return graph backed by the given arrays
+     */
+    public static DirectedGraph fromCsr(List<String> nodes, int[] offsets, int[] targets, int[] edgeWeights) {
+        if (offsets.length != nodes.size() + 1 || targets.length != edgeWeights.length
+                || offsets[nodes.size()] != targets.length) {
+            throw new IllegalArgumentException("Inconsistent CSR arrays");
+        }
+        return new DirectedGraph(nodes, offsets, targets, edgeWeights);
+    }
+
+    /**
+     * Node names "0", "1", ..., "n-1" generated on access instead of stored.
+     * @param n number of nodes
+     * @return read-only list of names
+     */
+    public static List<String> indexNames(int n) {
+        return new IndexNames("", n);
+    }
+
+    /**
+     * Node names prefix + "0" .. prefix + (n-1), e.g. the "SCC" names of a condensation.
+     * @param prefix name prefix
+     * @param n number of nodes
+     * @return read-only list of names
+     */
+    public static List<String> indexNames(String prefix, int n) {
+        return new IndexNames(prefix, n);
+    }
+
+    /**
+     * Whether the node names are the generated "0" .. "n-1" sequence.
+     * @return true for index-named graphs
+     */
+    public boolean hasIndexNames() {
+        return nodes instanceof IndexNames && ((IndexNames) nodes).prefix.isEmpty();
+    }
+
+    private static final class IndexNames extends AbstractList<String> {
+        private final String prefix;
+        private final int n;
+
+        IndexNames(String prefix, int n) {
+            this.prefix = prefix;
+            this.n = n;
+        }
+
+        @Override
+        public String get(int i) {
+            Objects.checkIndex(i, n);
+            return prefix + i;
+        }
+
+        @Override
+        public int size() { return n; }
+    }
+
+    private static Map<String, Integer> indexOf(List<String> nodes) {
+        Map<String, Integer> index = new HashMap<>();
         for (int i = 0; i < nodes.size(); i++) {
-            adj.add(new ArrayList<>());
-            weights.add(new HashMap<>());
+            index.put(nodes.get(i), i);
         }
-        for (String[] edge : edges) {
-            int from = nodeIndex.get(edge[0]);
-            int to = nodeIndex.get(edge[1]);
-            adj.get(from).add(to);
-            if (edgeWeights.containsKey(edge[0] + "-" + edge[1])) {
-                weights.get(from).put(to, edgeWeights.get(edge[0] + "-" + edge[1]));
-            }
+        return index;
+    }
+
+    private static void fillCsr(int n, int[] from, int[] to, int[] w, int m,
+                                int[] offsets, int[] targets, int[] edgeWeights) {
+        for (int i = 0; i < m; i++) {
+            offsets[from[i] + 1]++;
+        }
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+        int[] cursor = Arrays.copyOf(offsets, n);
+        for (int i = 0; i < m; i++) {
+            int pos = cursor[from[i]]++;
+            targets[pos] = to[i];
+            edgeWeights[pos] = w[i];
         }
     }
 
     public List<String> getNodes() { return nodes; }
-    public Map<String, Integer> getNodeIndex() { return nodeIndex; }
-    public List<List<Integer>> getAdj() { return adj; }
-    public List<Map<Integer, Integer>> getWeights() { return weights; }
+
+    public Map<String, Integer> getNodeIndex() {
+        if (nodeIndex == null) {
+            nodeIndex = indexOf(nodes);
+        }
+        return nodeIndex;
+    }
+
+    @Override
+    public int nodeCount() { return offsets.length - 1; }
+    @Override
+    public int edgeCount() { return targets.length; }
+
+    @Override
+    public int edgeStart(int node) { return offsets[node]; }
+    @Override
+    public int edgeEnd(int node) { return offsets[node + 1]; }
+    @Override
+    public int target(int edge) { return targets[edge]; }
+    @Override
+    public int weight(int edge) { return edgeWeights[edge]; }
+    @Override
+    public String nodeName(int node) { return nodes.get(node); }
+
+    /** CSR offsets (length n + 1). Shared with the graph; do not modify. */
+    public int[] getOffsets() { return offsets; }
+    /** CSR edge targets. Shared with the graph; do not modify. */
+    public int[] getTargets() { return targets; }
+    /** CSR edge weights, parallel to {@link #getTargets()}. Shared with the graph; do not modify. */
+    public int[] getEdgeWeights() { return edgeWeights; }
+
+    /**
+     * Boxed adjacency view over the CSR arrays, kept for existing callers.
+     * @return read-only adjacency lists (indices)
+     */
+    public List<List<Integer>> getAdj() {
+        if (adj == null) {
+            List<List<Integer>> view = new ArrayList<>(nodeCount());
+            for (int u = 0; u < nodeCount(); u++) {
+                final int start = offsets[u];
+                final int size = offsets[u + 1] - start;
+                view.add(new AbstractList<Integer>() {
+                    @Override
+                    public Integer get(int i) {
+                        Objects.checkIndex(i, size);
+                        return targets[start + i];
+                    }
+
+                    @Override
+                    public int size() { return size; }
+                });
+            }
+            adj = Collections.unmodifiableList(view);
+        }
+        return adj;
+    }
+
+    /**
+     * Boxed weight view (from index to map of to-index -> weight), kept for existing callers.
+     * Materialized on first call; prefer {@link #getEdgeWeights()} in hot code.
+     * @return read-only weight maps
+     */
+    public List<Map<Integer, Integer>> getWeights() {
+        if (weights == null) {
+            List<Map<Integer, Integer>> view = new ArrayList<>(nodeCount());
+            for (int u = 0; u < nodeCount(); u++) {
+                Map<Integer, Integer> map = new HashMap<>();
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    map.put(targets[e], edgeWeights[e]);
+                }
+                view.add(Collections.unmodifiableMap(map));
+            }
+            weights = Collections.unmodifiableList(view);
+        }
+        return weights;
+    }
+
+    /**
+     * Returns the graph with every edge reversed, sharing the node list.
+     * Built once and cached.
+     * @return reversed graph
+     */
+    public DirectedGraph reverse() {
+        if (reversed == null) {
+            int n = nodeCount();
+            int[] from = new int[targets.length];
+            for (int u = 0; u < n; u++) {
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    from[e] = u;
+                }
+            }
+            DirectedGraph r = new DirectedGraph(nodes, targets, from, edgeWeights, targets.length);
+            r.reversed = this;
+            reversed = r;
+        }
+        return reversed;
+    }
 
     /**
      * Builds the condensation graph (DAG of SCCs).
+     * The first edge found between two components supplies the weight.
      * @param sccs list of SCCs (each as list of node indices)
      * @return condensation graph
      */
     public DirectedGraph buildCondensation(List<List<Integer>> sccs) {
-        Map<Integer, Integer> componentMap = new HashMap<>();
-        List<String> componentNodes = new ArrayList<>();
+        int[] componentOf = new int[nodeCount()];
         for (int i = 0; i < sccs.size(); i++) {
-            componentNodes.add("SCC" + i);
             for (int node : sccs.get(i)) {
-                componentMap.put(node, i);
+                componentOf[node] = i;
             }
         }
-        Set<String> componentEdgesSet = new HashSet<>();
-        Map<String, Integer> componentWeights = new HashMap<>();
-        for (int u = 0; u < adj.size(); u++) {
-            int compU = componentMap.get(u);
-            for (int v : adj.get(u)) {
-                int compV = componentMap.get(v);
-                if (compU != compV) {
-                    String edgeKey = "SCC" + compU + "-SCC" + compV;
-                    if (!componentEdgesSet.contains(edgeKey)) {
-                        componentEdgesSet.add(edgeKey);
-                        componentWeights.put(edgeKey, weights.get(u).getOrDefault(v, 1));  // Default weight 1 if none
-                    }
+        return buildCondensation(componentOf, sccs.size(), WeightPolicy.FIRST);
+    }
+
+    /**
+     * Builds the condensation graph from primitive component ids.
+     * Parallel edges between two components are merged into one edge whose
+     * weight is chosen by the policy. Component i becomes node "SCC" + i.
+     * @param componentOf component id per node
+     * @param componentCount number of components
+     * @param policy how to combine the weights of merged edges
+     * @return condensation graph
+     */
+    public DirectedGraph buildCondensation(int[] componentOf, int componentCount, WeightPolicy policy) {
+        return buildCondensation(this, componentOf, componentCount, policy);
+    }
+
+    /**
+     * Builds the condensation of any graph view (e.g. an off-heap graph) as an in-heap
+     * graph; only the condensation itself is allocated.
+     * @param graph graph to condense
+     * @param componentOf component id per node
+     * @param componentCount number of components
+     * @param policy how to combine the weights of merged edges
+     * @return condensation graph
+     */
+    public static DirectedGraph buildCondensation(GraphView graph, int[] componentOf, int componentCount,
+                                                  WeightPolicy policy) {
+        LongIntHashMap slotOf = new LongIntHashMap();
+        IntList from = new IntList();
+        IntList to = new IntList();
+        IntList w = new IntList();
+        for (int u = 0; u < graph.nodeCount(); u++) {
+            int compU = componentOf[u];
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                int compV = componentOf[graph.target(e)];
+                if (compU == compV) {
+                    continue;
+                }
+                int slot = slotOf.putIfAbsent(LongIntHashMap.pairKey(compU, compV), from.size());
+                if (slot == from.size()) {
+                    from.add(compU);
+                    to.add(compV);
+                    w.add(graph.weight(e));
+                } else {
+                    w.set(slot, policy.combine(w.get(slot), graph.weight(e)));
                 }
             }
         }
-        List<String[]> componentEdges = new ArrayList<>();
-        for (String edge : componentEdgesSet) {
-            String[] parts = edge.split("-");
-            componentEdges.add(new String[]{parts[0], parts[1]});
-        }
-        return new DirectedGraph(componentNodes, componentEdges, componentWeights);
+        return new DirectedGraph(new IndexNames("SCC", componentCount),
+                from.rawArray(), to.rawArray(), w.rawArray(), from.size());
     }
-}
\ No newline at end of file
+}
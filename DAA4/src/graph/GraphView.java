@@ -0,0 +1,27 @@
+package graph;
+
+/**
+ * Read-only CSR access to a directed graph, whatever holds its arrays: the heap
+ * ({@link DirectedGraph}), a memory-mapped file or off-heap memory. The out-edges of
+ * node u are the edge ids edgeStart(u) .. edgeEnd(u) - 1.
+ */
+public interface GraphView {
+    int nodeCount();
+
+    int edgeCount();
+
+    /** First out-edge id of a node. */
+    int edgeStart(int node);
+
+    /** One past the last out-edge id of a node (equals edgeStart(node + 1)). */
+    int edgeEnd(int node);
+
+    /** Target node of an edge. */
+    int target(int edge);
+
+    /** Weight of an edge. */
+    int weight(int edge);
+
+    /** Name of a node. */
+    String nodeName(int node);
+}
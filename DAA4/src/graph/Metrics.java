@@ -1,7 +1,13 @@
 package graph;
 
+import graph.metrics.CounterRegistry;
+
 /**
  * Interface for collecting metrics: timing and operation counters.
+ * <p>
+ * Hot loops should resolve counters once with {@link CounterRegistry#id(String)}, count
+ * locally and report with {@link #add(int, long)} when done. The default methods keep
+ * older implementations (string counters, one timing slot) working.
  */
 public interface Metrics {
     /**
@@ -32,4 +38,62 @@ public interface Metrics {
      * Resets all counters and timing.
      */
     void reset();
+
+    /**
+     * Adds to a counter registered with {@link CounterRegistry}. Implementations should
+     * override this; the default falls back to {@link #incrementCounter(String)}.
+     * @param counterId id from {@link CounterRegistry#id(String)}
+     * @param delta amount to add
+     */
+    default void add(int counterId, long delta) {
+        String name = CounterRegistry.name(counterId);
+        for (long i = 0; i < delta; i++) {
+            incrementCounter(name);
+        }
+    }
+
+    /**
+     * Increments a counter registered with {@link CounterRegistry}.
+     * @param counterId id from {@link CounterRegistry#id(String)}
+     */
+    default void increment(int counterId) {
+        add(counterId, 1);
+    }
+
+    /**
+     * Opens a named phase timer; use with try-with-resources. Phases opened while another
+     * is open on the same thread nest under it ("scc/tarjan").
+     * @param name phase name
+     * @return handle that stops the timer when closed
+     */
+    default Phase phase(String name) {
+        return Phase.NONE;
+    }
+
+    /**
+     * Total time recorded for a phase path.
+     * @param path phase path, e.g. "scc" or "scc/tarjan"
+     * @return elapsed nanoseconds summed over all runs, 0 if never recorded
+     */
+    default long getPhaseNanos(String path) {
+        return 0;
+    }
+
+    /**
+     * Records one latency sample (e.g. a request) in a named histogram.
+     * @param name histogram name
+     * @param nanos sample in nanoseconds
+     */
+    default void recordLatency(String name, long nanos) {
+    }
+
+    /**
+     * Running phase timer returned by {@link #phase(String)}.
+     */
+    interface Phase extends AutoCloseable {
+        Phase NONE = () -> { };
+
+        @Override
+        void close();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package graph;
+
+/**
+ * How to combine the weights of parallel edges merged into one (e.g. in the condensation graph).
+ */
+public enum WeightPolicy {
+    /** Keep the smallest weight. */
+    MIN,
+    /** Keep the largest weight. */
+    MAX,
+    /** Keep the weight of the first edge encountered. */
+    FIRST,
+    /** Add the weights (saturating at the int range). */
+    SUM;
+
+    /**
+     * Combines the weight kept so far with the weight of another merged edge.
+     * @param current weight kept so far
+     * @param next weight of the next merged edge
+     * @return combined weight
+     */
+    public int combine(int current, int next) {
+        switch (this) {
+            case MIN: return Math.min(current, next);
+            case MAX: return Math.max(current, next);
+            case FIRST: return current;
+            default:
+                long sum = (long) current + next;
+                return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, sum));
+        }
+    }
+}
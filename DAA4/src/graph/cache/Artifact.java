@@ -0,0 +1,149 @@
+package graph.cache;
+
+import graph.DirectedGraph;
+import graph.WeightPolicy;
+import graph.scc.SCCResult;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * A kind of result derived from a graph, with what the {@link ArtifactCache} needs to
+ * hold it: an estimate of its heap size and a binary codec for the disk tier.
+ * @param <T> type of the derived value
+ */
+public abstract class Artifact<T> {
+    /** SCC decomposition: component ids and the member groups in their original order. */
+    public static final Artifact<SCCResult> SCC = new Artifact<>("scc") {
+        @Override
+        long weight(SCCResult value) {
+            return 4L * (2L * value.getNodeCount() + value.getComponentCount() + 1);
+        }
+
+        @Override
+        void write(SCCResult value, DataOutputStream out) throws IOException {
+            out.writeInt(value.getComponentCount());
+            writeInts(value.getComponentOf(), value.getNodeCount(), out);
+            writeInts(value.getMembers(), value.getNodeCount(), out);
+            writeInts(value.getMemberOffsets(), value.getComponentCount() + 1, out);
+        }
+
+        @Override
+        SCCResult read(DataInputStream in) throws IOException {
+            int count = in.readInt();
+            int[] componentOf = readInts(in);
+            int[] members = readInts(in);
+            int[] memberOffsets = readInts(in);
+            if (members.length != componentOf.length || memberOffsets.length != count + 1) {
+                throw new IOException("Inconsistent SCC arrays");
+            }
+            return new SCCResult(componentOf, count, members, memberOffsets);
+        }
+    };
+
+    private static final Artifact<?>[] CONDENSATIONS = new Artifact<?>[WeightPolicy.values().length];
+    private static final Artifact<?>[] TOPO_ORDERS = new Artifact<?>[WeightPolicy.values().length];
+
+    static {
+        for (WeightPolicy policy : WeightPolicy.values()) {
+            CONDENSATIONS[policy.ordinal()] = new Artifact<DirectedGraph>("condensation-" + policy.name().toLowerCase()) {
+                @Override
+                long weight(DirectedGraph value) {
+                    return 4L * (value.nodeCount() + 1 + 2L * value.edgeCount());
+                }
+
+                @Override
+                void write(DirectedGraph value, DataOutputStream out) throws IOException {
+                    writeInts(value.getOffsets(), out);
+                    writeInts(value.getTargets(), out);
+                    writeInts(value.getEdgeWeights(), out);
+                }
+
+                @Override
+                DirectedGraph read(DataInputStream in) throws IOException {
+                    int[] offsets = readInts(in);
+                    int[] targets = readInts(in);
+                    int[] weights = readInts(in);
+                    return DirectedGraph.fromCsr(DirectedGraph.indexNames("SCC", offsets.length - 1),
+                            offsets, targets, weights);
+                }
+            };
+            TOPO_ORDERS[policy.ordinal()] = new Artifact<int[]>("topo-" + policy.name().toLowerCase()) {
+                @Override
+                long weight(int[] value) {
+                    return 4L * value.length;
+                }
+
+                @Override
+                void write(int[] value, DataOutputStream out) throws IOException {
+                    writeInts(value, out);
+                }
+
+                @Override
+                int[] read(DataInputStream in) throws IOException {
+                    return readInts(in);
+                }
+            };
+        }
+    }
+
+    private final String name;
+
+    private Artifact(String name) {
+        this.name = name;
+    }
+
+    /** Condensation built with a weight policy (components named "SCC" + id). */
+    @SuppressWarnings("unchecked")
+    public static Artifact<DirectedGraph> condensation(WeightPolicy policy) {
+        return (Artifact<DirectedGraph>) CONDENSATIONS[policy.ordinal()];
+    }
+
+    /**
+     * Topological order of the condensation built with a weight policy: the component ids
+     * from last to first, i.e. Tarjan numbering reversed ({@code CondensationResult.reverseIds}).
+     */
+    @SuppressWarnings("unchecked")
+    public static Artifact<int[]> topoOrder(WeightPolicy policy) {
+        return (Artifact<int[]>) TOPO_ORDERS[policy.ordinal()];
+    }
+
+    public String getName() { return name; }
+
+    /** Approximate heap bytes held by a value, charged against the cache capacity. */
+    abstract long weight(T value);
+
+    abstract void write(T value, DataOutputStream out) throws IOException;
+
+    abstract T read(DataInputStream in) throws IOException;
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    static void writeInts(int[] values, DataOutputStream out) throws IOException {
+        writeInts(values, values.length, out);
+    }
+
+    /** Writes the first length values (arrays may be longer, e.g. workspace buffers). */
+    static void writeInts(int[] values, int length, DataOutputStream out) throws IOException {
+        out.writeInt(length);
+        for (int i = 0; i < length; i++) {
+            out.writeInt(values[i]);
+        }
+    }
+
+    static int[] readInts(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Negative array length " + length);
+        }
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+}
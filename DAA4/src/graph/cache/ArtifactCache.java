@@ -0,0 +1,259 @@
+package graph.cache;
+
+import graph.Metrics;
+import graph.metrics.CounterRegistry;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Memoizes results derived from graphs, keyed by the graph's content ({@link GraphKey})
+ * and the kind of result ({@link Artifact}).
+ * <ul>
+ *   <li>The memory tier is LRU, bounded by the approximate heap bytes of its values;
+ *       least recently used entries are evicted once the capacity is exceeded.</li>
+ *   <li>With a spill directory, every computed value is also written there, so entries
+ *       evicted from memory (or from an earlier process) are read back instead of
+ *       recomputed. Each file ends with a CRC32 of its contents; unreadable files and
+ *       checksum mismatches count as misses and are deleted.</li>
+ * </ul>
+ * Hits, disk hits, misses and evictions go to the metrics counters cache_hits,
+ * cache_disk_hits, cache_misses and cache_evictions. The cache is thread-safe; two threads
+ * missing the same entry at once may both compute it.
+ */
+public class ArtifactCache {
+    private static final int HITS = CounterRegistry.id("cache_hits");
+    private static final int DISK_HITS = CounterRegistry.id("cache_disk_hits");
+    private static final int MISSES = CounterRegistry.id("cache_misses");
+    private static final int EVICTIONS = CounterRegistry.id("cache_evictions");
+    private static final int MAGIC = 0x44414143;  // "DAAC"
+
+    private final long capacityBytes;
+    private final Path spillDirectory;
+    private final Metrics metrics;
+    private final LinkedHashMap<Entry, Object> entries = new LinkedHashMap<>(16, 0.75f, true);  // Access order
+    private final Map<Entry, Long> weights = new HashMap<>();
+    private long sizeBytes = 0;
+    private final AtomicLong hits = new AtomicLong(), diskHits = new AtomicLong(), misses = new AtomicLong();
+
+    /**
+     * @param capacityBytes memory budget for cached values
+     * @param spillDirectory directory for the disk tier, or null for memory only
+     * @param metrics metrics sink for hit/miss counters
+     */
+    public ArtifactCache(long capacityBytes, Path spillDirectory, Metrics metrics) {
+        if (capacityBytes < 0) {
+            throw new IllegalArgumentException("capacityBytes must be >= 0: " + capacityBytes);
+        }
+        this.capacityBytes = capacityBytes;
+        this.spillDirectory = spillDirectory;
+        this.metrics = metrics;
+        if (spillDirectory != null) {
+            try {
+                Files.createDirectories(spillDirectory);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create cache directory " + spillDirectory, e);
+            }
+        }
+    }
+
+    /**
+     * Returns the cached value, computing and caching it on a miss.
+     * @param key content key of the source graph
+     * @param artifact kind of derived value
+     * @param compute computes the value on a miss
+     * @return cached or computed value
+     */
+    public <T> T computeIfAbsent(GraphKey key, Artifact<T> artifact, Supplier<T> compute) {
+        T value = get(key, artifact);
+        if (value == null) {
+            value = compute.get();
+            put(key, artifact, value);
+        }
+        return value;
+    }
+
+    /**
+     * Looks a value up in memory, then on disk. Counts a hit, disk hit or miss.
+     * @return value, or null if not cached
+     */
+    public <T> T get(GraphKey key, Artifact<T> artifact) {
+        Entry entry = new Entry(key, artifact);
+        Object value;
+        synchronized (this) {
+            value = entries.get(entry);
+        }
+        if (value != null) {
+            hits.incrementAndGet();
+            metrics.increment(HITS);
+            return cast(value);
+        }
+        T spilled = readSpilled(entry, artifact);
+        if (spilled != null) {
+            diskHits.incrementAndGet();
+            metrics.increment(DISK_HITS);
+            store(entry, spilled, artifact.weight(spilled));
+            return spilled;
+        }
+        misses.incrementAndGet();
+        metrics.increment(MISSES);
+        return null;
+    }
+
+    /**
+     * Caches a value (and writes it to the disk tier, if any).
+     */
+    public <T> void put(GraphKey key, Artifact<T> artifact, T value) {
+        Entry entry = new Entry(key, artifact);
+        store(entry, value, artifact.weight(value));
+        writeSpilled(entry, artifact, value);
+    }
+
+    /** Drops every in-memory entry (the disk tier is kept). */
+    public synchronized void clear() {
+        entries.clear();
+        weights.clear();
+        sizeBytes = 0;
+    }
+
+    public synchronized int size() { return entries.size(); }
+    public synchronized long sizeBytes() { return sizeBytes; }
+    public long getHits() { return hits.get(); }
+    public long getDiskHits() { return diskHits.get(); }
+    public long getMisses() { return misses.get(); }
+
+    /** Fraction of lookups answered from memory or disk. */
+    public double hitRate() {
+        long found = hits.get() + diskHits.get();
+        long total = found + misses.get();
+        return total == 0 ? 0 : (double) found / total;
+    }
+
+    /** One-line summary of the counters. */
+    public String summary() {
+        return String.format("hits=%d disk_hits=%d misses=%d hit_rate=%.2f entries=%d bytes=%d",
+                getHits(), getDiskHits(), getMisses(), hitRate(), size(), sizeBytes());
+    }
+
+    private synchronized void store(Entry entry, Object value, long weight) {
+        if (weight > capacityBytes) {
+            return;  // Too large for the memory tier (still written to disk, if any)
+        }
+        Long previous = weights.put(entry, weight);
+        if (previous != null) {
+            sizeBytes -= previous;
+        }
+        entries.put(entry, value);
+        sizeBytes += weight;
+        long evicted = 0;
+        Iterator<Map.Entry<Entry, Object>> eldest = entries.entrySet().iterator();
+        while (sizeBytes > capacityBytes && eldest.hasNext()) {
+            Entry victim = eldest.next().getKey();
+            eldest.remove();
+            sizeBytes -= weights.remove(victim);
+            evicted++;
+        }
+        metrics.add(EVICTIONS, evicted);
+    }
+
+    private Path spillPath(Entry entry) {
+        return spillDirectory.resolve(entry.key.toHex() + "." + entry.artifact.getName() + ".bin");
+    }
+
+    private <T> void writeSpilled(Entry entry, Artifact<T> artifact, T value) {
+        if (spillDirectory == null) {
+            return;
+        }
+        Path path = spillPath(entry);
+        if (Files.exists(path)) {
+            return;  // Same key, same content
+        }
+        try {
+            Path temp = Files.createTempFile(spillDirectory, "spill", ".tmp");
+            CRC32 crc = new CRC32();
+            try (DataOutputStream out = new DataOutputStream(
+                    new CheckedOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)), crc))) {
+                out.writeInt(MAGIC);
+                out.writeUTF(artifact.getName());
+                artifact.write(value, out);
+                out.writeInt((int) crc.getValue());  // Covers every byte before it
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Cannot spill " + entry + ": " + e.getMessage());  // Still cached in memory
+        }
+    }
+
+    private <T> T readSpilled(Entry entry, Artifact<T> artifact) {
+        if (spillDirectory == null) {
+            return null;
+        }
+        Path path = spillPath(entry);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(
+                new CheckedInputStream(new BufferedInputStream(Files.newInputStream(path)), crc))) {
+            if (in.readInt() != MAGIC || !in.readUTF().equals(artifact.getName())) {
+                throw new IOException("Not a " + artifact + " spill file");
+            }
+            T value = artifact.read(in);
+            int expected = (int) crc.getValue();
+            if (in.readInt() != expected || in.read() != -1) {
+                throw new IOException("Checksum mismatch in " + path);
+            }
+            return value;
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+                // Recomputed and rewritten on the next put
+            }
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+
+    /** Cache key: graph content plus artifact kind. */
+    private static final class Entry {
+        final GraphKey key;
+        final Artifact<?> artifact;
+
+        Entry(GraphKey key, Artifact<?> artifact) {
+            this.key = key;
+            this.artifact = artifact;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry other = (Entry) o;
+            return key.equals(other.key) && artifact == other.artifact;
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() * 31 + artifact.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return key + "." + artifact;
+        }
+    }
+}
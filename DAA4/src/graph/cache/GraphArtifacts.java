@@ -0,0 +1,81 @@
+package graph.cache;
+
+import graph.DirectedGraph;
+import graph.Metrics;
+import graph.WeightPolicy;
+import graph.scc.CondensationResult;
+import graph.scc.FusedCondensation;
+import graph.scc.SCCResult;
+import graph.scc.Tarjan;
+
+import java.util.*;
+
+/**
+ * The SCC -> condensation -> topological order steps of the pipeline, each answered from
+ * an {@link ArtifactCache} when the same graph content has been seen before. A rerun on an
+ * unchanged graph therefore goes straight to the query stage.
+ * <p>
+ * Content keys are remembered per graph object, so each graph is hashed once.
+ */
+public class GraphArtifacts {
+    private final ArtifactCache cache;
+    private final Metrics metrics;
+    private final Map<DirectedGraph, GraphKey> keys = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public GraphArtifacts(ArtifactCache cache, Metrics metrics) {
+        this.cache = cache;
+        this.metrics = metrics;
+    }
+
+    public ArtifactCache getCache() { return cache; }
+
+    /** Content key of a graph, hashed on first request. */
+    public GraphKey keyOf(DirectedGraph graph) {
+        return keys.computeIfAbsent(graph, GraphKey::of);
+    }
+
+    /** SCCs of a graph (computed with Tarjan on a miss). */
+    public SCCResult sccs(DirectedGraph graph) {
+        return cache.computeIfAbsent(keyOf(graph), Artifact.SCC,
+                () -> new Tarjan(graph, metrics).findComponents());
+    }
+
+    /** Condensation of a graph ("SCC" + id nodes). */
+    public DirectedGraph condensation(DirectedGraph graph, WeightPolicy policy) {
+        return cache.computeIfAbsent(keyOf(graph), Artifact.condensation(policy), () -> {
+            SCCResult sccs = sccs(graph);
+            return graph.buildCondensation(sccs.getComponentOf(), sccs.getComponentCount(), policy);
+        });
+    }
+
+    /**
+     * Topological order of the condensation. Components carry Tarjan numbering (reverse
+     * topological order), so on a miss the order is read off the ids without a sort.
+     * @return component ids in topological order (not a copy of the cached array)
+     */
+    public int[] topoOrder(DirectedGraph graph, WeightPolicy policy) {
+        return cache.computeIfAbsent(keyOf(graph), Artifact.topoOrder(policy),
+                () -> CondensationResult.reverseIds(sccs(graph).getComponentCount()));
+    }
+
+    /**
+     * SCCs, condensation and topological order together. Whatever is not cached is derived
+     * from the cached SCCs if present; otherwise all three come from one
+     * {@link FusedCondensation} traversal and are cached.
+     * @param graph source graph
+     * @param policy weight policy of the condensation
+     * @return the three artifacts
+     */
+    public CondensationResult condense(DirectedGraph graph, WeightPolicy policy) {
+        GraphKey key = keyOf(graph);
+        SCCResult sccs = cache.get(key, Artifact.SCC);
+        if (sccs == null) {
+            CondensationResult fused = new FusedCondensation(graph, metrics, policy).run();
+            cache.put(key, Artifact.SCC, fused.getSccs());
+            cache.put(key, Artifact.condensation(policy), fused.getCondensation());
+            cache.put(key, Artifact.topoOrder(policy), fused.getTopoOrder());
+            return fused;
+        }
+        return new CondensationResult(sccs, condensation(graph, policy), topoOrder(graph, policy));
+    }
+}
@@ -0,0 +1,102 @@
+package graph.cache;
+
+import graph.DirectedGraph;
+
+/**
+ * 128-bit content hash of a graph: structure, weights and node names. Two graphs with
+ * the same key are treated as equal by the {@link ArtifactCache}, whichever file or
+ * object they came from. Index-named graphs ("0" .. "n-1") skip hashing the names.
+ */
+public final class GraphKey {
+    private static final long P1 = 0x9E3779B185EBCA87L;
+    private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long P3 = 0x165667B19E3779F9L;
+    private static final long P4 = 0x85EBCA77C2B2AE63L;
+
+    private final long high;
+    private final long low;
+
+    public GraphKey(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    /**
+     * Hashes a graph in one pass over its CSR arrays (and names, unless index-named).
+     * @param graph graph to hash
+     * @return content key
+     */
+    public static GraphKey of(DirectedGraph graph) {
+        Hasher hasher = new Hasher();
+        hasher.add(graph.nodeCount());
+        hasher.add(graph.edgeCount());
+        hasher.add(graph.getOffsets());
+        hasher.add(graph.getTargets());
+        hasher.add(graph.getEdgeWeights());
+        if (!graph.hasIndexNames()) {
+            for (String name : graph.getNodes()) {
+                hasher.add(name.length());
+                for (int i = 0; i < name.length(); i++) {
+                    hasher.add(name.charAt(i));
+                }
+            }
+        }
+        return hasher.finish();
+    }
+
+    /** Key as 32 hex digits, used for spill file names. */
+    public String toHex() {
+        return String.format("%016x%016x", high, low);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof GraphKey)) {
+            return false;
+        }
+        GraphKey other = (GraphKey) o;
+        return high == other.high && low == other.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(high ^ low);
+    }
+
+    @Override
+    public String toString() {
+        return toHex();
+    }
+
+    /** Two independent 64-bit lanes, mixed with multiply-rotate steps and finished with an avalanche. */
+    private static final class Hasher {
+        private long h1 = P1, h2 = P2;
+        private long count;
+
+        void add(int value) {
+            h1 = Long.rotateLeft(h1 ^ (value * P2), 31) * P1;
+            h2 = Long.rotateLeft(h2 + (value * P4), 27) * P3 + h1;
+            count++;
+        }
+
+        void add(int[] values) {
+            add(values.length);
+            for (int value : values) {
+                add(value);
+            }
+        }
+
+        GraphKey finish() {
+            return new GraphKey(avalanche(h1 ^ count), avalanche(h2 + h1));
+        }
+
+        private static long avalanche(long h) {
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB9FE1A85EC53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
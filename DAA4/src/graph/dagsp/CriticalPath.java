@@ -0,0 +1,124 @@
+package graph.dagsp;
+
+import graph.DirectedGraph;
+
+import java.util.*;
+
+/**
+ * Critical-path (CPM) analysis of a DAG whose edge weights are the time that must
+ * pass between the start of a task and the start of its dependent.
+ * A forward sweep over the topological order gives the earliest start of every task
+ * (and the predecessor that forces it); a backward sweep gives the latest start that
+ * does not delay the schedule. Tasks with zero slack are critical.
+ */
+public class CriticalPath {
+    private final DirectedGraph graph;
+    private final int[] earliest;
+    private final int[] latest;
+    private final int[] parent;
+    private final int makespan;
+    private final int endNode;
+
+    private CriticalPath(DirectedGraph graph, int[] earliest, int[] latest, int[] parent, int makespan, int endNode) {
+        this.graph = graph;
+        this.earliest = earliest;
+        this.latest = latest;
+        this.parent = parent;
+        this.makespan = makespan;
+        this.endNode = endNode;
+    }
+
+    /**
+     * Runs the analysis. Every task without predecessors may start at time 0.
+     * @param graph DAG (e.g. the condensation graph)
+     * @param topoOrder topological order of the graph
+     * @return analysis result
+     */
+    public static CriticalPath analyze(DirectedGraph graph, List<Integer> topoOrder) {
+        int n = graph.nodeCount();
+        if (topoOrder.size() != n) {
+            throw new IllegalArgumentException("Topological order covers " + topoOrder.size() + " of " + n + " nodes");
+        }
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] edgeWeights = graph.getEdgeWeights();
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = topoOrder.get(i);
+        }
+
+        // Forward sweep: earliest start (max relaxation) with the predecessor that sets it
+        int[] earliest = new int[n];
+        int[] parent = new int[n];
+        Arrays.fill(parent, -1);
+        int makespan = 0;
+        int endNode = n > 0 ? order[0] : -1;
+        for (int u : order) {
+            int start = earliest[u];
+            if (start > makespan) {
+                makespan = start;
+                endNode = u;
+            }
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                int candidate = start + edgeWeights[e];
+                if (candidate > earliest[v] || (parent[v] == -1 && candidate == earliest[v])) {
+                    earliest[v] = candidate;
+                    parent[v] = u;
+                }
+            }
+        }
+
+        // Backward sweep: latest start that keeps the makespan
+        int[] latest = new int[n];
+        Arrays.fill(latest, makespan);
+        for (int i = n - 1; i >= 0; i--) {
+            int u = order[i];
+            int bound = makespan;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                bound = Math.min(bound, latest[targets[e]] - edgeWeights[e]);
+            }
+            latest[u] = bound;
+        }
+        return new CriticalPath(graph, earliest, latest, parent, makespan, endNode);
+    }
+
+    /** Length of the longest dependency chain (start time of the last task). */
+    public int getMakespan() { return makespan; }
+
+    /** Task that ends the critical path, or -1 for an empty graph. */
+    public int getEndNode() { return endNode; }
+
+    /** Earliest start time per task. */
+    public int[] getEarliestStart() { return earliest; }
+
+    /** Latest start time per task that does not delay the makespan. */
+    public int[] getLatestStart() { return latest; }
+
+    /** Predecessor that determines each task's earliest start (-1 for none). */
+    public int[] getParent() { return parent; }
+
+    /**
+     * How long a task can be delayed without delaying the makespan.
+     * @param node task index
+     * @return latest minus earliest start
+     */
+    public int slack(int node) {
+        return latest[node] - earliest[node];
+    }
+
+    public boolean isCritical(int node) {
+        return slack(node) == 0;
+    }
+
+    /**
+     * The critical path as node names, from a starting task to {@link #getEndNode()}.
+     * @return path as list of node names
+     */
+    public List<String> getPath() {
+        if (endNode < 0) {
+            return new ArrayList<>();
+        }
+        return DAGShortestPaths.reconstructPath(parent, endNode, graph);
+    }
+}
@@ -1,90 +1,168 @@
 package graph.dagsp;
 
-import graph.DirectedGraph;
+import graph.GraphView;
 import graph.Metrics;
+import graph.metrics.CounterRegistry;
+import graph.util.EpochMarks;
+import graph.util.Workspace;
 
 import java.util.*;
 
 /**
  * Implements shortest and longest paths in a DAG using topological order.
  */
+@SuppressWarnings("try")
 public class DAGShortestPaths {
-    private final DirectedGraph graph;
+    private static final int RELAXATIONS = CounterRegistry.id("relaxations");
+    private static final int REACHED = Workspace.slot("dagsp.reached");
+    private static final int DIST = Workspace.slot("dagsp.dist");
+    private static final int PARENT = Workspace.slot("dagsp.parent");
+
+    private final GraphView graph;
     private final Metrics metrics;
+    private final Workspace workspace;
+
+    public DAGShortestPaths(GraphView graph, Metrics metrics) {
+        this(graph, metrics, null);
+    }
 
-    public DAGShortestPaths(DirectedGraph graph, Metrics metrics) {
+    /**
+     * With a workspace, results view its buffers: each {@link ShortestPathResult} stays
+     * valid until the next shortest or longest path run on the same workspace.
+     * @param graph acyclic graph (heap, mapped or off-heap)
+     * @param metrics metrics sink
+     * @param workspace buffers to reuse, or null to allocate fresh ones per run
+     */
+    public DAGShortestPaths(GraphView graph, Metrics metrics, Workspace workspace) {
         this.graph = graph;
         this.metrics = metrics;
+        this.workspace = workspace;
     }
 
     /**
      * Computes single-source shortest paths from source.
      * @param source source node index
      * @param topoOrder topological order
-     * @return distances and parents for reconstruction
+     * @return distance per node (Integer.MAX_VALUE if unreachable)
      */
     public Map<Integer, Integer> shortestPaths(int source, List<Integer> topoOrder) {
-        metrics.startTiming();
-        int n = graph.getNodes().size();
-        int[] dist = new int[n];
-        int[] parent = new int[n];
-        Arrays.fill(dist, Integer.MAX_VALUE);
-        Arrays.fill(parent, -1);
-        dist[source] = 0;
-
-        for (int u : topoOrder) {
-            if (dist[u] != Integer.MAX_VALUE) {
-                for (int v : graph.getAdj().get(u)) {
-                    metrics.incrementCounter("relaxations");
-                    int weight = graph.getWeights().get(u).getOrDefault(v, 1);
-                    if (dist[v] > dist[u] + weight) {
-                        dist[v] = dist[u] + weight;
-                        parent[v] = u;
-                    }
-                }
-            }
-        }
-        metrics.stopTiming();
+        return shortestPathResult(source, topoOrder).toMap();
+    }
 
-        Map<Integer, Integer> result = new HashMap<>();
-        for (int i = 0; i < n; i++) {
-            result.put(i, dist[i]);
-        }
-        return result;
+    /**
+     * Computes single-source shortest paths, keeping distances and parents as arrays.
+     * @param source source node index
+     * @param topoOrder topological order
+     * @return distances and path tree
+     */
+    public ShortestPathResult shortestPathResult(int source, List<Integer> topoOrder) {
+        return run(source, null, topoOrder, false);
     }
 
     /**
-     * Computes longest paths (critical path) by negating weights.
+     * Computes single-source shortest paths over an unboxed order,
+     * e.g. from {@link graph.topo.TopologicalSort#kahnOrder()}.
+     * @param source source node index
+     * @param topoOrder topological order (only the first nodeCount entries are read)
+     * @return distances and path tree
+     */
+    public ShortestPathResult shortestPathResult(int source, int[] topoOrder) {
+        return run(source, topoOrder, null, false);
+    }
+
+    /**
+     * Computes longest paths (critical path) by relaxing with max instead of min.
      * @param source source node index
      * @param topoOrder topological order
-     * @return distances and parents
+     * @return distance per node (Integer.MAX_VALUE if unreachable, as before)
      */
     public Map<Integer, Integer> longestPaths(int source, List<Integer> topoOrder) {
-        // Negate weights for longest path
-        DirectedGraph negatedGraph = negateWeights();
-        DAGShortestPaths sp = new DAGShortestPaths(negatedGraph, metrics);
-        Map<Integer, Integer> dist = sp.shortestPaths(source, topoOrder);
-        // Negate back
-        for (Map.Entry<Integer, Integer> entry : dist.entrySet()) {
-            if (entry.getValue() != Integer.MAX_VALUE) {
-                entry.setValue(-entry.getValue());
+        return longestPathResult(source, topoOrder).toMap();
+    }
+
+    /**
+     * Computes longest paths, keeping distances and parents as arrays.
+     * @param source source node index
+     * @param topoOrder topological order
+     * @return distances (Integer.MIN_VALUE if unreachable) and path tree
+     */
+    public ShortestPathResult longestPathResult(int source, List<Integer> topoOrder) {
+        return run(source, null, topoOrder, true);
+    }
+
+    /**
+     * Computes longest paths over an unboxed order.
+     * @param source source node index
+     * @param topoOrder topological order (only the first nodeCount entries are read)
+     * @return distances (Integer.MIN_VALUE if unreachable) and path tree
+     */
+    public ShortestPathResult longestPathResult(int source, int[] topoOrder) {
+        return run(source, topoOrder, null, true);
+    }
+
+    /**
+     * Single pass over the topological order, given either unboxed or as a list.
+     * Only reached nodes are written: the others are told apart by the reached marks,
+     * so nothing is filled per run.
+     */
+    private ShortestPathResult run(int source, int[] order, List<Integer> orderList, boolean longest) {
+        metrics.startTiming();
+        int n = graph.nodeCount();
+        int[] dist, parent;
+        EpochMarks reached;
+        long relaxations = 0;
+        try (Metrics.Phase phase = metrics.phase(longest ? "dag_longest" : "dag_shortest")) {
+            if (workspace != null) {
+                reached = workspace.marks(REACHED, n);
+                dist = workspace.ints(DIST, n);
+                parent = workspace.ints(PARENT, n);
+            } else {
+                reached = new EpochMarks(n);
+                dist = new int[n];
+                parent = new int[n];
+            }
+            reached.mark(source);
+            dist[source] = 0;
+            parent[source] = -1;
+
+            if (order != null) {
+                for (int i = 0; i < n; i++) {
+                    relaxations += relaxFrom(order[i], dist, parent, reached, longest);
+                }
+            } else {
+                for (int u : orderList) {
+                    relaxations += relaxFrom(u, dist, parent, reached, longest);
+                }
             }
         }
-        return dist;
+        metrics.stopTiming();
+        metrics.add(RELAXATIONS, relaxations);
+        return new ShortestPathResult(graph, source, dist, parent, reached, longest);
     }
 
-    private DirectedGraph negateWeights() {
-        List<String[]> edges = new ArrayList<>();
-        Map<String, Integer> negWeights = new HashMap<>();
-        for (int u = 0; u < graph.getNodes().size(); u++) {
-            for (int v : graph.getAdj().get(u)) {
-                String from = graph.getNodes().get(u);
-                String to = graph.getNodes().get(v);
-                edges.add(new String[]{from, to});
-                negWeights.put(from + "-" + to, -graph.getWeights().get(u).get(v));
+    /**
+     * Relaxes the out-edges of u if it has been reached.
+     * @return number of edges relaxed
+     */
+    private int relaxFrom(int u, int[] dist, int[] parent, EpochMarks reached, boolean longest) {
+        if (!reached.isMarked(u)) {
+            return 0;
+        }
+        int du = dist[u];
+        int start = graph.edgeStart(u), end = graph.edgeEnd(u);
+        for (int e = start; e < end; e++) {
+            int v = graph.target(e);
+            int candidate = du + graph.weight(e);
+            if (!reached.isMarked(v)) {
+                reached.mark(v);
+                dist[v] = candidate;
+                parent[v] = u;
+            } else if (longest ? candidate > dist[v] : candidate < dist[v]) {
+                dist[v] = candidate;
+                parent[v] = u;
             }
         }
-        return new DirectedGraph(graph.getNodes(), edges, negWeights);
+        return end - start;
     }
 
     /**
@@ -93,10 +171,10 @@ public class DAGShortestPaths {
      * @param target target node index
      * @return path as list of node names
      */
-    public static List<String> reconstructPath(int[] parent, int target, DirectedGraph graph) {
+    public static List<String> reconstructPath(int[] parent, int target, GraphView graph) {
         List<String> path = new ArrayList<>();
         for (int at = target; at != -1; at = parent[at]) {
-            path.add(graph.getNodes().get(at));
+            path.add(graph.nodeName(at));
         }
         Collections.reverse(path);
         return path;
@@ -0,0 +1,161 @@
+package graph.dagsp;
+
+import graph.DirectedGraph;
+import graph.Metrics;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Batch DAG shortest paths from many sources in one topological sweep per block.
+ * Sources are processed in blocks of k; distances of a block are stored node-major
+ * (the k distances of node v are contiguous), so relaxing an edge is a branch-free
+ * loop over k adjacent ints that the JIT can vectorize. Blocks run in parallel.
+ * <p>
+ * Unreachable entries are reported as Integer.MAX_VALUE. Internally "infinity" is
+ * Integer.MAX_VALUE / 2, so results are exact while path lengths stay within +/- 2^29.
+ */
+public class MultiSourceShortestPaths {
+    public static final int DEFAULT_BLOCK_SIZE = 16;
+    private static final int INF = Integer.MAX_VALUE / 2;
+    private static final int UNREACHED_THRESHOLD = INF / 2;
+
+    private final DirectedGraph graph;
+    private final Metrics metrics;
+    private final int blockSize;
+    private final int parallelism;
+
+    /**
+     * Callback receiving the distances from one source.
+     */
+    public interface DistanceConsumer {
+        /**
+         * Called once per source, possibly from several threads at once.
+         * @param sourceIndex position of the source in the requested array
+         * @param source source node index
+         * @param dist distance per node; the array is reused after this call returns
+         */
+        void accept(int sourceIndex, int source, int[] dist);
+    }
+
+    public MultiSourceShortestPaths(DirectedGraph graph, Metrics metrics) {
+        this(graph, metrics, DEFAULT_BLOCK_SIZE, ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * @param graph DAG
+     * @param metrics metrics sink (timing only, from the calling thread)
+     * @param blockSize number of sources relaxed together (memory per block: n * blockSize ints)
+     * @param parallelism number of blocks processed concurrently
+     */
+    public MultiSourceShortestPaths(DirectedGraph graph, Metrics metrics, int blockSize, int parallelism) {
+        if (blockSize < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("blockSize and parallelism must be >= 1");
+        }
+        this.graph = graph;
+        this.metrics = metrics;
+        this.blockSize = blockSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Distances from every source.
+     * @param sources source node indices
+     * @param topoOrder topological order
+     * @return matrix where row i holds the distances from sources[i]
+     */
+    public int[][] distances(int[] sources, List<Integer> topoOrder) {
+        int[][] result = new int[sources.length][];
+        forEach(sources, topoOrder, (i, source, dist) -> result[i] = dist.clone());
+        return result;
+    }
+
+    /**
+     * Streams the distances from every source to a callback, one block at a time,
+     * without keeping the full matrix.
+     * @param sources source node indices
+     * @param topoOrder topological order
+     * @param consumer receives each source's distances
+     */
+    public void forEach(int[] sources, List<Integer> topoOrder, DistanceConsumer consumer) {
+        if ((long) graph.nodeCount() * Math.min(blockSize, sources.length) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Block of " + blockSize + " sources over "
+                    + graph.nodeCount() + " nodes exceeds the array limit; use a smaller block size");
+        }
+        metrics.startTiming();
+        int[] order = new int[topoOrder.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = topoOrder.get(i);
+        }
+        int blocks = (sources.length + blockSize - 1) / blockSize;
+        if (parallelism == 1 || blocks == 1) {
+            for (int b = 0; b < blocks; b++) {
+                runBlock(sources, b, order, consumer);
+            }
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.submit(() -> IntStream.range(0, blocks).parallel()
+                        .forEach(b -> runBlock(sources, b, order, consumer))).join();
+            } finally {
+                pool.shutdown();
+            }
+        }
+        metrics.stopTiming();
+    }
+
+    private void runBlock(int[] sources, int block, int[] order, DistanceConsumer consumer) {
+        int first = block * blockSize;
+        int k = Math.min(blockSize, sources.length - first);
+        int n = graph.nodeCount();
+        int[] dist = new int[n * k];
+        Arrays.fill(dist, INF);
+        for (int j = 0; j < k; j++) {
+            dist[sources[first + j] * k + j] = 0;
+        }
+        sweep(dist, k, order);
+
+        int[] row = new int[n];
+        for (int j = 0; j < k; j++) {
+            for (int v = 0; v < n; v++) {
+                int d = dist[v * k + j];
+                row[v] = d >= UNREACHED_THRESHOLD ? Integer.MAX_VALUE : d;
+            }
+            consumer.accept(first + j, sources[first + j], row);
+        }
+    }
+
+    /**
+     * Relaxes all k lanes along the topological order.
+     */
+    private void sweep(int[] dist, int k, int[] order) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] edgeWeights = graph.getEdgeWeights();
+        for (int u : order) {
+            int ub = u * k;
+            if (!anyReached(dist, ub, k)) {
+                continue;
+            }
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int vb = targets[e] * k;
+                int w = edgeWeights[e];
+                for (int j = 0; j < k; j++) {
+                    dist[vb + j] = Math.min(dist[vb + j], dist[ub + j] + w);
+                }
+            }
+        }
+    }
+
+    private static boolean anyReached(int[] dist, int base, int k) {
+        int min = INF;
+        for (int j = 0; j < k; j++) {
+            min = Math.min(min, dist[base + j]);
+        }
+        return min < UNREACHED_THRESHOLD;
+    }
+
+    public int getBlockSize() { return blockSize; }
+    public int getParallelism() { return parallelism; }
+}
@@ -0,0 +1,213 @@
+package graph.dagsp;
+
+import graph.DirectedGraph;
+import graph.Metrics;
+import graph.metrics.CounterRegistry;
+import graph.metrics.NoOpMetrics;
+import graph.topo.ParallelTopologicalSort;
+import graph.topo.TopologicalLevels;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Level-parallel DAG shortest and longest paths. Nodes of one topological level do not
+ * depend on each other, so each level is split across a ForkJoinPool and every node pulls
+ * from its predecessors (reverse CSR): a thread only writes the distance of the nodes it
+ * owns, so there is no contention and no atomics.
+ * <p>
+ * Results equal {@link DAGShortestPaths} for the same topological order, parents included:
+ * among predecessors giving the same best distance, the one earliest in the order wins,
+ * which is the one the sequential pass keeps.
+ */
+@SuppressWarnings("try")
+public class ParallelDAGShortestPaths {
+    private static final int PARALLEL_THRESHOLD = 1024;  // Smallest level split across threads
+    private static final int RELAXATIONS = CounterRegistry.id("relaxations");
+
+    private final DirectedGraph graph;
+    private final DirectedGraph reverse;
+    private final Metrics metrics;
+    private final int parallelism;
+    private TopologicalLevels levels;
+
+    public ParallelDAGShortestPaths(DirectedGraph dag, Metrics metrics) {
+        this(dag, metrics, ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * @param dag acyclic graph
+     * @param metrics metrics sink (timing and the relaxations counter)
+     * @param parallelism number of worker threads
+     */
+    public ParallelDAGShortestPaths(DirectedGraph dag, Metrics metrics, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be >= 1: " + parallelism);
+        }
+        this.graph = dag;
+        this.reverse = dag.reverse();
+        this.metrics = metrics;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Computes single-source shortest paths from source.
+     * @param source source node index
+     * @param topoOrder topological order (decides ties between equal paths)
+     * @return distance per node (Integer.MAX_VALUE if unreachable)
+     */
+    public Map<Integer, Integer> shortestPaths(int source, List<Integer> topoOrder) {
+        return shortestPathResult(source, topoOrder).toMap();
+    }
+
+    /**
+     * Computes single-source shortest paths, keeping distances and parents as arrays.
+     * @param source source node index
+     * @param topoOrder topological order (decides ties between equal paths)
+     * @return distances and path tree
+     */
+    public ShortestPathResult shortestPathResult(int source, List<Integer> topoOrder) {
+        int n = graph.nodeCount();
+        int[] dist = new int[n];
+        int[] parent = new int[n];
+        relax(source, positions(topoOrder), dist, parent, false);
+        return new ShortestPathResult(graph, source, dist, parent, false);
+    }
+
+    /**
+     * Computes longest paths from source.
+     * @param source source node index
+     * @param topoOrder topological order (decides ties between equal paths)
+     * @return distance per node (Integer.MAX_VALUE if unreachable, as in {@link DAGShortestPaths})
+     */
+    public Map<Integer, Integer> longestPaths(int source, List<Integer> topoOrder) {
+        return longestPathResult(source, topoOrder).toMap();
+    }
+
+    /**
+     * Computes longest paths, keeping distances and parents as arrays.
+     * @param source source node index
+     * @param topoOrder topological order (decides ties between equal paths)
+     * @return distances (Integer.MIN_VALUE if unreachable) and path tree
+     */
+    public ShortestPathResult longestPathResult(int source, List<Integer> topoOrder) {
+        int n = graph.nodeCount();
+        int[] dist = new int[n];
+        int[] parent = new int[n];
+        relax(source, positions(topoOrder), dist, parent, true);
+        return new ShortestPathResult(graph, source, dist, parent, true);
+    }
+
+    /**
+     * Level-parallel relaxation.
+     * Unreachable nodes keep Integer.MAX_VALUE (min) or Integer.MIN_VALUE (max) and parent -1.
+     * @param source source node index
+     * @param position position of each node in the topological order used for tie-breaking,
+     *                 or null to use the order of {@link #levels()}
+     * @param dist output distances (length n)
+     * @param parent output predecessor on the chosen path (length n)
+     * @param longest maximize instead of minimize
+     */
+    public void relax(int source, int[] position, int[] dist, int[] parent, boolean longest) {
+        metrics.startTiming();
+        long relaxations = 0;
+        try (Metrics.Phase phase = metrics.phase(longest ? "parallel_dag_longest" : "parallel_dag_shortest")) {
+            TopologicalLevels lv = levels();
+            int[] pos = position != null ? position : positions(lv.getOrder());
+            int unreached = longest ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+            Arrays.fill(dist, unreached);
+            Arrays.fill(parent, -1);
+            dist[source] = 0;
+
+            int[] order = lv.getOrder();
+            int[] levelOffsets = lv.getLevelOffsets();
+            ForkJoinPool pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+            try {
+                // Nothing at or below the source's level is reachable from it
+                for (int level = lv.getLevelOf()[source] + 1; level < lv.levelCount(); level++) {
+                    int from = levelOffsets[level], to = levelOffsets[level + 1];
+                    if (pool == null || to - from < PARALLEL_THRESHOLD) {
+                        relaxations += pull(order, from, to, pos, dist, parent, longest, unreached);
+                    } else {
+                        int chunks = Math.min(parallelism * 4, (to - from + 255) / 256);
+                        relaxations += pool.submit(() -> IntStream.range(0, chunks).parallel().mapToLong(c -> pull(order,
+                                from + (int) ((long) (to - from) * c / chunks),
+                                from + (int) ((long) (to - from) * (c + 1) / chunks),
+                                pos, dist, parent, longest, unreached)).sum()).join();
+                    }
+                }
+            } finally {
+                if (pool != null) {
+                    pool.shutdown();
+                }
+            }
+        }
+        metrics.stopTiming();
+        metrics.add(RELAXATIONS, relaxations);
+    }
+
+    /**
+     * Topological levels of the graph, computed on first use.
+     */
+    public synchronized TopologicalLevels levels() {
+        if (levels == null) {
+            levels = new ParallelTopologicalSort(graph, NoOpMetrics.INSTANCE, parallelism).sort();
+            if (levels == null) {
+                throw new IllegalArgumentException("Graph has a cycle");
+            }
+        }
+        return levels;
+    }
+
+    /**
+     * Computes the distance of each node in order[from, to) from its predecessors.
+     * @return number of edges relaxed (edges leaving reached nodes)
+     */
+    private long pull(int[] order, int from, int to, int[] pos, int[] dist, int[] parent,
+                      boolean longest, int unreached) {
+        int[] rOffsets = reverse.getOffsets();
+        int[] rTargets = reverse.getTargets();
+        int[] rWeights = reverse.getEdgeWeights();
+        long relaxations = 0;
+        for (int i = from; i < to; i++) {
+            int v = order[i];
+            int best = unreached;
+            int bestParent = -1;
+            for (int e = rOffsets[v]; e < rOffsets[v + 1]; e++) {
+                int u = rTargets[e];
+                int du = dist[u];
+                if (du == unreached) {
+                    continue;
+                }
+                relaxations++;
+                int candidate = du + rWeights[e];
+                if (longest ? candidate > best : candidate < best) {
+                    best = candidate;
+                    bestParent = u;
+                } else if (candidate == best && bestParent >= 0 && pos[u] < pos[bestParent]) {
+                    bestParent = u;  // The sequential pass keeps the earliest predecessor
+                }
+            }
+            dist[v] = best;
+            parent[v] = bestParent;
+        }
+        return relaxations;
+    }
+
+    private int[] positions(List<Integer> topoOrder) {
+        int[] pos = new int[graph.nodeCount()];
+        for (int i = 0; i < topoOrder.size(); i++) {
+            pos[topoOrder.get(i)] = i;
+        }
+        return pos;
+    }
+
+    private static int[] positions(int[] order) {
+        int[] pos = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            pos[order[i]] = i;
+        }
+        return pos;
+    }
+}
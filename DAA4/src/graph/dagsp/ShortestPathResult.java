@@ -0,0 +1,132 @@
+package graph.dagsp;
+
+import graph.GraphView;
+import graph.util.EpochMarks;
+
+import java.util.*;
+
+/**
+ * Distances and the path tree from one source, kept as primitive arrays.
+ * Paths are reconstructed only for the targets asked for, and cached.
+ * Unreachable nodes have parent -1 and distance Integer.MAX_VALUE (shortest)
+ * or Integer.MIN_VALUE (longest) in {@link #getDistances()}.
+ */
+public class ShortestPathResult {
+    private final GraphView graph;
+    private final int source;
+    private final int[] dist;
+    private final int[] parent;
+    private final boolean longest;
+    private EpochMarks reached;  // Null once dist and parent hold a value for every node
+    private Map<Integer, List<String>> namedPaths;  // Created on first use
+
+    public ShortestPathResult(GraphView graph, int source, int[] dist, int[] parent, boolean longest) {
+        this(graph, source, dist, parent, null, longest);
+    }
+
+    /**
+     * Creates a result where only the marked nodes have been written; the arrays may be
+     * longer than the node count. Unmarked entries are filled in on the first call to
+     * {@link #getDistances()} or {@link #getParent()}.
+     * @param reached marks of the reached nodes, or null if every entry is valid
+     */
+    public ShortestPathResult(GraphView graph, int source, int[] dist, int[] parent,
+                              EpochMarks reached, boolean longest) {
+        this.graph = graph;
+        this.source = source;
+        this.dist = dist;
+        this.parent = parent;
+        this.reached = reached;
+        this.longest = longest;
+    }
+
+    public int getSource() { return source; }
+    public boolean isLongest() { return longest; }
+
+    /** Distance per node (not a copy). */
+    public int[] getDistances() {
+        fillUnreached();
+        return dist;
+    }
+
+    /** Predecessor of each node on its path, -1 for the source and unreachable nodes (not a copy). */
+    public int[] getParent() {
+        fillUnreached();
+        return parent;
+    }
+
+    public boolean isReachable(int node) {
+        if (reached != null) {
+            return reached.isMarked(node);
+        }
+        return dist[node] != (longest ? Integer.MIN_VALUE : Integer.MAX_VALUE);
+    }
+
+    /**
+     * Distance to a node.
+     * @return distance, or Integer.MAX_VALUE if unreachable (for both objectives)
+     */
+    public int distance(int node) {
+        return isReachable(node) ? dist[node] : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Path from the source as node indices.
+     * @return path, or an empty list if unreachable
+     */
+    public int[] pathTo(int target) {
+        if (!isReachable(target)) {
+            return new int[0];
+        }
+        int length = 0;
+        for (int at = target; at != -1; at = parent[at]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int at = target, i = length - 1; at != -1; at = parent[at], i--) {
+            path[i] = at;
+        }
+        return path;
+    }
+
+    /**
+     * Path from the source as node names, reconstructed on first request.
+     * @return path, or an empty list if unreachable
+     */
+    public List<String> namedPathTo(int target) {
+        if (!isReachable(target)) {
+            return Collections.emptyList();
+        }
+        if (namedPaths == null) {
+            namedPaths = new HashMap<>();
+        }
+        return namedPaths.computeIfAbsent(target,
+                t -> Collections.unmodifiableList(DAGShortestPaths.reconstructPath(parent, t, graph)));
+    }
+
+    /**
+     * Distances in the boxed form returned by {@link DAGShortestPaths#shortestPaths}
+     * (Integer.MAX_VALUE for unreachable nodes).
+     */
+    public Map<Integer, Integer> toMap() {
+        Map<Integer, Integer> result = new HashMap<>();
+        for (int i = 0; i < graph.nodeCount(); i++) {
+            result.put(i, distance(i));
+        }
+        return result;
+    }
+
+    private void fillUnreached() {
+        if (reached == null) {
+            return;
+        }
+        int unreached = longest ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        for (int i = 0; i < graph.nodeCount(); i++) {
+            if (!reached.isMarked(i)) {
+                dist[i] = unreached;
+                parent[i] = -1;
+            }
+        }
+        reached = null;
+    }
+}
@@ -0,0 +1,373 @@
+package graph.dist;
+
+import graph.DirectedGraph;
+import graph.Metrics;
+import graph.WeightPolicy;
+import graph.dagsp.ShortestPathResult;
+import graph.metrics.CounterRegistry;
+import graph.scc.CondensationResult;
+import graph.scc.SCCResult;
+import graph.topo.TopologicalSort;
+import graph.util.IntList;
+import graph.util.LongIntHashMap;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Runs the SCC and path stages of the pipeline across several {@link PartitionWorker}s.
+ * The graph is split by node range or hash; each worker receives only its nodes' edges.
+ * The coordinator then drives supersteps: it sends every worker its inbox, collects the
+ * boundary messages each one produced, and routes them for the next step, until no
+ * messages are left.
+ * <p>
+ * Results come back in the shapes the single-process pipeline uses, so {@code Main}
+ * prints them unchanged: components are numbered in reverse topological order (as Tarjan
+ * numbers them), the condensation equals {@link DirectedGraph#buildCondensation} for that
+ * numbering, and path parents break ties as a sequential pass in topological order would.
+ * The condensation is assumed to fit on the coordinator; it orders it with Kahn's algorithm.
+ */
+@SuppressWarnings("try")
+public class Coordinator implements AutoCloseable {
+    private static final int SUPERSTEPS = CounterRegistry.id("dist_supersteps");
+    private static final int MESSAGES = CounterRegistry.id("dist_messages");
+
+    /** How workers are started. */
+    public enum Launch { PROCESS, THREAD }
+
+    private final WorkerLink[] workers;
+    private final Partitioner.Scheme scheme;
+    private final Metrics metrics;
+    private DirectedGraph loadedCondensation;
+
+    public Coordinator(int workerCount, Partitioner.Scheme scheme, Launch launch, Metrics metrics) throws IOException {
+        this(workerCount, scheme, launch, Collections.emptyList(), metrics);
+    }
+
+    /**
+     * @param workerCount number of workers
+     * @param scheme how nodes are assigned to workers
+     * @param launch worker JVMs or worker threads
+     * @param jvmOptions extra options for worker JVMs (ignored for threads)
+     * @param metrics metrics sink (supersteps and routed messages are counted)
+     */
+    public Coordinator(int workerCount, Partitioner.Scheme scheme, Launch launch, List<String> jvmOptions,
+                       Metrics metrics) throws IOException {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("Need at least one worker");
+        }
+        this.scheme = scheme;
+        this.metrics = metrics;
+        this.workers = new WorkerLink[workerCount];
+        try {
+            for (int w = 0; w < workerCount; w++) {
+                workers[w] = launch == Launch.PROCESS ? WorkerLink.launchProcess(jvmOptions) : WorkerLink.startThread(w);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    public int getWorkerCount() { return workers.length; }
+
+    /**
+     * Partitions the graph across the workers and computes SCCs, condensation and a
+     * topological order of the condensation.
+     * @param graph graph to decompose
+     * @param policy how to combine the weights of merged edges
+     * @return SCCs, condensation and order, as {@link graph.scc.FusedCondensation} returns them
+     */
+    public CondensationResult condense(DirectedGraph graph, WeightPolicy policy) throws IOException {
+        int n = graph.nodeCount();
+        Partitioner partition = new Partitioner(scheme, n, workers.length);
+        try (Metrics.Phase phase = metrics.phase("dist_load")) {
+            loadGraph(graph, partition);
+        }
+
+        try (Metrics.Phase phase = metrics.phase("dist_scc")) {
+            long remaining = superstep(PartitionWorker.TRIM_START, PartitionWorker.TRIM_STEP, PartitionWorker.TRIM_RECORD);
+            while (remaining > 0) {
+                superstep(PartitionWorker.COLOR_START, PartitionWorker.COLOR_STEP, PartitionWorker.COLOR_RECORD);
+                superstep(PartitionWorker.BACKWARD_START, PartitionWorker.BACKWARD_STEP, PartitionWorker.BACKWARD_RECORD);
+                remaining = superstep(PartitionWorker.TRIM_START, PartitionWorker.TRIM_STEP, PartitionWorker.TRIM_RECORD);
+            }
+        }
+
+        try (Metrics.Phase phase = metrics.phase("dist_condense")) {
+            // Labels of all nodes, and which remote labels each worker needs
+            int[] label = new int[n];
+            int[][] ghosts = new int[workers.length][];
+            broadcast(PartitionWorker.LABELS);
+            for (int w = 0; w < workers.length; w++) {
+                DataInputStream in = workers[w].in;
+                int count = in.readInt();
+                for (int l = 0; l < count; l++) {
+                    label[partition.globalId(w, l)] = in.readInt();
+                }
+                ghosts[w] = readInts(in);
+            }
+            for (int w = 0; w < workers.length; w++) {
+                DataOutputStream out = workers[w].out;
+                out.writeInt(PartitionWorker.CONDENSE);
+                out.writeInt(policy.ordinal());
+                for (int ghost : ghosts[w]) {
+                    out.writeInt(label[ghost]);
+                }
+                out.flush();
+            }
+            return mergeCondensation(label, policy);
+        }
+    }
+
+    /**
+     * Shortest or longest paths over a condensation returned by {@link #condense}, computed
+     * on the workers (the condensation is partitioned the same way as the graph).
+     * @param condensation condensation DAG, numbered in reverse topological order
+     * @param source source component
+     * @param longest longest instead of shortest paths
+     * @return distances and parents, as {@link graph.dagsp.DAGShortestPaths} returns them
+     */
+    public ShortestPathResult paths(DirectedGraph condensation, int source, boolean longest) throws IOException {
+        int count = condensation.nodeCount();
+        Partitioner partition = new Partitioner(scheme, count, workers.length);
+        try (Metrics.Phase phase = metrics.phase("dist_paths")) {
+            if (loadedCondensation != condensation) {
+                for (int w = 0; w < workers.length; w++) {
+                    DataOutputStream out = workers[w].out;
+                    out.writeInt(PartitionWorker.LOAD_CONDENSATION);
+                    out.writeInt(scheme.ordinal());
+                    out.writeInt(count);
+                    for (int l = 0; l < partition.localCount(w); l++) {
+                        int c = partition.globalId(w, l);
+                        out.writeInt(condensation.edgeEnd(c) - condensation.edgeStart(c));
+                        for (int e = condensation.edgeStart(c); e < condensation.edgeEnd(c); e++) {
+                            out.writeInt(condensation.target(e));
+                            out.writeInt(condensation.weight(e));
+                        }
+                    }
+                    out.flush();
+                }
+                for (WorkerLink worker : workers) {
+                    worker.in.readInt();
+                }
+                loadedCondensation = condensation;
+            }
+
+            for (WorkerLink worker : workers) {
+                worker.out.writeInt(PartitionWorker.PATHS_START);
+                worker.out.writeInt(source);
+                worker.out.writeInt(longest ? 1 : 0);
+                worker.out.flush();
+            }
+            route(PartitionWorker.PATHS_STEP, PartitionWorker.PATHS_RECORD);
+
+            int[] dist = new int[count];
+            int[] parent = new int[count];
+            broadcast(PartitionWorker.PATHS_RESULT);
+            for (int w = 0; w < workers.length; w++) {
+                DataInputStream in = workers[w].in;
+                int local = in.readInt();
+                for (int l = 0; l < local; l++) {
+                    int c = partition.globalId(w, l);
+                    boolean reached = in.readInt() == 1;
+                    int d = in.readInt();
+                    int p = in.readInt();
+                    dist[c] = reached ? d : longest ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+                    parent[c] = reached ? p : -1;
+                }
+            }
+            return new ShortestPathResult(condensation, source, dist, parent, longest);
+        }
+    }
+
+    /**
+     * Sends every worker the out-edges of its nodes. The workers derive their in-edges
+     * themselves by exchanging the boundary edges, so no reverse graph is built here.
+     */
+    private void loadGraph(DirectedGraph graph, Partitioner partition) throws IOException {
+        for (int w = 0; w < workers.length; w++) {
+            DataOutputStream out = workers[w].out;
+            out.writeInt(PartitionWorker.LOAD_GRAPH);
+            out.writeInt(scheme.ordinal());
+            out.writeInt(graph.nodeCount());
+            out.writeInt(workers.length);
+            out.writeInt(w);
+            int local = partition.localCount(w);
+            for (int l = 0; l < local; l++) {
+                int u = partition.globalId(w, l);
+                out.writeInt(graph.edgeEnd(u) - graph.edgeStart(u));
+                for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                    out.writeInt(graph.target(e));
+                    out.writeInt(graph.weight(e));
+                    out.writeInt(e);
+                }
+            }
+            out.flush();
+        }
+        route(PartitionWorker.IN_EDGES_STEP, PartitionWorker.IN_EDGE_RECORD);
+        broadcast(PartitionWorker.LOAD_DONE);
+        for (WorkerLink worker : workers) {
+            worker.in.readInt();
+        }
+    }
+
+    /**
+     * Runs one phase to its fixpoint: the start command, then steps while messages flow.
+     * @return number of nodes still without an SCC after the phase
+     */
+    private long superstep(int start, int step, int recordInts) throws IOException {
+        broadcast(start);
+        return route(step, recordInts);
+    }
+
+    /** Collects responses and forwards their messages with step commands until none are left. */
+    private long route(int step, int recordInts) throws IOException {
+        IntList[] inbox = new IntList[workers.length];
+        for (int w = 0; w < workers.length; w++) {
+            inbox[w] = new IntList();
+        }
+        while (true) {
+            long remaining = 0, messages = 0;
+            for (WorkerLink worker : workers) {
+                DataInputStream in = worker.in;
+                remaining += in.readInt();
+                for (int d = 0; d < workers.length; d++) {
+                    int count = in.readInt();
+                    for (int i = 0; i < count * recordInts; i++) {
+                        inbox[d].add(in.readInt());
+                    }
+                    messages += count;
+                }
+            }
+            metrics.increment(SUPERSTEPS);
+            metrics.add(MESSAGES, messages);
+            if (messages == 0) {
+                return remaining;
+            }
+            for (int w = 0; w < workers.length; w++) {
+                DataOutputStream out = workers[w].out;
+                out.writeInt(step);
+                out.writeInt(inbox[w].size() / recordInts);
+                for (int i = 0; i < inbox[w].size(); i++) {
+                    out.writeInt(inbox[w].get(i));
+                }
+                out.flush();
+                inbox[w].clear();
+            }
+        }
+    }
+
+    private void broadcast(int command) throws IOException {
+        for (WorkerLink worker : workers) {
+            worker.out.writeInt(command);
+            worker.out.flush();
+        }
+    }
+
+    /**
+     * Merges the per-worker cross-label edges, numbers the components in reverse Kahn order
+     * and builds the condensation with rows ordered by first source edge.
+     */
+    private CondensationResult mergeCondensation(int[] label, WeightPolicy policy) throws IOException {
+        LongIntHashMap slotOf = new LongIntHashMap();
+        IntList from = new IntList(), to = new IntList(), weight = new IntList(), first = new IntList();
+        for (WorkerLink worker : workers) {
+            DataInputStream in = worker.in;
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                int lu = in.readInt(), lv = in.readInt(), w = in.readInt(), e = in.readInt();
+                int slot = slotOf.putIfAbsent(LongIntHashMap.pairKey(lu, lv), from.size());
+                if (slot == from.size()) {
+                    from.add(lu);
+                    to.add(lv);
+                    weight.add(w);
+                    first.add(e);
+                } else if (policy == WeightPolicy.FIRST) {
+                    if (e < first.get(slot)) {
+                        first.set(slot, e);
+                        weight.set(slot, w);
+                    }
+                } else {
+                    weight.set(slot, policy.combine(weight.get(slot), w));
+                    first.set(slot, Math.min(first.get(slot), e));
+                }
+            }
+        }
+
+        // Dense ids in label order, then edges in order of their first source edge
+        int n = label.length;
+        int[] denseOf = new int[n];
+        Arrays.fill(denseOf, -1);
+        for (int v = 0; v < n; v++) {
+            denseOf[label[v]] = 0;
+        }
+        int componentCount = 0;
+        for (int v = 0; v < n; v++) {
+            if (denseOf[v] == 0) {
+                denseOf[v] = ++componentCount;
+            }
+        }
+        int m = from.size();
+        long[] byFirst = new long[m];
+        for (int i = 0; i < m; i++) {
+            byFirst[i] = ((long) first.get(i) << 32) | i;
+        }
+        Arrays.sort(byFirst);
+        int[] f = new int[m], t = new int[m], w = new int[m];
+        for (int i = 0; i < m; i++) {
+            int j = (int) byFirst[i];
+            f[i] = denseOf[from.get(j)] - 1;
+            t[i] = denseOf[to.get(j)] - 1;
+            w[i] = weight.get(j);
+        }
+
+        int[] order = new TopologicalSort(new DirectedGraph(DirectedGraph.indexNames(componentCount), f, t, w, m),
+                metrics).kahnOrder();
+        if (order == null) {
+            throw new IllegalStateException("Distributed condensation has a cycle");
+        }
+        int[] idOf = new int[componentCount];
+        for (int i = 0; i < componentCount; i++) {
+            idOf[order[i]] = componentCount - 1 - i;
+        }
+        for (int i = 0; i < m; i++) {
+            f[i] = idOf[f[i]];
+            t[i] = idOf[t[i]];
+        }
+        int[] componentOf = new int[n];
+        for (int v = 0; v < n; v++) {
+            componentOf[v] = idOf[denseOf[label[v]] - 1];
+        }
+        DirectedGraph condensation = new DirectedGraph(DirectedGraph.indexNames("SCC", componentCount), f, t, w, m);
+        return new CondensationResult(new SCCResult(componentOf, componentCount), condensation,
+                CondensationResult.reverseIds(componentCount));
+    }
+
+    private static int[] readInts(DataInputStream in) throws IOException {
+        int[] values = new int[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    /** Shuts every started worker down. */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (WorkerLink worker : workers) {
+            if (worker == null) {
+                continue;
+            }
+            try {
+                worker.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,621 @@
+package graph.dist;
+
+import graph.WeightPolicy;
+import graph.util.IntList;
+import graph.util.LongIntHashMap;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * One partition of a distributed run. A worker holds only the out- and in-edges of the
+ * nodes it owns (it is sent the out-edges and receives the in-edges from the owners of
+ * their sources) and talks to the {@link Coordinator} over a pair of streams (the stdin and
+ * stdout of a worker JVM, or pipes for an in-process worker). Every command is answered
+ * with one response; work proceeds in supersteps, and the only data leaving a worker are
+ * boundary messages addressed to nodes of other workers, which the coordinator routes.
+ * <p>
+ * SCCs are found with trimming plus coloring (forward label propagation, then backward
+ * reachability from each color root inside its color), repeated until no node remains.
+ * A node's SCC label is the global id of its color root, or its own id when trimmed.
+ * Shortest and longest paths over the condensation are label-correcting relaxations over
+ * the components this worker owns.
+ * <p>
+ * Run as {@code java -cp out graph.dist.PartitionWorker}; it writes nothing else to stdout.
+ */
+public class PartitionWorker {
+    // Commands
+    static final int LOAD_GRAPH = 1;
+    static final int TRIM_START = 2;
+    static final int TRIM_STEP = 3;
+    static final int COLOR_START = 4;
+    static final int COLOR_STEP = 5;
+    static final int BACKWARD_START = 6;
+    static final int BACKWARD_STEP = 7;
+    static final int LABELS = 8;
+    static final int CONDENSE = 9;
+    static final int LOAD_CONDENSATION = 10;
+    static final int PATHS_START = 11;
+    static final int PATHS_STEP = 12;
+    static final int PATHS_RESULT = 13;
+    static final int SHUTDOWN = 14;
+    static final int IN_EDGES_STEP = 15;
+    static final int LOAD_DONE = 16;
+
+    /**
+     * Ints per boundary message: in-edges while loading (target, source), trim (node,
+     * 1 = lost an in-edge / 0 = lost an out-edge), color and backward (node, color),
+     * paths (component, distance, parent).
+     */
+    static final int IN_EDGE_RECORD = 2, TRIM_RECORD = 2, COLOR_RECORD = 2, BACKWARD_RECORD = 2, PATHS_RECORD = 3;
+
+    private static final int UNASSIGNED = -1;
+
+    private final DataInputStream in;
+    private final DataOutputStream out;
+
+    private Partitioner partition;
+    private int self;
+    private int localCount;
+
+    // Local graph: out-edges (global target, weight, global edge id) and in-edges (global source)
+    private int[] outOffsets, outTargets, outWeights, outEdgeIds;
+    private int[] inOffsets, inSources;
+    private IntList inEdges;  // (local target, global source) pairs until LOAD_DONE
+
+    // SCC state per local node
+    private int[] label;        // SCC label, UNASSIGNED while the node remains
+    private int[] color;
+    private int[] inDegree;     // Remaining in-edges (counted per edge)
+    private int[] outDegree;    // Remaining out-edges
+    private boolean[] notified; // Removal already reported to the neighbors
+    private boolean[] queued;
+    private final IntList work = new IntList();
+    private int remaining;
+    private int[] ghosts;       // Remote targets, as sent with the labels
+
+    // Paths state per local component
+    private Partitioner componentPartition;
+    private int[] cOffsets, cTargets, cWeights;
+    private int[] dist, parent;
+    private boolean[] reached;
+    private boolean longest;
+
+    // Outgoing messages of the current superstep, per destination worker
+    private IntList[] outbox;
+    private LongIntHashMap sent;  // Dedupes color / backward / paths messages per superstep
+
+    PartitionWorker(InputStream in, OutputStream out) {
+        this.in = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+    }
+
+    public static void main(String[] args) throws IOException {
+        new PartitionWorker(System.in, System.out).serve();
+    }
+
+    /** Answers commands until SHUTDOWN or end of input. */
+    void serve() throws IOException {
+        while (true) {
+            int command;
+            try {
+                command = in.readInt();
+            } catch (EOFException e) {
+                return;
+            }
+            switch (command) {
+                case LOAD_GRAPH: loadGraph(); break;
+                case IN_EDGES_STEP: inEdgesStep(); break;
+                case LOAD_DONE: loadDone(); break;
+                case TRIM_START: trimStart(); break;
+                case TRIM_STEP: trimStep(); break;
+                case COLOR_START: colorStart(); break;
+                case COLOR_STEP: colorStep(); break;
+                case BACKWARD_START: backwardStart(); break;
+                case BACKWARD_STEP: backwardStep(); break;
+                case LABELS: labels(); break;
+                case CONDENSE: condense(); break;
+                case LOAD_CONDENSATION: loadCondensation(); break;
+                case PATHS_START: pathsStart(); break;
+                case PATHS_STEP: pathsStep(); break;
+                case PATHS_RESULT: pathsResult(); break;
+                case SHUTDOWN:
+                    out.writeInt(0);
+                    out.flush();
+                    return;
+                default:
+                    throw new IOException("Unknown command " + command);
+            }
+            out.flush();
+        }
+    }
+
+    // ---- Loading ----
+
+    /**
+     * Reads the out-edges of the local nodes. In-edges are not sent: each edge is kept as
+     * an in-edge here if this worker owns its target, and otherwise sent to the owner.
+     */
+    private void loadGraph() throws IOException {
+        partition = readPartition();
+        localCount = partition.localCount(self);
+        outOffsets = new int[localCount + 1];
+        IntList targets = new IntList(), weights = new IntList(), edgeIds = new IntList();
+        inEdges = new IntList();
+        for (int l = 0; l < localCount; l++) {
+            int u = partition.globalId(self, l);
+            int degree = in.readInt();
+            for (int i = 0; i < degree; i++) {
+                int v = in.readInt();
+                targets.add(v);
+                weights.add(in.readInt());
+                edgeIds.add(in.readInt());
+                int owner = partition.owner(v);
+                if (owner == self) {
+                    inEdges.add(partition.localIndex(v));
+                    inEdges.add(u);
+                } else {
+                    outbox[owner].add(v);
+                    outbox[owner].add(u);
+                }
+            }
+            outOffsets[l + 1] = targets.size();
+        }
+        outTargets = targets.toArray();
+        outWeights = weights.toArray();
+        outEdgeIds = edgeIds.toArray();
+        respond(IN_EDGE_RECORD);
+    }
+
+    private void inEdgesStep() throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            inEdges.add(partition.localIndex(in.readInt()));
+            inEdges.add(in.readInt());
+        }
+        respond(IN_EDGE_RECORD);
+    }
+
+    /** Groups the collected in-edges by target, sources ascending, and resets the SCC state. */
+    private void loadDone() throws IOException {
+        long[] pairs = new long[inEdges.size() / 2];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = (long) inEdges.get(2 * i) << 32 | inEdges.get(2 * i + 1);
+        }
+        inEdges = null;
+        Arrays.sort(pairs);
+        inOffsets = new int[localCount + 1];
+        inSources = new int[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            inOffsets[(int) (pairs[i] >>> 32) + 1]++;
+            inSources[i] = (int) pairs[i];
+        }
+        for (int l = 0; l < localCount; l++) {
+            inOffsets[l + 1] += inOffsets[l];
+        }
+
+        label = new int[localCount];
+        Arrays.fill(label, UNASSIGNED);
+        color = new int[localCount];
+        inDegree = new int[localCount];
+        outDegree = new int[localCount];
+        for (int l = 0; l < localCount; l++) {
+            inDegree[l] = inOffsets[l + 1] - inOffsets[l];
+            outDegree[l] = outOffsets[l + 1] - outOffsets[l];
+        }
+        notified = new boolean[localCount];
+        queued = new boolean[localCount];
+        remaining = localCount;
+        out.writeInt(localCount);
+    }
+
+    private Partitioner readPartition() throws IOException {
+        Partitioner.Scheme scheme = Partitioner.Scheme.values()[in.readInt()];
+        int nodes = in.readInt();
+        int workers = in.readInt();
+        self = in.readInt();
+        outbox = new IntList[workers];
+        for (int w = 0; w < workers; w++) {
+            outbox[w] = new IntList();
+        }
+        sent = new LongIntHashMap();
+        return new Partitioner(scheme, nodes, workers);
+    }
+
+    // ---- Trimming: peel nodes without remaining in- or out-edges ----
+
+    private void trimStart() throws IOException {
+        for (int l = 0; l < localCount; l++) {
+            if (label[l] == UNASSIGNED ? inDegree[l] == 0 || outDegree[l] == 0 : !notified[l]) {
+                enqueue(l);
+            }
+        }
+        peel();
+        respond(TRIM_RECORD);
+    }
+
+    private void trimStep() throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int l = partition.localIndex(in.readInt());
+            boolean lostInEdge = in.readInt() == 1;
+            if (lostInEdge) {
+                inDegree[l]--;
+            } else {
+                outDegree[l]--;
+            }
+            if (label[l] == UNASSIGNED && (inDegree[l] == 0 || outDegree[l] == 0)) {
+                enqueue(l);
+            }
+        }
+        peel();
+        respond(TRIM_RECORD);
+    }
+
+    /** Removes queued nodes (assigning singleton labels to remaining ones) and reports each removal to its neighbors. */
+    private void peel() {
+        while (!work.isEmpty()) {
+            int l = work.removeLast();
+            queued[l] = false;
+            if (label[l] == UNASSIGNED) {
+                label[l] = partition.globalId(self, l);
+                remaining--;
+            }
+            if (notified[l]) {
+                continue;
+            }
+            notified[l] = true;
+            for (int e = outOffsets[l]; e < outOffsets[l + 1]; e++) {
+                int v = outTargets[e];
+                if (partition.owner(v) != self) {
+                    send(v, 1);
+                } else {
+                    int lv = partition.localIndex(v);
+                    if (--inDegree[lv] == 0 && label[lv] == UNASSIGNED) {
+                        enqueue(lv);
+                    }
+                }
+            }
+            for (int e = inOffsets[l]; e < inOffsets[l + 1]; e++) {
+                int u = inSources[e];
+                if (partition.owner(u) != self) {
+                    send(u, 0);
+                } else {
+                    int lu = partition.localIndex(u);
+                    if (--outDegree[lu] == 0 && label[lu] == UNASSIGNED) {
+                        enqueue(lu);
+                    }
+                }
+            }
+        }
+    }
+
+    // ---- Coloring: every remaining node takes the largest id that reaches it ----
+
+    private void colorStart() throws IOException {
+        for (int l = 0; l < localCount; l++) {
+            if (label[l] == UNASSIGNED) {
+                color[l] = partition.globalId(self, l);
+                enqueue(l);
+            }
+        }
+        propagateColors();
+        respond(COLOR_RECORD);
+    }
+
+    private void colorStep() throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int l = partition.localIndex(in.readInt());
+            int c = in.readInt();
+            if (label[l] == UNASSIGNED && c > color[l]) {
+                color[l] = c;
+                enqueue(l);
+            }
+        }
+        propagateColors();
+        respond(COLOR_RECORD);
+    }
+
+    private void propagateColors() {
+        while (!work.isEmpty()) {
+            int l = work.removeLast();
+            queued[l] = false;
+            int c = color[l];
+            for (int e = outOffsets[l]; e < outOffsets[l + 1]; e++) {
+                int v = outTargets[e];
+                if (partition.owner(v) != self) {
+                    sendMax(v, c);
+                } else {
+                    int lv = partition.localIndex(v);
+                    if (label[lv] == UNASSIGNED && c > color[lv]) {
+                        color[lv] = c;
+                        enqueue(lv);
+                    }
+                }
+            }
+        }
+    }
+
+    // ---- Backward reachability inside each color from its root ----
+
+    private void backwardStart() throws IOException {
+        for (int l = 0; l < localCount; l++) {
+            if (label[l] == UNASSIGNED && color[l] == partition.globalId(self, l)) {
+                assign(l);
+            }
+        }
+        collectBackward();
+        respond(BACKWARD_RECORD);
+    }
+
+    private void backwardStep() throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int l = partition.localIndex(in.readInt());
+            int c = in.readInt();
+            if (label[l] == UNASSIGNED && color[l] == c) {
+                assign(l);
+            }
+        }
+        collectBackward();
+        respond(BACKWARD_RECORD);
+    }
+
+    private void assign(int l) {
+        label[l] = color[l];
+        remaining--;
+        enqueue(l);
+    }
+
+    private void collectBackward() {
+        while (!work.isEmpty()) {
+            int l = work.removeLast();
+            queued[l] = false;
+            int c = color[l];
+            for (int e = inOffsets[l]; e < inOffsets[l + 1]; e++) {
+                int u = inSources[e];
+                if (partition.owner(u) != self) {
+                    sendOnce(u, c);
+                } else {
+                    int lu = partition.localIndex(u);
+                    if (label[lu] == UNASSIGNED && color[lu] == c) {
+                        assign(lu);
+                    }
+                }
+            }
+        }
+    }
+
+    // ---- Results ----
+
+    /** Sends the label of every local node, then the remote targets whose labels are needed. */
+    private void labels() throws IOException {
+        out.writeInt(localCount);
+        for (int l = 0; l < localCount; l++) {
+            out.writeInt(label[l]);
+        }
+        LongIntHashMap seen = new LongIntHashMap();
+        IntList remote = new IntList();
+        for (int v : outTargets) {
+            if (partition.owner(v) != self && seen.putIfAbsent(v, remote.size()) == remote.size()) {
+                remote.add(v);
+            }
+        }
+        ghosts = remote.toArray();
+        writeInts(ghosts);
+    }
+
+    /**
+     * Receives the ghost labels and the weight policy, and answers with the cross-label
+     * edges merged per label pair: (from label, to label, weight, smallest edge id).
+     */
+    private void condense() throws IOException {
+        int policy = in.readInt();  // WeightPolicy ordinal
+        LongIntHashMap ghostLabel = new LongIntHashMap(ghosts.length);
+        for (int ghost : ghosts) {
+            ghostLabel.put(ghost, in.readInt(), 0);
+        }
+        LongIntHashMap slotOf = new LongIntHashMap();
+        IntList from = new IntList(), to = new IntList(), weight = new IntList(), first = new IntList();
+        WeightPolicy combine = WeightPolicy.values()[policy];
+        for (int l = 0; l < localCount; l++) {
+            int lu = label[l];
+            for (int e = outOffsets[l]; e < outOffsets[l + 1]; e++) {
+                int v = outTargets[e];
+                int lv = partition.owner(v) == self ? label[partition.localIndex(v)] : ghostLabel.getOrDefault(v, 0);
+                if (lu == lv) {
+                    continue;
+                }
+                int slot = slotOf.putIfAbsent(LongIntHashMap.pairKey(lu, lv), from.size());
+                if (slot == from.size()) {
+                    from.add(lu);
+                    to.add(lv);
+                    weight.add(outWeights[e]);
+                    first.add(outEdgeIds[e]);
+                } else if (combine == WeightPolicy.FIRST) {
+                    if (outEdgeIds[e] < first.get(slot)) {
+                        first.set(slot, outEdgeIds[e]);
+                        weight.set(slot, outWeights[e]);
+                    }
+                } else {
+                    weight.set(slot, combine.combine(weight.get(slot), outWeights[e]));
+                    first.set(slot, Math.min(first.get(slot), outEdgeIds[e]));
+                }
+            }
+        }
+        out.writeInt(from.size());
+        for (int i = 0; i < from.size(); i++) {
+            out.writeInt(from.get(i));
+            out.writeInt(to.get(i));
+            out.writeInt(weight.get(i));
+            out.writeInt(first.get(i));
+        }
+    }
+
+    // ---- Paths over the condensation ----
+
+    private void loadCondensation() throws IOException {
+        Partitioner.Scheme scheme = Partitioner.Scheme.values()[in.readInt()];
+        componentPartition = new Partitioner(scheme, in.readInt(), partition.getWorkers());
+        int count = componentPartition.localCount(self);
+        cOffsets = new int[count + 1];
+        IntList targets = new IntList(), weights = new IntList();
+        for (int l = 0; l < count; l++) {
+            int degree = in.readInt();
+            for (int i = 0; i < degree; i++) {
+                targets.add(in.readInt());
+                weights.add(in.readInt());
+            }
+            cOffsets[l + 1] = targets.size();
+        }
+        cTargets = targets.toArray();
+        cWeights = weights.toArray();
+        dist = new int[count];
+        parent = new int[count];
+        reached = new boolean[count];
+        if (queued.length < count) {
+            queued = new boolean[count];
+        }
+        out.writeInt(count);
+    }
+
+    private void pathsStart() throws IOException {
+        int source = in.readInt();
+        longest = in.readInt() == 1;
+        Arrays.fill(reached, false);
+        if (componentPartition.owner(source) == self) {
+            int l = componentPartition.localIndex(source);
+            reached[l] = true;
+            dist[l] = 0;
+            parent[l] = -1;
+            enqueue(l);
+        }
+        relax();
+        respond(PATHS_RECORD);
+    }
+
+    private void pathsStep() throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int l = componentPartition.localIndex(in.readInt());
+            offer(l, in.readInt(), in.readInt());
+        }
+        relax();
+        respond(PATHS_RECORD);
+    }
+
+    /**
+     * Takes a candidate if it is better, or equally good through a larger component id.
+     * Components are numbered in reverse topological order, so this keeps the parent a
+     * sequential pass in topological order would pick.
+     */
+    private void offer(int l, int candidate, int from) {
+        if (!reached[l] || (longest ? candidate > dist[l] : candidate < dist[l])
+                || (candidate == dist[l] && from > parent[l])) {
+            reached[l] = true;
+            dist[l] = candidate;
+            parent[l] = from;
+            enqueue(l);
+        }
+    }
+
+    private void relax() {
+        while (!work.isEmpty()) {
+            int l = work.removeLast();
+            queued[l] = false;
+            int c = componentPartition.globalId(self, l);
+            for (int e = cOffsets[l]; e < cOffsets[l + 1]; e++) {
+                int d = cTargets[e];
+                int candidate = dist[l] + cWeights[e];
+                if (componentPartition.owner(d) != self) {
+                    sendPath(d, candidate, c);
+                } else {
+                    offer(componentPartition.localIndex(d), candidate, c);
+                }
+            }
+        }
+    }
+
+    private void pathsResult() throws IOException {
+        int count = componentPartition.localCount(self);
+        out.writeInt(count);
+        for (int l = 0; l < count; l++) {
+            out.writeInt(reached[l] ? 1 : 0);
+            out.writeInt(dist[l]);
+            out.writeInt(parent[l]);
+        }
+    }
+
+    // ---- Messages ----
+
+    private void enqueue(int l) {
+        if (!queued[l]) {
+            queued[l] = true;
+            work.add(l);
+        }
+    }
+
+    private void send(int node, int value) {
+        IntList box = outbox[partition.owner(node)];
+        box.add(node);
+        box.add(value);
+    }
+
+    /** Keeps only the largest color per remote node and superstep. */
+    private void sendMax(int node, int c) {
+        int owner = partition.owner(node);
+        int slot = sent.putIfAbsent(node, outbox[owner].size());
+        if (slot == outbox[owner].size()) {
+            send(node, c);
+        } else if (c > outbox[owner].get(slot + 1)) {
+            outbox[owner].set(slot + 1, c);
+        }
+    }
+
+    /** Sends each (node, color) pair once per superstep; a node may be reached under several colors. */
+    private void sendOnce(int node, int c) {
+        int owner = partition.owner(node);
+        if (sent.putIfAbsent(LongIntHashMap.pairKey(node, c), outbox[owner].size()) == outbox[owner].size()) {
+            send(node, c);
+        }
+    }
+
+    /** Keeps only the best candidate per remote component and superstep. */
+    private void sendPath(int component, int candidate, int from) {
+        int owner = componentPartition.owner(component);
+        IntList box = outbox[owner];
+        int slot = sent.putIfAbsent(component, box.size());
+        if (slot == box.size()) {
+            box.add(component);
+            box.add(candidate);
+            box.add(from);
+        } else {
+            int best = box.get(slot + 1);
+            if ((longest ? candidate > best : candidate < best) || (candidate == best && from > box.get(slot + 2))) {
+                box.set(slot + 1, candidate);
+                box.set(slot + 2, from);
+            }
+        }
+    }
+
+    /** Writes the remaining node count and the outbox of every destination, then clears them. */
+    private void respond(int recordInts) throws IOException {
+        out.writeInt(remaining);
+        for (IntList box : outbox) {
+            out.writeInt(box.size() / recordInts);
+            for (int i = 0; i < box.size(); i++) {
+                out.writeInt(box.get(i));
+            }
+            box.clear();
+        }
+        sent.clear();
+    }
+
+    private void writeInts(int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int v : values) {
+            out.writeInt(v);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package graph.dist;
+
+/**
+ * Assigns every node of an n-node graph to one of several workers, and numbers the
+ * nodes of each worker 0 .. localCount - 1.
+ * <ul>
+ *   <li>{@link Scheme#RANGE}: contiguous blocks of ids, so edges between nearby ids stay local.</li>
+ *   <li>{@link Scheme#HASH}: id modulo the worker count, which balances skewed id ranges.</li>
+ * </ul>
+ */
+public final class Partitioner {
+    public enum Scheme { RANGE, HASH }
+
+    private final Scheme scheme;
+    private final int nodeCount;
+    private final int workers;
+    private final int blockSize;
+
+    public Partitioner(Scheme scheme, int nodeCount, int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Need at least one worker");
+        }
+        this.scheme = scheme;
+        this.nodeCount = nodeCount;
+        this.workers = workers;
+        this.blockSize = Math.max(1, (nodeCount + workers - 1) / workers);
+    }
+
+    public Scheme getScheme() { return scheme; }
+    public int getNodeCount() { return nodeCount; }
+    public int getWorkers() { return workers; }
+
+    /** Worker that owns a node. */
+    public int owner(int node) {
+        return scheme == Scheme.RANGE ? node / blockSize : node % workers;
+    }
+
+    /** Index of a node among the nodes of its owner. */
+    public int localIndex(int node) {
+        return scheme == Scheme.RANGE ? node % blockSize : node / workers;
+    }
+
+    /** Global id of a worker's local node. */
+    public int globalId(int worker, int local) {
+        return scheme == Scheme.RANGE ? worker * blockSize + local : local * workers + worker;
+    }
+
+    /** Number of nodes owned by a worker. */
+    public int localCount(int worker) {
+        if (scheme == Scheme.RANGE) {
+            return Math.max(0, Math.min(blockSize, nodeCount - worker * blockSize));
+        }
+        return nodeCount / workers + (worker < nodeCount % workers ? 1 : 0);
+    }
+}
@@ -0,0 +1,82 @@
+package graph.dist;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The coordinator's end of the streams to one {@link PartitionWorker}: a worker JVM
+ * started with {@link ProcessBuilder}, or a worker thread connected by pipes.
+ */
+final class WorkerLink implements Closeable {
+    final DataOutputStream out;
+    final DataInputStream in;
+    private final Process process;
+    private final Thread thread;
+
+    private WorkerLink(OutputStream toWorker, InputStream fromWorker, Process process, Thread thread) {
+        this.out = new DataOutputStream(new BufferedOutputStream(toWorker, 1 << 16));
+        this.in = new DataInputStream(new BufferedInputStream(fromWorker, 1 << 16));
+        this.process = process;
+        this.thread = thread;
+    }
+
+    /**
+     * Starts a worker JVM on the classpath of this one; its stderr goes to ours.
+     * @param jvmOptions extra JVM options, e.g. "-Xmx2g"
+     */
+    static WorkerLink launchProcess(List<String> jvmOptions) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(PartitionWorker.class.getName());
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        return new WorkerLink(process.getOutputStream(), process.getInputStream(), process, null);
+    }
+
+    /** Starts a worker on a daemon thread of this JVM (for tests and debugging). */
+    static WorkerLink startThread(int id) throws IOException {
+        PipedOutputStream toWorker = new PipedOutputStream();
+        PipedInputStream workerIn = new PipedInputStream(toWorker, 1 << 16);
+        PipedOutputStream workerOut = new PipedOutputStream();
+        PipedInputStream fromWorker = new PipedInputStream(workerOut, 1 << 16);
+        Thread thread = new Thread(() -> {
+            try (OutputStream output = workerOut) {
+                new PartitionWorker(workerIn, output).serve();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, "partition-worker-" + id);
+        thread.setDaemon(true);
+        thread.start();
+        return new WorkerLink(toWorker, fromWorker, null, thread);
+    }
+
+    /** Asks the worker to stop and waits briefly for it; a JVM that does not exit is killed. */
+    @Override
+    public void close() throws IOException {
+        try {
+            out.writeInt(PartitionWorker.SHUTDOWN);
+            out.flush();
+            in.readInt();
+        } catch (IOException e) {
+            // Already gone
+        } finally {
+            out.close();
+            try {
+                if (process != null && !process.waitFor(5, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+                if (thread != null) {
+                    thread.join(5000);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package graph.layout;
+
+import graph.DirectedGraph;
+import graph.GraphView;
+import graph.Metrics;
+import graph.dagsp.ShortestPathResult;
+import graph.metrics.NoOpMetrics;
+import graph.scc.SCCResult;
+import graph.scc.Tarjan;
+
+import java.util.*;
+
+/**
+ * A permutation of node ids, chosen so that nodes visited one after another sit next to
+ * each other in memory, and the graph rewritten under it. Per-node arrays such as
+ * Tarjan's discovery times or the distances of a DAG pass are then read mostly in order
+ * instead of at random.
+ * <ul>
+ *   <li>{@link Order#TOPOLOGICAL}: components in topological order (Tarjan's numbering
+ *       reversed), so a DAG pass walks the arrays front to back.</li>
+ *   <li>{@link Order#BFS}: breadth-first along out-edges from the source nodes.</li>
+ *   <li>{@link Order#RCM}: reverse Cuthill-McKee on the undirected graph, which keeps
+ *       the ids of neighbors close (small bandwidth).</li>
+ * </ul>
+ * The map works both ways: {@link #toNew} and {@link #toOriginal} translate single ids,
+ * and the {@code toOriginal} overloads translate results computed on the relabeled graph
+ * back to the ids of the input. Node names travel with their nodes.
+ */
+@SuppressWarnings("try")
+public final class Relabeling {
+    /** How the new ids are assigned. */
+    public enum Order { TOPOLOGICAL, BFS, RCM }
+
+    private final int[] newId;       // Original id -> new id
+    private final int[] originalId;  // New id -> original id
+
+    private Relabeling(int[] originalId) {
+        this.originalId = originalId;
+        this.newId = new int[originalId.length];
+        Arrays.fill(newId, -1);
+        for (int i = 0; i < originalId.length; i++) {
+            if (newId[originalId[i]] != -1) {
+                throw new IllegalArgumentException("Node " + originalId[i] + " appears twice in the order");
+            }
+            newId[originalId[i]] = i;
+        }
+    }
+
+    /**
+     * Relabeling that gives node order[i] the new id i.
+     * @param order every original id exactly once
+     * @return relabeling
+     */
+    public static Relabeling of(int[] order) {
+        return new Relabeling(order.clone());
+    }
+
+    public static Relabeling of(GraphView graph, Order order) {
+        return of(graph, order, NoOpMetrics.INSTANCE);
+    }
+
+    /**
+     * Computes the permutation for a graph.
+     * @param graph graph to relabel
+     * @param order ordering strategy
+     * @param metrics metrics sink (the work is timed as phase "relabel")
+     * @return relabeling
+     */
+    public static Relabeling of(GraphView graph, Order order, Metrics metrics) {
+        try (Metrics.Phase phase = metrics.phase("relabel")) {
+            switch (order) {
+                case TOPOLOGICAL:
+                    return new Relabeling(topologicalOrder(graph));
+                case BFS:
+                    return new Relabeling(bfsOrder(graph));
+                default:
+                    return new Relabeling(rcmOrder(graph));
+            }
+        }
+    }
+
+    public int size() { return newId.length; }
+
+    public int toNew(int original) { return newId[original]; }
+
+    public int toOriginal(int relabeled) { return originalId[relabeled]; }
+
+    /** New id per original id (not a copy). */
+    public int[] getNewIds() { return newId; }
+
+    /** Original id per new id (not a copy). */
+    public int[] getOriginalIds() { return originalId; }
+
+    /**
+     * Rewrites a graph under this permutation: node i of the result is node
+     * toOriginal(i) of the input, with the same name and out-edges in the same order.
+     * @param graph graph with {@link #size()} nodes
+     * @return relabeled graph
+     */
+    public DirectedGraph apply(DirectedGraph graph) {
+        int n = graph.nodeCount();
+        if (n != newId.length) {
+            throw new IllegalArgumentException("Graph has " + n + " nodes, relabeling has " + newId.length);
+        }
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[graph.edgeCount()];
+        int[] weights = new int[graph.edgeCount()];
+        int pos = 0;
+        for (int i = 0; i < n; i++) {
+            int u = originalId[i];
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                targets[pos] = newId[graph.target(e)];
+                weights[pos++] = graph.weight(e);
+            }
+            offsets[i + 1] = pos;
+        }
+        return DirectedGraph.fromCsr(new PermutedNames(graph.getNodes(), originalId), offsets, targets, weights);
+    }
+
+    /**
+     * Re-indexes a per-node array of the relabeled graph by original id.
+     * @param values value per new id
+     * @return value per original id
+     */
+    public int[] toOriginal(int[] values) {
+        int[] result = new int[newId.length];
+        for (int v = 0; v < newId.length; v++) {
+            result[v] = values[newId[v]];
+        }
+        return result;
+    }
+
+    /**
+     * Translates a list of new ids (an order, a path) to original ids.
+     * @param ids new ids
+     * @return original ids, in the same order
+     */
+    public int[] originalIds(int[] ids) {
+        int[] result = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            result[i] = originalId[ids[i]];
+        }
+        return result;
+    }
+
+    /**
+     * SCCs of the relabeled graph in original ids. Component numbers are kept, so a
+     * condensation built on the relabeled graph is also the condensation of the input.
+     * @param sccs SCCs of the relabeled graph
+     * @return the same components over the original ids
+     */
+    public SCCResult toOriginal(SCCResult sccs) {
+        int[] members = sccs.getMembers();
+        int[] originalMembers = new int[sccs.getNodeCount()];
+        for (int i = 0; i < originalMembers.length; i++) {
+            originalMembers[i] = originalId[members[i]];
+        }
+        return new SCCResult(toOriginal(sccs.getComponentOf()), sccs.getComponentCount(), originalMembers,
+                Arrays.copyOf(sccs.getMemberOffsets(), sccs.getComponentCount() + 1));
+    }
+
+    /**
+     * Path result on the relabeled graph in original ids.
+     * @param paths result computed on the relabeled graph
+     * @param graph the original graph (for path names)
+     * @return distances and parents per original id
+     */
+    public ShortestPathResult toOriginal(ShortestPathResult paths, GraphView graph) {
+        int[] dist = toOriginal(paths.getDistances());
+        int[] parent = toOriginal(paths.getParent());
+        for (int v = 0; v < parent.length; v++) {
+            if (parent[v] >= 0) {
+                parent[v] = originalId[parent[v]];
+            }
+        }
+        return new ShortestPathResult(graph, originalId[paths.getSource()], dist, parent, paths.isLongest());
+    }
+
+    // ---- Orders (each returns original ids in their new order) ----
+
+    private static int[] topologicalOrder(GraphView graph) {
+        SCCResult sccs = new Tarjan(graph, NoOpMetrics.INSTANCE).findComponents();
+        int[] members = sccs.getMembers();
+        int[] memberOffsets = sccs.getMemberOffsets();
+        int[] order = new int[graph.nodeCount()];
+        int pos = 0;
+        // Tarjan numbers components in reverse topological order
+        for (int c = sccs.getComponentCount() - 1; c >= 0; c--) {
+            for (int i = memberOffsets[c]; i < memberOffsets[c + 1]; i++) {
+                order[pos++] = members[i];
+            }
+        }
+        return order;
+    }
+
+    private static int[] bfsOrder(GraphView graph) {
+        int n = graph.nodeCount();
+        int[] indegree = new int[n];
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            indegree[graph.target(e)]++;
+        }
+        int[] queue = new int[n];
+        boolean[] visited = new boolean[n];
+        int tail = 0;
+        // Sources first, then whatever is left (nodes only reachable from cycles)
+        for (int pass = 0; pass < 2; pass++) {
+            for (int root = 0; root < n; root++) {
+                if (visited[root] || (pass == 0 && indegree[root] != 0)) {
+                    continue;
+                }
+                visited[root] = true;
+                int head = tail;
+                queue[tail++] = root;
+                while (head < tail) {
+                    int u = queue[head++];
+                    for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                        int v = graph.target(e);
+                        if (!visited[v]) {
+                            visited[v] = true;
+                            queue[tail++] = v;
+                        }
+                    }
+                }
+            }
+        }
+        return queue;
+    }
+
+    private static int[] rcmOrder(GraphView graph) {
+        int n = graph.nodeCount();
+        // Undirected adjacency: out-edges and in-edges of every node
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                offsets[u + 1]++;
+                offsets[graph.target(e) + 1]++;
+            }
+        }
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+        int[] neighbors = new int[offsets[n]];
+        int[] cursor = Arrays.copyOf(offsets, n);
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                int v = graph.target(e);
+                neighbors[cursor[u]++] = v;
+                neighbors[cursor[v]++] = u;
+            }
+        }
+
+        // Start each connected part at a node of least degree, visit neighbors by degree
+        long[] byDegree = new long[n];
+        for (int u = 0; u < n; u++) {
+            byDegree[u] = (long) (offsets[u + 1] - offsets[u]) << 32 | u;
+        }
+        Arrays.sort(byDegree);
+        int[] queue = new int[n];
+        boolean[] visited = new boolean[n];
+        long[] batch = new long[16];
+        int tail = 0;
+        for (long key : byDegree) {
+            int root = (int) key;
+            if (visited[root]) {
+                continue;
+            }
+            visited[root] = true;
+            int head = tail;
+            queue[tail++] = root;
+            while (head < tail) {
+                int u = queue[head++];
+                int count = 0;
+                for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                    int v = neighbors[i];
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        if (count == batch.length) {
+                            batch = Arrays.copyOf(batch, count * 2);
+                        }
+                        batch[count++] = (long) (offsets[v + 1] - offsets[v]) << 32 | v;
+                    }
+                }
+                Arrays.sort(batch, 0, count);
+                for (int i = 0; i < count; i++) {
+                    queue[tail++] = (int) batch[i];
+                }
+            }
+        }
+        for (int i = 0, j = n - 1; i < j; i++, j--) {
+            int t = queue[i];
+            queue[i] = queue[j];
+            queue[j] = t;
+        }
+        return queue;
+    }
+
+    /** Names of the input in the new order, looked up on access. */
+    private static final class PermutedNames extends AbstractList<String> {
+        private final List<String> names;
+        private final int[] originalId;
+
+        PermutedNames(List<String> names, int[] originalId) {
+            this.names = names;
+            this.originalId = originalId;
+        }
+
+        @Override
+        public String get(int i) {
+            return names.get(originalId[i]);
+        }
+
+        @Override
+        public int size() { return originalId.length; }
+    }
+}
@@ -0,0 +1,50 @@
+package graph.metrics;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide mapping between counter names and dense int ids, so hot code can
+ * report counters by index instead of hashing a string per event.
+ * Resolve ids once (typically into a static final field) and reuse them.
+ */
+public final class CounterRegistry {
+    private static final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private static volatile String[] names = new String[0];
+
+    private CounterRegistry() {
+    }
+
+    /**
+     * Returns the id of a counter, registering the name on first use.
+     * @param name counter name
+     * @return dense id, stable for the lifetime of the process
+     */
+    public static int id(String name) {
+        Integer id = ids.get(name);
+        return id != null ? id : register(name);
+    }
+
+    /** Name of a registered counter. */
+    public static String name(int id) {
+        return names[id];
+    }
+
+    /** Number of registered counters (ids are 0..size-1). */
+    public static int size() {
+        return names.length;
+    }
+
+    private static synchronized int register(String name) {
+        Integer existing = ids.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        String[] grown = Arrays.copyOf(names, names.length + 1);
+        int id = names.length;
+        grown[id] = name;
+        names = grown;  // Publish the name before the id becomes visible
+        ids.put(name, id);
+        return id;
+    }
+}
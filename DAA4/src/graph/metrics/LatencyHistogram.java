@@ -0,0 +1,100 @@
+package graph.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe log-linear histogram for non-negative values such as latencies in nanoseconds.
+ * <ul>
+ *   <li>Values below 128 are counted exactly; above that every power of two is split
+ *       into 64 linear sub-buckets, so a reported value is within 1/64 (about 1.6%)
+ *       of the true one (the same layout as HdrHistogram with two significant digits).</li>
+ *   <li>Recording is one array increment and allocates nothing; the whole range of
+ *       {@code long} fits in a fixed 3776-slot array (SLOTS).</li>
+ * </ul>
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int HALF = 1 << (SUB_BUCKET_BITS - 1);  // Sub-buckets per power of two
+    private static final int SLOTS = (64 - SUB_BUCKET_BITS) * HALF + (1 << SUB_BUCKET_BITS);
+
+    private final AtomicLongArray counts = new AtomicLongArray(SLOTS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records one value (negative values count as 0).
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(slot(v));
+        total.increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    public long count() { return total.sum(); }
+    public long max() { return max.get(); }
+
+    public double mean() {
+        long n = total.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Value at a percentile.
+     * @param percentile between 0 and 100
+     * @return highest value equivalent to the bucket holding that rank, 0 if empty
+     */
+    public long percentile(double percentile) {
+        long n = total.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int s = 0; s < SLOTS; s++) {
+            seen += counts.get(s);
+            if (seen >= rank) {
+                return Math.min(highestEquivalent(s), max());
+            }
+        }
+        return max();
+    }
+
+    public void reset() {
+        for (int s = 0; s < SLOTS; s++) {
+            counts.set(s, 0);
+        }
+        total.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    /** One-line summary: count, mean, p50, p90, p99, p99.9 and max, in microseconds. */
+    public String summaryMicros() {
+        return String.format("n=%d mean=%.1fus p50=%.1fus p90=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus",
+                count(), mean() / 1000.0, percentile(50) / 1000.0, percentile(90) / 1000.0,
+                percentile(99) / 1000.0, percentile(99.9) / 1000.0, max() / 1000.0);
+    }
+
+    static int slot(long value) {
+        int bits = 64 - Long.numberOfLeadingZeros(value);
+        if (bits <= SUB_BUCKET_BITS) {
+            return (int) value;
+        }
+        int shift = bits - SUB_BUCKET_BITS;
+        return shift * HALF + (int) (value >>> shift);
+    }
+
+    static long highestEquivalent(int slot) {
+        if (slot < (1 << SUB_BUCKET_BITS)) {
+            return slot;
+        }
+        int shift = (slot - HALF) / HALF;
+        long sub = slot - (long) shift * HALF;
+        return ((sub + 1) << shift) - 1;
+    }
+}
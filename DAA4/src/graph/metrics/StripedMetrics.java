@@ -0,0 +1,144 @@
+package graph.metrics;
+
+import graph.Metrics;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe metrics for both sequential and parallel engines.
+ * <ul>
+ *   <li>Counters are {@link LongAdder}s indexed by {@link CounterRegistry} id, so concurrent
+ *       updates do not contend and nothing is boxed.</li>
+ *   <li>Phase timers nest per thread: a phase opened inside another is recorded under
+ *       "outer/inner". Times are summed per path.</li>
+ *   <li>Latency samples go to named {@link LatencyHistogram}s.</li>
+ * </ul>
+ * The legacy {@link #startTiming()}/{@link #stopTiming()} pair is kept per thread.
+ */
+public class StripedMetrics implements Metrics {
+    private volatile LongAdder[] counters = new LongAdder[0];
+    private final Map<String, LongAdder> phaseNanos = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final ThreadLocal<Deque<String>> openPhases = ThreadLocal.withInitial(ArrayDeque::new);
+    private final ThreadLocal<long[]> timingStart = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public void startTiming() {
+        timingStart.get()[0] = System.nanoTime();
+    }
+
+    @Override
+    public long stopTiming() {
+        return System.nanoTime() - timingStart.get()[0];
+    }
+
+    @Override
+    public void incrementCounter(String name) {
+        add(CounterRegistry.id(name), 1);
+    }
+
+    @Override
+    public long getCounter(String name) {
+        return getCounter(CounterRegistry.id(name));
+    }
+
+    /** Value of a counter by id. */
+    public long getCounter(int counterId) {
+        LongAdder[] current = counters;
+        return counterId < current.length && current[counterId] != null ? current[counterId].sum() : 0;
+    }
+
+    @Override
+    public void add(int counterId, long delta) {
+        counter(counterId).add(delta);
+    }
+
+    @Override
+    public void increment(int counterId) {
+        counter(counterId).increment();
+    }
+
+    @Override
+    public Phase phase(String name) {
+        Deque<String> open = openPhases.get();
+        String path = open.isEmpty() ? name : open.peek() + "/" + name;
+        open.push(path);
+        long start = System.nanoTime();
+        return () -> {
+            long elapsed = System.nanoTime() - start;
+            open.pop();
+            phaseNanos.computeIfAbsent(path, p -> new LongAdder()).add(elapsed);
+        };
+    }
+
+    @Override
+    public long getPhaseNanos(String path) {
+        LongAdder nanos = phaseNanos.get(path);
+        return nanos != null ? nanos.sum() : 0;
+    }
+
+    @Override
+    public void recordLatency(String name, long nanos) {
+        histogram(name).record(nanos);
+    }
+
+    /** Histogram for a name, created on first use. */
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    /** Non-zero counters by name, in registration order. */
+    public Map<String, Long> counterSnapshot() {
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        LongAdder[] current = counters;
+        for (int id = 0; id < current.length; id++) {
+            if (current[id] != null && current[id].sum() != 0) {
+                snapshot.put(CounterRegistry.name(id), current[id].sum());
+            }
+        }
+        return snapshot;
+    }
+
+    /** Recorded phase paths with their total nanoseconds, sorted by path. */
+    public Map<String, Long> phaseSnapshot() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        phaseNanos.forEach((path, nanos) -> snapshot.put(path, nanos.sum()));
+        return snapshot;
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder adder : counters) {
+            if (adder != null) {
+                adder.reset();
+            }
+        }
+        phaseNanos.clear();
+        histograms.values().forEach(LatencyHistogram::reset);
+    }
+
+    private LongAdder counter(int id) {
+        LongAdder[] current = counters;
+        LongAdder adder;
+        if (id < current.length && (adder = current[id]) != null) {
+            return adder;
+        }
+        return createCounter(id);
+    }
+
+    private synchronized LongAdder createCounter(int id) {
+        LongAdder[] current = counters;
+        if (id >= current.length) {
+            current = Arrays.copyOf(current, Math.max(id + 1, CounterRegistry.size()));
+        } else {
+            current = current.clone();
+        }
+        if (current[id] == null) {
+            current[id] = new LongAdder();
+        }
+        counters = current;
+        return current[id];
+    }
+}
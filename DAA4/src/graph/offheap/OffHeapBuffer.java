@@ -0,0 +1,77 @@
+package graph.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+
+/**
+ * Growable off-heap memory addressed by long byte offsets, made of fixed-size direct
+ * {@link ByteBuffer} chunks (so it is not limited to 2 GB and grows without copying).
+ * Chunk sizes are powers of two and multiples of 8, so aligned ints and longs never
+ * straddle two chunks. The memory is released when the buffer becomes unreachable.
+ * <p>
+ * Direct memory is capped by {@code -XX:MaxDirectMemorySize}, which defaults to the
+ * maximum heap size ({@code -Xmx}). To hold more than the heap, raise the cap, e.g.
+ * {@code java -Xmx1g -XX:MaxDirectMemorySize=16g ...}; otherwise growing past it throws
+ * {@code OutOfMemoryError: Cannot reserve ... bytes of direct buffer memory}.
+ */
+public final class OffHeapBuffer {
+    private static final int MIN_CHUNK_SHIFT = 16;  // 64 KB
+    private static final int MAX_CHUNK_SHIFT = 28;  // 256 MB
+
+    private final int chunkShift;
+    private final long chunkMask;
+    private ByteBuffer[] chunks = new ByteBuffer[0];
+
+    /**
+     * @param expectedBytes expected final size; decides the chunk size (64 KB .. 256 MB)
+     */
+    public OffHeapBuffer(long expectedBytes) {
+        int shift = 64 - Long.numberOfLeadingZeros(Math.max(1, expectedBytes - 1));
+        chunkShift = Math.max(MIN_CHUNK_SHIFT, Math.min(MAX_CHUNK_SHIFT, shift));
+        chunkMask = (1L << chunkShift) - 1;
+    }
+
+    /**
+     * Makes bytes 0 .. size-1 addressable, adding zero-filled chunks as needed.
+     */
+    public void ensureCapacity(long size) {
+        long needed = (size + chunkMask) >>> chunkShift;
+        if (needed > chunks.length) {
+            ByteBuffer[] grown = Arrays.copyOf(chunks, (int) Math.max(needed, chunks.length + chunks.length / 2));
+            for (int i = chunks.length; i < grown.length; i++) {
+                grown[i] = ByteBuffer.allocateDirect(1 << chunkShift).order(ByteOrder.nativeOrder());
+            }
+            chunks = grown;
+        }
+    }
+
+    /** Addressable bytes. */
+    public long capacity() {
+        return (long) chunks.length << chunkShift;
+    }
+
+    public int getInt(long offset) {
+        return chunks[(int) (offset >>> chunkShift)].getInt((int) (offset & chunkMask));
+    }
+
+    public void putInt(long offset, int value) {
+        chunks[(int) (offset >>> chunkShift)].putInt((int) (offset & chunkMask), value);
+    }
+
+    public long getLong(long offset) {
+        return chunks[(int) (offset >>> chunkShift)].getLong((int) (offset & chunkMask));
+    }
+
+    public void putLong(long offset, long value) {
+        chunks[(int) (offset >>> chunkShift)].putLong((int) (offset & chunkMask), value);
+    }
+
+    public byte getByte(long offset) {
+        return chunks[(int) (offset >>> chunkShift)].get((int) (offset & chunkMask));
+    }
+
+    public void putByte(long offset, byte value) {
+        chunks[(int) (offset >>> chunkShift)].put((int) (offset & chunkMask), value);
+    }
+}
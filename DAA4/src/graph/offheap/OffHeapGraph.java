@@ -0,0 +1,327 @@
+package graph.offheap;
+
+import graph.GraphView;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Directed graph whose CSR arrays and node names live outside the Java heap, for graphs
+ * whose name lists and index maps would not fit (or would make full GCs very long).
+ * Heap use is a few dozen objects whatever the graph size. The off-heap part counts
+ * against {@code -XX:MaxDirectMemorySize} (see {@link OffHeapBuffer}), which must be
+ * set above {@code -Xmx} for a graph larger than the heap.
+ * <p>
+ * Layout: offsets (n + 1 ints), targets and weights (m ints each), the UTF-8 bytes of all
+ * names with their start offsets (n + 1 longs), and an open-addressing hash table mapping
+ * name to node id. Each table slot is one long, (hash << 32) | (id + 1), with 0 meaning empty.
+ * <p>
+ * Instances are immutable once built and safe to read from many threads.
+ */
+public final class OffHeapGraph implements GraphView {
+    private final int nodeCount;
+    private final int edgeCount;
+    private final OffHeapBuffer offsets;
+    private final OffHeapBuffer targets;
+    private final OffHeapBuffer weights;
+    private final NameTable names;
+
+    private OffHeapGraph(int nodeCount, int edgeCount, OffHeapBuffer offsets, OffHeapBuffer targets,
+                         OffHeapBuffer weights, NameTable names) {
+        this.nodeCount = nodeCount;
+        this.edgeCount = edgeCount;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.names = names;
+    }
+
+    /**
+     * Copies any graph view (heap, mapped file) off-heap.
+     * @param graph graph with distinct node names
+     * @return off-heap copy with the same node and edge ids
+     */
+    public static OffHeapGraph copyOf(GraphView graph) {
+        Builder builder = new Builder(graph.nodeCount(), graph.edgeCount());
+        for (int u = 0; u < graph.nodeCount(); u++) {
+            if (builder.addNode(graph.nodeName(u)) != u) {
+                throw new IllegalArgumentException("Duplicate node name: " + graph.nodeName(u));
+            }
+        }
+        for (int u = 0; u < graph.nodeCount(); u++) {
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                builder.addEdge(u, graph.target(e), graph.weight(e));
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public int nodeCount() { return nodeCount; }
+    @Override
+    public int edgeCount() { return edgeCount; }
+
+    @Override
+    public int edgeStart(int node) { return offsets.getInt(4L * node); }
+    @Override
+    public int edgeEnd(int node) { return offsets.getInt(4L * node + 4); }
+    @Override
+    public int target(int edge) { return targets.getInt(4L * edge); }
+    @Override
+    public int weight(int edge) { return weights.getInt(4L * edge); }
+
+    @Override
+    public String nodeName(int node) {
+        Objects.checkIndex(node, nodeCount);
+        return names.name(node);
+    }
+
+    /**
+     * Looks up a node by name through the off-heap hash table.
+     * @param name node name
+     * @return node id, or -1 if there is no such node
+     */
+    public int indexOf(String name) {
+        return names.find(name.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Off-heap bytes reserved by this graph. */
+    public long offHeapBytes() {
+        return offsets.capacity() + targets.capacity() + weights.capacity() + names.bytes();
+    }
+
+    /**
+     * Builds an {@link OffHeapGraph} incrementally. Names are interned as they are added and
+     * edges are buffered off-heap, then sorted into CSR form by {@link #build()}.
+     * Not thread-safe; a builder can be built only once.
+     */
+    public static final class Builder {
+        private final NameTable names;
+        private final OffHeapBuffer degrees;  // Out-degree per node
+        private final OffHeapBuffer edges;    // (from, to, weight) triples
+        private int edgeCount;
+        private boolean built;
+
+        public Builder() {
+            this(1 << 16, 1 << 18);
+        }
+
+        /**
+         * @param expectedNodes node count hint (sizes the off-heap chunks)
+         * @param expectedEdges edge count hint
+         */
+        public Builder(int expectedNodes, long expectedEdges) {
+            names = new NameTable(expectedNodes);
+            degrees = new OffHeapBuffer(4L * expectedNodes);
+            edges = new OffHeapBuffer(12L * expectedEdges);
+        }
+
+        /**
+         * Adds a node, or returns the existing one with the same name.
+         * @param name node name
+         * @return node id
+         */
+        public int addNode(String name) {
+            checkOpen();
+            int id = names.intern(name.getBytes(StandardCharsets.UTF_8));
+            degrees.ensureCapacity(4L * names.size());
+            return id;
+        }
+
+        /**
+         * @param name node name
+         * @return node id, or -1 if not added yet
+         */
+        public int nodeOf(String name) {
+            return names.find(name.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public int nodeCount() { return names.size(); }
+
+        public void addEdge(String from, String to, int weight) {
+            addEdge(addNode(from), addNode(to), weight);
+        }
+
+        public void addEdge(int from, int to, int weight) {
+            checkOpen();
+            Objects.checkIndex(from, names.size());
+            Objects.checkIndex(to, names.size());
+            if (edgeCount == Integer.MAX_VALUE) {
+                throw new IllegalStateException("Edge ids are ints; at most " + Integer.MAX_VALUE + " edges");
+            }
+            long at = 12L * edgeCount++;
+            edges.ensureCapacity(at + 12);
+            edges.putInt(at, from);
+            edges.putInt(at + 4, to);
+            edges.putInt(at + 8, weight);
+            degrees.putInt(4L * from, degrees.getInt(4L * from) + 1);
+        }
+
+        /**
+         * Sorts the buffered edges into CSR form (a counting sort; edges keep their insertion
+         * order within each source node). The builder cannot be used afterwards.
+         * @return graph
+         */
+        public OffHeapGraph build() {
+            checkOpen();
+            built = true;
+            int n = names.size();
+            OffHeapBuffer offsets = new OffHeapBuffer(4L * (n + 1));
+            offsets.ensureCapacity(4L * (n + 1));
+            int sum = 0;
+            for (int u = 0; u < n; u++) {
+                offsets.putInt(4L * u, sum);
+                int degree = degrees.getInt(4L * u);
+                degrees.putInt(4L * u, sum);  // Reused as the insertion cursor
+                sum += degree;
+            }
+            offsets.putInt(4L * n, sum);
+
+            OffHeapBuffer targets = new OffHeapBuffer(4L * edgeCount);
+            OffHeapBuffer weights = new OffHeapBuffer(4L * edgeCount);
+            targets.ensureCapacity(4L * edgeCount);
+            weights.ensureCapacity(4L * edgeCount);
+            for (int i = 0; i < edgeCount; i++) {
+                long at = 12L * i;
+                int from = edges.getInt(at);
+                int pos = degrees.getInt(4L * from);
+                degrees.putInt(4L * from, pos + 1);
+                targets.putInt(4L * pos, edges.getInt(at + 4));
+                weights.putInt(4L * pos, edges.getInt(at + 8));
+            }
+            return new OffHeapGraph(n, edgeCount, offsets, targets, weights, names);
+        }
+
+        private void checkOpen() {
+            if (built) {
+                throw new IllegalStateException("Builder already built");
+            }
+        }
+    }
+
+    /** Interned UTF-8 names with an off-heap open-addressing index. */
+    private static final class NameTable {
+        private final OffHeapBuffer bytes;
+        private final OffHeapBuffer starts;  // Start of name i; entry size() is the end
+        private OffHeapBuffer table;
+        private long tableMask;
+        private int size;
+
+        NameTable(int expectedNodes) {
+            bytes = new OffHeapBuffer(16L * expectedNodes);
+            starts = new OffHeapBuffer(8L * (expectedNodes + 1));
+            starts.ensureCapacity(8);
+            long slots = Long.highestOneBit(Math.max(16, 2L * expectedNodes - 1)) << 1;
+            table = newTable(slots);
+            tableMask = slots - 1;
+        }
+
+        private static OffHeapBuffer newTable(long slots) {
+            OffHeapBuffer table = new OffHeapBuffer(8 * slots);
+            table.ensureCapacity(8 * slots);
+            return table;
+        }
+
+        int size() { return size; }
+
+        long bytes() { return bytes.capacity() + starts.capacity() + table.capacity(); }
+
+        String name(int id) {
+            long start = starts.getLong(8L * id);
+            int length = (int) (starts.getLong(8L * id + 8) - start);
+            byte[] utf8 = new byte[length];
+            for (int i = 0; i < length; i++) {
+                utf8[i] = bytes.getByte(start + i);
+            }
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        int find(byte[] utf8) {
+            int hash = hash(utf8);
+            for (long slot = (hash & 0xFFFFFFFFL) & tableMask; ; slot = (slot + 1) & tableMask) {
+                long entry = table.getLong(8 * slot);
+                if (entry == 0) {
+                    return -1;
+                }
+                int id = (int) entry - 1;
+                if ((int) (entry >>> 32) == hash && matches(id, utf8)) {
+                    return id;
+                }
+            }
+        }
+
+        int intern(byte[] utf8) {
+            int hash = hash(utf8);
+            long slot = (hash & 0xFFFFFFFFL) & tableMask;
+            for (long entry; (entry = table.getLong(8 * slot)) != 0; slot = (slot + 1) & tableMask) {
+                int id = (int) entry - 1;
+                if ((int) (entry >>> 32) == hash && matches(id, utf8)) {
+                    return id;
+                }
+            }
+            if (size == Integer.MAX_VALUE - 1) {
+                throw new IllegalStateException("Too many nodes");
+            }
+            int id = size++;
+            long start = starts.getLong(8L * id);
+            bytes.ensureCapacity(start + utf8.length);
+            for (int i = 0; i < utf8.length; i++) {
+                bytes.putByte(start + i, utf8[i]);
+            }
+            starts.ensureCapacity(8L * (id + 2));
+            starts.putLong(8L * (id + 1), start + utf8.length);
+            table.putLong(8 * slot, entry(hash, id));
+            if (2L * size > tableMask + 1) {
+                rehash();
+            }
+            return id;
+        }
+
+        private boolean matches(int id, byte[] utf8) {
+            long start = starts.getLong(8L * id);
+            if (starts.getLong(8L * id + 8) - start != utf8.length) {
+                return false;
+            }
+            for (int i = 0; i < utf8.length; i++) {
+                if (bytes.getByte(start + i) != utf8[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void rehash() {
+            long slots = 2 * (tableMask + 1);
+            OffHeapBuffer grown = newTable(slots);
+            long mask = slots - 1;
+            for (long s = 0; s <= tableMask; s++) {
+                long entry = table.getLong(8 * s);
+                if (entry != 0) {
+                    long slot = (entry >>> 32) & mask;
+                    while (grown.getLong(8 * slot) != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    grown.putLong(8 * slot, entry);
+                }
+            }
+            table = grown;
+            tableMask = mask;
+        }
+
+        private static long entry(int hash, int id) {
+            return ((long) hash << 32) | ((id + 1) & 0xFFFFFFFFL);
+        }
+
+        /** FNV-1a over the UTF-8 bytes, then a murmur finalizer. */
+        private static int hash(byte[] utf8) {
+            int h = 0x811C9DC5;
+            for (byte b : utf8) {
+                h = (h ^ b) * 0x01000193;
+            }
+            h ^= h >>> 16;
+            h *= 0x85EBCA6B;
+            h ^= h >>> 13;
+            return h;
+        }
+    }
+}
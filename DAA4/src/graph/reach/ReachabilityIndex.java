@@ -0,0 +1,373 @@
+package graph.reach;
+
+import graph.DirectedGraph;
+import graph.Metrics;
+import graph.metrics.CounterRegistry;
+import graph.scc.CondensationResult;
+import graph.util.EpochMarks;
+import graph.util.Workspace;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Reachability queries on a condensation DAG, GRAIL style. Each component gets k labels
+ * from k randomized depth-first traversals: its finishing rank post, the smallest rank low
+ * below it, and the smallest rank in its DFS subtree. If u reaches v, v's [low, post] lies
+ * inside u's in every labeling, so one interval that does not nest answers "no" in O(k);
+ * so does v coming before u in the topological order. If v's rank falls in u's subtree
+ * range in some labeling, v is a tree descendant of u and the answer is "yes" (tree cover).
+ * The remaining pairs are decided by a depth-first search from u that skips every
+ * component whose labels already exclude v and stops at one whose subtree covers it.
+ * <p>
+ * The k traversals are independent and run in parallel. Queries only read the index and
+ * take their search buffers from the calling thread's {@link Workspace}, so any number of
+ * threads may query at once.
+ */
+@SuppressWarnings("try")
+public class ReachabilityIndex {
+    /** Labels per component; GRAIL finds 2-5 a good trade of size against pruning. */
+    public static final int DEFAULT_LABELS = 3;
+
+    private static final int QUERIES = CounterRegistry.id("reach_queries");
+    private static final int LABEL_REJECTS = CounterRegistry.id("reach_label_rejects");
+    private static final int LABEL_HITS = CounterRegistry.id("reach_label_hits");
+    private static final int DFS_FALLBACKS = CounterRegistry.id("reach_dfs_fallbacks");
+    private static final int DFS_VISITS = CounterRegistry.id("reach_dfs_visits");
+    private static final int INDEX_BYTES = CounterRegistry.id("reach_index_bytes");
+    private static final int STACK = Workspace.slot("reach.stack");
+    private static final int SEEN = Workspace.slot("reach.seen");
+    private static final int BATCH_CHUNK = 1024;  // Queries per parallel task
+
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] componentOf;  // Task -> component, null if built without one
+    private final int[] position;     // Index of each component in the topological order
+    private final int labelCount;
+    private final int[] labels;       // (low, subtree low, post) per labeling, a component's labels together
+    private final Metrics metrics;
+
+    private ReachabilityIndex(DirectedGraph condensation, int[] topoOrder, int[] componentOf, int labelCount,
+                              int parallelism, Metrics metrics) {
+        if (labelCount < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("Need at least one label and one thread");
+        }
+        int n = condensation.nodeCount();
+        this.offsets = condensation.getOffsets();
+        this.targets = condensation.getTargets();
+        this.componentOf = componentOf;
+        this.labelCount = labelCount;
+        this.metrics = metrics;
+        this.position = new int[n];
+        this.labels = new int[3 * labelCount * n];
+        try (Metrics.Phase phase = metrics.phase("reach_index")) {
+            for (int i = 0; i < n; i++) {
+                position[topoOrder[i]] = i;
+            }
+            int[] roots = roots(n);
+            if (parallelism == 1 || labelCount == 1) {
+                for (int i = 0; i < labelCount; i++) {
+                    label(i, roots);
+                }
+            } else {
+                ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, labelCount));
+                try {
+                    pool.submit(() -> IntStream.range(0, labelCount).parallel().forEach(i -> label(i, roots))).join();
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+        metrics.add(INDEX_BYTES, sizeBytes());
+    }
+
+    /**
+     * Index over the condensation of a fused or cached analysis, queryable by task.
+     * @param condensed SCCs, condensation and topological order
+     * @param metrics metrics sink (build phase "reach_index", size and query counters)
+     * @return index with {@link #DEFAULT_LABELS} labels built on the common pool's parallelism
+     */
+    public static ReachabilityIndex build(CondensationResult condensed, Metrics metrics) {
+        return build(condensed.getCondensation(), condensed.getTopoOrder(), condensed.getSccs().getComponentOf(),
+                DEFAULT_LABELS, ForkJoinPool.getCommonPoolParallelism(), metrics);
+    }
+
+    /**
+     * @param condensation condensation DAG, e.g. from {@link DirectedGraph#buildCondensation}
+     * @param topoOrder topological order of the condensation, e.g. from Kahn's algorithm
+     * @param componentOf component of each task, or null for component queries only
+     * @param labelCount interval labels per component
+     * @param parallelism threads building labels
+     * @param metrics metrics sink (build phase "reach_index", size and query counters)
+     * @return index
+     */
+    public static ReachabilityIndex build(DirectedGraph condensation, int[] topoOrder, int[] componentOf,
+                                          int labelCount, int parallelism, Metrics metrics) {
+        return new ReachabilityIndex(condensation, topoOrder, componentOf, labelCount, parallelism, metrics);
+    }
+
+    public int getLabelCount() { return labelCount; }
+
+    public int componentCount() { return position.length; }
+
+    /** Bytes held by the labels and topological positions (the DAG itself is shared). */
+    public long sizeBytes() {
+        return 4L * (labels.length + position.length);
+    }
+
+    /**
+     * Whether a path leads from one component to another (a component reaches itself).
+     * @param from source component
+     * @param to target component
+     * @return true if to is reachable from from
+     */
+    public boolean reaches(int from, int to) {
+        long[] counts = new long[5];
+        boolean result = decide(from, to, Workspace.perThread(), counts);
+        report(counts);
+        return result;
+    }
+
+    /**
+     * Whether a path leads from one task to another.
+     * @param from source task
+     * @param to target task
+     * @return true if to is reachable from from
+     */
+    public boolean taskReaches(int from, int to) {
+        return reaches(componentOf(from), componentOf(to));
+    }
+
+    /**
+     * Whether a task transitively depends on another, i.e. the prerequisite reaches it.
+     * @param task dependent task
+     * @param prerequisite task that may have to run first
+     * @return true if the task depends on the prerequisite
+     */
+    public boolean dependsOn(int task, int prerequisite) {
+        return taskReaches(prerequisite, task);
+    }
+
+    /**
+     * Answers a batch of component queries on the calling thread.
+     * @param from source component per query
+     * @param to target component per query
+     * @return answer per query
+     */
+    public boolean[] reaches(int[] from, int[] to) {
+        return reaches(from, to, 1);
+    }
+
+    /**
+     * Answers a batch of component queries, split into chunks across threads.
+     * @param from source component per query
+     * @param to target component per query
+     * @param parallelism number of threads
+     * @return answer per query
+     */
+    public boolean[] reaches(int[] from, int[] to, int parallelism) {
+        if (from.length != to.length) {
+            throw new IllegalArgumentException("Batch has " + from.length + " sources and " + to.length + " targets");
+        }
+        boolean[] answers = new boolean[from.length];
+        int chunks = (from.length + BATCH_CHUNK - 1) / BATCH_CHUNK;
+        if (parallelism == 1 || chunks < 2) {
+            answerChunk(from, to, answers, 0, from.length);
+            return answers;
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(c -> answerChunk(from, to, answers,
+                    c * BATCH_CHUNK, Math.min(from.length, (c + 1) * BATCH_CHUNK)))).join();
+        } finally {
+            pool.shutdown();
+        }
+        return answers;
+    }
+
+    /**
+     * Component of a task.
+     * @param task task index in the original graph
+     * @return component index
+     * @throws IllegalStateException if the index was built without task components
+     */
+    public int componentOf(int task) {
+        if (componentOf == null) {
+            throw new IllegalStateException("Index was built for component queries only");
+        }
+        return componentOf[task];
+    }
+
+    private void answerChunk(int[] from, int[] to, boolean[] answers, int start, int end) {
+        Workspace workspace = Workspace.perThread();
+        long[] counts = new long[5];
+        for (int q = start; q < end; q++) {
+            answers[q] = decide(from[q], to[q], workspace, counts);
+        }
+        report(counts);
+    }
+
+    /**
+     * One query; counts are queries, label rejects, label hits, searches and search visits.
+     */
+    private boolean decide(int from, int to, Workspace workspace, long[] counts) {
+        counts[0]++;
+        if (from == to) {
+            return true;
+        }
+        if (excludes(from, to)) {
+            counts[1]++;
+            return false;
+        }
+        if (covers(from, to)) {
+            counts[2]++;
+            return true;
+        }
+        counts[3]++;
+        int n = position.length;
+        int[] stack = workspace.ints(STACK, n);
+        EpochMarks seen = workspace.marks(SEEN, n);
+        int size = 0;
+        stack[size++] = from;
+        seen.mark(from);
+        long visits = 0;
+        boolean found = false;
+        search:
+        while (size > 0) {
+            int u = stack[--size];
+            visits++;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                if (v == to) {
+                    found = true;
+                    break search;
+                }
+                if (!seen.isMarked(v) && !excludes(v, to)) {
+                    if (covers(v, to)) {
+                        found = true;
+                        break search;
+                    }
+                    seen.mark(v);
+                    stack[size++] = v;
+                }
+            }
+        }
+        counts[4] += visits;
+        return found;
+    }
+
+    /** Whether the topological positions or one of the labels rule out a path from u to v (u != v). */
+    private boolean excludes(int u, int v) {
+        if (position[u] > position[v]) {
+            return true;
+        }
+        int a = 3 * labelCount * u;
+        int b = 3 * labelCount * v;
+        for (int i = 0; i < 3 * labelCount; i += 3) {
+            if (labels[a + i] > labels[b + i] || labels[b + i + 2] > labels[a + i + 2]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Whether v is in the DFS subtree of u in one of the labelings (so u reaches v). */
+    private boolean covers(int u, int v) {
+        int a = 3 * labelCount * u;
+        int b = 3 * labelCount * v;
+        for (int i = 0; i < 3 * labelCount; i += 3) {
+            int post = labels[b + i + 2];
+            if (labels[a + i + 1] <= post && post <= labels[a + i + 2]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void report(long[] counts) {
+        metrics.add(QUERIES, counts[0]);
+        metrics.add(LABEL_REJECTS, counts[1]);
+        metrics.add(LABEL_HITS, counts[2]);
+        metrics.add(DFS_FALLBACKS, counts[3]);
+        metrics.add(DFS_VISITS, counts[4]);
+    }
+
+    private int[] roots(int n) {
+        boolean[] hasParent = new boolean[n];
+        for (int target : targets) {
+            hasParent[target] = true;
+        }
+        int count = 0;
+        for (int c = 0; c < n; c++) {
+            if (!hasParent[c]) {
+                count++;
+            }
+        }
+        int[] roots = new int[count];
+        count = 0;
+        for (int c = 0; c < n; c++) {
+            if (!hasParent[c]) {
+                roots[count++] = c;
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * Fills labeling i from a depth-first traversal with roots in random order, each
+     * component's children visited from a random starting edge.
+     */
+    private void label(int i, int[] roots) {
+        int n = position.length;
+        SplittableRandom random = new SplittableRandom(0x9E3779B97F4A7C15L * (i + 1));
+        int[] order = roots.clone();
+        for (int j = order.length - 1; j > 0; j--) {
+            int k = random.nextInt(j + 1);
+            int t = order[j];
+            order[j] = order[k];
+            order[k] = t;
+        }
+        int[] low = new int[n];
+        int[] first = new int[n];
+        int[] next = new int[n];  // Edges of a component taken so far
+        int[] stack = new int[n];
+        boolean[] visited = new boolean[n];
+        int rank = 0;
+        for (int root : order) {
+            int size = 0;
+            stack[size++] = root;
+            visited[root] = true;
+            first[root] = start(root, random);
+            labels[3 * (labelCount * root + i) + 1] = rank + 1;
+            while (size > 0) {
+                int u = stack[size - 1];
+                int degree = offsets[u + 1] - offsets[u];
+                if (next[u] < degree) {
+                    int v = targets[offsets[u] + (first[u] + next[u]++) % degree];
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        first[v] = start(v, random);
+                        labels[3 * (labelCount * v + i) + 1] = rank + 1;  // First rank its subtree gets
+                        stack[size++] = v;
+                    }
+                    continue;
+                }
+                size--;
+                int min = ++rank;
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    min = Math.min(min, low[targets[e]]);
+                }
+                low[u] = min;
+                int slot = 3 * (labelCount * u + i);
+                labels[slot] = min;
+                labels[slot + 2] = rank;
+            }
+        }
+    }
+
+    private int start(int u, SplittableRandom random) {
+        int degree = offsets[u + 1] - offsets[u];
+        return degree > 1 ? random.nextInt(degree) : 0;
+    }
+}
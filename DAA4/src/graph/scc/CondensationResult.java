@@ -0,0 +1,43 @@
+package graph.scc;
+
+import graph.DirectedGraph;
+
+/**
+ * SCC decomposition together with its condensation DAG and a topological order of the
+ * condensation, as produced in one traversal by {@link FusedCondensation}.
+ */
+public class CondensationResult {
+    private final SCCResult sccs;
+    private final DirectedGraph condensation;
+    private final int[] topoOrder;
+
+    /**
+     * @param sccs component id per node and member groups
+     * @param condensation DAG of components (node i is component i)
+     * @param topoOrder component ids in topological order
+     */
+    public CondensationResult(SCCResult sccs, DirectedGraph condensation, int[] topoOrder) {
+        this.sccs = sccs;
+        this.condensation = condensation;
+        this.topoOrder = topoOrder;
+    }
+
+    public SCCResult getSccs() { return sccs; }
+    public DirectedGraph getCondensation() { return condensation; }
+    /** Component ids in topological order. Shared with the result; do not modify. */
+    public int[] getTopoOrder() { return topoOrder; }
+
+    /**
+     * The topological order for Tarjan numbering: components are numbered in reverse
+     * topological order, so the order is simply count - 1 down to 0.
+     * @param componentCount number of components
+     * @return component ids in topological order
+     */
+    public static int[] reverseIds(int componentCount) {
+        int[] order = new int[componentCount];
+        for (int i = 0; i < componentCount; i++) {
+            order[i] = componentCount - 1 - i;
+        }
+        return order;
+    }
+}
@@ -0,0 +1,780 @@
+package graph.scc;
+
+import graph.DirectedGraph;
+import graph.Metrics;
+import graph.WeightPolicy;
+import graph.metrics.CounterRegistry;
+import graph.util.IntList;
+import graph.util.LongIntHashMap;
+
+import java.util.*;
+
+/**
+ * Keeps SCCs and the condensation DAG live under edge insertions and deletions.
+ * <ul>
+ *   <li>Components are kept in a topological order of the condensation. An inserted edge
+ *       between components is checked with a Pearce-Kelly search limited to the components
+ *       positioned between its endpoints; if it closes a cycle, the components on the cycle
+ *       are merged on the spot.</li>
+ *   <li>Deleting an edge inside a component only marks it dirty. Dirty components are
+ *       re-examined in one batch by {@link #flush()} (called automatically by the queries),
+ *       which splits each one with a Tarjan pass restricted to its members.</li>
+ * </ul>
+ * Changes are reported to registered {@link SCCChangeListener}s. Component ids are stable
+ * until a component is merged away; use {@link #toSCCResult()} for dense ids.
+ */
+public class DynamicSCC {
+    private static final int SCC_MERGES = CounterRegistry.id("scc_merges");
+    private static final int SCC_SPLITS = CounterRegistry.id("scc_splits");
+
+    private final Metrics metrics;
+    private final List<SCCChangeListener> listeners = new ArrayList<>();
+    private final List<String> names;  // Null for index-named graphs
+
+    // Node level
+    private IntList[] out, outWeight, in;
+    private int[] componentOf;
+    private int[] localIndex;  // Scratch for restricted Tarjan
+    private int n;
+
+    // Component level
+    private IntList[] members, compOut, compIn;
+    private int[] pos;  // Position of each live component in the topological order
+    private boolean[] dirty;
+    private int[] markForward, markBackward;
+    private int stamp = 0;
+    private int componentIds = 0;
+    private int liveComponents = 0;
+    private int[] compAt;  // Component at each position, -1 for holes left by merges
+    private int positions = 0;
+    private final LongIntHashMap multiplicity = new LongIntHashMap();  // (from comp, to comp) -> node edges
+    private final IntList dirtyList = new IntList();
+
+    private final IntList forward = new IntList();
+    private final IntList backward = new IntList();
+    private final IntList stack = new IntList();
+
+    /**
+     * Starts from an existing graph (which may contain cycles).
+     * @param graph initial graph
+     * @param metrics metrics for the initial decomposition and event counters
+     */
+    public DynamicSCC(DirectedGraph graph, Metrics metrics) {
+        this.metrics = metrics;
+        this.n = graph.nodeCount();
+        this.names = graph.hasIndexNames() ? null : new ArrayList<>(graph.getNodes());
+        int capacity = Math.max(n, 16);
+        out = new IntList[capacity];
+        outWeight = new IntList[capacity];
+        in = new IntList[capacity];
+        componentOf = new int[capacity];
+        localIndex = new int[capacity];
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getEdgeWeights();
+        for (int u = 0; u < n; u++) {
+            out[u] = new IntList(Math.max(2, offsets[u + 1] - offsets[u]));
+            outWeight[u] = new IntList(Math.max(2, offsets[u + 1] - offsets[u]));
+            in[u] = new IntList(2);
+        }
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                out[u].add(targets[e]);
+                outWeight[u].add(weights[e]);
+                in[targets[e]].add(u);
+            }
+        }
+
+        SCCResult initial = new Tarjan(graph, metrics).findComponents();
+        int count = initial.getComponentCount();
+        allocateComponents(Math.max(count, 16));
+        int[] groupMembers = initial.getMembers();
+        int[] groupOffsets = initial.getMemberOffsets();
+        for (int c = 0; c < count; c++) {
+            IntList list = new IntList(groupOffsets[c + 1] - groupOffsets[c]);
+            for (int i = groupOffsets[c]; i < groupOffsets[c + 1]; i++) {
+                list.add(groupMembers[i]);
+                componentOf[groupMembers[i]] = c;
+            }
+            int id = newComponent(list);
+            // Tarjan numbers components in reverse topological order
+            setPosition(id, count - 1 - c);
+        }
+        positions = count;
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int cu = componentOf[u], cv = componentOf[targets[e]];
+                if (cu != cv && multiplicity.addTo(LongIntHashMap.pairKey(cu, cv), 1) == 1) {
+                    link(cu, cv);
+                }
+            }
+        }
+    }
+
+    public void addListener(SCCChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(SCCChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Adds an isolated node as its own component at the end of the order.
+     * @param name node name (ignored for index-named graphs)
+     * @return index of the new node
+     */
+    public int addNode(String name) {
+        if (n == out.length) {
+            int capacity = out.length * 2;
+            out = Arrays.copyOf(out, capacity);
+            outWeight = Arrays.copyOf(outWeight, capacity);
+            in = Arrays.copyOf(in, capacity);
+            componentOf = Arrays.copyOf(componentOf, capacity);
+            localIndex = Arrays.copyOf(localIndex, capacity);
+        }
+        int node = n++;
+        out[node] = new IntList(2);
+        outWeight[node] = new IntList(2);
+        in[node] = new IntList(2);
+        if (names != null) {
+            names.add(name);
+        }
+        IntList list = new IntList(1);
+        list.add(node);
+        componentOf[node] = componentIds;
+        int id = newComponent(list);
+        setPosition(id, positions++);
+        return node;
+    }
+
+    /**
+     * Inserts edge u -> v with a weight, merging components if it closes a cycle.
+     */
+    public void insertEdge(int u, int v, int weight) {
+        checkNode(u);
+        checkNode(v);
+        out[u].add(v);
+        outWeight[u].add(weight);
+        in[v].add(u);
+        int cu = componentOf[u], cv = componentOf[v];
+        if (cu == cv || multiplicity.addTo(LongIntHashMap.pairKey(cu, cv), 1) > 1) {
+            return;  // Internal edge, or the components are already connected
+        }
+        if (pos[cu] < pos[cv]) {
+            link(cu, cv);
+            fireEdgeAdded(cu, cv);
+            return;
+        }
+
+        nextStamp();
+        forward.clear();
+        backward.clear();
+        boolean cycle = searchForward(cv, pos[cu], cu);
+        searchBackward(cu, pos[cv]);
+        if (!cycle) {
+            reorder(backward, forward);
+            link(cu, cv);
+            fireEdgeAdded(cu, cv);
+            return;
+        }
+
+        // Components both reachable from cv and reaching cu form the new cycle
+        multiplicity.remove(LongIntHashMap.pairKey(cu, cv), 0);
+        IntList before = new IntList();
+        IntList after = new IntList();
+        IntList cycleSet = new IntList();
+        for (int i = 0; i < backward.size(); i++) {
+            int c = backward.get(i);
+            if (markForward[c] == stamp) {
+                cycleSet.add(c);
+            }
+            before.add(c);  // Cycle members keep their relative place among the predecessors
+        }
+        for (int i = 0; i < forward.size(); i++) {
+            int c = forward.get(i);
+            if (markBackward[c] != stamp) {
+                after.add(c);
+            }
+        }
+        reorder(before, after);
+        merge(cycleSet);
+    }
+
+    /**
+     * Removes one occurrence of edge u -> v. A deletion inside a component is resolved lazily.
+     * @return true if the edge existed
+     */
+    public boolean removeEdge(int u, int v) {
+        checkNode(u);
+        checkNode(v);
+        IntList targets = out[u];
+        int index = -1;
+        for (int i = 0; i < targets.size(); i++) {
+            if (targets.get(i) == v) {
+                index = i;
+                break;
+            }
+        }
+        if (index < 0) {
+            return false;
+        }
+        int last = targets.size() - 1;
+        targets.set(index, targets.get(last));
+        targets.removeLast();
+        outWeight[u].set(index, outWeight[u].get(last));
+        outWeight[u].removeLast();
+        removeValue(in[v], u);
+
+        int cu = componentOf[u], cv = componentOf[v];
+        if (cu != cv) {
+            long key = LongIntHashMap.pairKey(cu, cv);
+            if (multiplicity.addTo(key, -1) == 0) {
+                multiplicity.remove(key, 0);
+                unlink(cu, cv);
+                fireEdgeRemoved(cu, cv);
+            }
+        } else if (!dirty[cu]) {
+            dirty[cu] = true;
+            dirtyList.add(cu);
+        }
+        return true;
+    }
+
+    /**
+     * Splits every component that lost internal edges since the last flush.
+     * Queries call this automatically; call it directly to control when the work happens.
+     */
+    public void flush() {
+        if (dirtyList.isEmpty()) {
+            return;
+        }
+        List<Runnable> events = new ArrayList<>();
+        Map<Integer, int[]> splits = new HashMap<>();
+        for (int i = 0; i < dirtyList.size(); i++) {
+            int c = dirtyList.get(i);
+            if (members[c] == null || !dirty[c]) {
+                continue;
+            }
+            dirty[c] = false;
+            int[] parts = split(c, events);
+            if (parts != null) {
+                splits.put(c, parts);
+            }
+        }
+        dirtyList.clear();
+        if (!splits.isEmpty()) {
+            // Each split component's parts take its place, in their topological order
+            int[] order = new int[liveComponents];
+            int count = 0;
+            for (int p = 0; p < positions; p++) {
+                int c = compAt[p];
+                if (c < 0) {
+                    continue;
+                }
+                int[] parts = splits.get(c);
+                if (parts == null) {
+                    order[count++] = c;
+                } else {
+                    for (int part : parts) {
+                        order[count++] = part;
+                    }
+                }
+            }
+            if (compAt.length < count) {
+                compAt = new int[count * 2];
+            }
+            Arrays.fill(compAt, -1);
+            for (int p = 0; p < count; p++) {
+                setPosition(order[p], p);
+            }
+            positions = count;
+        }
+        for (Runnable event : events) {
+            event.run();
+        }
+    }
+
+    /** Component id of a node. */
+    public int componentOf(int node) {
+        checkNode(node);
+        flush();
+        return componentOf[node];
+    }
+
+    /** Number of components. */
+    public int componentCount() {
+        flush();
+        return liveComponents;
+    }
+
+    public int nodeCount() { return n; }
+
+    /** Live component ids in topological order of the condensation. */
+    public int[] components() {
+        flush();
+        int[] result = new int[liveComponents];
+        int count = 0;
+        for (int p = 0; p < positions; p++) {
+            if (compAt[p] >= 0) {
+                result[count++] = compAt[p];
+            }
+        }
+        return result;
+    }
+
+    /** Members of one component. */
+    public int[] members(int component) {
+        flush();
+        if (component < 0 || component >= componentIds || members[component] == null) {
+            throw new IllegalArgumentException("No component " + component);
+        }
+        return members[component].toArray();
+    }
+
+    /** Whether the condensation currently has an edge between two components. */
+    public boolean hasCondensationEdge(int from, int to) {
+        flush();
+        return multiplicity.containsKey(LongIntHashMap.pairKey(from, to));
+    }
+
+    /**
+     * Snapshot with dense component ids numbered in topological order.
+     * @return component id per node
+     */
+    public SCCResult toSCCResult() {
+        int[] order = components();
+        int[] dense = new int[componentIds];
+        for (int i = 0; i < order.length; i++) {
+            dense[order[i]] = i;
+        }
+        int[] result = new int[n];
+        for (int u = 0; u < n; u++) {
+            result[u] = dense[componentOf[u]];
+        }
+        return new SCCResult(result, order.length);
+    }
+
+    /**
+     * Snapshot of the current graph (O(V + E)).
+     * @return graph with the current edges
+     */
+    public DirectedGraph toGraph() {
+        int m = 0;
+        for (int u = 0; u < n; u++) {
+            m += out[u].size();
+        }
+        int[] from = new int[m], to = new int[m], w = new int[m];
+        int e = 0;
+        for (int u = 0; u < n; u++) {
+            for (int i = 0; i < out[u].size(); i++, e++) {
+                from[e] = u;
+                to[e] = out[u].get(i);
+                w[e] = outWeight[u].get(i);
+            }
+        }
+        List<String> nodes = names != null ? new ArrayList<>(names) : DirectedGraph.indexNames(n);
+        return new DirectedGraph(nodes, from, to, w, m);
+    }
+
+    /**
+     * Snapshot of the condensation, with node i = component i of {@link #toSCCResult()},
+     * so the identity order 0..k-1 is a topological order.
+     * @param policy how to combine weights of merged edges
+     * @return condensation graph
+     */
+    public DirectedGraph condensation(WeightPolicy policy) {
+        SCCResult result = toSCCResult();
+        return toGraph().buildCondensation(result.getComponentOf(), result.getComponentCount(), policy);
+    }
+
+    /**
+     * Forward search over components positioned at most {@code upper}.
+     * @return true if {@code target} was reached
+     */
+    private boolean searchForward(int start, int upper, int target) {
+        boolean reached = false;
+        stack.clear();
+        stack.add(start);
+        markForward[start] = stamp;
+        while (!stack.isEmpty()) {
+            int c = stack.removeLast();
+            forward.add(c);
+            reached |= c == target;
+            IntList next = compOut[c];
+            for (int i = 0; i < next.size(); i++) {
+                int x = next.get(i);
+                if (markForward[x] != stamp && pos[x] <= upper) {
+                    markForward[x] = stamp;
+                    stack.add(x);
+                }
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * Backward search over components positioned at least {@code lower}.
+     */
+    private void searchBackward(int start, int lower) {
+        stack.clear();
+        stack.add(start);
+        markBackward[start] = stamp;
+        while (!stack.isEmpty()) {
+            int c = stack.removeLast();
+            backward.add(c);
+            IntList prev = compIn[c];
+            for (int i = 0; i < prev.size(); i++) {
+                int x = prev.get(i);
+                if (markBackward[x] != stamp && pos[x] >= lower) {
+                    markBackward[x] = stamp;
+                    stack.add(x);
+                }
+            }
+        }
+    }
+
+    /**
+     * Places {@code first} before {@code second}, each keeping its internal order,
+     * in the positions the two groups occupied together.
+     */
+    private void reorder(IntList first, IntList second) {
+        int[] a = sortByPosition(first);
+        int[] b = sortByPosition(second);
+        int[] slots = new int[a.length + b.length];
+        for (int i = 0; i < a.length; i++) slots[i] = pos[a[i]];
+        for (int i = 0; i < b.length; i++) slots[a.length + i] = pos[b[i]];
+        Arrays.sort(slots);
+        for (int i = 0; i < slots.length; i++) {
+            setPosition(i < a.length ? a[i] : b[i - a.length], slots[i]);
+        }
+    }
+
+    private int[] sortByPosition(IntList comps) {
+        long[] keyed = new long[comps.size()];
+        for (int i = 0; i < keyed.length; i++) {
+            int c = comps.get(i);
+            keyed[i] = ((long) pos[c] << 32) | c;
+        }
+        Arrays.sort(keyed);
+        int[] sorted = new int[keyed.length];
+        for (int i = 0; i < keyed.length; i++) {
+            sorted[i] = (int) keyed[i];
+        }
+        return sorted;
+    }
+
+    /**
+     * Merges components into the largest one, which takes the last of their positions:
+     * after {@link #reorder}, every predecessor of a cycle member sits before that slot
+     * and every successor after it.
+     */
+    private void merge(IntList cycleSet) {
+        int survivor = cycleSet.get(0);
+        int lastSlot = -1;
+        for (int i = 0; i < cycleSet.size(); i++) {
+            int c = cycleSet.get(i);
+            if (members[c].size() > members[survivor].size()) {
+                survivor = c;
+            }
+            lastSlot = Math.max(lastSlot, pos[c]);
+        }
+        nextStamp();
+        for (int i = 0; i < cycleSet.size(); i++) {
+            markForward[cycleSet.get(i)] = stamp;  // Membership test for the cycle set
+        }
+
+        int[] absorbed = new int[cycleSet.size() - 1];
+        int count = 0;
+        for (int i = 0; i < cycleSet.size(); i++) {
+            int x = cycleSet.get(i);
+            if (x == survivor) {
+                continue;
+            }
+            absorbed[count++] = x;
+            IntList xMembers = members[x];
+            for (int j = 0; j < xMembers.size(); j++) {
+                int node = xMembers.get(j);
+                componentOf[node] = survivor;
+                members[survivor].add(node);
+            }
+            if (dirty[x] && !dirty[survivor]) {
+                dirty[survivor] = true;
+                dirtyList.add(survivor);
+            }
+            for (int y : compOut[x].toArray()) {
+                int k = multiplicity.remove(LongIntHashMap.pairKey(x, y), 0);
+                unlink(x, y);
+                fireEdgeRemoved(x, y);
+                if (markForward[y] != stamp && multiplicity.addTo(LongIntHashMap.pairKey(survivor, y), k) == k) {
+                    link(survivor, y);
+                    fireEdgeAdded(survivor, y);
+                }
+            }
+            for (int p : compIn[x].toArray()) {
+                int k = multiplicity.remove(LongIntHashMap.pairKey(p, x), 0);
+                unlink(p, x);
+                fireEdgeRemoved(p, x);
+                if (markForward[p] != stamp && multiplicity.addTo(LongIntHashMap.pairKey(p, survivor), k) == k) {
+                    link(p, survivor);
+                    fireEdgeAdded(p, survivor);
+                }
+            }
+            compAt[pos[x]] = -1;
+            members[x] = null;
+            compOut[x] = null;
+            compIn[x] = null;
+            dirty[x] = false;
+            liveComponents--;
+        }
+        compAt[pos[survivor]] = -1;
+        setPosition(survivor, lastSlot);
+        metrics.increment(SCC_MERGES);
+        for (SCCChangeListener listener : listeners) {
+            listener.componentsMerged(survivor, absorbed.clone());
+        }
+    }
+
+    /**
+     * Re-runs Tarjan inside one component.
+     * @return the parts in topological order (parts[0] keeps the id), or null if still one SCC
+     */
+    private int[] split(int c, List<Runnable> events) {
+        int[] nodes = members[c].toArray();
+        int size = nodes.length;
+        for (int i = 0; i < size; i++) {
+            localIndex[nodes[i]] = i;
+        }
+        int[] disc = new int[size], low = new int[size], local = new int[size];
+        Arrays.fill(disc, -1);
+        int[] callStack = new int[size], cursor = new int[size], sccStack = new int[size];
+        boolean[] onStack = new boolean[size];
+        int index = 0, stackSize = 0, parts = 0;
+        for (int root = 0; root < size; root++) {
+            if (disc[root] != -1) {
+                continue;
+            }
+            int depth = 0;
+            disc[root] = low[root] = index++;
+            sccStack[stackSize++] = root;
+            onStack[root] = true;
+            callStack[depth] = root;
+            cursor[depth++] = 0;
+            while (depth > 0) {
+                int u = callStack[depth - 1];
+                IntList targets = out[nodes[u]];
+                if (cursor[depth - 1] < targets.size()) {
+                    int target = targets.get(cursor[depth - 1]++);
+                    if (componentOf[target] != c) {
+                        continue;
+                    }
+                    int v = localIndex[target];
+                    if (disc[v] == -1) {
+                        disc[v] = low[v] = index++;
+                        sccStack[stackSize++] = v;
+                        onStack[v] = true;
+                        callStack[depth] = v;
+                        cursor[depth++] = 0;
+                    } else if (onStack[v]) {
+                        low[u] = Math.min(low[u], disc[v]);
+                    }
+                    continue;
+                }
+                depth--;
+                if (low[u] == disc[u]) {
+                    int v;
+                    do {
+                        v = sccStack[--stackSize];
+                        onStack[v] = false;
+                        local[v] = parts;
+                    } while (v != u);
+                    parts++;
+                }
+                if (depth > 0) {
+                    low[callStack[depth - 1]] = Math.min(low[callStack[depth - 1]], low[u]);
+                }
+            }
+        }
+        if (parts == 1) {
+            return null;
+        }
+
+        // Detach the old component's condensation edges, remembering them for the event diff
+        LongIntHashMap oldEdges = new LongIntHashMap();
+        for (int y : compOut[c].toArray()) {
+            oldEdges.put(LongIntHashMap.pairKey(c, y), 1, 0);
+            multiplicity.remove(LongIntHashMap.pairKey(c, y), 0);
+            unlink(c, y);
+        }
+        for (int p : compIn[c].toArray()) {
+            oldEdges.put(LongIntHashMap.pairKey(p, c), 1, 0);
+            multiplicity.remove(LongIntHashMap.pairKey(p, c), 0);
+            unlink(p, c);
+        }
+
+        // Tarjan numbered the parts in reverse topological order; parts[0] keeps the old id
+        int[] ids = new int[parts];
+        IntList[] lists = new IntList[parts];
+        for (int t = 0; t < parts; t++) {
+            lists[t] = new IntList();
+        }
+        for (int i = 0; i < size; i++) {
+            lists[parts - 1 - local[i]].add(nodes[i]);
+        }
+        ids[0] = c;
+        members[c] = lists[0];
+        for (int t = 1; t < parts; t++) {
+            ids[t] = newComponent(lists[t]);
+        }
+        for (int t = 0; t < parts; t++) {
+            for (int i = 0; i < lists[t].size(); i++) {
+                componentOf[lists[t].get(i)] = ids[t];
+            }
+        }
+
+        // Rebuild the condensation edges touching the parts
+        IntList added = new IntList();
+        for (int node : nodes) {
+            int cu = componentOf[node];
+            IntList targets = out[node];
+            for (int i = 0; i < targets.size(); i++) {
+                int cv = componentOf[targets.get(i)];
+                if (cu != cv && multiplicity.addTo(LongIntHashMap.pairKey(cu, cv), 1) == 1) {
+                    link(cu, cv);
+                    added.add(cu);
+                    added.add(cv);
+                }
+            }
+            IntList sources = in[node];
+            for (int i = 0; i < sources.size(); i++) {
+                int cp = componentOf[sources.get(i)];
+                if (!isPart(cp, c, ids) && multiplicity.addTo(LongIntHashMap.pairKey(cp, cu), 1) == 1) {
+                    link(cp, cu);
+                    added.add(cp);
+                    added.add(cu);
+                }
+            }
+        }
+
+        metrics.increment(SCC_SPLITS);
+        int[] partIds = ids.clone();
+        events.add(() -> {
+            for (SCCChangeListener listener : listeners) {
+                listener.componentSplit(c, partIds.clone());
+            }
+        });
+        oldEdges.forEach((key, ignored) -> {
+            if (!multiplicity.containsKey(key)) {
+                int from = (int) (key >>> 32), to = (int) key;
+                events.add(() -> fireEdgeRemoved(from, to));
+            }
+        });
+        for (int i = 0; i < added.size(); i += 2) {
+            int from = added.get(i), to = added.get(i + 1);
+            if (!oldEdges.containsKey(LongIntHashMap.pairKey(from, to))) {
+                events.add(() -> fireEdgeAdded(from, to));
+            }
+        }
+        return ids;
+    }
+
+    private static boolean isPart(int component, int original, int[] ids) {
+        if (component == original) {
+            return true;
+        }
+        for (int id : ids) {
+            if (id == component) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int newComponent(IntList memberList) {
+        if (componentIds == members.length) {
+            int capacity = members.length * 2;
+            members = Arrays.copyOf(members, capacity);
+            compOut = Arrays.copyOf(compOut, capacity);
+            compIn = Arrays.copyOf(compIn, capacity);
+            pos = Arrays.copyOf(pos, capacity);
+            dirty = Arrays.copyOf(dirty, capacity);
+            markForward = Arrays.copyOf(markForward, capacity);
+            markBackward = Arrays.copyOf(markBackward, capacity);
+        }
+        int id = componentIds++;
+        members[id] = memberList;
+        compOut[id] = new IntList(2);
+        compIn[id] = new IntList(2);
+        liveComponents++;
+        return id;
+    }
+
+    private void setPosition(int component, int position) {
+        if (position >= compAt.length) {
+            int old = compAt.length;
+            compAt = Arrays.copyOf(compAt, Math.max(position + 1, old * 2));
+            Arrays.fill(compAt, old, compAt.length, -1);
+        }
+        pos[component] = position;
+        compAt[position] = component;
+    }
+
+    private void allocateComponents(int capacity) {
+        members = new IntList[capacity];
+        compOut = new IntList[capacity];
+        compIn = new IntList[capacity];
+        pos = new int[capacity];
+        dirty = new boolean[capacity];
+        markForward = new int[capacity];
+        markBackward = new int[capacity];
+        compAt = new int[capacity];
+        Arrays.fill(compAt, -1);
+    }
+
+    private void link(int from, int to) {
+        compOut[from].add(to);
+        compIn[to].add(from);
+    }
+
+    private void unlink(int from, int to) {
+        removeValue(compOut[from], to);
+        removeValue(compIn[to], from);
+    }
+
+    private static boolean removeValue(IntList list, int value) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == value) {
+                list.set(i, list.get(list.size() - 1));
+                list.removeLast();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void fireEdgeAdded(int from, int to) {
+        for (SCCChangeListener listener : listeners) {
+            listener.condensationEdgeAdded(from, to);
+        }
+    }
+
+    private void fireEdgeRemoved(int from, int to) {
+        for (SCCChangeListener listener : listeners) {
+            listener.condensationEdgeRemoved(from, to);
+        }
+    }
+
+    private void nextStamp() {
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(markForward, 0);
+            Arrays.fill(markBackward, 0);
+            stamp = 1;
+        }
+    }
+
+    private void checkNode(int node) {
+        if (node < 0 || node >= n) {
+            throw new IndexOutOfBoundsException("Node " + node + " out of range for " + n + " nodes");
+        }
+    }
+}
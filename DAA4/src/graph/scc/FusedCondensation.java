@@ -0,0 +1,256 @@
+package graph.scc;
+
+import graph.DirectedGraph;
+import graph.GraphView;
+import graph.Metrics;
+import graph.WeightPolicy;
+import graph.metrics.CounterRegistry;
+import graph.util.EpochMarks;
+import graph.util.IntList;
+
+import java.util.*;
+
+/**
+ * SCCs, condensation and topological order from a single Tarjan traversal.
+ * <p>
+ * Every edge is classified while the DFS examines it: an edge whose target already
+ * belongs to a finished component crosses components, any other edge stays inside one.
+ * Cross edges are pushed on an edge stack; when a component is popped, the edges above
+ * its root's mark are exactly its outgoing cross edges, and they are merged into that
+ * component's condensation row. Components pop in reverse topological order and get
+ * consecutive ids, so the rows are emitted in CSR order and the topological order is
+ * count - 1 down to 0. No second pass over the graph and no Kahn sort are needed.
+ * <p>
+ * The output equals {@link Tarjan#findComponents()} followed by
+ * {@link DirectedGraph#buildCondensation(int[], int, WeightPolicy)}: same component ids
+ * and members, and each row lists its merged edges in order of their first source edge
+ * (so {@link WeightPolicy#FIRST} keeps the same weight).
+ */
+@SuppressWarnings("try")
+public class FusedCondensation {
+    private static final int DFS_VISITS = CounterRegistry.id("dfs_visits");
+    private static final int DFS_EDGES = CounterRegistry.id("dfs_edges");
+    private static final int CROSS_EDGES = CounterRegistry.id("cross_edges");
+    private static final int INSERTION_SORT_MAX = 32;
+
+    private final GraphView graph;
+    private final Metrics metrics;
+    private final WeightPolicy policy;
+    private CondensationResult result;
+
+    private int index = 0;
+    private int componentCount = 0;
+    private int stackSize = 0;
+    private int memberCount = 0;
+    private long visits = 0, edgesScanned = 0, crossEdges = 0;
+    private final EpochMarks visited;
+    private final int[] disc, low, inStack;
+    private final int[] sccStack, callStack, edgeCursor;
+    private final int[] componentOf, members, memberOffsets;
+
+    // Cross edges waiting for their component to pop: (target component, edge id) pairs
+    private int[] edgeStack = new int[64];
+    private int edgeTop = 0;
+    private final int[] edgeMark;  // Edge stack height when a node was entered
+
+    // Condensation rows under construction
+    private final int[] rowOffsets;
+    private final IntList rowTargets = new IntList();
+    private final IntList rowWeights = new IntList();
+    private final IntList rowFirstEdge = new IntList();  // Smallest source edge id per merged edge
+    private final int[] seenInRow;  // Row (component id + 1) that last merged an edge to a component
+    private final int[] slotOf;     // Position of that merged edge
+    private long[] sortKeys = new long[16];
+
+    public FusedCondensation(GraphView graph, Metrics metrics, WeightPolicy policy) {
+        this.graph = graph;
+        this.metrics = metrics;
+        this.policy = policy;
+        int n = graph.nodeCount();
+        visited = new EpochMarks(n);
+        disc = new int[n];
+        low = new int[n];
+        inStack = new int[n];
+        sccStack = new int[n];
+        callStack = new int[n];
+        edgeCursor = new int[n];
+        componentOf = new int[n];
+        members = new int[n];
+        memberOffsets = new int[n + 1];
+        edgeMark = new int[n];
+        rowOffsets = new int[n + 1];
+        seenInRow = new int[n];
+        slotOf = new int[n];
+    }
+
+    /**
+     * Runs the traversal once; later calls return the same result.
+     * @return SCCs (Tarjan numbering), condensation and topological order
+     */
+    public CondensationResult run() {
+        if (result != null) {
+            return result;
+        }
+        metrics.startTiming();
+        try (Metrics.Phase phase = metrics.phase("fused_condensation")) {
+            for (int i = 0; i < graph.nodeCount(); i++) {
+                if (!visited.isMarked(i)) {
+                    dfs(i);
+                }
+            }
+        }
+        metrics.stopTiming();
+        metrics.add(DFS_VISITS, visits);
+        metrics.add(DFS_EDGES, edgesScanned);
+        metrics.add(CROSS_EDGES, crossEdges);
+
+        SCCResult sccs = new SCCResult(componentOf, componentCount, members,
+                Arrays.copyOf(memberOffsets, componentCount + 1));
+        DirectedGraph condensation = DirectedGraph.fromCsr(DirectedGraph.indexNames("SCC", componentCount),
+                Arrays.copyOf(rowOffsets, componentCount + 1), rowTargets.toArray(), rowWeights.toArray());
+        result = new CondensationResult(sccs, condensation, CondensationResult.reverseIds(componentCount));
+        return result;
+    }
+
+    private void dfs(int root) {
+        int depth = 0;
+        callStack[depth++] = root;
+        visit(root);
+
+        while (depth > 0) {
+            int u = callStack[depth - 1];
+            int e = edgeCursor[u];
+            if (e < graph.edgeEnd(u)) {
+                edgeCursor[u] = e + 1;
+                int v = graph.target(e);
+                edgesScanned++;
+                if (!visited.isMarked(v)) {
+                    visit(v);
+                    callStack[depth++] = v;
+                } else if (inStack[v] == 1) {
+                    low[u] = Math.min(low[u], disc[v]);
+                } else {
+                    pushCrossEdge(componentOf[v], e);
+                }
+                continue;
+            }
+
+            // All edges of u explored: "return" to the caller
+            depth--;
+            if (low[u] == disc[u]) {
+                popComponent(u);
+            }
+            if (depth > 0) {
+                int caller = callStack[depth - 1];
+                if (inStack[u] == 1) {
+                    low[caller] = Math.min(low[caller], low[u]);
+                } else {
+                    // The tree edge into u now leads to a finished component
+                    pushCrossEdge(componentOf[u], edgeCursor[caller] - 1);
+                }
+            }
+        }
+    }
+
+    private void visit(int u) {
+        visits++;
+        visited.mark(u);
+        disc[u] = low[u] = index++;
+        sccStack[stackSize++] = u;
+        inStack[u] = 1;
+        edgeCursor[u] = graph.edgeStart(u);
+        edgeMark[u] = edgeTop;
+    }
+
+    private void pushCrossEdge(int component, int edge) {
+        if (edgeTop + 2 > edgeStack.length) {
+            edgeStack = Arrays.copyOf(edgeStack, edgeStack.length * 2);
+        }
+        crossEdges++;
+        edgeStack[edgeTop++] = component;
+        edgeStack[edgeTop++] = edge;
+    }
+
+    private void popComponent(int u) {
+        int component = componentCount;
+        int v;
+        do {
+            v = sccStack[--stackSize];
+            inStack[v] = 0;
+            componentOf[v] = component;
+            members[memberCount++] = v;
+        } while (v != u);
+        memberOffsets[++componentCount] = memberCount;
+
+        // Everything pushed since the root was entered leaves this component
+        int rowStart = rowTargets.size();
+        boolean sorted = true;
+        for (int i = edgeMark[u]; i < edgeTop; i += 2) {
+            int target = edgeStack[i];
+            int edge = edgeStack[i + 1];
+            if (seenInRow[target] != component + 1) {
+                seenInRow[target] = component + 1;
+                slotOf[target] = rowTargets.size();
+                sorted &= rowTargets.size() == rowStart || rowFirstEdge.get(rowTargets.size() - 1) < edge;
+                rowTargets.add(target);
+                rowWeights.add(graph.weight(edge));
+                rowFirstEdge.add(edge);
+            } else {
+                int slot = slotOf[target];
+                int weight = graph.weight(edge);
+                if (edge < rowFirstEdge.get(slot)) {
+                    rowFirstEdge.set(slot, edge);
+                    sorted = false;
+                    rowWeights.set(slot, policy == WeightPolicy.FIRST ? weight
+                            : policy.combine(rowWeights.get(slot), weight));
+                } else {
+                    rowWeights.set(slot, policy.combine(rowWeights.get(slot), weight));
+                }
+            }
+        }
+        edgeTop = edgeMark[u];
+        if (!sorted) {
+            sortRow(rowStart, rowTargets.size());
+        }
+        rowOffsets[component + 1] = rowTargets.size();
+    }
+
+    /** Orders a row by first source edge, as a scan in node order would have found them. */
+    private void sortRow(int from, int to) {
+        int length = to - from;
+        if (length <= INSERTION_SORT_MAX) {
+            for (int i = from + 1; i < to; i++) {
+                int first = rowFirstEdge.get(i), target = rowTargets.get(i), weight = rowWeights.get(i);
+                int j = i - 1;
+                for (; j >= from && rowFirstEdge.get(j) > first; j--) {
+                    rowFirstEdge.set(j + 1, rowFirstEdge.get(j));
+                    rowTargets.set(j + 1, rowTargets.get(j));
+                    rowWeights.set(j + 1, rowWeights.get(j));
+                }
+                rowFirstEdge.set(j + 1, first);
+                rowTargets.set(j + 1, target);
+                rowWeights.set(j + 1, weight);
+            }
+            return;
+        }
+        if (sortKeys.length < length) {
+            sortKeys = new long[Math.max(length, sortKeys.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            sortKeys[i] = ((long) rowFirstEdge.get(from + i) << 32) | i;
+        }
+        Arrays.sort(sortKeys, 0, length);
+        int[] targets = new int[length];
+        int[] weights = new int[length];
+        for (int i = 0; i < length; i++) {
+            int j = (int) sortKeys[i];
+            targets[i] = rowTargets.get(from + j);
+            weights[i] = rowWeights.get(from + j);
+        }
+        for (int i = 0; i < length; i++) {
+            rowTargets.set(from + i, targets[i]);
+            rowWeights.set(from + i, weights[i]);
+            rowFirstEdge.set(from + i, (int) (sortKeys[i] >>> 32));
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package graph.scc;
+
+import graph.DirectedGraph;
+import graph.Metrics;
+import graph.metrics.CounterRegistry;
+import graph.util.IntList;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Parallel SCC decomposition on a ForkJoinPool.
+ * First trims every node with no remaining in- or out-edges (each is a size-1 SCC),
+ * then splits the rest with Forward-Backward: the SCC of a pivot is the intersection
+ * of its forward and backward reachable sets, and the three leftover sets are
+ * independent subproblems solved in parallel. Small subproblems fall back to
+ * a sequential Tarjan restricted to the subproblem.
+ * Component ids are not deterministic across runs; use {@link SCCResult#toLists()}
+ * with {@link DirectedGraph#buildCondensation(List)}.
+ */
+@SuppressWarnings("try")
+public class ParallelSCC {
+    private static final int SEQUENTIAL_THRESHOLD = 1024;  // Subproblem size handled by Tarjan
+    private static final int SCC_TRIMMED = CounterRegistry.id("scc_trimmed");
+    private static final int SCC_PIVOTS = CounterRegistry.id("scc_pivots");
+
+    private final DirectedGraph graph;
+    private final DirectedGraph reverse;
+    private final Metrics metrics;
+    private final int parallelism;
+    private final int[] componentOf;
+    private final int[] color;  // Subproblem id of each unresolved node, -1 once assigned
+    private final int[] disc, low;  // Scratch for the sequential fallback
+    private final AtomicInteger nextComponent = new AtomicInteger();
+    private final AtomicInteger nextColor = new AtomicInteger(1);
+    private final AtomicLong trimmed = new AtomicLong();
+    private final AtomicLong pivots = new AtomicLong();
+    private SCCResult result;
+
+    public ParallelSCC(DirectedGraph graph, Metrics metrics) {
+        this(graph, metrics, ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * @param graph graph to decompose
+     * @param metrics metrics sink (timing and the scc_trimmed/scc_pivots counters, from the calling thread)
+     * @param parallelism number of worker threads
+     */
+    public ParallelSCC(DirectedGraph graph, Metrics metrics, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be >= 1: " + parallelism);
+        }
+        this.graph = graph;
+        this.reverse = graph.reverse();
+        this.metrics = metrics;
+        this.parallelism = parallelism;
+        int n = graph.nodeCount();
+        componentOf = new int[n];
+        color = new int[n];
+        disc = new int[n];
+        low = new int[n];
+    }
+
+    /**
+     * Computes SCCs in list form, compatible with {@link DirectedGraph#buildCondensation(List)}.
+     * @return list of SCCs (each as list of node indices)
+     */
+    public List<List<Integer>> findSCCs() {
+        return findComponents().toLists();
+    }
+
+    /**
+     * Computes SCCs in parallel.
+     * @return component id per node
+     */
+    public SCCResult findComponents() {
+        if (result != null) {
+            return result;
+        }
+        metrics.startTiming();
+        try (Metrics.Phase phase = metrics.phase("parallel_scc")) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                int[] remaining = pool.submit(this::trim).join();
+                Arrays.fill(disc, -1);
+                pool.invoke(new ForwardBackward(remaining, 0));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        metrics.stopTiming();
+        metrics.add(SCC_TRIMMED, trimmed.get());
+        metrics.add(SCC_PIVOTS, pivots.get());
+        result = new SCCResult(componentOf, nextComponent.get());
+        return result;
+    }
+
+    /** Number of nodes resolved by trimming in the last run. */
+    public long getTrimmedCount() { return trimmed.get(); }
+
+    /** Number of Forward-Backward pivots used in the last run. */
+    public long getPivotCount() { return pivots.get(); }
+
+    public int getParallelism() { return parallelism; }
+
+    /**
+     * Repeatedly removes nodes without active in- or out-edges, level by level.
+     * Runs inside the pool so parallel streams use its workers.
+     * @return nodes left for Forward-Backward (color 0)
+     */
+    private int[] trim() {
+        int n = graph.nodeCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] rOffsets = reverse.getOffsets();
+        int[] rTargets = reverse.getTargets();
+        AtomicIntegerArray inDegree = new AtomicIntegerArray(n);
+        AtomicIntegerArray outDegree = new AtomicIntegerArray(n);
+        AtomicIntegerArray removed = new AtomicIntegerArray(n);
+        IntStream.range(0, n).parallel().forEach(u -> {
+            inDegree.set(u, degreeWithoutSelfLoops(u, rOffsets, rTargets));
+            outDegree.set(u, degreeWithoutSelfLoops(u, offsets, targets));
+        });
+
+        int[] frontier = IntStream.range(0, n).parallel()
+                .filter(u -> inDegree.get(u) == 0 || outDegree.get(u) == 0)
+                .toArray();
+        while (frontier.length > 0) {
+            frontier = IntStream.of(frontier).parallel().flatMap(u -> {
+                if (!removed.compareAndSet(u, 0, 1)) {
+                    return IntStream.empty();
+                }
+                componentOf[u] = nextComponent.getAndIncrement();
+                trimmed.incrementAndGet();
+                IntList released = new IntList(4);
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = targets[e];
+                    if (v != u && removed.get(v) == 0 && inDegree.decrementAndGet(v) == 0) {
+                        released.add(v);
+                    }
+                }
+                for (int e = rOffsets[u]; e < rOffsets[u + 1]; e++) {
+                    int p = rTargets[e];
+                    if (p != u && removed.get(p) == 0 && outDegree.decrementAndGet(p) == 0) {
+                        released.add(p);
+                    }
+                }
+                return released.isEmpty() ? IntStream.empty() : IntStream.of(released.toArray());
+            }).toArray();
+        }
+
+        IntStream.range(0, n).parallel().forEach(u -> color[u] = removed.get(u) == 1 ? -1 : 0);
+        return IntStream.range(0, n).parallel().filter(u -> removed.get(u) == 0).toArray();
+    }
+
+    private static int degreeWithoutSelfLoops(int u, int[] offsets, int[] targets) {
+        int degree = 0;
+        for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+            if (targets[e] != u) {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+    /**
+     * Solves one subproblem: the nodes currently colored {@code id}.
+     * Subproblems are disjoint, so each task owns the color/componentOf slots of its nodes.
+     */
+    @SuppressWarnings("serial")  // Fork/join tasks are never serialized
+    private class ForwardBackward extends RecursiveAction {
+        private final int[] nodes;
+        private final int id;
+
+        ForwardBackward(int[] nodes, int id) {
+            this.nodes = nodes;
+            this.id = id;
+        }
+
+        @Override
+        protected void compute() {
+            if (nodes.length == 0) {
+                return;
+            }
+            if (nodes.length <= SEQUENTIAL_THRESHOLD) {
+                restrictedTarjan(nodes, id);
+                return;
+            }
+            pivots.incrementAndGet();
+            int pivot = nodes[nodes.length / 2];
+            int forwardId = nextColor.getAndIncrement();
+            int backwardId = nextColor.getAndIncrement();
+            int[] queue = new int[nodes.length];
+
+            // Forward reachable set within the subproblem
+            int head = 0, tail = 0;
+            color[pivot] = forwardId;
+            queue[tail++] = pivot;
+            int[] offsets = graph.getOffsets();
+            int[] targets = graph.getTargets();
+            while (head < tail) {
+                int u = queue[head++];
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = targets[e];
+                    if (color[v] == id) {
+                        color[v] = forwardId;
+                        queue[tail++] = v;
+                    }
+                }
+            }
+
+            // Backward reachable set: forward-marked nodes form the pivot's SCC
+            int component = nextComponent.getAndIncrement();
+            head = 0;
+            tail = 0;
+            color[pivot] = -1;
+            componentOf[pivot] = component;
+            queue[tail++] = pivot;
+            int[] rOffsets = reverse.getOffsets();
+            int[] rTargets = reverse.getTargets();
+            while (head < tail) {
+                int u = queue[head++];
+                for (int e = rOffsets[u]; e < rOffsets[u + 1]; e++) {
+                    int p = rTargets[e];
+                    if (color[p] == forwardId) {
+                        color[p] = -1;
+                        componentOf[p] = component;
+                        queue[tail++] = p;
+                    } else if (color[p] == id) {
+                        color[p] = backwardId;
+                        queue[tail++] = p;
+                    }
+                }
+            }
+
+            IntList forwardOnly = new IntList();
+            IntList backwardOnly = new IntList();
+            IntList rest = new IntList();
+            for (int u : nodes) {
+                int c = color[u];
+                if (c == forwardId) {
+                    forwardOnly.add(u);
+                } else if (c == backwardId) {
+                    backwardOnly.add(u);
+                } else if (c == id) {
+                    rest.add(u);
+                }
+            }
+            invokeAll(new ForwardBackward(forwardOnly.toArray(), forwardId),
+                    new ForwardBackward(backwardOnly.toArray(), backwardId),
+                    new ForwardBackward(rest.toArray(), id));
+        }
+    }
+
+    /**
+     * Iterative Tarjan over the nodes colored {@code id}, ignoring edges that leave the subproblem.
+     */
+    private void restrictedTarjan(int[] nodes, int id) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] callStack = new int[nodes.length];
+        int[] sccStack = new int[nodes.length];
+        int[] edgeCursor = new int[nodes.length];
+        int index = 0, stackSize = 0;
+        for (int root : nodes) {
+            if (color[root] != id || disc[root] != -1) {
+                continue;
+            }
+            int depth = 0;
+            disc[root] = low[root] = index++;
+            sccStack[stackSize++] = root;
+            callStack[depth] = root;
+            edgeCursor[depth++] = offsets[root];
+            while (depth > 0) {
+                int u = callStack[depth - 1];
+                int e = edgeCursor[depth - 1];
+                if (e < offsets[u + 1]) {
+                    edgeCursor[depth - 1] = e + 1;
+                    int v = targets[e];
+                    if (color[v] != id) {
+                        continue;  // Outside the subproblem or already assigned
+                    }
+                    if (disc[v] == -1) {
+                        disc[v] = low[v] = index++;
+                        sccStack[stackSize++] = v;
+                        callStack[depth] = v;
+                        edgeCursor[depth++] = offsets[v];
+                    } else {
+                        low[u] = Math.min(low[u], disc[v]);  // v is still on the SCC stack
+                    }
+                    continue;
+                }
+                depth--;
+                if (low[u] == disc[u]) {
+                    int component = nextComponent.getAndIncrement();
+                    int v;
+                    do {
+                        v = sccStack[--stackSize];
+                        color[v] = -1;
+                        componentOf[v] = component;
+                    } while (v != u);
+                }
+                if (depth > 0) {
+                    int caller = callStack[depth - 1];
+                    low[caller] = Math.min(low[caller], low[u]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package graph.scc;
+
+/**
+ * Receives change events from {@link DynamicSCC}. All methods default to no-ops,
+ * so listeners implement only the events they consume. Events are delivered on
+ * the thread that modifies the graph, after the change has been applied.
+ */
+public interface SCCChangeListener {
+    /**
+     * Several components became one because a new edge closed a cycle.
+     * @param survivor id of the merged component
+     * @param absorbed ids that no longer exist
+     */
+    default void componentsMerged(int survivor, int[] absorbed) {
+    }
+
+    /**
+     * A component fell apart after edge deletions.
+     * @param original id of the old component (reused by parts[0])
+     * @param parts ids of the new components, in topological order
+     */
+    default void componentSplit(int original, int[] parts) {
+    }
+
+    /**
+     * The condensation gained an edge between two components.
+     */
+    default void condensationEdgeAdded(int from, int to) {
+    }
+
+    /**
+     * The condensation lost an edge between two components.
+     */
+    default void condensationEdgeRemoved(int from, int to) {
+    }
+}
@@ -0,0 +1,121 @@
+package graph.scc;
+
+import java.util.*;
+
+/**
+ * Primitive SCC decomposition: the component id of every node plus the members
+ * of each component grouped in CSR form (members of component c occupy
+ * memberOffsets[c] .. memberOffsets[c + 1] - 1 of the members array).
+ * <p>
+ * The arrays may be longer than needed (reused workspace buffers): only the first
+ * {@link #getNodeCount()} entries of componentOf and members and the first
+ * componentCount + 1 entries of memberOffsets are valid.
+ */
+public class SCCResult {
+    private final int[] componentOf;
+    private final int componentCount;
+    private final int nodeCount;
+    private int[] members;
+    private int[] memberOffsets;
+
+    /**
+     * Creates a result from component ids only; member groups are built on first use.
+     * @param componentOf component id per node
+     * @param componentCount number of components
+     */
+    public SCCResult(int[] componentOf, int componentCount) {
+        this.componentOf = componentOf;
+        this.componentCount = componentCount;
+        this.nodeCount = componentOf.length;
+    }
+
+    /**
+     * Creates a result with precomputed member groups.
+     * @param componentOf component id per node
+     * @param componentCount number of components
+     * @param members node indices grouped by component
+     * @param memberOffsets group offsets (length componentCount + 1)
+     */
+    public SCCResult(int[] componentOf, int componentCount, int[] members, int[] memberOffsets) {
+        this(componentOf, componentCount, members, memberOffsets, componentOf.length);
+    }
+
+    /**
+     * Creates a result over arrays that may be longer than the graph.
+     * @param componentOf component id per node (at least nodeCount entries)
+     * @param componentCount number of components
+     * @param members node indices grouped by component (at least nodeCount entries)
+     * @param memberOffsets group offsets (at least componentCount + 1 entries)
+     * @param nodeCount number of nodes
+     */
+    public SCCResult(int[] componentOf, int componentCount, int[] members, int[] memberOffsets, int nodeCount) {
+        this.componentOf = componentOf;
+        this.componentCount = componentCount;
+        this.members = members;
+        this.memberOffsets = memberOffsets;
+        this.nodeCount = nodeCount;
+    }
+
+    public int[] getComponentOf() { return componentOf; }
+    public int getComponentCount() { return componentCount; }
+
+    /** Number of nodes; the arrays may be longer. */
+    public int getNodeCount() { return nodeCount; }
+
+    public int[] getMembers() {
+        groupMembers();
+        return members;
+    }
+
+    public int[] getMemberOffsets() {
+        groupMembers();
+        return memberOffsets;
+    }
+
+    /**
+     * Size of one component.
+     * @param component component id
+     * @return number of nodes in the component
+     */
+    public int componentSize(int component) {
+        groupMembers();
+        return memberOffsets[component + 1] - memberOffsets[component];
+    }
+
+    /**
+     * Converts to the list form returned by {@link Tarjan#findSCCs()}.
+     * @return list of SCCs (each as list of node indices)
+     */
+    public List<List<Integer>> toLists() {
+        groupMembers();
+        List<List<Integer>> sccs = new ArrayList<>(componentCount);
+        for (int c = 0; c < componentCount; c++) {
+            List<Integer> scc = new ArrayList<>(memberOffsets[c + 1] - memberOffsets[c]);
+            for (int i = memberOffsets[c]; i < memberOffsets[c + 1]; i++) {
+                scc.add(members[i]);
+            }
+            sccs.add(scc);
+        }
+        return sccs;
+    }
+
+    private void groupMembers() {
+        if (members != null) {
+            return;
+        }
+        int[] offsets = new int[componentCount + 1];
+        for (int u = 0; u < nodeCount; u++) {
+            offsets[componentOf[u] + 1]++;
+        }
+        for (int c = 0; c < componentCount; c++) {
+            offsets[c + 1] += offsets[c];
+        }
+        int[] cursor = Arrays.copyOf(offsets, componentCount);
+        int[] grouped = new int[nodeCount];
+        for (int u = 0; u < nodeCount; u++) {
+            grouped[cursor[componentOf[u]]++] = u;
+        }
+        members = grouped;
+        memberOffsets = offsets;
+    }
+}
@@ -1,31 +1,90 @@
     package graph.scc;
 
     import graph.DirectedGraph;
+    import graph.GraphView;
     import graph.Metrics;
+    import graph.metrics.CounterRegistry;
+    import graph.util.EpochMarks;
+    import graph.util.Workspace;
 
     import java.util.*;
 
     /**
      * Implements Tarjan's algorithm for finding Strongly Connected Components (SCCs).
+     * Works on any {@link GraphView}, so off-heap and memory-mapped graphs are traversed in place.
      */
+    @SuppressWarnings("try")
     public class Tarjan {
+        private static final int DFS_VISITS = CounterRegistry.id("dfs_visits");
+        private static final int DFS_EDGES = CounterRegistry.id("dfs_edges");
+        private static final int VISITED = Workspace.slot("tarjan.visited");
+        private static final int DISC = Workspace.slot("tarjan.disc");
+        private static final int LOW = Workspace.slot("tarjan.low");
+        private static final int IN_STACK = Workspace.slot("tarjan.inStack");
+        private static final int SCC_STACK = Workspace.slot("tarjan.sccStack");
+        private static final int CALL_STACK = Workspace.slot("tarjan.callStack");
+        private static final int EDGE_CURSOR = Workspace.slot("tarjan.edgeCursor");
+        private static final int COMPONENT_OF = Workspace.slot("tarjan.componentOf");
+        private static final int MEMBERS = Workspace.slot("tarjan.members");
+        private static final int MEMBER_OFFSETS = Workspace.slot("tarjan.memberOffsets");
+
         private int index = 0;
-        private final Stack<Integer> stack = new Stack<>();
-        private final List<List<Integer>> sccs = new ArrayList<>();
+        private int componentCount = 0;
+        private int stackSize = 0;
+        private int memberCount = 0;
+        private long visits = 0, edgesScanned = 0;  // Reported to metrics once per run
+        private SCCResult result;
+        private List<List<Integer>> sccs;
+        private final EpochMarks visited;  // Replaces filling disc with -1 on every run
         private final int[] disc, low, inStack;
-        private final DirectedGraph graph;
+        private final int[] sccStack, callStack, edgeCursor;  // Explicit stacks replace recursion
+        private final int[] componentOf, members, memberOffsets;
+        private final GraphView graph;
         private final Metrics metrics;
+        private final boolean pooled;
+
+        public Tarjan(GraphView graph, Metrics metrics) {
+            this(graph, metrics, null);
+        }
 
-        public Tarjan(DirectedGraph graph, Metrics metrics) {
+        /**
+         * Runs on the buffers of a workspace, so repeated runs allocate nothing once it has grown.
+         * The arrays of the returned {@link SCCResult} are then workspace buffers: they may be
+         * longer than the node count (see {@link SCCResult#getNodeCount()}) and are overwritten
+         * by the next Tarjan run on the workspace.
+         * @param graph graph to decompose
+         * @param metrics metrics sink
+         * @param workspace buffers to reuse, or null to allocate fresh ones
+         */
+        public Tarjan(GraphView graph, Metrics metrics, Workspace workspace) {
             this.graph = graph;
             this.metrics = metrics;
-            int n = graph.getNodes().size();
-            disc = new int[n];
-            low = new int[n];
-            inStack = new int[n];
-            Arrays.fill(disc, -1);
-            Arrays.fill(low, -1);
-            Arrays.fill(inStack, 0);
+            int n = graph.nodeCount();
+            pooled = workspace != null;
+            if (pooled) {
+                visited = workspace.marks(VISITED, n);
+                disc = workspace.ints(DISC, n);
+                low = workspace.ints(LOW, n);
+                inStack = workspace.ints(IN_STACK, n);
+                sccStack = workspace.ints(SCC_STACK, n);
+                callStack = workspace.ints(CALL_STACK, n);
+                edgeCursor = workspace.ints(EDGE_CURSOR, n);
+                componentOf = workspace.ints(COMPONENT_OF, n);
+                members = workspace.ints(MEMBERS, n);
+                memberOffsets = workspace.ints(MEMBER_OFFSETS, n + 1);
+                memberOffsets[0] = 0;
+            } else {
+                visited = new EpochMarks(n);
+                disc = new int[n];
+                low = new int[n];
+                inStack = new int[n];
+                sccStack = new int[n];
+                callStack = new int[n];
+                edgeCursor = new int[n];
+                componentOf = new int[n];
+                members = new int[n];
+                memberOffsets = new int[n + 1];
+            }
         }
 
         /**
@@ -33,44 +92,92 @@
          * @return list of SCCs (each as list of node indices)
          */
         public List<List<Integer>> findSCCs() {
+            if (sccs == null) {
+                sccs = findComponents().toLists();
+            }
+            return sccs;
+        }
+
+        /**
+         * Computes SCCs iteratively without boxing or per-SCC lists.
+         * Components are numbered in the order {@link #findSCCs()} lists them
+         * (reverse topological order of the condensation).
+         * @return component id per node and grouped members
+         */
+        public SCCResult findComponents() {
+            if (result != null) {
+                return result;
+            }
             metrics.startTiming();
-            for (int i = 0; i < graph.getNodes().size(); i++) {
-                if (disc[i] == -1) {
-                    dfs(i);
+            try (Metrics.Phase phase = metrics.phase("tarjan")) {
+                for (int i = 0; i < graph.nodeCount(); i++) {
+                    if (!visited.isMarked(i)) {
+                        dfs(i);
+                    }
                 }
             }
             metrics.stopTiming();
-            return sccs;
+            metrics.add(DFS_VISITS, visits);
+            metrics.add(DFS_EDGES, edgesScanned);
+            result = pooled
+                    ? new SCCResult(componentOf, componentCount, members, memberOffsets, graph.nodeCount())
+                    : new SCCResult(componentOf, componentCount, members, Arrays.copyOf(memberOffsets, componentCount + 1));
+            return result;
         }
 
-        private void dfs(int u) {
-            metrics.incrementCounter("dfs_visits");
-            disc[u] = low[u] = index++;
-            stack.push(u);
-            inStack[u] = 1;
+        private void dfs(int root) {
+            int depth = 0;
+            callStack[depth++] = root;
+            visit(root);
 
-            for (int v : graph.getAdj().get(u)) {
-                metrics.incrementCounter("dfs_edges");
-                if (disc[v] == -1) {
-                    dfs(v);
-                    low[u] = Math.min(low[u], low[v]);
-                } else if (inStack[v] == 1) {
-                    low[u] = Math.min(low[u], disc[v]);
+            while (depth > 0) {
+                int u = callStack[depth - 1];
+                int e = edgeCursor[u];
+                if (e < graph.edgeEnd(u)) {
+                    edgeCursor[u] = e + 1;
+                    int v = graph.target(e);
+                    edgesScanned++;
+                    if (!visited.isMarked(v)) {
+                        visit(v);
+                        callStack[depth++] = v;
+                    } else if (inStack[v] == 1) {
+                        low[u] = Math.min(low[u], disc[v]);
+                    }
+                    continue;
                 }
-            }
 
-            if (low[u] == disc[u]) {
-                List<Integer> scc = new ArrayList<>();
-                int v;
-                do {
-                    v = stack.pop();
-                    inStack[v] = 0;
-                    scc.add(v);
-                } while (v != u);
-                sccs.add(scc);
+                // All edges of u explored: "return" to the caller
+                depth--;
+                if (low[u] == disc[u]) {
+                    popComponent(u);
+                }
+                if (depth > 0) {
+                    int caller = callStack[depth - 1];
+                    low[caller] = Math.min(low[caller], low[u]);
+                }
             }
         }
 
+        private void visit(int u) {
+            visits++;
+            visited.mark(u);
+            disc[u] = low[u] = index++;
+            sccStack[stackSize++] = u;
+            inStack[u] = 1;
+            edgeCursor[u] = graph.edgeStart(u);
+        }
+
+        private void popComponent(int u) {
+            int v;
+            do {
+                v = sccStack[--stackSize];
+                inStack[v] = 0;
+                componentOf[v] = componentCount;
+                members[memberCount++] = v;
+            } while (v != u);
+            memberOffsets[++componentCount] = memberCount;
+        }
+
         /**
          * Converts SCCs to node names and computes sizes.
          * @param sccs list of SCCs (indices)
@@ -0,0 +1,160 @@
+package graph.sched;
+
+import graph.DirectedGraph;
+import graph.Metrics;
+import graph.metrics.CounterRegistry;
+import graph.util.IndexedHeap;
+
+import java.util.*;
+
+/**
+ * Critical-path list scheduling of a DAG on W identical workers.
+ * <p>
+ * Edge weights keep their meaning from {@link graph.dagsp.CriticalPath}: the time that
+ * must pass between the start of a task and the start of its dependent. Each task also
+ * occupies one worker for its duration. A task is released once all its predecessors
+ * have started, at the latest of their start + lag. Whenever a worker is free, it takes
+ * the released task with the longest remaining critical path (its duration or lag chain
+ * to the end of the DAG, whichever is longer); ties go to the lower task index. With at
+ * least as many workers as tasks, every task starts at its CPM earliest start.
+ * <p>
+ * Released tasks, tasks waiting for their release time and workers are kept in three
+ * {@link IndexedHeap}s, so a schedule takes O((V + E) log V) time.
+ */
+@SuppressWarnings("try")
+public class ListScheduler {
+    private static final int IDLE_JUMPS = CounterRegistry.id("sched_idle_jumps");
+
+    private final DirectedGraph dag;
+    private final int[] durations;
+    private final Metrics metrics;
+
+    /**
+     * @param dag DAG to schedule (e.g. the condensation graph)
+     * @param durations worker time per task
+     * @param metrics metrics sink (phase "list_schedule", counter sched_idle_jumps)
+     */
+    public ListScheduler(DirectedGraph dag, int[] durations, Metrics metrics) {
+        if (durations.length != dag.nodeCount()) {
+            throw new IllegalArgumentException("Got " + durations.length + " durations for " + dag.nodeCount() + " tasks");
+        }
+        this.dag = dag;
+        this.durations = durations;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Durations implied by the lags: each task lasts as long as its longest out-edge, so
+     * no dependent is released before the task would have to be running; sinks take 0.
+     * @param dag DAG with lag weights
+     * @return duration per task
+     */
+    public static int[] durationsFromLags(DirectedGraph dag) {
+        int n = dag.nodeCount();
+        int[] durations = new int[n];
+        for (int u = 0; u < n; u++) {
+            for (int e = dag.edgeStart(u); e < dag.edgeEnd(u); e++) {
+                durations[u] = Math.max(durations[u], dag.weight(e));
+            }
+        }
+        return durations;
+    }
+
+    /**
+     * Longest remaining path from every task: max(duration, lag + priority of a dependent).
+     * @param topoOrder topological order of the DAG
+     * @return priority per task
+     */
+    public long[] priorities(int[] topoOrder) {
+        int n = dag.nodeCount();
+        int[] offsets = dag.getOffsets();
+        int[] targets = dag.getTargets();
+        int[] weights = dag.getEdgeWeights();
+        long[] rank = new long[n];
+        for (int i = n - 1; i >= 0; i--) {
+            int u = topoOrder[i];
+            long best = durations[u];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                best = Math.max(best, weights[e] + rank[targets[e]]);
+            }
+            rank[u] = best;
+        }
+        return rank;
+    }
+
+    /**
+     * Builds the schedule.
+     * @param topoOrder topological order of the DAG (e.g. from Kahn's algorithm)
+     * @param workers number of workers, at least 1
+     * @return start, finish and worker of every task
+     * @throws IllegalArgumentException if the graph has a cycle
+     */
+    public Schedule schedule(int[] topoOrder, int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Need at least one worker");
+        }
+        int n = dag.nodeCount();
+        if (topoOrder.length < n) {
+            throw new IllegalArgumentException("Topological order covers " + topoOrder.length + " of " + n + " tasks");
+        }
+        try (Metrics.Phase phase = metrics.phase("list_schedule")) {
+            int[] offsets = dag.getOffsets();
+            int[] targets = dag.getTargets();
+            int[] weights = dag.getEdgeWeights();
+            long[] priority = priorities(topoOrder);
+            int[] waitingFor = new int[n];  // Predecessors not yet started
+            for (int e = 0; e < targets.length; e++) {
+                waitingFor[targets[e]]++;
+            }
+            int[] release = new int[n];
+            int[] start = new int[n];
+            int[] finish = new int[n];
+            int[] worker = new int[n];
+
+            IndexedHeap pending = new IndexedHeap(n);  // Released later, keyed by release time
+            IndexedHeap ready = new IndexedHeap(n);    // Released, keyed by -priority
+            IndexedHeap free = new IndexedHeap(workers);  // Workers, keyed by the time they are free
+            for (int u = 0; u < n; u++) {
+                if (waitingFor[u] == 0) {
+                    pending.put(u, 0);
+                }
+            }
+            for (int w = 0; w < workers; w++) {
+                free.put(w, 0);
+            }
+
+            long idleJumps = 0;
+            long now = 0;  // Decisions are made in time order
+            for (int scheduled = 0; scheduled < n; scheduled++) {
+                now = Math.max(now, free.peekKey());
+                if (ready.isEmpty() && pending.isEmpty()) {
+                    throw new IllegalArgumentException("Graph has a cycle");
+                }
+                if (ready.isEmpty() && pending.peekKey() > now) {
+                    now = pending.peekKey();  // Every worker would idle until the next release
+                    idleJumps++;
+                }
+                while (!pending.isEmpty() && pending.peekKey() <= now) {
+                    int task = pending.poll();
+                    ready.put(task, -priority[task]);
+                }
+                int task = ready.poll();
+                int w = free.poll();
+                int begin = (int) now;
+                start[task] = begin;
+                finish[task] = begin + durations[task];
+                worker[task] = w;
+                free.put(w, finish[task]);
+                for (int e = offsets[task]; e < offsets[task + 1]; e++) {
+                    int v = targets[e];
+                    release[v] = Math.max(release[v], begin + weights[e]);
+                    if (--waitingFor[v] == 0) {
+                        pending.put(v, release[v]);
+                    }
+                }
+            }
+            metrics.add(IDLE_JUMPS, idleJumps);
+            return new Schedule(dag, start, finish, worker, workers);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package graph.sched;
+
+import graph.DirectedGraph;
+
+import java.util.*;
+
+/**
+ * A concrete execution plan: start time, finish time and worker of every task, kept as
+ * primitive arrays indexed by task (a node of the scheduled DAG).
+ */
+public class Schedule {
+    private final DirectedGraph dag;
+    private final int[] start;
+    private final int[] finish;
+    private final int[] worker;
+    private final int workerCount;
+    private final int makespan;
+    private int[] byWorker;        // Tasks grouped by worker, each group sorted by start; built on first use
+    private int[] workerOffsets;   // Group of worker w: workerOffsets[w] .. workerOffsets[w + 1] - 1
+
+    Schedule(DirectedGraph dag, int[] start, int[] finish, int[] worker, int workerCount) {
+        this.dag = dag;
+        this.start = start;
+        this.finish = finish;
+        this.worker = worker;
+        this.workerCount = workerCount;
+        int end = 0;
+        for (int f : finish) {
+            end = Math.max(end, f);
+        }
+        this.makespan = end;
+    }
+
+    public int getWorkerCount() { return workerCount; }
+
+    /** Time the last task finishes. */
+    public int getMakespan() { return makespan; }
+
+    /** Start time per task (not a copy). */
+    public int[] getStart() { return start; }
+
+    /** Finish time per task (not a copy). */
+    public int[] getFinish() { return finish; }
+
+    /** Worker (0 .. workerCount - 1) per task (not a copy). */
+    public int[] getWorker() { return worker; }
+
+    /**
+     * Share of worker time spent on tasks.
+     * @return busy time over workerCount * makespan, 1 for an empty schedule
+     */
+    public double utilization() {
+        if (makespan == 0) {
+            return 1;
+        }
+        long busy = 0;
+        for (int t = 0; t < start.length; t++) {
+            busy += finish[t] - start[t];
+        }
+        return (double) busy / ((double) workerCount * makespan);
+    }
+
+    /**
+     * Tasks of one worker in the order it runs them.
+     * @param w worker
+     * @return task indices sorted by start time
+     */
+    public int[] tasksOf(int w) {
+        groupByWorker();
+        return Arrays.copyOfRange(byWorker, workerOffsets[w], workerOffsets[w + 1]);
+    }
+
+    /**
+     * One line per worker: "W0: SCC3[0-2] SCC1[2-5]".
+     * @return plan by worker, tasks named after the DAG's nodes
+     */
+    public List<String> describe() {
+        groupByWorker();
+        List<String> lines = new ArrayList<>(workerCount);
+        for (int w = 0; w < workerCount; w++) {
+            StringBuilder line = new StringBuilder("W" + w + ":");
+            for (int i = workerOffsets[w]; i < workerOffsets[w + 1]; i++) {
+                int t = byWorker[i];
+                line.append(' ').append(dag.getNodes().get(t)).append('[').append(start[t]).append('-')
+                        .append(finish[t]).append(']');
+            }
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    /** Counting sort of the tasks by worker, then each group by start time (ties by task index). */
+    private void groupByWorker() {
+        if (byWorker != null) {
+            return;
+        }
+        int[] offsets = new int[workerCount + 1];
+        for (int w : worker) {
+            offsets[w + 1]++;
+        }
+        for (int w = 0; w < workerCount; w++) {
+            offsets[w + 1] += offsets[w];
+        }
+        int[] cursor = Arrays.copyOf(offsets, workerCount);
+        long[] keys = new long[worker.length];
+        for (int t = 0; t < worker.length; t++) {
+            keys[cursor[worker[t]]++] = (long) start[t] << 32 | t;
+        }
+        int[] tasks = new int[worker.length];
+        for (int w = 0; w < workerCount; w++) {
+            Arrays.sort(keys, offsets[w], offsets[w + 1]);
+            for (int i = offsets[w]; i < offsets[w + 1]; i++) {
+                tasks[i] = (int) keys[i];
+            }
+        }
+        byWorker = tasks;
+        workerOffsets = offsets;
+    }
+}
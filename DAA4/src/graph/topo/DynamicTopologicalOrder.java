@@ -0,0 +1,299 @@
+package graph.topo;
+
+import graph.DirectedGraph;
+import graph.Metrics;
+import graph.util.IntList;
+
+import java.util.*;
+
+/**
+ * Maintains a topological order of a DAG under edge insertions and deletions
+ * (Pearce-Kelly). Inserting u -> v when u already precedes v costs O(1); otherwise
+ * only the nodes whose positions lie between v and u and that are connected to them
+ * (the affected region) are searched and shuffled. Deletions never invalidate the order.
+ * Insertions that would close a cycle are rejected and leave the structure unchanged.
+ */
+public class DynamicTopologicalOrder {
+    private IntList[] out;
+    private IntList[] in;
+    private int[] pos;  // Position of each node in the order
+    private int[] nodeAt;  // Node at each position
+    private int[] mark;  // Visit stamps for the searches
+    private int stamp = 0;
+    private int n = 0;
+    private long edges = 0;
+    private long reordered = 0;
+
+    private final IntList forward = new IntList();
+    private final IntList backward = new IntList();
+    private final IntList stack = new IntList();
+
+    /**
+     * Creates an order over n isolated nodes (identity order).
+     * @param n number of nodes
+     */
+    public DynamicTopologicalOrder(int n) {
+        allocate(Math.max(n, 16));
+        for (int i = 0; i < n; i++) {
+            addNode();
+        }
+    }
+
+    /**
+     * Starts from an existing DAG, using Kahn's algorithm for the initial order.
+     * @param dag acyclic graph
+     * @param metrics metrics for the initial sort
+     * @return dynamic order over the graph's nodes and edges
+     */
+    public static DynamicTopologicalOrder of(DirectedGraph dag, Metrics metrics) {
+        List<Integer> order = new TopologicalSort(dag, metrics).kahnSort();
+        if (order == null) {
+            throw new IllegalArgumentException("Graph has a cycle");
+        }
+        int count = dag.nodeCount();
+        DynamicTopologicalOrder dynamic = new DynamicTopologicalOrder(count);
+        for (int i = 0; i < count; i++) {
+            int node = order.get(i);
+            dynamic.pos[node] = i;
+            dynamic.nodeAt[i] = node;
+        }
+        int[] offsets = dag.getOffsets();
+        int[] targets = dag.getTargets();
+        for (int u = 0; u < count; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                dynamic.out[u].add(targets[e]);
+                dynamic.in[targets[e]].add(u);
+            }
+        }
+        dynamic.edges = dag.edgeCount();
+        return dynamic;
+    }
+
+    /**
+     * Adds an isolated node at the end of the order.
+     * @return index of the new node
+     */
+    public int addNode() {
+        if (n == pos.length) {
+            grow();
+        }
+        int node = n++;
+        out[node] = new IntList(2);
+        in[node] = new IntList(2);
+        pos[node] = node;
+        nodeAt[node] = node;
+        return node;
+    }
+
+    /**
+     * Inserts edge u -> v and repairs the order.
+     * @param u source node
+     * @param v target node
+     * @return true if inserted, false if the edge would create a cycle (nothing changes)
+     */
+    public boolean insertEdge(int u, int v) {
+        checkNode(u);
+        checkNode(v);
+        if (u == v) {
+            return false;
+        }
+        int lower = pos[v];
+        int upper = pos[u];
+        if (lower > upper) {
+            addEdge(u, v);
+            return true;
+        }
+        nextStamp();
+        forward.clear();
+        if (!searchForward(v, upper, u)) {
+            return false;  // u is reachable from v: u -> v would close a cycle
+        }
+        backward.clear();
+        searchBackward(u, lower);
+        reorder();
+        addEdge(u, v);
+        return true;
+    }
+
+    /**
+     * Removes one occurrence of edge u -> v. The order stays valid.
+     * @return true if the edge existed
+     */
+    public boolean removeEdge(int u, int v) {
+        checkNode(u);
+        checkNode(v);
+        if (!removeValue(out[u], v)) {
+            return false;
+        }
+        removeValue(in[v], u);
+        edges--;
+        return true;
+    }
+
+    /**
+     * Whether edge u -> v is present.
+     */
+    public boolean hasEdge(int u, int v) {
+        IntList targets = out[u];
+        for (int i = 0; i < targets.size(); i++) {
+            if (targets.get(i) == v) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Position of a node in the current order. */
+    public int position(int node) {
+        checkNode(node);
+        return pos[node];
+    }
+
+    /** Current order as a fresh array of node indices. */
+    public int[] order() {
+        return Arrays.copyOf(nodeAt, n);
+    }
+
+    /** Current order in the boxed form returned by {@link TopologicalSort#kahnSort()}. */
+    public List<Integer> getOrder() {
+        List<Integer> order = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            order.add(nodeAt[i]);
+        }
+        return order;
+    }
+
+    public int nodeCount() { return n; }
+    public long edgeCount() { return edges; }
+
+    /** Total number of nodes moved by insertions so far (size of the affected regions). */
+    public long getReorderedCount() { return reordered; }
+
+    /**
+     * Collects nodes reachable from start with position below the bound.
+     * @return false if the forbidden node is reached (cycle)
+     */
+    private boolean searchForward(int start, int upper, int forbidden) {
+        stack.clear();
+        stack.add(start);
+        mark[start] = stamp;
+        while (!stack.isEmpty()) {
+            int w = stack.removeLast();
+            forward.add(w);
+            IntList targets = out[w];
+            for (int i = 0; i < targets.size(); i++) {
+                int x = targets.get(i);
+                if (x == forbidden) {
+                    return false;
+                }
+                if (mark[x] != stamp && pos[x] < upper) {
+                    mark[x] = stamp;
+                    stack.add(x);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Collects nodes that reach start with position above the bound.
+     */
+    private void searchBackward(int start, int lower) {
+        stack.clear();
+        stack.add(start);
+        mark[start] = stamp;
+        while (!stack.isEmpty()) {
+            int w = stack.removeLast();
+            backward.add(w);
+            IntList sources = in[w];
+            for (int i = 0; i < sources.size(); i++) {
+                int x = sources.get(i);
+                if (mark[x] != stamp && pos[x] > lower) {
+                    mark[x] = stamp;
+                    stack.add(x);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the backward set before the forward set, reusing their combined positions.
+     */
+    private void reorder() {
+        int[] back = sortByPosition(backward);
+        int[] fwd = sortByPosition(forward);
+        int total = back.length + fwd.length;
+        int[] slots = new int[total];
+        for (int i = 0; i < back.length; i++) slots[i] = pos[back[i]];
+        for (int i = 0; i < fwd.length; i++) slots[back.length + i] = pos[fwd[i]];
+        Arrays.sort(slots);
+        for (int i = 0; i < total; i++) {
+            int node = i < back.length ? back[i] : fwd[i - back.length];
+            pos[node] = slots[i];
+            nodeAt[slots[i]] = node;
+        }
+        reordered += total;
+    }
+
+    private int[] sortByPosition(IntList nodes) {
+        // Sort by position via packed (position, node) longs to avoid boxing
+        long[] keyed = new long[nodes.size()];
+        for (int i = 0; i < keyed.length; i++) {
+            int node = nodes.get(i);
+            keyed[i] = ((long) pos[node] << 32) | node;
+        }
+        Arrays.sort(keyed);
+        int[] sorted = new int[keyed.length];
+        for (int i = 0; i < keyed.length; i++) {
+            sorted[i] = (int) keyed[i];
+        }
+        return sorted;
+    }
+
+    private void addEdge(int u, int v) {
+        out[u].add(v);
+        in[v].add(u);
+        edges++;
+    }
+
+    private static boolean removeValue(IntList list, int value) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == value) {
+                list.set(i, list.get(list.size() - 1));
+                list.removeLast();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void nextStamp() {
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(mark, 0);
+            stamp = 1;
+        }
+    }
+
+    private void checkNode(int node) {
+        if (node < 0 || node >= n) {
+            throw new IndexOutOfBoundsException("Node " + node + " out of range for " + n + " nodes");
+        }
+    }
+
+    private void allocate(int capacity) {
+        out = new IntList[capacity];
+        in = new IntList[capacity];
+        pos = new int[capacity];
+        nodeAt = new int[capacity];
+        mark = new int[capacity];
+    }
+
+    private void grow() {
+        int capacity = pos.length * 2;
+        out = Arrays.copyOf(out, capacity);
+        in = Arrays.copyOf(in, capacity);
+        pos = Arrays.copyOf(pos, capacity);
+        nodeAt = Arrays.copyOf(nodeAt, capacity);
+        mark = Arrays.copyOf(mark, capacity);
+    }
+}
@@ -0,0 +1,142 @@
+package graph.topo;
+
+import graph.DirectedGraph;
+import graph.Metrics;
+import graph.metrics.CounterRegistry;
+import graph.util.IntList;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Level-synchronous Kahn's algorithm on a ForkJoinPool. Each frontier (all nodes whose
+ * in-degree has dropped to zero) is split into chunks processed in parallel, decrementing
+ * in-degrees in an {@link AtomicIntegerArray}; whichever thread brings a node to zero
+ * adds it to the next frontier. Each level is sorted by node index, so the result is the
+ * same for every parallelism. Narrow levels are processed on the calling thread.
+ */
+@SuppressWarnings("try")
+public class ParallelTopologicalSort {
+    private static final int PARALLEL_THRESHOLD = 2048;  // Smallest frontier split across threads
+    private static final int KAHN_POPS = CounterRegistry.id("kahn_pops");
+    private static final int KAHN_LEVELS = CounterRegistry.id("kahn_levels");
+
+    private final DirectedGraph graph;
+    private final Metrics metrics;
+    private final int parallelism;
+
+    public ParallelTopologicalSort(DirectedGraph graph, Metrics metrics) {
+        this(graph, metrics, ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * @param graph graph to sort
+     * @param metrics metrics sink (timing and the kahn_pops/kahn_levels counters)
+     * @param parallelism number of worker threads
+     */
+    public ParallelTopologicalSort(DirectedGraph graph, Metrics metrics, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be >= 1: " + parallelism);
+        }
+        this.graph = graph;
+        this.metrics = metrics;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Computes the order and the level of every node.
+     * @return levels, or null if the graph has a cycle
+     */
+    public TopologicalLevels sort() {
+        metrics.startTiming();
+        int n = graph.nodeCount();
+        int[] order = new int[n];
+        int[] levelOf = new int[n];
+        IntList levelOffsets = new IntList();
+        int size = 0;
+        try (Metrics.Phase phase = metrics.phase("parallel_kahn")) {
+            int[] offsets = graph.getOffsets();
+            int[] targets = graph.getTargets();
+            int[] counts = new int[n];
+            for (int target : targets) {
+                counts[target]++;
+            }
+            AtomicIntegerArray indegree = new AtomicIntegerArray(counts);
+            for (int u = 0; u < n; u++) {
+                if (counts[u] == 0) {
+                    order[size++] = u;
+                }
+            }
+
+            ForkJoinPool pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+            try {
+                int levelStart = 0;
+                int level = 0;
+                while (levelStart < size) {
+                    levelOffsets.add(levelStart);
+                    int levelEnd = size;
+                    int next = level + 1;
+                    if (pool == null || levelEnd - levelStart < PARALLEL_THRESHOLD) {
+                        for (int i = levelStart; i < levelEnd; i++) {
+                            int u = order[i];
+                            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                                int v = targets[e];
+                                if (indegree.decrementAndGet(v) == 0) {
+                                    levelOf[v] = next;
+                                    order[size++] = v;
+                                }
+                            }
+                        }
+                    } else {
+                        for (int[] ready : expand(pool, order, levelStart, levelEnd, indegree, levelOf, next)) {
+                            System.arraycopy(ready, 0, order, size, ready.length);
+                            size += ready.length;
+                        }
+                    }
+                    Arrays.sort(order, levelEnd, size);
+                    levelStart = levelEnd;
+                    level++;
+                }
+                levelOffsets.add(size);
+            } finally {
+                if (pool != null) {
+                    pool.shutdown();
+                }
+            }
+        }
+        metrics.stopTiming();
+        metrics.add(KAHN_POPS, size);
+        metrics.add(KAHN_LEVELS, levelOffsets.size() - 1);
+        return size == n ? new TopologicalLevels(order, levelOf, levelOffsets.toArray()) : null;  // Null if cycle
+    }
+
+    /**
+     * Processes one frontier in parallel chunks.
+     * @return nodes released by each chunk, in chunk order
+     */
+    private List<int[]> expand(ForkJoinPool pool, int[] order, int from, int to,
+                               AtomicIntegerArray indegree, int[] levelOf, int next) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int chunks = Math.min(parallelism * 4, (to - from + 255) / 256);
+        return pool.submit(() -> IntStream.range(0, chunks).parallel().mapToObj(c -> {
+            int start = from + (int) ((long) (to - from) * c / chunks);
+            int end = from + (int) ((long) (to - from) * (c + 1) / chunks);
+            IntList ready = new IntList();
+            for (int i = start; i < end; i++) {
+                int u = order[i];
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = targets[e];
+                    if (indegree.decrementAndGet(v) == 0) {
+                        levelOf[v] = next;
+                        ready.add(v);
+                    }
+                }
+            }
+            return ready.toArray();
+        }).collect(Collectors.toList())).join();
+    }
+}
@@ -0,0 +1,63 @@
+package graph.topo;
+
+import java.util.*;
+
+/**
+ * Topological order grouped into levels (wavefronts). Level 0 holds the sources; a node's
+ * level is the length of the longest path reaching it, so all nodes of one level are
+ * independent and can run concurrently. Within a level, nodes are sorted by index.
+ */
+public class TopologicalLevels {
+    private final int[] order;
+    private final int[] levelOf;
+    private final int[] levelOffsets;
+
+    /**
+     * @param order nodes level by level
+     * @param levelOf level of each node
+     * @param levelOffsets start of each level in {@code order}, plus a final entry n
+     */
+    public TopologicalLevels(int[] order, int[] levelOf, int[] levelOffsets) {
+        this.order = order;
+        this.levelOf = levelOf;
+        this.levelOffsets = levelOffsets;
+    }
+
+    /** Nodes in topological order, level by level (not a copy). */
+    public int[] getOrder() { return order; }
+
+    /** Level of each node (not a copy). */
+    public int[] getLevelOf() { return levelOf; }
+
+    /** Start of each level in {@link #getOrder()}, with a final entry equal to the node count (not a copy). */
+    public int[] getLevelOffsets() { return levelOffsets; }
+
+    public int levelCount() { return levelOffsets.length - 1; }
+
+    public int levelSize(int level) {
+        return levelOffsets[level + 1] - levelOffsets[level];
+    }
+
+    /** Nodes of one level. */
+    public int[] level(int level) {
+        return Arrays.copyOfRange(order, levelOffsets[level], levelOffsets[level + 1]);
+    }
+
+    /** Size of the widest level: the most tasks that can ever run at once. */
+    public int maxWidth() {
+        int width = 0;
+        for (int l = 0; l < levelCount(); l++) {
+            width = Math.max(width, levelSize(l));
+        }
+        return width;
+    }
+
+    /** Order in the boxed form returned by {@link TopologicalSort#kahnSort()}. */
+    public List<Integer> toList() {
+        List<Integer> list = new ArrayList<>(order.length);
+        for (int node : order) {
+            list.add(node);
+        }
+        return list;
+    }
+}
@@ -1,20 +1,40 @@
 package graph.topo;
 
 import graph.DirectedGraph;
+import graph.GraphView;
 import graph.Metrics;
+import graph.metrics.CounterRegistry;
+import graph.util.Workspace;
 
 import java.util.*;
 
 /**
  * Implements Kahn's algorithm for topological sorting.
  */
+@SuppressWarnings("try")
 public class TopologicalSort {
-    private final DirectedGraph graph;
+    private static final int KAHN_PUSHES = CounterRegistry.id("kahn_pushes");
+    private static final int KAHN_POPS = CounterRegistry.id("kahn_pops");
+    private static final int INDEGREE = Workspace.slot("kahn.indegree");
+    private static final int ORDER = Workspace.slot("kahn.order");
+
+    private final GraphView graph;
     private final Metrics metrics;
+    private final Workspace workspace;
+
+    public TopologicalSort(GraphView graph, Metrics metrics) {
+        this(graph, metrics, null);
+    }
 
-    public TopologicalSort(DirectedGraph graph, Metrics metrics) {
+    /**
+     * @param graph graph to sort (heap, mapped or off-heap)
+     * @param metrics metrics sink
+     * @param workspace buffers reused by {@link #kahnOrder()}, or null to allocate fresh ones
+     */
+    public TopologicalSort(GraphView graph, Metrics metrics, Workspace workspace) {
         this.graph = graph;
         this.metrics = metrics;
+        this.workspace = workspace;
     }
 
     /**
@@ -22,36 +42,67 @@ public class TopologicalSort {
      * @return list of node indices in topological order, or null if cycle
      */
     public List<Integer> kahnSort() {
-        metrics.startTiming();
-        int n = graph.getNodes().size();
-        int[] indegree = new int[n];
-        for (List<Integer> neighbors : graph.getAdj()) {
-            for (int v : neighbors) {
-                indegree[v]++;
-            }
+        int[] order = kahnOrder();
+        if (order == null) {
+            return null;
         }
-        Queue<Integer> queue = new LinkedList<>();
+        int n = graph.nodeCount();
+        List<Integer> list = new ArrayList<>(n);
         for (int i = 0; i < n; i++) {
-            if (indegree[i] == 0) {
-                queue.add(i);
-                metrics.incrementCounter("kahn_pushes");
-            }
+            list.add(order[i]);
         }
-        List<Integer> order = new ArrayList<>();
-        while (!queue.isEmpty()) {
-            int u = queue.poll();
-            metrics.incrementCounter("kahn_pops");
-            order.add(u);
-            for (int v : graph.getAdj().get(u)) {
-                indegree[v]--;
-                if (indegree[v] == 0) {
-                    queue.add(v);
-                    metrics.incrementCounter("kahn_pushes");
+        return list;
+    }
+
+    /**
+     * Computes the same order as {@link #kahnSort()} without boxing. With a workspace the
+     * array is a workspace buffer: it may be longer than the node count (only the first
+     * nodeCount entries are the order) and is overwritten by the next sort on the workspace.
+     * @return node indices in topological order, or null if cycle
+     */
+    public int[] kahnOrder() {
+        metrics.startTiming();
+        int n = graph.nodeCount();
+        int m = graph.edgeCount();
+        int[] queue;  // FIFO queue; everything popped from it is the order
+        long pushes;
+        int head = 0;
+        try (Metrics.Phase phase = metrics.phase("kahn")) {
+            int[] indegree;
+            if (workspace != null) {
+                indegree = workspace.ints(INDEGREE, n);
+                queue = workspace.ints(ORDER, n);
+                Arrays.fill(indegree, 0, n, 0);  // Counting in-degrees is O(n + m) anyway
+            } else {
+                indegree = new int[n];
+                queue = new int[n];
+            }
+            for (int e = 0; e < m; e++) {
+                indegree[graph.target(e)]++;
+            }
+            int tail = 0;
+            for (int i = 0; i < n; i++) {
+                if (indegree[i] == 0) {
+                    queue[tail++] = i;
+                }
+            }
+            pushes = tail;
+            while (head < tail) {
+                int u = queue[head++];
+                for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                    int v = graph.target(e);
+                    indegree[v]--;
+                    if (indegree[v] == 0) {
+                        queue[tail++] = v;
+                        pushes++;
+                    }
                 }
             }
         }
         metrics.stopTiming();
-        return order.size() == n ? order : null;  // Null if cycle
+        metrics.add(KAHN_PUSHES, pushes);
+        metrics.add(KAHN_POPS, head);  // Every pushed node is popped once
+        return head == n ? queue : null;  // Null if cycle
     }
 
     /**
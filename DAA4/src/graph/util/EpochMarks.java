@@ -0,0 +1,45 @@
+package graph.util;
+
+import java.util.Arrays;
+
+/**
+ * Set of node indices that is cleared in O(1): a node is marked when its stamp equals
+ * the current epoch, so clearing only advances the epoch. The stamp array is filled
+ * again only when the epoch wraps around or the capacity grows.
+ */
+public final class EpochMarks {
+    private int[] stamps;
+    private int epoch = 1;
+
+    public EpochMarks(int capacity) {
+        stamps = new int[capacity];
+    }
+
+    /**
+     * Unmarks every node and makes room for indices 0..n-1.
+     * @param n number of nodes the next run uses
+     */
+    public void clear(int n) {
+        if (n > stamps.length) {
+            stamps = new int[n];
+            epoch = 1;
+        } else if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+    }
+
+    public boolean isMarked(int i) {
+        return stamps[i] == epoch;
+    }
+
+    public void mark(int i) {
+        stamps[i] = epoch;
+    }
+
+    public void unmark(int i) {
+        stamps[i] = 0;
+    }
+
+    public int capacity() { return stamps.length; }
+}
@@ -0,0 +1,148 @@
+package graph.util;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of int ids 0..capacity-1 with long keys (no boxing). Each id is in the
+ * heap at most once and its position is tracked, so the key of a queued id can be changed
+ * in O(log n). Equal keys come out in id order, which keeps results deterministic.
+ */
+public class IndexedHeap {
+    private int[] heap;      // Ids in heap order
+    private int[] position;  // Index of each id in heap, -1 if absent
+    private long[] keys;     // Key per id
+    private int size;
+
+    public IndexedHeap(int capacity) {
+        heap = new int[capacity];
+        position = new int[capacity];
+        keys = new long[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public boolean contains(int id) {
+        return position[id] >= 0;
+    }
+
+    /** Key of a queued id. */
+    public long key(int id) {
+        return keys[id];
+    }
+
+    /** Smallest id of the smallest key, without removing it. */
+    public int peek() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        return heap[0];
+    }
+
+    public long peekKey() {
+        return keys[peek()];
+    }
+
+    /**
+     * Queues an id, or changes its key if it is already queued.
+     * @param id id below the capacity
+     * @param key new key
+     */
+    public void put(int id, long key) {
+        int i = position[id];
+        if (i < 0) {
+            keys[id] = key;
+            heap[size] = id;
+            position[id] = size;
+            siftUp(size++);
+        } else if (key < keys[id]) {
+            keys[id] = key;
+            siftUp(i);
+        } else {
+            keys[id] = key;
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Removes the smallest entry.
+     * @return its id
+     */
+    public int poll() {
+        int top = peek();
+        removeAt(0);
+        return top;
+    }
+
+    /**
+     * Removes an id if it is queued.
+     * @return whether it was
+     */
+    public boolean remove(int id) {
+        int i = position[id];
+        if (i < 0) {
+            return false;
+        }
+        removeAt(i);
+        return true;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void removeAt(int i) {
+        int id = heap[i];
+        position[id] = -1;
+        int last = heap[--size];
+        if (i < size) {
+            heap[i] = last;
+            position[last] = i;
+            siftDown(i);
+            siftUp(position[last]);
+        }
+    }
+
+    private boolean less(int a, int b) {
+        return keys[a] < keys[b] || (keys[a] == keys[b] && a < b);
+    }
+
+    private void siftUp(int i) {
+        int id = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(id, heap[parent])) {
+                break;
+            }
+            heap[i] = heap[parent];
+            position[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = id;
+        position[id] = i;
+    }
+
+    private void siftDown(int i) {
+        int id = heap[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && less(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!less(heap[child], id)) {
+                break;
+            }
+            heap[i] = heap[child];
+            position[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = id;
+        position[id] = i;
+    }
+}
@@ -0,0 +1,58 @@
+package graph.util;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints (no boxing).
+ */
+public class IntList {
+    private int[] data;
+    private int size;
+
+    public IntList() {
+        this(16);
+    }
+
+    public IntList(int capacity) {
+        data = new int[Math.max(capacity, 1)];
+    }
+
+    public void add(int value) {
+        if (size == data.length) {
+            data = Arrays.copyOf(data, data.length * 2);
+        }
+        data[size++] = value;
+    }
+
+    public int get(int i) {
+        if (i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for size " + size);
+        }
+        return data[i];
+    }
+
+    public void set(int i, int value) {
+        if (i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for size " + size);
+        }
+        data[i] = value;
+    }
+
+    public int removeLast() {
+        return data[--size];
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public void clear() { size = 0; }
+
+    /**
+     * Backing array; only the first {@link #size()} entries are valid.
+     * @return backing array
+     */
+    public int[] rawArray() { return data; }
+
+    public int[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+}
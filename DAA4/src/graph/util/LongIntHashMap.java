@@ -0,0 +1,183 @@
+package graph.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from long keys to int values (no boxing).
+ * {@link Long#MIN_VALUE} is reserved as the empty-slot marker and cannot be used as a key.
+ */
+public class LongIntHashMap {
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Packs an (int, int) pair such as an edge (from, to) into one key.
+     */
+    public static long pairKey(int high, int low) {
+        return ((long) high << 32) | (low & 0xFFFFFFFFL);
+    }
+
+    public int size() { return size; }
+
+    public boolean containsKey(long key) {
+        return keys[slot(key)] != EMPTY;
+    }
+
+    public int getOrDefault(long key, int defaultValue) {
+        int s = slot(key);
+        return keys[s] != EMPTY ? values[s] : defaultValue;
+    }
+
+    /**
+     * Associates a value with a key.
+     * @return the previous value, or defaultValue if the key was absent
+     */
+    public int put(long key, int value, int defaultValue) {
+        checkKey(key);
+        int s = slot(key);
+        if (keys[s] != EMPTY) {
+            int previous = values[s];
+            values[s] = value;
+            return previous;
+        }
+        insertAt(s, key, value);
+        return defaultValue;
+    }
+
+    /**
+     * Inserts the key only if it is absent.
+     * @return the existing value, or the given value if it was inserted
+     */
+    public int putIfAbsent(long key, int value) {
+        checkKey(key);
+        int s = slot(key);
+        if (keys[s] != EMPTY) {
+            return values[s];
+        }
+        insertAt(s, key, value);
+        return value;
+    }
+
+    /**
+     * Adds delta to the value of a key, inserting delta if the key is absent.
+     * @return the new value
+     */
+    public int addTo(long key, int delta) {
+        checkKey(key);
+        int s = slot(key);
+        if (keys[s] != EMPTY) {
+            values[s] += delta;
+            return values[s];
+        }
+        insertAt(s, key, delta);
+        return delta;
+    }
+
+    /**
+     * Removes a key.
+     * @return the removed value, or defaultValue if the key was absent
+     */
+    public int remove(long key, int defaultValue) {
+        int s = slot(key);
+        if (keys[s] == EMPTY) {
+            return defaultValue;
+        }
+        int removed = values[s];
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        int hole = s;
+        int i = (s + 1) & mask;
+        while (keys[i] != EMPTY) {
+            int ideal = mix(keys[i]) & mask;
+            if (((i - ideal) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                values[hole] = values[i];
+                hole = i;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Calls the visitor for every entry (in no particular order).
+     */
+    public void forEach(EntryVisitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                visitor.visit(keys[i], values[i]);
+            }
+        }
+    }
+
+    /** Receives map entries without boxing. */
+    public interface EntryVisitor {
+        void visit(long key, int value);
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    private void insertAt(int s, long key, int value) {
+        keys[s] = key;
+        values[s] = value;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    private int slot(long key) {
+        int s = mix(key) & mask;
+        while (keys[s] != EMPTY && keys[s] != key) {
+            s = (s + 1) & mask;
+        }
+        return s;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static void checkKey(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Long.MIN_VALUE is reserved");
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int s = slot(oldKeys[i]);
+                keys[s] = oldKeys[i];
+                values[s] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package graph.util;
+
+import java.util.*;
+
+/**
+ * Scratch memory reused across algorithm runs, so repeated runs on graphs of similar
+ * size stop allocating once the buffers have grown. Buffers are addressed by slot ids
+ * (see {@link #slot(String)}); each algorithm uses its own slots, so the result of one
+ * algorithm is not overwritten by running another on the same workspace.
+ * <p>
+ * A workspace is not thread-safe: use one per thread ({@link #perThread()}) and one run
+ * at a time. Results that view workspace buffers stay valid until the same algorithm
+ * runs again on the same workspace.
+ */
+public final class Workspace {
+    private static final Map<String, Integer> slotIds = new HashMap<>();
+    private static final ThreadLocal<Workspace> PER_THREAD = ThreadLocal.withInitial(Workspace::new);
+
+    private int[][] ints = new int[0][];
+    private EpochMarks[] marks = new EpochMarks[0];
+    private long allocations = 0;
+
+    /**
+     * Returns the id of a buffer slot, registering the name on first use.
+     * Resolve ids once (typically into a static final field) and reuse them.
+     * @param name slot name, e.g. "tarjan.low"
+     * @return dense id, stable for the lifetime of the process
+     */
+    public static synchronized int slot(String name) {
+        return slotIds.computeIfAbsent(name, k -> slotIds.size());
+    }
+
+    /**
+     * Workspace of the calling thread, created on first use.
+     */
+    public static Workspace perThread() {
+        return PER_THREAD.get();
+    }
+
+    /**
+     * Int buffer of at least n entries. Contents are left over from the previous run.
+     * @param slot slot id
+     * @param n number of entries needed
+     * @return buffer (possibly longer than n)
+     */
+    public int[] ints(int slot, int n) {
+        if (slot >= ints.length) {
+            ints = Arrays.copyOf(ints, slot + 1);
+        }
+        int[] buffer = ints[slot];
+        if (buffer == null || buffer.length < n) {
+            buffer = new int[grow(buffer == null ? 0 : buffer.length, n)];
+            ints[slot] = buffer;
+            allocations++;
+        }
+        return buffer;
+    }
+
+    /**
+     * Node marks for indices 0..n-1, all unmarked.
+     * @param slot slot id
+     * @param n number of nodes
+     * @return cleared marks
+     */
+    public EpochMarks marks(int slot, int n) {
+        if (slot >= marks.length) {
+            marks = Arrays.copyOf(marks, slot + 1);
+        }
+        EpochMarks set = marks[slot];
+        if (set == null || set.capacity() < n) {
+            set = new EpochMarks(grow(set == null ? 0 : set.capacity(), n));
+            marks[slot] = set;
+            allocations++;
+        }
+        set.clear(n);
+        return set;
+    }
+
+    /**
+     * Number of buffers allocated so far. Stops increasing once the workspace has
+     * grown to the sizes in use, which is how tests check steady-state runs.
+     */
+    public long allocations() {
+        return allocations;
+    }
+
+    /**
+     * New capacity for a buffer: exact on first use, with headroom when growing so
+     * graphs of slightly increasing size do not reallocate every run.
+     */
+    private static int grow(int current, int needed) {
+        return current == 0 ? needed : (int) Math.min(Integer.MAX_VALUE - 8, needed + (long) (needed >> 3));
+    }
+}
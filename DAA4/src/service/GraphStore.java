@@ -0,0 +1,91 @@
+package service;
+
+import data.BinaryGraphFormat;
+import data.JsonGraphLoader;
+import graph.DirectedGraph;
+import graph.Metrics;
+import graph.cache.ArtifactCache;
+import graph.cache.GraphArtifacts;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Graphs held by the service, by name. Every load gets a new version number from a
+ * store-wide sequence, and the analysis cached in its {@link PreparedGraph} belongs to
+ * that version only, so a reload never serves results computed for the old graph.
+ * Derived results are shared by content through a {@link GraphArtifacts} cache, so a
+ * reload of unchanged content reuses them.
+ */
+public class GraphStore {
+    private final Map<String, PreparedGraph> graphs = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final GraphArtifacts artifacts;
+    private final Metrics metrics;
+
+    /**
+     * Creates a store with a 256 MB in-memory artifact cache.
+     */
+    public GraphStore(Metrics metrics) {
+        this(new GraphArtifacts(new ArtifactCache(256L << 20, null, metrics), metrics), metrics);
+    }
+
+    public GraphStore(GraphArtifacts artifacts, Metrics metrics) {
+        this.artifacts = artifacts;
+        this.metrics = metrics;
+    }
+
+    public GraphArtifacts getArtifacts() { return artifacts; }
+
+    /**
+     * Loads a dataset (binary if the file ends in .bin, JSON otherwise) under a name,
+     * replacing any earlier version.
+     * @param name graph name used in queries
+     * @param path dataset file
+     * @return new version
+     */
+    public PreparedGraph load(String name, Path path) throws IOException {
+        DirectedGraph graph = path.toString().endsWith(".bin")
+                ? BinaryGraphFormat.read(path)
+                : JsonGraphLoader.load(path.toString());
+        return put(name, graph);
+    }
+
+    /**
+     * Stores a graph under a name, replacing any earlier version.
+     * @return new version
+     */
+    public PreparedGraph put(String name, DirectedGraph graph) {
+        PreparedGraph prepared = new PreparedGraph(name, versions.incrementAndGet(), graph, artifacts, metrics);
+        graphs.put(name, prepared);
+        return prepared;
+    }
+
+    /**
+     * Current version of a graph.
+     * @throws IllegalArgumentException if no graph has that name
+     */
+    public PreparedGraph get(String name) {
+        PreparedGraph prepared = graphs.get(name);
+        if (prepared == null) {
+            throw new IllegalArgumentException("No graph named '" + name + "'");
+        }
+        return prepared;
+    }
+
+    public boolean remove(String name) {
+        return graphs.remove(name) != null;
+    }
+
+    /** Current version of every graph, by name. */
+    public SortedMap<String, Long> versions() {
+        SortedMap<String, Long> result = new TreeMap<>();
+        for (PreparedGraph prepared : graphs.values()) {
+            result.put(prepared.getName(), prepared.getVersion());
+        }
+        return result;
+    }
+}
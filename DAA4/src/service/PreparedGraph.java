@@ -0,0 +1,145 @@
+package service;
+
+import graph.DirectedGraph;
+import graph.Metrics;
+import graph.WeightPolicy;
+import graph.cache.GraphArtifacts;
+import graph.dagsp.CriticalPath;
+import graph.reach.ReachabilityIndex;
+import graph.scc.CondensationResult;
+import graph.scc.SCCResult;
+
+import java.util.*;
+
+/**
+ * One loaded version of a graph with its SCCs, condensation, topological order and
+ * critical path. The analysis runs once, on the first query that needs it; reloading a
+ * graph creates a new PreparedGraph with a higher version, so queries already holding
+ * this one keep a consistent view. SCCs, condensation and order come from the store's
+ * {@link GraphArtifacts}, so reloading unchanged content does not recompute them.
+ */
+@SuppressWarnings("try")
+public class PreparedGraph {
+    private final String name;
+    private final long version;
+    private final DirectedGraph graph;
+    private final GraphArtifacts artifacts;
+    private final Metrics metrics;
+    private volatile boolean analyzed;
+    private SCCResult sccs;
+    private DirectedGraph condensation;
+    private int[] order;
+    private List<Integer> orderList;
+    private CriticalPath criticalPath;
+    private List<String> taskOrder;  // Created on first use
+    private ReachabilityIndex reachability;  // Built on the first dependency query
+
+    public PreparedGraph(String name, long version, DirectedGraph graph, GraphArtifacts artifacts, Metrics metrics) {
+        this.name = name;
+        this.version = version;
+        this.graph = graph;
+        this.artifacts = artifacts;
+        this.metrics = metrics;
+    }
+
+    public String getName() { return name; }
+    public long getVersion() { return version; }
+    public DirectedGraph getGraph() { return graph; }
+
+    public SCCResult getSCCs() {
+        analyze();
+        return sccs;
+    }
+
+    /** Condensation DAG (component i is named "SCC" + i). */
+    public DirectedGraph getCondensation() {
+        analyze();
+        return condensation;
+    }
+
+    /** Topological order of the condensation (not a copy). */
+    public int[] getOrder() {
+        analyze();
+        return order;
+    }
+
+    public List<Integer> getOrderList() {
+        analyze();
+        return orderList;
+    }
+
+    public CriticalPath getCriticalPath() {
+        analyze();
+        return criticalPath;
+    }
+
+    /**
+     * Order of the original tasks: members of each component, components in topological order.
+     */
+    public synchronized List<String> getTaskOrder() {
+        analyze();
+        if (taskOrder == null) {
+            int[] members = sccs.getMembers();
+            int[] memberOffsets = sccs.getMemberOffsets();
+            List<String> tasks = new ArrayList<>(graph.nodeCount());
+            for (int c : order) {
+                for (int i = memberOffsets[c]; i < memberOffsets[c + 1]; i++) {
+                    tasks.add(graph.getNodes().get(members[i]));
+                }
+            }
+            taskOrder = Collections.unmodifiableList(tasks);
+        }
+        return taskOrder;
+    }
+
+    /**
+     * Reachability index over the condensation, built on first use.
+     */
+    public synchronized ReachabilityIndex getReachability() {
+        analyze();
+        if (reachability == null) {
+            reachability = ReachabilityIndex.build(new CondensationResult(sccs, condensation, order), metrics);
+        }
+        return reachability;
+    }
+
+    /**
+     * Component of a task.
+     * @param task task name
+     * @return component index in the condensation
+     * @throws IllegalArgumentException if the graph has no such task
+     */
+    public int componentOfTask(String task) {
+        int[] componentOf = getSCCs().getComponentOf();
+        Integer node = graph.getNodeIndex().get(task);
+        if (node == null) {
+            throw new IllegalArgumentException("Unknown task '" + task + "' in graph " + name);
+        }
+        return componentOf[node];
+    }
+
+    private void analyze() {
+        if (analyzed) {
+            return;
+        }
+        synchronized (this) {
+            if (analyzed) {
+                return;
+            }
+            try (Metrics.Phase phase = metrics.phase("prepare")) {
+                CondensationResult condensed = artifacts.condense(graph, WeightPolicy.FIRST);
+                sccs = condensed.getSccs();
+                condensation = condensed.getCondensation();
+                order = condensed.getTopoOrder();
+                orderList = new ArrayList<>(order.length);
+                for (int c : order) {
+                    orderList.add(c);
+                }
+                orderList = Collections.unmodifiableList(orderList);
+                criticalPath = CriticalPath.analyze(condensation, orderList);
+                graph.getNodeIndex();  // Built here so concurrent queries only read it
+            }
+            analyzed = true;  // Publishes the fields above
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package service;
+
+import graph.DirectedGraph;
+import graph.dagsp.CriticalPath;
+import graph.dagsp.DAGShortestPaths;
+import graph.dagsp.ShortestPathResult;
+import graph.metrics.LatencyHistogram;
+import graph.metrics.StripedMetrics;
+import graph.util.Workspace;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Line protocol of the scheduling service. Each request is one line of space-separated
+ * words, each response one line starting with "OK" or "ERR":
+ * <pre>
+ * PING                          OK pong
+ * LOAD name path                OK name version=3 nodes=120 edges=300
+ * GRAPHS                        OK small=1 large=3
+ * SCC name                      OK components=40 largest=12
+ * ORDER name [limit]            OK [t1, t7, t2, ...]            (tasks, components in topological order)
+ * SHORTEST name from to         OK distance=9 path=[SCC3, SCC5]  (or OK unreachable)
+ * CRITICAL name                 OK makespan=31 path=[SCC0, SCC4, SCC9]
+ * SLACK name task               OK component=SCC4 es=12 ls=15 slack=3
+ * DEPENDS name task prereq      OK true                         (prereq reaches task)
+ * STATS                         OK query.shortest n=... p50=... p99=... | ...
+ * QUIT                          (closes the connection)
+ * </pre>
+ * Task names are looked up in the original graph; paths are over the condensation.
+ * The handler is thread-safe: queries only read the shared {@link PreparedGraph}s.
+ */
+public class QueryHandler {
+    /** Commands with a latency histogram each; anything not in the protocol goes to "query.invalid". */
+    private static final List<String> TIMED = List.of("load", "scc", "order", "shortest", "critical", "slack", "depends");
+    private static final Set<String> UNTIMED = Set.of("ping", "graphs", "stats", "quit");
+
+    private final GraphStore store;
+    private final StripedMetrics metrics;
+
+    public QueryHandler(GraphStore store, StripedMetrics metrics) {
+        this.store = store;
+        this.metrics = metrics;
+    }
+
+    public GraphStore getStore() { return store; }
+
+    /**
+     * Answers one request line and records its latency under "query.&lt;command&gt;", or
+     * "query.invalid" for words that are not commands, so clients cannot create histograms.
+     * @param line request
+     * @return response line
+     */
+    public String handle(String line) {
+        long start = System.nanoTime();
+        String[] words = line.trim().split("\\s+");
+        String command = words[0].toUpperCase(Locale.ROOT);
+        String response;
+        try {
+            response = "OK " + execute(command, words);
+        } catch (IllegalArgumentException | IOException e) {
+            response = "ERR " + e.getMessage();
+        } catch (RuntimeException e) {
+            response = "ERR " + e;
+        }
+        String name = command.toLowerCase(Locale.ROOT);
+        if (TIMED.contains(name)) {
+            metrics.recordLatency("query." + name, System.nanoTime() - start);
+        } else if (!UNTIMED.contains(name)) {
+            metrics.recordLatency("query.invalid", System.nanoTime() - start);
+        }
+        return response;
+    }
+
+    private String execute(String command, String[] words) throws IOException {
+        switch (command) {
+            case "PING":
+                return "pong";
+            case "LOAD": {
+                expectArgs(words, 2, "LOAD name path");
+                PreparedGraph prepared = store.load(words[1], Path.of(words[2]));
+                return prepared.getName() + " version=" + prepared.getVersion() + " nodes="
+                        + prepared.getGraph().nodeCount() + " edges=" + prepared.getGraph().edgeCount();
+            }
+            case "GRAPHS": {
+                StringJoiner joiner = new StringJoiner(" ");
+                store.versions().forEach((name, version) -> joiner.add(name + "=" + version));
+                return joiner.toString();
+            }
+            case "SCC": {
+                expectArgs(words, 1, "SCC name");
+                PreparedGraph prepared = store.get(words[1]);
+                int count = prepared.getSCCs().getComponentCount();
+                int largest = 0;
+                for (int c = 0; c < count; c++) {
+                    largest = Math.max(largest, prepared.getSCCs().componentSize(c));
+                }
+                return "components=" + count + " largest=" + largest + " version=" + prepared.getVersion();
+            }
+            case "ORDER": {
+                expectArgs(words, 1, "ORDER name [limit]");
+                List<String> tasks = store.get(words[1]).getTaskOrder();
+                int limit = words.length > 2 ? parseCount(words[2]) : tasks.size();
+                return tasks.subList(0, Math.min(limit, tasks.size())).toString();
+            }
+            case "SHORTEST": {
+                expectArgs(words, 3, "SHORTEST name from to");
+                return shortest(store.get(words[1]), words[2], words[3]);
+            }
+            case "CRITICAL": {
+                expectArgs(words, 1, "CRITICAL name");
+                CriticalPath path = store.get(words[1]).getCriticalPath();
+                return "makespan=" + path.getMakespan() + " path=" + path.getPath();
+            }
+            case "SLACK": {
+                expectArgs(words, 2, "SLACK name task");
+                PreparedGraph prepared = store.get(words[1]);
+                int comp = prepared.componentOfTask(words[2]);
+                CriticalPath path = prepared.getCriticalPath();
+                return "component=" + prepared.getCondensation().getNodes().get(comp)
+                        + " es=" + path.getEarliestStart()[comp] + " ls=" + path.getLatestStart()[comp]
+                        + " slack=" + path.slack(comp);
+            }
+            case "DEPENDS": {
+                expectArgs(words, 3, "DEPENDS name task prerequisite");
+                PreparedGraph prepared = store.get(words[1]);
+                int task = prepared.componentOfTask(words[2]);
+                int prerequisite = prepared.componentOfTask(words[3]);
+                return String.valueOf(prepared.getReachability().reaches(prerequisite, task));
+            }
+            case "STATS":
+                return stats() + " | cache " + store.getArtifacts().getCache().summary();
+            default:
+                throw new IllegalArgumentException("Unknown command " + command);
+        }
+    }
+
+    private String shortest(PreparedGraph prepared, String from, String to) {
+        int source = prepared.componentOfTask(from);
+        int target = prepared.componentOfTask(to);
+        DirectedGraph condensation = prepared.getCondensation();
+        // Buffers of the handling thread; the result is used before this thread runs another query
+        ShortestPathResult result = new DAGShortestPaths(condensation, metrics, Workspace.perThread())
+                .shortestPathResult(source, prepared.getOrder());
+        if (!result.isReachable(target)) {
+            return "unreachable";
+        }
+        return "distance=" + result.distance(target) + " path=" + result.namedPathTo(target);
+    }
+
+    private String stats() {
+        StringJoiner joiner = new StringJoiner(" | ");
+        for (String command : TIMED) {
+            LatencyHistogram histogram = metrics.histogram("query." + command);
+            if (histogram.count() > 0) {
+                joiner.add("query." + command + " " + histogram.summaryMicros());
+            }
+        }
+        LatencyHistogram invalid = metrics.histogram("query.invalid");
+        if (invalid.count() > 0) {
+            joiner.add("query.invalid " + invalid.summaryMicros());
+        }
+        return joiner.length() == 0 ? "no queries" : joiner.toString();
+    }
+
+    private static void expectArgs(String[] words, int count, String usage) {
+        if (words.length < count + 1) {
+            throw new IllegalArgumentException("Usage: " + usage);
+        }
+    }
+
+    private static int parseCount(String word) {
+        try {
+            return Math.max(0, Integer.parseInt(word));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number: " + word);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package service;
+
+import graph.cache.ArtifactCache;
+import graph.cache.GraphArtifacts;
+import graph.metrics.StripedMetrics;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resident scheduling service: graphs are loaded and analyzed once and then queried with
+ * the {@link QueryHandler} line protocol, either over stdin/stdout or over a local TCP
+ * socket. Each connection is served on its own thread, a virtual thread when the JVM has
+ * them (Java 21+), otherwise a pooled platform thread.
+ * <pre>
+ * java service.SchedulingServer --port 7070 --load small=data/small_1.json
+ * java service.SchedulingServer --stdin --load small=data/small_1.json
+ * java service.SchedulingServer --cache-dir /tmp/daa-cache --load large=data/large_1.json
+ * </pre>
+ * With --cache-dir, derived results are also kept on disk by graph content and survive restarts.
+ */
+public class SchedulingServer implements Closeable {
+    private final QueryHandler handler;
+    private final ExecutorService executor;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private ServerSocket serverSocket;
+    private Thread acceptThread;
+
+    public SchedulingServer(QueryHandler handler) {
+        this.handler = handler;
+        this.executor = newRequestExecutor();
+    }
+
+    /**
+     * Starts accepting connections on the loopback interface.
+     * @param port port to bind, or 0 for any free port
+     * @return bound port
+     */
+    public synchronized int start(int port) throws IOException {
+        if (serverSocket != null) {
+            throw new IllegalStateException("Server already started");
+        }
+        serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        acceptThread = new Thread(this::acceptLoop, "scheduling-server-accept");
+        acceptThread.start();
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Answers requests from a stream until it ends or QUIT is received, one response line
+     * per request line. Blank lines are ignored.
+     */
+    public void serve(BufferedReader in, Writer out) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            String request = line.trim();
+            if (request.isEmpty()) {
+                continue;
+            }
+            if (request.equalsIgnoreCase("QUIT")) {
+                break;
+            }
+            out.write(handler.handle(request));
+            out.write('\n');
+            out.flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (serverSocket != null) {
+            serverSocket.close();  // Ends the accept loop
+        }
+        for (Socket socket : connections) {
+            socket.close();  // Ends the connection's read loop
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.add(socket);
+                executor.execute(() -> serveConnection(socket));
+            } catch (SocketException e) {
+                return;  // Socket closed
+            } catch (IOException e) {
+                System.err.println("Accept failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void serveConnection(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            serve(in, out);
+        } catch (IOException e) {
+            // Client went away; nothing to answer
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    /**
+     * One thread per task: virtual threads when available (looked up reflectively so the
+     * code still compiles and runs on Java 17), otherwise a cached pool of daemon threads.
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "scheduling-server-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Whether connections are served on virtual threads.
+     */
+    public boolean usesVirtualThreads() {
+        return !(executor instanceof ThreadPoolExecutor);
+    }
+
+    public static void main(String[] args) throws IOException {
+        StripedMetrics metrics = new StripedMetrics();
+        int port = 7070;
+        boolean stdin = false;
+        Path cacheDir = null;
+        List<String> loads = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port":
+                    port = Integer.parseInt(args[++i]);
+                    break;
+                case "--stdin":
+                    stdin = true;
+                    break;
+                case "--cache-dir":
+                    cacheDir = Path.of(args[++i]);
+                    break;
+                case "--load":
+                    loads.add(args[++i]);
+                    break;
+                default:
+                    System.err.println("Usage: java service.SchedulingServer [--port N | --stdin] [--cache-dir DIR]"
+                            + " [--load name=path]...");
+                    return;
+            }
+        }
+        GraphStore store = new GraphStore(
+                new GraphArtifacts(new ArtifactCache(256L << 20, cacheDir, metrics), metrics), metrics);
+        for (String spec : loads) {
+            int eq = spec.indexOf('=');
+            Path path = Path.of(eq < 0 ? spec : spec.substring(eq + 1));
+            String name = eq < 0 ? path.getFileName().toString().replaceFirst("\\.[^.]*$", "") : spec.substring(0, eq);
+            PreparedGraph prepared = store.load(name, path);
+            prepared.getCriticalPath();  // Analyze before the first query
+            System.err.println("Loaded " + name + " (" + prepared.getGraph().nodeCount() + " nodes, version "
+                    + prepared.getVersion() + ")");
+        }
+
+        try (SchedulingServer server = new SchedulingServer(new QueryHandler(store, metrics))) {
+            if (stdin) {
+                server.serve(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)),
+                        new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+                return;
+            }
+            int bound = server.start(port);
+            System.err.println("Listening on " + InetAddress.getLoopbackAddress().getHostAddress() + ":" + bound
+                    + (server.usesVirtualThreads() ? " (virtual threads)" : " (platform threads)"));
+            try {
+                server.acceptThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
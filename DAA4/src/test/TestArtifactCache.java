@@ -0,0 +1,136 @@
+package test;
+
+import data.WorkloadGenerator;
+import graph.*;
+import graph.cache.Artifact;
+import graph.cache.ArtifactCache;
+import graph.cache.GraphArtifacts;
+import graph.cache.GraphKey;
+import graph.scc.SCCResult;
+import graph.scc.Tarjan;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+
+public class TestArtifactCache {
+    public static void main(String[] args) throws IOException {
+        System.out.println("=== TestArtifactCache ===");
+
+        List<String> nodes = Arrays.asList("A", "B", "C", "D");
+        List<String[]> edges = Arrays.asList(
+                new String[]{"A", "B"},
+                new String[]{"B", "A"},
+                new String[]{"B", "C"},
+                new String[]{"C", "D"}
+        );
+        Map<String, Integer> weights = new HashMap<>();
+        weights.put("B-C", 3);
+        DirectedGraph g1 = new DirectedGraph(nodes, edges, weights);
+        DirectedGraph g2 = new DirectedGraph(nodes, edges, weights);
+        weights.put("B-C", 4);
+        DirectedGraph reweighted = new DirectedGraph(nodes, edges, weights);
+        DirectedGraph renamed = new DirectedGraph(Arrays.asList("A", "B", "C", "E"),
+                Arrays.asList(new String[]{"A", "B"}, new String[]{"B", "A"}, new String[]{"B", "C"}, new String[]{"C", "E"}),
+                Collections.singletonMap("B-C", 3));
+        System.out.println("Same content, same key: " + GraphKey.of(g1).equals(GraphKey.of(g2)));
+        System.out.println("Other weight, other key: " + !GraphKey.of(g1).equals(GraphKey.of(reweighted)));
+        System.out.println("Other names, other key: " + !GraphKey.of(g1).equals(GraphKey.of(renamed)));
+
+        // Second pipeline run on equal content is answered from memory
+        SimpleMetrics metrics = new SimpleMetrics();
+        GraphArtifacts artifacts = new GraphArtifacts(new ArtifactCache(1 << 20, null, metrics), metrics);
+        int[] order1 = artifacts.topoOrder(g1, WeightPolicy.FIRST);
+        long tarjanRuns = metrics.getCounter("dfs_visits");
+        int[] order2 = artifacts.topoOrder(g2, WeightPolicy.FIRST);
+        System.out.println("Orders: " + Arrays.toString(order1) + " / " + Arrays.toString(order2)
+                + ", Tarjan skipped on rerun: " + (metrics.getCounter("dfs_visits") == tarjanRuns));
+        System.out.println("Counters: hits " + metrics.getCounter("cache_hits") + ", misses "
+                + metrics.getCounter("cache_misses") + ", " + artifacts.getCache().summary());
+
+        // LRU: with room for two orders, touching the first keeps it while the second is evicted
+        ArtifactCache small = new ArtifactCache(2 * 4 * 100, null, metrics);
+        GraphKey[] keys = {new GraphKey(0, 1), new GraphKey(0, 2), new GraphKey(0, 3)};
+        small.put(keys[0], Artifact.topoOrder(WeightPolicy.MIN), new int[100]);
+        small.put(keys[1], Artifact.topoOrder(WeightPolicy.MIN), new int[100]);
+        small.get(keys[0], Artifact.topoOrder(WeightPolicy.MIN));
+        small.put(keys[2], Artifact.topoOrder(WeightPolicy.MIN), new int[100]);
+        System.out.println("LRU kept first: " + (small.get(keys[0], Artifact.topoOrder(WeightPolicy.MIN)) != null)
+                + ", evicted second: " + (small.get(keys[1], Artifact.topoOrder(WeightPolicy.MIN)) == null)
+                + ", evictions " + metrics.getCounter("cache_evictions") + ", entries " + small.size());
+
+        // Disk tier: a new cache (as in a new process) reads the results back
+        Path dir = Files.createTempDirectory("artifact-cache");
+        try {
+            DirectedGraph big = new WorkloadGenerator(WorkloadGenerator.Shape.PLANTED_SCCS, 20_000, 5)
+                    .averageDegree(3).generate();
+            GraphArtifacts first = new GraphArtifacts(new ArtifactCache(64 << 20, dir, metrics), metrics);
+            SCCResult computed = first.sccs(big);
+            DirectedGraph condensation = first.condensation(big, WeightPolicy.MIN);
+            int[] order = first.topoOrder(big, WeightPolicy.MIN);
+            long files;
+            try (Stream<Path> listing = Files.list(dir)) {
+                files = listing.count();
+            }
+
+            GraphArtifacts second = new GraphArtifacts(new ArtifactCache(64 << 20, dir, metrics), metrics);
+            SCCResult restored = second.sccs(big);
+            DirectedGraph restoredCondensation = second.condensation(big, WeightPolicy.MIN);
+            int[] restoredOrder = second.topoOrder(big, WeightPolicy.MIN);
+            boolean same = Arrays.equals(computed.getComponentOf(), restored.getComponentOf())
+                    && computed.toLists().equals(restored.toLists())
+                    && Arrays.equals(condensation.getOffsets(), restoredCondensation.getOffsets())
+                    && Arrays.equals(condensation.getTargets(), restoredCondensation.getTargets())
+                    && Arrays.equals(condensation.getEdgeWeights(), restoredCondensation.getEdgeWeights())
+                    && condensation.getNodes().equals(restoredCondensation.getNodes())
+                    && Arrays.equals(order, restoredOrder);
+            System.out.println("Spill files: " + files + ", restored from disk equal: " + same
+                    + ", second cache: " + second.getCache().summary());
+
+            // A damaged file is a miss: recomputed and rewritten
+            try (Stream<Path> listing = Files.list(dir)) {
+                for (Path file : (Iterable<Path>) listing::iterator) {
+                    Files.write(file, new byte[]{1, 2, 3});
+                }
+            }
+            GraphArtifacts third = new GraphArtifacts(new ArtifactCache(64 << 20, dir, metrics), metrics);
+            SCCResult recomputed = third.sccs(big);
+            System.out.println("Damaged files recomputed: " + third.getCache().summary()
+                    + ", same SCCs: " + Arrays.equals(recomputed.getComponentOf(),
+                    new Tarjan(big, metrics).findComponents().getComponentOf()));
+
+            // A flipped payload byte keeps the length but fails the checksum: also a miss
+            Path sccFile;
+            try (Stream<Path> listing = Files.list(dir)) {
+                sccFile = listing.filter(p -> p.toString().endsWith(".scc.bin")).findFirst().orElseThrow();
+            }
+            byte[] bytes = Files.readAllBytes(sccFile);
+            bytes[bytes.length / 2] ^= 1;
+            Files.write(sccFile, bytes);
+            SimpleMetrics fresh = new SimpleMetrics();
+            GraphArtifacts fourth = new GraphArtifacts(new ArtifactCache(64 << 20, dir, fresh), fresh);
+            SCCResult checked = fourth.sccs(big);
+            System.out.println("Corrupted payload rejected: disk hits " + fresh.getCounter("cache_disk_hits")
+                    + ", misses " + fresh.getCounter("cache_misses") + ", same SCCs: "
+                    + Arrays.equals(checked.getComponentOf(), recomputed.getComponentOf()));
+        } finally {
+            try (Stream<Path> listing = Files.list(dir)) {
+                for (Path file : (Iterable<Path>) listing::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(dir);
+        }
+    }
+
+    static class SimpleMetrics implements Metrics {
+        long start;
+        Map<String, Long> c = new HashMap<>();
+        public void startTiming() { start = System.nanoTime(); }
+        public long stopTiming() { return System.nanoTime() - start; }
+        public synchronized void incrementCounter(String n) { c.put(n, c.getOrDefault(n, 0L) + 1); }
+        public synchronized long getCounter(String n) { return c.getOrDefault(n, 0L); }
+        public void reset() { c.clear(); }
+    }
+}
@@ -0,0 +1,71 @@
+package test;
+
+import data.BinaryGraphFormat;
+import data.MappedGraph;
+import graph.*;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+public class TestBinaryGraphFormat {
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== TestBinaryGraphFormat ===");
+
+        List<String> nodes = Arrays.asList("A", "B", "Ç", "D");
+        List<String[]> edges = Arrays.asList(
+                new String[]{"A", "B"},
+                new String[]{"B", "Ç"},
+                new String[]{"Ç", "A"},
+                new String[]{"Ç", "D"}
+        );
+        Map<String, Integer> weights = new HashMap<>();
+        weights.put("A-B", 4);
+        weights.put("B-Ç", 2);
+        weights.put("Ç-D", 7);
+        DirectedGraph g = new DirectedGraph(nodes, edges, weights);
+
+        Path file = Files.createTempFile("graph", ".bin");
+        try {
+            BinaryGraphFormat.write(g, file);
+            MappedGraph mapped = BinaryGraphFormat.map(file);
+            DirectedGraph back = mapped.toGraph();
+            System.out.println("Round trip nodes: " + back.getNodes());
+            System.out.println("Round trip equal: "
+                    + (Arrays.equals(g.getOffsets(), back.getOffsets())
+                    && Arrays.equals(g.getTargets(), back.getTargets())
+                    && Arrays.equals(g.getEdgeWeights(), back.getEdgeWeights())
+                    && g.getNodes().equals(back.getNodes())));
+            System.out.println("Mapped target of edge 0: " + mapped.targets().get(0));
+
+            // Flip one byte in the weights section
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                long pos = BinaryGraphFormat.HEADER_SIZE + 4L * (g.nodeCount() + 1) + 4L * g.edgeCount();
+                raf.seek(pos);
+                int b = raf.read();
+                raf.seek(pos);
+                raf.write(b ^ 0x01);
+            }
+            expectRejected("Corrupted file", file);
+
+            BinaryGraphFormat.write(g, file);
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                raf.setLength(raf.length() - 3);
+            }
+            expectRejected("Truncated file", file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void expectRejected(String label, Path file) {
+        try {
+            BinaryGraphFormat.map(file);
+            System.out.println(label + " accepted (unexpected)");
+        } catch (IOException e) {
+            System.out.println(label + " rejected: " + e.getMessage().replace(file.toString(), "<file>"));
+        }
+    }
+}
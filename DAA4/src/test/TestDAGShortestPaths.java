@@ -1,7 +1,10 @@
 package test;
 
 import graph.*;
+import graph.dagsp.CriticalPath;
 import graph.dagsp.DAGShortestPaths;
+import graph.dagsp.MultiSourceShortestPaths;
+import graph.dagsp.ShortestPathResult;
 
 import java.util.*;
 
@@ -34,6 +37,38 @@ public class TestDAGShortestPaths {
 
         System.out.println("Shortest distances: " + shortest);
         System.out.println("Longest distances: " + longest);
+
+        ShortestPathResult result = sp.shortestPathResult(0, topoOrder);
+        System.out.println("Shortest path to E: " + result.namedPathTo(4) + " " + Arrays.toString(result.pathTo(4))
+                + ", distance " + result.distance(4));
+        ShortestPathResult fromD = sp.longestPathResult(3, topoOrder);
+        System.out.println("From D: A reachable " + fromD.isReachable(0) + ", path to A " + fromD.namedPathTo(0)
+                + ", longest path to E " + fromD.namedPathTo(4));
+
+        CriticalPath cp = CriticalPath.analyze(g, topoOrder);
+        System.out.println("Critical path: " + cp.getPath() + ", length " + cp.getMakespan());
+        System.out.println("Earliest starts: " + Arrays.toString(cp.getEarliestStart())
+                + ", latest starts: " + Arrays.toString(cp.getLatestStart()));
+        System.out.println("Slack of B: " + cp.slack(1) + ", C critical: " + cp.isCritical(2));
+
+        // Edge without an explicit weight (uses the default weight instead of failing)
+        Map<String, Integer> partialWeights = new HashMap<>(weights);
+        partialWeights.remove("D-E");
+        DirectedGraph partial = new DirectedGraph(nodes, edges, partialWeights);
+        System.out.println("Longest distances without D-E weight: "
+                + new DAGShortestPaths(partial, m).longestPaths(0, topoOrder));
+
+        // All sources in one batch, compared with one single-source run per source
+        int[] sources = {0, 1, 2, 3, 4};
+        int[][] batch = new MultiSourceShortestPaths(g, m, 2, 2).distances(sources, topoOrder);
+        boolean same = true;
+        for (int s : sources) {
+            Map<Integer, Integer> single = sp.shortestPaths(s, topoOrder);
+            for (int v = 0; v < nodes.size(); v++) {
+                same &= single.get(v) == batch[s][v];
+            }
+        }
+        System.out.println("Batch distances from B: " + Arrays.toString(batch[1]) + ", match single-source: " + same);
     }
 
     static class SimpleMetrics implements Metrics {
@@ -0,0 +1,116 @@
+package test;
+
+import data.WorkloadGenerator;
+import graph.*;
+import graph.dagsp.DAGShortestPaths;
+import graph.dagsp.ShortestPathResult;
+import graph.dist.Coordinator;
+import graph.dist.Partitioner;
+import graph.scc.CondensationResult;
+import graph.scc.SCCResult;
+import graph.scc.Tarjan;
+
+import java.io.IOException;
+import java.util.*;
+
+public class TestDistributedPipeline {
+    public static void main(String[] args) throws IOException {
+        System.out.println("=== TestDistributedPipeline ===");
+
+        Partitioner range = new Partitioner(Partitioner.Scheme.RANGE, 10, 3);
+        Partitioner hash = new Partitioner(Partitioner.Scheme.HASH, 10, 3);
+        boolean roundTrip = true;
+        for (Partitioner p : new Partitioner[]{range, hash}) {
+            int total = 0;
+            for (int w = 0; w < 3; w++) {
+                total += p.localCount(w);
+                for (int l = 0; l < p.localCount(w); l++) {
+                    int v = p.globalId(w, l);
+                    roundTrip &= p.owner(v) == w && p.localIndex(v) == l;
+                }
+            }
+            roundTrip &= total == 10;
+        }
+        System.out.println("Partitions: range counts " + range.localCount(0) + "/" + range.localCount(1) + "/"
+                + range.localCount(2) + ", hash owner of 7 = " + hash.owner(7) + ", round trip " + roundTrip);
+
+        SimpleMetrics metrics = new SimpleMetrics();
+        boolean allSame = true;
+        long seed = 1;
+        for (WorkloadGenerator.Shape shape : WorkloadGenerator.Shape.values()) {
+            DirectedGraph g = new WorkloadGenerator(shape, 3_000, seed++).averageDegree(3).generate();
+            for (Partitioner.Scheme scheme : Partitioner.Scheme.values()) {
+                for (int workers : new int[]{1, 3}) {
+                    try (Coordinator coordinator = new Coordinator(workers, scheme, Coordinator.Launch.THREAD, metrics)) {
+                        boolean same = check(g, coordinator, WeightPolicy.MIN, metrics);
+                        if (!same) {
+                            System.out.println("Mismatch: " + shape + " " + scheme + " " + workers + " workers");
+                        }
+                        allSame &= same;
+                    }
+                }
+            }
+        }
+        System.out.println("Thread workers match the single-process pipeline on all shapes: " + allSame);
+
+        // Worker JVMs, as Main --workers runs them
+        DirectedGraph g = new WorkloadGenerator(WorkloadGenerator.Shape.PLANTED_SCCS, 5_000, 9).averageDegree(4).generate();
+        try (Coordinator coordinator = new Coordinator(2, Partitioner.Scheme.HASH, Coordinator.Launch.PROCESS, metrics)) {
+            System.out.println("Worker processes match: " + check(g, coordinator, WeightPolicy.FIRST, metrics)
+                    + ", supersteps counted: " + (metrics.getCounter("dist_supersteps") > 0)
+                    + ", messages routed: " + (metrics.getCounter("dist_messages") > 0));
+        }
+    }
+
+    /**
+     * Same SCC partition as Tarjan, the condensation buildCondensation gives for the
+     * distributed numbering, a valid order, and the sequential path results.
+     */
+    private static boolean check(DirectedGraph g, Coordinator coordinator, WeightPolicy policy, Metrics metrics)
+            throws IOException {
+        CondensationResult dist = coordinator.condense(g, policy);
+        SCCResult tarjan = new Tarjan(g, metrics).findComponents();
+        int[] componentOf = dist.getSccs().getComponentOf();
+        int count = dist.getSccs().getComponentCount();
+        boolean same = count == tarjan.getComponentCount();
+        int[] tarjanOf = new int[count];
+        Arrays.fill(tarjanOf, -1);
+        for (int v = 0; v < g.nodeCount() && same; v++) {
+            int c = componentOf[v];
+            if (tarjanOf[c] == -1) {
+                tarjanOf[c] = tarjan.getComponentOf()[v];
+            }
+            same = tarjanOf[c] == tarjan.getComponentOf()[v];
+        }
+        DirectedGraph expected = g.buildCondensation(componentOf, count, policy);
+        DirectedGraph dag = dist.getCondensation();
+        same &= Arrays.equals(expected.getOffsets(), dag.getOffsets())
+                && Arrays.equals(expected.getTargets(), dag.getTargets())
+                && Arrays.equals(expected.getEdgeWeights(), dag.getEdgeWeights());
+        int[] order = dist.getTopoOrder();
+        for (int u = 0; u < count; u++) {
+            for (int e = dag.edgeStart(u); e < dag.edgeEnd(u); e++) {
+                same &= dag.target(e) < u;  // Reverse topological numbering
+            }
+        }
+        for (boolean longest : new boolean[]{false, true}) {
+            ShortestPathResult sequential = longest
+                    ? new DAGShortestPaths(dag, metrics).longestPathResult(order[0], order)
+                    : new DAGShortestPaths(dag, metrics).shortestPathResult(order[0], order);
+            ShortestPathResult distributed = coordinator.paths(dag, order[0], longest);
+            same &= Arrays.equals(sequential.getDistances(), distributed.getDistances())
+                    && Arrays.equals(sequential.getParent(), distributed.getParent());
+        }
+        return same;
+    }
+
+    static class SimpleMetrics implements Metrics {
+        long start;
+        Map<String, Long> c = new HashMap<>();
+        public void startTiming() { start = System.nanoTime(); }
+        public long stopTiming() { return System.nanoTime() - start; }
+        public synchronized void incrementCounter(String n) { c.put(n, c.getOrDefault(n, 0L) + 1); }
+        public synchronized long getCounter(String n) { return c.getOrDefault(n, 0L); }
+        public void reset() { c.clear(); }
+    }
+}
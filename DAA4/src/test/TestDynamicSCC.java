@@ -0,0 +1,107 @@
+package test;
+
+import graph.*;
+import graph.scc.DynamicSCC;
+import graph.scc.SCCChangeListener;
+import graph.scc.SCCResult;
+import graph.scc.Tarjan;
+
+import java.util.*;
+
+public class TestDynamicSCC {
+    public static void main(String[] args) {
+        System.out.println("=== TestDynamicSCC ===");
+
+        List<String> nodes = Arrays.asList("A", "B", "C", "D");
+        List<String[]> edges = Arrays.asList(
+                new String[]{"A", "B"},
+                new String[]{"B", "C"},
+                new String[]{"C", "D"}
+        );
+        DirectedGraph g = new DirectedGraph(nodes, edges, new HashMap<>());
+        DynamicSCC dynamic = new DynamicSCC(g, new SimpleMetrics());
+        dynamic.addListener(new SCCChangeListener() {
+            @Override
+            public void componentsMerged(int survivor, int[] absorbed) {
+                System.out.println("  merged " + Arrays.toString(absorbed) + " into " + survivor);
+            }
+
+            @Override
+            public void componentSplit(int original, int[] parts) {
+                System.out.println("  split " + original + " into " + Arrays.toString(parts));
+            }
+        });
+        System.out.println("Initial components: " + dynamic.componentCount());
+        System.out.println("Insert C -> A:");
+        dynamic.insertEdge(2, 0, 1);
+        System.out.println("Components: " + dynamic.componentCount() + ", condensation edges: "
+                + dynamic.condensation(WeightPolicy.FIRST).edgeCount());
+        System.out.println("Remove B -> C:");
+        dynamic.removeEdge(1, 2);
+        System.out.println("Components: " + dynamic.componentCount() + ", order: "
+                + Arrays.toString(dynamic.components()));
+
+        // Random edits checked against a fresh Tarjan run on the same graph
+        int n = 500;
+        DirectedGraph empty = new DirectedGraph(DirectedGraph.indexNames(n), new int[0], new int[0], new int[0], 0);
+        DynamicSCC random = new DynamicSCC(empty, new SimpleMetrics());
+        Random rand = new Random(5);
+        List<int[]> present = new ArrayList<>();
+        boolean valid = true;
+        int checks = 0;
+        for (int i = 0; i < 6000; i++) {
+            if (rand.nextInt(3) > 0 || present.isEmpty()) {
+                int u = rand.nextInt(n), v = rand.nextInt(n);
+                random.insertEdge(u, v, 1);
+                present.add(new int[]{u, v});
+            } else {
+                int[] e = present.remove(rand.nextInt(present.size()));
+                random.removeEdge(e[0], e[1]);
+            }
+            if (i % 250 == 0) {
+                valid &= matchesTarjan(random);
+                checks++;
+            }
+        }
+        valid &= matchesTarjan(random);
+        System.out.println("Random edits: " + present.size() + " edges, " + random.componentCount()
+                + " components, matches Tarjan in " + (checks + 1) + " checks: " + valid);
+    }
+
+    /** Same partition as Tarjan, and dense ids form a topological order of the condensation. */
+    private static boolean matchesTarjan(DynamicSCC dynamic) {
+        DirectedGraph graph = dynamic.toGraph();
+        SCCResult expected = new Tarjan(graph, new SimpleMetrics()).findComponents();
+        SCCResult actual = dynamic.toSCCResult();
+        if (expected.getComponentCount() != actual.getComponentCount()) {
+            return false;
+        }
+        int[] mapping = new int[expected.getComponentCount()];
+        Arrays.fill(mapping, -1);
+        for (int u = 0; u < graph.nodeCount(); u++) {
+            int e = expected.getComponentOf()[u], a = actual.getComponentOf()[u];
+            if (mapping[e] == -1) mapping[e] = a;
+            else if (mapping[e] != a) return false;
+        }
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        for (int u = 0; u < graph.nodeCount(); u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                if (actual.getComponentOf()[u] > actual.getComponentOf()[targets[e]]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    static class SimpleMetrics implements Metrics {
+        long start;
+        Map<String, Long> c = new HashMap<>();
+        public void startTiming() { start = System.nanoTime(); }
+        public long stopTiming() { return System.nanoTime() - start; }
+        public void incrementCounter(String n) { c.put(n, c.getOrDefault(n, 0L) + 1); }
+        public long getCounter(String n) { return c.getOrDefault(n, 0L); }
+        public void reset() { c.clear(); }
+    }
+}
@@ -0,0 +1,59 @@
+package test;
+
+import graph.*;
+import graph.topo.DynamicTopologicalOrder;
+
+import java.util.*;
+
+public class TestDynamicTopologicalOrder {
+    public static void main(String[] args) {
+        System.out.println("=== TestDynamicTopologicalOrder ===");
+
+        List<String> nodes = Arrays.asList("A", "B", "C", "D");
+        List<String[]> edges = Arrays.asList(
+                new String[]{"A", "B"},
+                new String[]{"B", "C"}
+        );
+        DirectedGraph g = new DirectedGraph(nodes, edges, new HashMap<>());
+        DynamicTopologicalOrder order = DynamicTopologicalOrder.of(g, new SimpleMetrics());
+        System.out.println("Initial order: " + order.getOrder());
+
+        System.out.println("Insert D -> A: " + order.insertEdge(3, 0) + ", order " + order.getOrder());
+        System.out.println("Insert C -> A (cycle): " + order.insertEdge(2, 0) + ", order " + order.getOrder());
+        System.out.println("Remove B -> C: " + order.removeEdge(1, 2));
+        System.out.println("Insert C -> A after removal: " + order.insertEdge(2, 0) + ", order " + order.getOrder());
+
+        // Random edits checked against the invariant pos[u] < pos[v] for every present edge
+        int n = 2000;
+        DynamicTopologicalOrder random = new DynamicTopologicalOrder(n);
+        Random rand = new Random(3);
+        List<int[]> present = new ArrayList<>();
+        int rejected = 0;
+        for (int i = 0; i < 20_000; i++) {
+            if (rand.nextInt(4) > 0 || present.isEmpty()) {
+                int u = rand.nextInt(n), v = rand.nextInt(n);
+                if (random.insertEdge(u, v)) present.add(new int[]{u, v});
+                else rejected++;
+            } else {
+                int[] e = present.remove(rand.nextInt(present.size()));
+                random.removeEdge(e[0], e[1]);
+            }
+        }
+        boolean valid = true;
+        for (int[] e : present) {
+            valid &= random.position(e[0]) < random.position(e[1]);
+        }
+        System.out.println("Random edits: " + present.size() + " edges kept, " + rejected
+                + " rejected, order valid: " + valid);
+    }
+
+    static class SimpleMetrics implements Metrics {
+        long start;
+        Map<String, Long> c = new HashMap<>();
+        public void startTiming() { start = System.nanoTime(); }
+        public long stopTiming() { return System.nanoTime() - start; }
+        public void incrementCounter(String n) { c.put(n, c.getOrDefault(n, 0L) + 1); }
+        public long getCounter(String n) { return c.getOrDefault(n, 0L); }
+        public void reset() { c.clear(); }
+    }
+}
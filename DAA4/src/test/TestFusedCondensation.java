@@ -0,0 +1,110 @@
+package test;
+
+import data.WorkloadGenerator;
+import graph.*;
+import graph.cache.ArtifactCache;
+import graph.cache.GraphArtifacts;
+import graph.offheap.OffHeapGraph;
+import graph.scc.CondensationResult;
+import graph.scc.FusedCondensation;
+import graph.scc.SCCResult;
+import graph.scc.Tarjan;
+
+import java.util.*;
+
+public class TestFusedCondensation {
+    public static void main(String[] args) {
+        System.out.println("=== TestFusedCondensation ===");
+
+        // A <-> B form one component with two edges into C; C -> D
+        List<String> nodes = Arrays.asList("A", "B", "C", "D");
+        List<String[]> edges = Arrays.asList(
+                new String[]{"A", "B"},
+                new String[]{"B", "A"},
+                new String[]{"B", "C"},
+                new String[]{"A", "C"},
+                new String[]{"C", "D"}
+        );
+        Map<String, Integer> weights = new HashMap<>();
+        weights.put("A-C", 7);
+        weights.put("B-C", 3);
+        weights.put("C-D", 2);
+        DirectedGraph small = new DirectedGraph(nodes, edges, weights);
+        SimpleMetrics metrics = new SimpleMetrics();
+        CondensationResult fused = new FusedCondensation(small, metrics, WeightPolicy.FIRST).run();
+        DirectedGraph dag = fused.getCondensation();
+        System.out.println("SCCs: " + fused.getSccs().toLists() + ", order " + Arrays.toString(fused.getTopoOrder()));
+        System.out.println("Condensation offsets " + Arrays.toString(dag.getOffsets()) + ", targets "
+                + Arrays.toString(dag.getTargets()) + ", weights " + Arrays.toString(dag.getEdgeWeights())
+                + " (FIRST keeps A->C, the first edge in node order)");
+        System.out.println("Cross edges " + metrics.getCounter("cross_edges") + ", DFS edges "
+                + metrics.getCounter("dfs_edges"));
+
+        // Same result as Tarjan + buildCondensation on every shape and policy, heap or off-heap
+        boolean same = true, valid = true;
+        long seed = 1;
+        for (WorkloadGenerator.Shape shape : WorkloadGenerator.Shape.values()) {
+            DirectedGraph g = new WorkloadGenerator(shape, 5_000, seed++).averageDegree(4).generate();
+            SCCResult expected = new Tarjan(g, metrics).findComponents();
+            for (WeightPolicy policy : WeightPolicy.values()) {
+                DirectedGraph expectedDag = g.buildCondensation(expected.getComponentOf(),
+                        expected.getComponentCount(), policy);
+                for (GraphView view : new GraphView[]{g, OffHeapGraph.copyOf(g)}) {
+                    CondensationResult r = new FusedCondensation(view, metrics, policy).run();
+                    same &= r.getSccs().getComponentCount() == expected.getComponentCount()
+                            && Arrays.equals(r.getSccs().getComponentOf(), expected.getComponentOf())
+                            && Arrays.equals(r.getSccs().getMembers(), expected.getMembers())
+                            && Arrays.equals(r.getCondensation().getOffsets(), expectedDag.getOffsets())
+                            && Arrays.equals(r.getCondensation().getTargets(), expectedDag.getTargets())
+                            && Arrays.equals(r.getCondensation().getEdgeWeights(), expectedDag.getEdgeWeights());
+                    valid &= isTopological(r.getCondensation(), r.getTopoOrder());
+                }
+            }
+        }
+        System.out.println("Matches Tarjan + buildCondensation on all shapes and policies: " + same);
+        System.out.println("Orders are topological: " + valid);
+
+        // Through the artifact cache: one fused run fills all three artifacts
+        GraphArtifacts artifacts = new GraphArtifacts(new ArtifactCache(1 << 20, null, metrics), metrics);
+        DirectedGraph g = new WorkloadGenerator(WorkloadGenerator.Shape.PLANTED_SCCS, 2_000, 3).generate();
+        long visitsBefore = metrics.getCounter("dfs_visits");
+        CondensationResult first = artifacts.condense(g, WeightPolicy.MIN);
+        long visitsAfterFirst = metrics.getCounter("dfs_visits");
+        CondensationResult second = artifacts.condense(g, WeightPolicy.MIN);
+        System.out.println("One traversal: " + (visitsAfterFirst - visitsBefore == g.nodeCount())
+                + ", rerun from cache: " + (metrics.getCounter("dfs_visits") == visitsAfterFirst)
+                + ", same order: " + Arrays.equals(first.getTopoOrder(), second.getTopoOrder())
+                + ", separate lookups agree: "
+                + (artifacts.condensation(g, WeightPolicy.MIN) == first.getCondensation()
+                && artifacts.sccs(g) == first.getSccs()));
+        // Another policy reuses the cached SCCs
+        CondensationResult max = artifacts.condense(g, WeightPolicy.MAX);
+        System.out.println("Other policy reuses SCCs: " + (max.getSccs() == first.getSccs())
+                + ", no new traversal: " + (metrics.getCounter("dfs_visits") == visitsAfterFirst));
+    }
+
+    private static boolean isTopological(DirectedGraph dag, int[] order) {
+        int[] position = new int[dag.nodeCount()];
+        for (int i = 0; i < order.length; i++) {
+            position[order[i]] = i;
+        }
+        for (int u = 0; u < dag.nodeCount(); u++) {
+            for (int e = dag.edgeStart(u); e < dag.edgeEnd(u); e++) {
+                if (position[u] >= position[dag.target(e)]) {
+                    return false;
+                }
+            }
+        }
+        return order.length == dag.nodeCount();
+    }
+
+    static class SimpleMetrics implements Metrics {
+        long start;
+        Map<String, Long> c = new HashMap<>();
+        public void startTiming() { start = System.nanoTime(); }
+        public long stopTiming() { return System.nanoTime() - start; }
+        public synchronized void incrementCounter(String n) { c.put(n, c.getOrDefault(n, 0L) + 1); }
+        public synchronized long getCounter(String n) { return c.getOrDefault(n, 0L); }
+        public void reset() { c.clear(); }
+    }
+}
@@ -0,0 +1,63 @@
+package test;
+
+import data.JsonGraphLoader;
+import graph.*;
+
+import java.io.File;
+import java.io.StringReader;
+import java.util.*;
+
+public class TestJsonGraphLoader {
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== TestJsonGraphLoader ===");
+
+        // Format written by DataGenerator
+        String generated = "{\n  \"n\": 4,\n  \"edges\": [\n"
+                + "    {\"from\": 0, \"to\": 1, \"weight\": 6},\n"
+                + "    {\"from\": 1, \"to\": 2, \"weight\": 2},\n"
+                + "    {\"from\": 2, \"to\": 3}\n  ]\n}";
+        DirectedGraph g1 = JsonGraphLoader.load(new StringReader(generated));
+        System.out.println("n/edges format: nodes " + g1.getNodes() + ", adj " + g1.getAdj()
+                + ", weights " + g1.getWeights());
+
+        // Format with named nodes and a separate weights object (weights key contains a dash in a name)
+        String named = "{\"nodes\": [\"A\", \"B-1\", \"C\"], \"edges\": [[\"A\", \"B-1\"], [\"B-1\", \"C\"]],"
+                + " \"weights\": {\"A-B-1\": 3, \"B-1-C\": 5}, \"source\": \"A\"}";
+        DirectedGraph g2 = JsonGraphLoader.load(new StringReader(named));
+        System.out.println("nodes/edges/weights format: nodes " + g2.getNodes() + ", adj " + g2.getAdj()
+                + ", weights " + g2.getWeights());
+
+        try {
+            JsonGraphLoader.load(new StringReader("{\"n\": 2, \"edges\": [{\"from\": 0, \"to\": 5}]}"));
+            System.out.println("Out-of-range index accepted (unexpected)");
+        } catch (java.io.IOException e) {
+            System.out.println("Rejected bad input: " + e.getMessage());
+        }
+        for (String trailing : new String[]{"{\"n\": 1} garbage", "{\"n\": 1}{\"n\": 2}"}) {
+            try {
+                JsonGraphLoader.load(new StringReader(trailing));
+                System.out.println("Trailing input accepted (unexpected)");
+            } catch (java.io.IOException e) {
+                System.out.println("Rejected trailing input: " + e.getMessage());
+            }
+        }
+
+        // An explicit Integer.MIN_VALUE weight is kept, not mistaken for a missing one
+        DirectedGraph extreme = JsonGraphLoader.load(new StringReader("{\"nodes\": [\"A\", \"B\"], "
+                + "\"edges\": [[\"A\", \"B\", " + Integer.MIN_VALUE + "], {\"from\": \"B\", \"to\": \"A\", \"weight\": "
+                + Integer.MIN_VALUE + "}], \"weights\": {\"A-B\": 7}}"));
+        System.out.println("Explicit minimum weights: " + extreme.getWeights());
+
+        // Bundled datasets, when run from the project or module directory
+        for (String dir : new String[]{"data", "DAA4/data"}) {
+            File[] files = new File(dir).listFiles((d, name) -> name.endsWith(".json"));
+            if (files == null) continue;
+            Arrays.sort(files);
+            for (File f : files) {
+                DirectedGraph g = JsonGraphLoader.load(f.getPath());
+                System.out.println(f.getName() + ": " + g.nodeCount() + " nodes, " + g.edgeCount() + " edges");
+            }
+            break;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package test;
+
+import data.WorkloadGenerator;
+import graph.*;
+import graph.dagsp.CriticalPath;
+import graph.sched.ListScheduler;
+import graph.sched.Schedule;
+import graph.topo.TopologicalSort;
+import graph.util.IndexedHeap;
+
+import java.util.*;
+
+public class TestListScheduler {
+    public static void main(String[] args) {
+        System.out.println("=== TestListScheduler ===");
+
+        // Indexed heap: ordering, key updates, removal
+        IndexedHeap heap = new IndexedHeap(6);
+        heap.put(3, 5);
+        heap.put(1, 5);
+        heap.put(4, 2);
+        heap.put(0, 9);
+        heap.put(0, 1);   // Decrease
+        heap.put(4, 7);   // Increase
+        heap.remove(3);
+        List<String> polled = new ArrayList<>();
+        while (!heap.isEmpty()) {
+            long key = heap.peekKey();
+            polled.add(heap.poll() + "@" + key);
+        }
+        System.out.println("Heap order (expected [0@1, 1@5, 4@7]): " + polled);
+
+        // A -> B (lag 3), A -> C (lag 2), B -> D (lag 4), C -> D (lag 1)
+        List<String> nodes = Arrays.asList("A", "B", "C", "D");
+        List<String[]> edges = Arrays.asList(
+                new String[]{"A", "B"},
+                new String[]{"A", "C"},
+                new String[]{"B", "D"},
+                new String[]{"C", "D"}
+        );
+        Map<String, Integer> weights = new HashMap<>();
+        weights.put("A-B", 3);
+        weights.put("A-C", 2);
+        weights.put("B-D", 4);
+        weights.put("C-D", 1);
+        DirectedGraph diamond = new DirectedGraph(nodes, edges, weights);
+        SimpleMetrics metrics = new SimpleMetrics();
+        int[] durations = ListScheduler.durationsFromLags(diamond);
+        ListScheduler scheduler = new ListScheduler(diamond, durations, metrics);
+        int[] order = new TopologicalSort(diamond, metrics).kahnOrder();
+        System.out.println("Durations from lags: " + Arrays.toString(durations));
+        System.out.println("Priorities: " + Arrays.toString(scheduler.priorities(order)));
+        for (int crews = 1; crews <= 2; crews++) {
+            Schedule s = scheduler.schedule(order, crews);
+            System.out.println(crews + " crew(s): makespan " + s.getMakespan() + ", plan " + s.describe());
+        }
+        System.out.println("Schedule phase timed: " + metrics.phases.contains("list_schedule"));
+
+        DirectedGraph cycle = new DirectedGraph(Arrays.asList("X", "Y"),
+                Arrays.asList(new String[]{"X", "Y"}, new String[]{"Y", "X"}), new HashMap<>());
+        try {
+            new ListScheduler(cycle, new int[2], metrics).schedule(new int[]{0, 1}, 1);
+            System.out.println("Cycle rejected: false");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Cycle rejected: " + e.getMessage());
+        }
+
+        // Random DAGs: constraints hold, ample workers give CPM starts, result matches a naive scheduler
+        boolean precedence = true, noOverlap = true, cpm = true, naive = true;
+        long seed = 1;
+        for (int round = 0; round < 6; round++) {
+            DirectedGraph dag = new WorkloadGenerator(WorkloadGenerator.Shape.LAYERED, 300, seed++)
+                    .layers(12, 3).averageDegree(3).generate();
+            int[] topo = new TopologicalSort(dag, metrics).kahnOrder();
+            int[] d = ListScheduler.durationsFromLags(dag);
+            ListScheduler ls = new ListScheduler(dag, d, metrics);
+            for (int crews : new int[]{1, 2, 5, dag.nodeCount()}) {
+                Schedule s = ls.schedule(topo, crews);
+                precedence &= respectsLags(dag, s) && respectsDurations(d, s);
+                noOverlap &= workersDisjoint(s);
+                naive &= Arrays.equals(s.getStart(), naiveStarts(dag, d, ls.priorities(topo), crews));
+                if (crews == dag.nodeCount()) {
+                    List<Integer> topoList = new ArrayList<>();
+                    for (int u : topo) {
+                        topoList.add(u);
+                    }
+                    cpm &= Arrays.equals(s.getStart(), CriticalPath.analyze(dag, topoList).getEarliestStart());
+                }
+            }
+        }
+        System.out.println("Starts respect lags and durations: " + precedence);
+        System.out.println("No worker runs two tasks at once: " + noOverlap);
+        System.out.println("Ample workers reproduce CPM earliest starts: " + cpm);
+        System.out.println("Matches naive list scheduler: " + naive);
+    }
+
+    private static boolean respectsLags(DirectedGraph dag, Schedule s) {
+        for (int u = 0; u < dag.nodeCount(); u++) {
+            for (int e = dag.edgeStart(u); e < dag.edgeEnd(u); e++) {
+                if (s.getStart()[dag.target(e)] < s.getStart()[u] + dag.weight(e)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean respectsDurations(int[] durations, Schedule s) {
+        for (int t = 0; t < durations.length; t++) {
+            if (s.getFinish()[t] - s.getStart()[t] != durations[t]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean workersDisjoint(Schedule s) {
+        for (int w = 0; w < s.getWorkerCount(); w++) {
+            int busyUntil = 0;
+            for (int t : s.tasksOf(w)) {
+                if (s.getStart()[t] < busyUntil) {
+                    return false;
+                }
+                busyUntil = s.getFinish()[t];
+            }
+        }
+        return true;
+    }
+
+    /** Same rules by linear scans: earliest free worker takes the released task of highest priority. */
+    private static int[] naiveStarts(DirectedGraph dag, int[] durations, long[] priority, int workers) {
+        int n = dag.nodeCount();
+        int[] predsLeft = new int[n];
+        for (int e = 0; e < dag.edgeCount(); e++) {
+            predsLeft[dag.target(e)]++;
+        }
+        int[] release = new int[n];
+        int[] start = new int[n];
+        boolean[] started = new boolean[n];
+        int[] freeAt = new int[workers];
+        int now = 0;
+        for (int done = 0; done < n; done++) {
+            int w = 0;
+            for (int i = 1; i < workers; i++) {
+                if (freeAt[i] < freeAt[w]) {
+                    w = i;
+                }
+            }
+            now = Math.max(now, freeAt[w]);
+            int best = -1;
+            int nextRelease = Integer.MAX_VALUE;
+            for (int t = 0; t < n; t++) {
+                if (started[t] || predsLeft[t] > 0) {
+                    continue;
+                }
+                if (release[t] > now) {
+                    nextRelease = Math.min(nextRelease, release[t]);
+                } else if (best < 0 || priority[t] > priority[best]) {
+                    best = t;
+                }
+            }
+            if (best < 0) {
+                now = nextRelease;
+                for (int t = 0; t < n; t++) {
+                    if (!started[t] && predsLeft[t] == 0 && release[t] <= now
+                            && (best < 0 || priority[t] > priority[best])) {
+                        best = t;
+                    }
+                }
+            }
+            started[best] = true;
+            start[best] = now;
+            freeAt[w] = now + durations[best];
+            for (int e = dag.edgeStart(best); e < dag.edgeEnd(best); e++) {
+                int v = dag.target(e);
+                release[v] = Math.max(release[v], now + dag.weight(e));
+                predsLeft[v]--;
+            }
+        }
+        return start;
+    }
+
+    static class SimpleMetrics implements Metrics {
+        long start;
+        Map<String, Long> c = new HashMap<>();
+        Set<String> phases = new HashSet<>();
+        public void startTiming() { start = System.nanoTime(); }
+        public long stopTiming() { return System.nanoTime() - start; }
+        public synchronized void incrementCounter(String n) { c.put(n, c.getOrDefault(n, 0L) + 1); }
+        public synchronized long getCounter(String n) { return c.getOrDefault(n, 0L); }
+        public void reset() { c.clear(); }
+        public Phase phase(String name) {
+            phases.add(name);
+            return Phase.NONE;
+        }
+    }
+}
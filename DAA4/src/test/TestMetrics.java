@@ -0,0 +1,67 @@
+package test;
+
+import graph.*;
+import graph.metrics.CounterRegistry;
+import graph.metrics.LatencyHistogram;
+import graph.metrics.NoOpMetrics;
+import graph.metrics.StripedMetrics;
+import graph.scc.Tarjan;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+@SuppressWarnings("try")
+public class TestMetrics {
+    public static void main(String[] args) {
+        System.out.println("=== TestMetrics ===");
+
+        // Counters from parallel threads
+        StripedMetrics metrics = new StripedMetrics();
+        int id = CounterRegistry.id("test_events");
+        IntStream.range(0, 8).parallel().forEach(t -> {
+            for (int i = 0; i < 100_000; i++) {
+                metrics.increment(id);
+            }
+        });
+        System.out.println("Parallel increments: " + metrics.getCounter("test_events") + " (expected 800000)");
+
+        // Nested phases and per-run counters from Tarjan
+        List<String> nodes = Arrays.asList("A", "B", "C");
+        List<String[]> edges = Arrays.asList(new String[]{"A", "B"}, new String[]{"B", "A"}, new String[]{"B", "C"});
+        DirectedGraph g = new DirectedGraph(nodes, edges, new HashMap<>());
+        try (Metrics.Phase phase = metrics.phase("scc")) {
+            new Tarjan(g, metrics).findComponents();
+        }
+        System.out.println("Phases: " + metrics.phaseSnapshot().keySet()
+                + ", nested within outer: " + (metrics.getPhaseNanos("scc/tarjan") <= metrics.getPhaseNanos("scc")));
+        System.out.println("DFS visits: " + metrics.getCounter("dfs_visits") + ", DFS edges: " + metrics.getCounter("dfs_edges"));
+
+        // Legacy implementations still receive counters through the default add()
+        SimpleMetrics simple = new SimpleMetrics();
+        new Tarjan(g, simple).findComponents();
+        System.out.println("Legacy metrics DFS edges: " + simple.getCounter("dfs_edges"));
+
+        // Histogram percentiles within the bucket precision (1/64)
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100_000; i++) {
+            histogram.record(i * 1000L);
+        }
+        long p50 = histogram.percentile(50), p99 = histogram.percentile(99);
+        System.out.println("Histogram p50 " + p50 + " (~50000000), p99 " + p99 + " (~99000000), within 2%: "
+                + (Math.abs(p50 - 50_000_000L) < 1_000_000L && Math.abs(p99 - 99_000_000L) < 1_980_000L));
+        System.out.println("Histogram max " + histogram.max() + ", count " + histogram.count());
+
+        NoOpMetrics.INSTANCE.increment(id);
+        System.out.println("No-op counter: " + NoOpMetrics.INSTANCE.getCounter("test_events"));
+    }
+
+    static class SimpleMetrics implements Metrics {
+        long start;
+        Map<String, Long> c = new HashMap<>();
+        public void startTiming() { start = System.nanoTime(); }
+        public long stopTiming() { return System.nanoTime() - start; }
+        public void incrementCounter(String n) { c.put(n, c.getOrDefault(n, 0L) + 1); }
+        public long getCounter(String n) { return c.getOrDefault(n, 0L); }
+        public void reset() { c.clear(); }
+    }
+}
@@ -0,0 +1,126 @@
+package test;
+
+import data.BinaryGraphFormat;
+import data.MappedGraph;
+import data.WorkloadGenerator;
+import graph.*;
+import graph.dagsp.DAGShortestPaths;
+import graph.offheap.OffHeapBuffer;
+import graph.offheap.OffHeapGraph;
+import graph.scc.SCCResult;
+import graph.scc.Tarjan;
+import graph.topo.TopologicalSort;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+public class TestOffHeapGraph {
+    public static void main(String[] args) throws IOException {
+        System.out.println("=== TestOffHeapGraph ===");
+
+        // Ints and longs across chunk boundaries of a small-chunk buffer
+        OffHeapBuffer buffer = new OffHeapBuffer(1);
+        buffer.ensureCapacity(3 << 16);
+        buffer.putInt((1 << 16) - 4, 7);
+        buffer.putLong(1 << 16, -5L);
+        buffer.putLong((2 << 16) + 8, Long.MAX_VALUE);
+        System.out.println("Buffer: " + buffer.getInt((1 << 16) - 4) + " " + buffer.getLong(1 << 16) + " "
+                + (buffer.getLong((2 << 16) + 8) == Long.MAX_VALUE) + ", capacity " + buffer.capacity());
+
+        // Builder interns names and keeps edges in insertion order per source
+        OffHeapGraph.Builder builder = new OffHeapGraph.Builder(2, 2);  // Hints far too small: forces growth
+        builder.addEdge("A", "B", 2);
+        builder.addEdge("B", "C", 3);
+        builder.addEdge("A", "C", 9);
+        builder.addEdge("C", "\u0414\u043e\u043c", 1);
+        int again = builder.addNode("B");
+        for (int i = 0; i < 1000; i++) {
+            builder.addNode("extra" + i);
+        }
+        OffHeapGraph small = builder.build();
+        List<String> outOfA = new ArrayList<>();
+        for (int e = small.edgeStart(0); e < small.edgeEnd(0); e++) {
+            outOfA.add(small.nodeName(small.target(e)) + ":" + small.weight(e));
+        }
+        System.out.println("Nodes " + small.nodeCount() + ", edges " + small.edgeCount() + ", B interned as "
+                + again + ", out of A " + outOfA);
+        boolean lookups = small.indexOf("\u0414\u043e\u043c") == 3 && small.indexOf("missing") == -1;
+        for (int i = 0; i < 1000; i++) {
+            lookups &= small.indexOf("extra" + i) == 4 + i && small.nodeName(4 + i).equals("extra" + i);
+        }
+        System.out.println("Name lookups after rehash: " + lookups + ", unicode name round trip: "
+                + small.nodeName(3).equals("\u0414\u043e\u043c"));
+        try {
+            builder.addNode("late");
+            System.out.println("Built builder accepted a node");
+        } catch (IllegalStateException e) {
+            System.out.println("Built builder rejected: " + e.getMessage());
+        }
+
+        // The algorithms give the same answers on heap, off-heap and mapped views
+        SimpleMetrics metrics = new SimpleMetrics();
+        DirectedGraph g = new WorkloadGenerator(WorkloadGenerator.Shape.PLANTED_SCCS, 30_000, 11)
+                .averageDegree(3).generate();
+        OffHeapGraph off = OffHeapGraph.copyOf(g);
+        SCCResult heapScc = new Tarjan(g, metrics).findComponents();
+        SCCResult offScc = new Tarjan(off, metrics).findComponents();
+        boolean sccSame = Arrays.equals(heapScc.getComponentOf(), offScc.getComponentOf())
+                && heapScc.toLists().equals(offScc.toLists());
+
+        DirectedGraph heapDag = g.buildCondensation(heapScc.getComponentOf(), heapScc.getComponentCount(),
+                WeightPolicy.MIN);
+        DirectedGraph offDag = DirectedGraph.buildCondensation(off, offScc.getComponentOf(),
+                offScc.getComponentCount(), WeightPolicy.MIN);
+        boolean dagSame = Arrays.equals(heapDag.getOffsets(), offDag.getOffsets())
+                && Arrays.equals(heapDag.getTargets(), offDag.getTargets())
+                && Arrays.equals(heapDag.getEdgeWeights(), offDag.getEdgeWeights());
+
+        OffHeapGraph offDagOff = OffHeapGraph.copyOf(heapDag);
+        int[] heapOrder = new TopologicalSort(heapDag, metrics).kahnOrder();
+        int[] offOrder = new TopologicalSort(offDagOff, metrics).kahnOrder();
+        boolean orderSame = Arrays.equals(heapOrder, offOrder);
+        int source = heapOrder[0];
+        boolean pathsSame = new DAGShortestPaths(heapDag, metrics).shortestPathResult(source, heapOrder).toMap()
+                .equals(new DAGShortestPaths(offDagOff, metrics).shortestPathResult(source, offOrder).toMap())
+                && new DAGShortestPaths(heapDag, metrics).longestPathResult(source, heapOrder).toMap()
+                .equals(new DAGShortestPaths(offDagOff, metrics).longestPathResult(source, offOrder).toMap());
+        int last = heapOrder[heapOrder.length - 1];
+        System.out.println("Off-heap matches heap: SCCs " + sccSame + ", condensation " + dagSame
+                + ", Kahn " + orderSame + ", DAG paths " + pathsSame + ", named path equal "
+                + new DAGShortestPaths(heapDag, metrics).longestPathResult(source, heapOrder).namedPathTo(last)
+                .equals(new DAGShortestPaths(offDagOff, metrics).longestPathResult(source, offOrder).namedPathTo(last)));
+        System.out.println("Name index: " + (off.indexOf(g.nodeName(12_345)) == 12_345)
+                + ", off-heap bytes >= CSR bytes: "
+                + (off.offHeapBytes() >= 4L * (g.nodeCount() + 1 + 2L * g.edgeCount())));
+
+        Path file = Files.createTempFile("offheap", ".daag");
+        try {
+            BinaryGraphFormat.write(g, file);
+            MappedGraph mapped = BinaryGraphFormat.map(file);
+            SCCResult mappedScc = new Tarjan(mapped, metrics).findComponents();
+            System.out.println("Mapped file traversed in place: "
+                    + Arrays.equals(heapScc.getComponentOf(), mappedScc.getComponentOf())
+                    + ", copied off-heap: " + (OffHeapGraph.copyOf(mapped).indexOf(g.nodeName(7)) == 7));
+        } finally {
+            Files.delete(file);
+        }
+
+        try {
+            OffHeapGraph.copyOf(new DirectedGraph(Arrays.asList("X", "X"), new int[0], new int[0], new int[0], 0));
+            System.out.println("Duplicate names accepted");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Duplicate names rejected: " + e.getMessage());
+        }
+    }
+
+    static class SimpleMetrics implements Metrics {
+        long start;
+        Map<String, Long> c = new HashMap<>();
+        public void startTiming() { start = System.nanoTime(); }
+        public long stopTiming() { return System.nanoTime() - start; }
+        public synchronized void incrementCounter(String n) { c.put(n, c.getOrDefault(n, 0L) + 1); }
+        public synchronized long getCounter(String n) { return c.getOrDefault(n, 0L); }
+        public void reset() { c.clear(); }
+    }
+}
@@ -1,6 +1,7 @@
 package test;
 
 import graph.*;
+import graph.scc.SCCResult;
 import graph.scc.Tarjan;
 import graph.dagsp.DAGShortestPaths;
 
@@ -38,6 +39,27 @@ public class TestPipeline {
         DAGShortestPaths sp = new DAGShortestPaths(condensation, m);
         Map<Integer, Integer> shortest = sp.shortestPaths(0, topo);
         System.out.println("Shortest distances on condensation: " + shortest);
+
+        // Several edges between the same pair of components: merged by weight policy
+        List<String[]> multiEdges = Arrays.asList(
+                new String[]{"t0", "t1"},
+                new String[]{"t1", "t0"},
+                new String[]{"t0", "t2"},
+                new String[]{"t1", "t2"},
+                new String[]{"t1", "t3"}
+        );
+        Map<String, Integer> multiWeights = new HashMap<>();
+        multiWeights.put("t0-t2", 5);
+        multiWeights.put("t1-t2", 2);
+        multiWeights.put("t1-t3", 4);
+        DirectedGraph multi = new DirectedGraph(nodes, multiEdges, multiWeights);
+        SCCResult components = new Tarjan(multi, m).findComponents();
+        for (WeightPolicy policy : WeightPolicy.values()) {
+            DirectedGraph c = multi.buildCondensation(components.getComponentOf(),
+                    components.getComponentCount(), policy);
+            System.out.println(policy + " condensation: " + c.getNodes() + " adj " + c.getAdj()
+                    + " weights " + c.getWeights());
+        }
     }
 
     static class SimpleMetrics implements Metrics {
@@ -0,0 +1,123 @@
+package test;
+
+import data.WorkloadGenerator;
+import graph.*;
+import graph.metrics.CounterRegistry;
+import graph.reach.ReachabilityIndex;
+import graph.scc.CondensationResult;
+import graph.scc.FusedCondensation;
+import graph.scc.SCCResult;
+import graph.scc.Tarjan;
+import graph.topo.TopologicalSort;
+
+import java.util.*;
+
+public class TestReachabilityIndex {
+    public static void main(String[] args) {
+        System.out.println("=== TestReachabilityIndex ===");
+
+        // A <-> B -> C -> D, B -> E; F is on its own
+        List<String> nodes = Arrays.asList("A", "B", "C", "D", "E", "F");
+        List<String[]> edges = Arrays.asList(
+                new String[]{"A", "B"},
+                new String[]{"B", "A"},
+                new String[]{"B", "C"},
+                new String[]{"C", "D"},
+                new String[]{"B", "E"}
+        );
+        DirectedGraph small = new DirectedGraph(nodes, edges, new HashMap<>());
+        SimpleMetrics metrics = new SimpleMetrics();
+        ReachabilityIndex index = ReachabilityIndex.build(
+                new FusedCondensation(small, metrics, WeightPolicy.FIRST).run(), metrics);
+        System.out.println("D depends on A: " + index.dependsOn(3, 0) + ", A depends on D: " + index.dependsOn(0, 3)
+                + ", E depends on C: " + index.dependsOn(4, 2) + ", B depends on A: " + index.dependsOn(1, 0)
+                + ", F depends on A: " + index.dependsOn(5, 0));
+        System.out.println("Components " + index.componentCount() + ", labels " + index.getLabelCount()
+                + ", size " + index.sizeBytes() + " bytes, reported " + metrics.getCounter("reach_index_bytes"));
+
+        // Condensation from buildCondensation and order from Kahn, checked against plain BFS
+        boolean correct = true, batchesAgree = true;
+        long seed = 1;
+        for (WorkloadGenerator.Shape shape : WorkloadGenerator.Shape.values()) {
+            DirectedGraph g = new WorkloadGenerator(shape, 5_000, seed++).averageDegree(3).generate();
+            SCCResult sccs = new Tarjan(g, metrics).findComponents();
+            DirectedGraph dag = g.buildCondensation(sccs.getComponentOf(), sccs.getComponentCount(), WeightPolicy.FIRST);
+            int[] order = new TopologicalSort(dag, metrics).kahnOrder();
+            for (int labels = 1; labels <= 4; labels += 3) {
+                ReachabilityIndex r = ReachabilityIndex.build(dag, order, sccs.getComponentOf(), labels, 4, metrics);
+                Random random = new Random(seed);
+                int count = dag.nodeCount();
+                int[] from = new int[3000], to = new int[3000];
+                for (int q = 0; q < from.length; q++) {
+                    from[q] = random.nextInt(count);
+                    // Half of the targets are picked among nodes reachable from the source
+                    boolean[] reachable = reachableFrom(dag, from[q]);
+                    to[q] = random.nextInt(count);
+                    if (q % 2 == 0) {
+                        for (int t = 0; t < count && !reachable[to[q]]; t++) {
+                            to[q] = (to[q] + 1) % count;
+                        }
+                    }
+                    correct &= r.reaches(from[q], to[q]) == reachable[to[q]];
+                }
+                boolean[] sequential = r.reaches(from, to);
+                boolean[] parallel = r.reaches(from, to, 4);
+                batchesAgree &= Arrays.equals(sequential, parallel);
+                for (int q = 0; q < from.length; q++) {
+                    batchesAgree &= sequential[q] == r.reaches(from[q], to[q]);
+                }
+                int a = random.nextInt(g.nodeCount()), b = random.nextInt(g.nodeCount());
+                correct &= r.taskReaches(a, b) == reachableFrom(dag, sccs.getComponentOf()[a])[sccs.getComponentOf()[b]];
+            }
+        }
+        System.out.println("Matches BFS on all shapes: " + correct);
+        System.out.println("Batched and parallel answers agree: " + batchesAgree);
+        long queries = metrics.getCounter("reach_queries");
+        System.out.println("Queries counted: " + (queries > 0) + ", answered by labels: "
+                + (metrics.getCounter("reach_label_rejects") > 0) + ", searches: "
+                + (metrics.getCounter("reach_dfs_fallbacks") > 0) + ", build phase timed: "
+                + metrics.phases.contains("reach_index"));
+        try {
+            DirectedGraph pair = new DirectedGraph(DirectedGraph.indexNames(2), new int[]{0}, new int[]{1}, new int[]{1}, 1);
+            ReachabilityIndex.build(pair, new int[]{0, 1}, null, 2, 1, metrics).dependsOn(1, 0);
+        } catch (IllegalStateException e) {
+            System.out.println("Task query without components rejected: " + e.getMessage());
+        }
+    }
+
+    private static boolean[] reachableFrom(DirectedGraph g, int source) {
+        boolean[] seen = new boolean[g.nodeCount()];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        seen[source] = true;
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            for (int e = g.edgeStart(u); e < g.edgeEnd(u); e++) {
+                if (!seen[g.target(e)]) {
+                    seen[g.target(e)] = true;
+                    queue.add(g.target(e));
+                }
+            }
+        }
+        return seen;
+    }
+
+    static class SimpleMetrics implements Metrics {
+        long start;
+        Map<String, Long> c = new HashMap<>();
+        Set<String> phases = new HashSet<>();
+        public void startTiming() { start = System.nanoTime(); }
+        public long stopTiming() { return System.nanoTime() - start; }
+        public synchronized void incrementCounter(String n) { c.put(n, c.getOrDefault(n, 0L) + 1); }
+        public synchronized long getCounter(String n) { return c.getOrDefault(n, 0L); }
+        public void reset() { c.clear(); }
+        public synchronized void add(int counterId, long delta) {
+            String name = CounterRegistry.name(counterId);
+            c.put(name, c.getOrDefault(name, 0L) + delta);
+        }
+        public Phase phase(String name) {
+            phases.add(name);
+            return Phase.NONE;
+        }
+    }
+}
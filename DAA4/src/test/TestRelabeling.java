@@ -0,0 +1,137 @@
+package test;
+
+import data.WorkloadGenerator;
+import graph.*;
+import graph.dagsp.DAGShortestPaths;
+import graph.dagsp.ShortestPathResult;
+import graph.layout.Relabeling;
+import graph.scc.SCCResult;
+import graph.scc.Tarjan;
+import graph.topo.TopologicalSort;
+
+import java.util.*;
+
+public class TestRelabeling {
+    public static void main(String[] args) {
+        System.out.println("=== TestRelabeling ===");
+
+        // D -> C -> B -> A with a cycle A <-> B; input order is the reverse of the flow
+        List<String> nodes = Arrays.asList("A", "B", "C", "D");
+        List<String[]> edges = Arrays.asList(
+                new String[]{"A", "B"},
+                new String[]{"B", "A"},
+                new String[]{"C", "B"},
+                new String[]{"D", "C"}
+        );
+        Map<String, Integer> weights = new HashMap<>();
+        weights.put("C-B", 4);
+        weights.put("D-C", 2);
+        DirectedGraph small = new DirectedGraph(nodes, edges, weights);
+        SimpleMetrics metrics = new SimpleMetrics();
+        for (Relabeling.Order order : Relabeling.Order.values()) {
+            Relabeling r = Relabeling.of(small, order, metrics);
+            DirectedGraph g = r.apply(small);
+            System.out.println(order + ": nodes " + g.getNodes() + ", new id of D " + r.toNew(3)
+                    + ", adj " + g.getAdj() + ", weights " + g.getWeights());
+        }
+        System.out.println("Relabel phase timed: " + metrics.phases.contains("relabel"));
+        try {
+            Relabeling.of(new int[]{0, 1, 1});
+        } catch (IllegalArgumentException e) {
+            System.out.println("Bad order rejected: " + e.getMessage());
+        }
+
+        // Results on the relabeled graph, mapped back, match the input graph
+        boolean permutation = true, roundTrip = true, sccs = true, paths = true, topological = true;
+        long seed = 1;
+        for (WorkloadGenerator.Shape shape : WorkloadGenerator.Shape.values()) {
+            DirectedGraph g = new WorkloadGenerator(shape, 5_000, seed++).averageDegree(4).generate();
+            SCCResult expected = new Tarjan(g, metrics).findComponents();
+            int[] kahn = new TopologicalSort(g, metrics).kahnOrder();
+            for (Relabeling.Order order : Relabeling.Order.values()) {
+                Relabeling r = Relabeling.of(g, order);
+                int[] seen = new int[g.nodeCount()];
+                for (int v = 0; v < g.nodeCount(); v++) {
+                    seen[r.toNew(v)]++;
+                    permutation &= r.toOriginal(r.toNew(v)) == v;
+                }
+                for (int count : seen) {
+                    permutation &= count == 1;
+                }
+                DirectedGraph relabeled = r.apply(g);
+                DirectedGraph back = Relabeling.of(r.getNewIds()).apply(relabeled);
+                roundTrip &= Arrays.equals(back.getOffsets(), g.getOffsets())
+                        && Arrays.equals(back.getTargets(), g.getTargets())
+                        && Arrays.equals(back.getEdgeWeights(), g.getEdgeWeights())
+                        && back.getNodes().equals(g.getNodes());
+
+                SCCResult mapped = r.toOriginal(new Tarjan(relabeled, metrics).findComponents());
+                sccs &= mapped.getComponentCount() == expected.getComponentCount()
+                        && samePartition(mapped.getComponentOf(), expected.getComponentOf());
+
+                if (kahn != null) {
+                    int source = kahn[0];
+                    int[] relabeledOrder = new TopologicalSort(relabeled, metrics).kahnOrder();
+                    DAGShortestPaths direct = new DAGShortestPaths(g, metrics);
+                    DAGShortestPaths onRelabeled = new DAGShortestPaths(relabeled, metrics);
+                    ShortestPathResult shortest = r.toOriginal(
+                            onRelabeled.shortestPathResult(r.toNew(source), relabeledOrder), g);
+                    ShortestPathResult longest = r.toOriginal(
+                            onRelabeled.longestPathResult(r.toNew(source), relabeledOrder), g);
+                    paths &= shortest.getSource() == source
+                            && Arrays.equals(shortest.getDistances(),
+                                    direct.shortestPathResult(source, kahn).getDistances())
+                            && Arrays.equals(longest.getDistances(),
+                                    direct.longestPathResult(source, kahn).getDistances());
+                    if (order == Relabeling.Order.TOPOLOGICAL) {
+                        topological &= isForward(relabeled);
+                    }
+                }
+            }
+        }
+        System.out.println("Bidirectional map is a permutation: " + permutation);
+        System.out.println("Inverse relabeling restores the graph: " + roundTrip);
+        System.out.println("SCCs mapped back match Tarjan: " + sccs);
+        System.out.println("Path distances mapped back match: " + paths);
+        System.out.println("Topological relabeling of DAGs has only forward edges: " + topological);
+    }
+
+    private static boolean samePartition(int[] a, int[] b) {
+        int[] aToB = new int[a.length];
+        Arrays.fill(aToB, -1);
+        for (int v = 0; v < a.length; v++) {
+            if (aToB[a[v]] == -1) {
+                aToB[a[v]] = b[v];
+            } else if (aToB[a[v]] != b[v]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isForward(DirectedGraph g) {
+        for (int u = 0; u < g.nodeCount(); u++) {
+            for (int e = g.edgeStart(u); e < g.edgeEnd(u); e++) {
+                if (g.target(e) <= u) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    static class SimpleMetrics implements Metrics {
+        long start;
+        Map<String, Long> c = new HashMap<>();
+        Set<String> phases = new HashSet<>();
+        public void startTiming() { start = System.nanoTime(); }
+        public long stopTiming() { return System.nanoTime() - start; }
+        public synchronized void incrementCounter(String n) { c.put(n, c.getOrDefault(n, 0L) + 1); }
+        public synchronized long getCounter(String n) { return c.getOrDefault(n, 0L); }
+        public void reset() { c.clear(); }
+        public Phase phase(String name) {
+            phases.add(name);
+            return Phase.NONE;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package test;
+
+import graph.*;
+import graph.metrics.StripedMetrics;
+import service.GraphStore;
+import service.PreparedGraph;
+import service.QueryHandler;
+import service.SchedulingServer;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+public class TestSchedulingService {
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== TestSchedulingService ===");
+
+        List<String> nodes = Arrays.asList("A", "B", "C", "D", "E");
+        List<String[]> edges = Arrays.asList(
+                new String[]{"A", "B"},
+                new String[]{"B", "A"},  // cycle A-B
+                new String[]{"B", "C"},
+                new String[]{"C", "D"},
+                new String[]{"B", "E"},
+                new String[]{"E", "D"}
+        );
+        Map<String, Integer> weights = new HashMap<>();
+        weights.put("B-C", 2);
+        weights.put("C-D", 2);
+        weights.put("B-E", 1);
+        weights.put("E-D", 5);
+        StripedMetrics metrics = new StripedMetrics();
+        GraphStore store = new GraphStore(metrics);
+        PreparedGraph first = store.put("city", new DirectedGraph(nodes, edges, weights));
+        QueryHandler handler = new QueryHandler(store, metrics);
+
+        for (String request : new String[]{"PING", "GRAPHS", "SCC city", "ORDER city", "ORDER city 2",
+                "SHORTEST city A D", "SHORTEST city D A", "CRITICAL city", "SLACK city E",
+                "DEPENDS city D A", "DEPENDS city C E", "SHORTEST city A", "SCC town", "SLACK city Z",
+                "ORDER city x", "FLY city"}) {
+            System.out.println(request + " -> " + handler.handle(request));
+        }
+        for (int i = 0; i < 100; i++) {
+            handler.handle("TYPO" + i + " city");
+        }
+        System.out.println("Unknown commands share one histogram: " + metrics.histogram("query.invalid").count()
+                + " (FLY and 100 typos), none per word: " + (metrics.histogram("query.typo7").count() == 0));
+
+        // Reloading gives a new version and fresh analysis; the old snapshot is untouched
+        PreparedGraph second = store.put("city", new DirectedGraph(nodes, edges.subList(2, edges.size()), weights));
+        System.out.println("Reloaded: version " + first.getVersion() + " -> " + second.getVersion()
+                + ", components " + first.getSCCs().getComponentCount() + " -> " + second.getSCCs().getComponentCount());
+        System.out.println("SCC city -> " + handler.handle("SCC city"));
+
+        // Stdin-style stream: one response per request, blank lines skipped, stops at QUIT
+        SchedulingServer server = new SchedulingServer(handler);
+        StringWriter out = new StringWriter();
+        server.serve(new BufferedReader(new StringReader("PING\n\nCRITICAL city\nQUIT\nPING\n")), out);
+        System.out.println("Stream responses: " + out.toString().trim().replace("\n", " / "));
+
+        // Socket mode: concurrent clients on one server
+        int port = server.start(0);
+        int clients = 8, requests = 200;
+        int[] ok = new int[clients];
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            int id = c;
+            threads.add(new Thread(() -> {
+                try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+                     BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                     Writer w = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+                    for (int i = 0; i < requests; i++) {
+                        w.write(i % 2 == 0 ? "SHORTEST city B D\n" : "CRITICAL city\n");
+                        w.flush();
+                        String response = in.readLine();
+                        if (response != null && response.startsWith("OK")) {
+                            ok[id]++;
+                        }
+                    }
+                } catch (IOException e) {
+                    System.out.println("Client failed: " + e.getMessage());
+                }
+            }));
+        }
+        for (Thread t : threads) t.start();
+        for (Thread t : threads) t.join();
+        server.close();
+        System.out.println("Socket clients: " + Arrays.stream(ok).sum() + " of " + clients * requests + " answered OK");
+        System.out.println("Shortest latencies recorded: " + metrics.histogram("query.shortest").count());
+    }
+}
@@ -1,6 +1,7 @@
 package test;
 
 import graph.*;
+import graph.scc.SCCResult;
 import graph.scc.Tarjan;
 
 import java.util.*;
@@ -30,6 +31,22 @@ public class TestTarjan {
         System.out.println("SCCs (indices): " + sccs);
         System.out.println("SCCs (names): " + named);
         System.out.println("SCC sizes: " + Tarjan.getSCCSizes(named));
+
+        SCCResult result = new Tarjan(g, m).findComponents();
+        System.out.println("Component of each node: " + Arrays.toString(result.getComponentOf()));
+        System.out.println("Matches findSCCs: " + result.toLists().equals(sccs));
+
+        // Long dependency chain closed into one cycle: deep enough to overflow a recursive DFS
+        int n = 200_000;
+        int[] from = new int[n], to = new int[n], w = new int[n];
+        for (int i = 0; i < n; i++) {
+            from[i] = i;
+            to[i] = (i + 1) % n;
+            w[i] = 1;
+        }
+        DirectedGraph chain = new DirectedGraph(DirectedGraph.indexNames(n), from, to, w, n);
+        SCCResult chainResult = new Tarjan(chain, m).findComponents();
+        System.out.println("Chain of " + n + " nodes, SCC count: " + chainResult.getComponentCount());
     }
 
     static class SimpleMetrics implements Metrics {
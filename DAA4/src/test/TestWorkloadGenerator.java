@@ -0,0 +1,98 @@
+package test;
+
+import data.BinaryGraphFormat;
+import data.JsonGraphLoader;
+import data.WorkloadGenerator;
+import data.WorkloadGenerator.Shape;
+import graph.*;
+import graph.scc.SCCResult;
+import graph.scc.Tarjan;
+import graph.topo.TopologicalSort;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+public class TestWorkloadGenerator {
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== TestWorkloadGenerator ===");
+
+        // Same seed gives the same graph regardless of thread count
+        DirectedGraph one = new WorkloadGenerator(Shape.POWER_LAW, 50_000, 7).parallelism(1).generate();
+        DirectedGraph many = new WorkloadGenerator(Shape.POWER_LAW, 50_000, 7).parallelism(4).generate();
+        DirectedGraph other = new WorkloadGenerator(Shape.POWER_LAW, 50_000, 8).generate();
+        System.out.println("Power-law edges: " + one.edgeCount() + ", deterministic across threads: " + sameGraph(one, many)
+                + ", other seed differs: " + !sameGraph(one, other));
+
+        for (Shape shape : new Shape[]{Shape.LAYERED, Shape.CHAINS, Shape.FAN_OUT, Shape.POWER_LAW}) {
+            DirectedGraph g = new WorkloadGenerator(shape, 20_000, 3).averageDegree(4).layers(20, 2).chains(5).generate();
+            System.out.println(shape + ": " + g.edgeCount() + " edges, acyclic: "
+                    + (new TopologicalSort(g, new SimpleMetrics()).kahnSort() != null));
+        }
+
+        // Fewer nodes than the default 16 layers: every target is still a node
+        boolean inRange = true;
+        for (int n = 1; n <= 20; n++) {
+            DirectedGraph small = new WorkloadGenerator(Shape.LAYERED, n, n).averageDegree(3).generate();
+            for (int t : small.getTargets()) {
+                inRange &= t < n;
+            }
+        }
+        System.out.println("Small layered graphs stay in range: " + inRange);
+
+        // Planted SCCs are exactly the generated blocks
+        WorkloadGenerator planted = new WorkloadGenerator(Shape.PLANTED_SCCS, 20_000, 5).sccSizes(3, 12).averageDegree(5);
+        DirectedGraph g = planted.generate();
+        SCCResult sccs = new Tarjan(g, new SimpleMetrics()).findComponents();
+        int[] expected = planted.plantedComponents();
+        System.out.println("Planted SCCs: " + (expected[expected.length - 1] + 1) + ", found: "
+                + sccs.getComponentCount() + ", same partition: " + samePartition(expected, sccs.getComponentOf()));
+
+        // Streamed files load back to the in-memory graph
+        Path bin = Files.createTempFile("workload", ".bin");
+        Path json = Files.createTempFile("workload", ".json");
+        try {
+            WorkloadGenerator layered = new WorkloadGenerator(Shape.LAYERED, 40_000, 11).layers(8, 3).parallelism(3);
+            long binEdges = layered.writeBinary(bin);
+            long jsonEdges = layered.writeJson(json);
+            DirectedGraph memory = layered.generate();
+            System.out.println("Binary round trip (" + binEdges + " edges): " + sameGraph(memory, BinaryGraphFormat.read(bin)));
+            System.out.println("JSON round trip (" + jsonEdges + " edges): " + sameGraph(memory, JsonGraphLoader.load(json.toString())));
+        } finally {
+            Files.deleteIfExists(bin);
+            Files.deleteIfExists(json);
+        }
+    }
+
+    private static boolean sameGraph(DirectedGraph a, DirectedGraph b) {
+        return a.nodeCount() == b.nodeCount()
+                && Arrays.equals(a.getOffsets(), b.getOffsets())
+                && Arrays.equals(a.getTargets(), b.getTargets())
+                && Arrays.equals(a.getEdgeWeights(), b.getEdgeWeights());
+    }
+
+    private static boolean samePartition(int[] a, int[] b) {
+        Map<Integer, Integer> mapping = new HashMap<>();
+        Set<Integer> used = new HashSet<>();
+        for (int i = 0; i < a.length; i++) {
+            Integer mapped = mapping.get(a[i]);
+            if (mapped == null) {
+                if (!used.add(b[i])) return false;
+                mapping.put(a[i], b[i]);
+            } else if (mapped != b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static class SimpleMetrics implements Metrics {
+        long start;
+        Map<String, Long> c = new HashMap<>();
+        public void startTiming() { start = System.nanoTime(); }
+        public long stopTiming() { return System.nanoTime() - start; }
+        public void incrementCounter(String n) { c.put(n, c.getOrDefault(n, 0L) + 1); }
+        public long getCounter(String n) { return c.getOrDefault(n, 0L); }
+        public void reset() { c.clear(); }
+    }
+}
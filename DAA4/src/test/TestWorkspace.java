@@ -0,0 +1,136 @@
+package test;
+
+import data.WorkloadGenerator;
+import graph.*;
+import graph.dagsp.DAGShortestPaths;
+import graph.dagsp.ShortestPathResult;
+import graph.layout.Relabeling;
+import graph.scc.SCCResult;
+import graph.scc.Tarjan;
+import graph.topo.TopologicalSort;
+import graph.util.EpochMarks;
+import graph.util.Workspace;
+
+import java.util.*;
+
+public class TestWorkspace {
+    public static void main(String[] args) {
+        System.out.println("=== TestWorkspace ===");
+
+        EpochMarks marks = new EpochMarks(4);
+        marks.mark(1);
+        marks.mark(3);
+        boolean before = marks.isMarked(1) && marks.isMarked(3) && !marks.isMarked(0);
+        marks.clear(4);
+        boolean cleared = !marks.isMarked(1) && !marks.isMarked(3);
+        marks.clear(10);
+        marks.mark(9);
+        System.out.println("Marks: set " + before + ", cleared " + cleared + ", grown to " + marks.capacity()
+                + " with 9 marked " + marks.isMarked(9));
+
+        // Graphs of shrinking and growing size on one workspace give the same results as fresh buffers
+        Workspace workspace = new Workspace();
+        SimpleMetrics metrics = new SimpleMetrics();
+        boolean sccSame = true, topoSame = true, pathsSame = true;
+        int[] sizes = {5000, 3000, 5000, 5400, 200};
+        for (int i = 0; i < sizes.length; i++) {
+            int n = sizes[i];
+            DirectedGraph g = new WorkloadGenerator(WorkloadGenerator.Shape.PLANTED_SCCS, n, i).averageDegree(3).generate();
+            SCCResult fresh = new Tarjan(g, metrics).findComponents();
+            SCCResult pooled = new Tarjan(g, metrics, workspace).findComponents();
+            sccSame &= fresh.getComponentCount() == pooled.getComponentCount()
+                    && Arrays.equals(fresh.getComponentOf(), Arrays.copyOf(pooled.getComponentOf(), n))
+                    && fresh.toLists().equals(pooled.toLists());
+
+            DirectedGraph dag = g.buildCondensation(fresh.getComponentOf(), fresh.getComponentCount(), WeightPolicy.MIN);
+            List<Integer> order = new TopologicalSort(dag, metrics).kahnSort();
+            int[] pooledOrder = new TopologicalSort(dag, metrics, workspace).kahnOrder();
+            topoSame &= order.equals(boxed(pooledOrder, dag.nodeCount()));
+
+            for (int source : new int[]{order.get(0), order.get(order.size() / 2)}) {
+                DAGShortestPaths freshPaths = new DAGShortestPaths(dag, metrics);
+                DAGShortestPaths pooledPaths = new DAGShortestPaths(dag, metrics, workspace);
+                pathsSame &= freshPaths.shortestPaths(source, order).equals(pooledPaths.shortestPaths(source, order))
+                        && freshPaths.longestPaths(source, order).equals(
+                        pooledPaths.longestPathResult(source, pooledOrder).toMap());
+            }
+        }
+        System.out.println("Tarjan matches fresh buffers: " + sccSame);
+
+        // A pooled result on buffers longer than the graph: only the first nodeCount entries count
+        DirectedGraph last = new WorkloadGenerator(WorkloadGenerator.Shape.PLANTED_SCCS, 200, 4).averageDegree(3).generate();
+        SCCResult pooled = new Tarjan(last, metrics, workspace).findComponents();
+        SCCResult fresh = new Tarjan(last, metrics).findComponents();
+        int[] reversed = new int[200];
+        for (int v = 0; v < 200; v++) {
+            reversed[v] = 199 - v;
+        }
+        Relabeling reverse = Relabeling.of(reversed);
+        SCCResult regrouped = new SCCResult(pooled.getComponentOf(), pooled.getComponentCount(), null, null, 200);
+        System.out.println("Pooled buffers longer than graph: " + (pooled.getComponentOf().length > 200)
+                + ", node count " + pooled.getNodeCount()
+                + ", regrouped matches: " + sortedGroups(regrouped).equals(sortedGroups(fresh))
+                + ", relabeled back matches: " + reverse.toOriginal(reverse.toOriginal(pooled)).toLists().equals(fresh.toLists()));
+        System.out.println("Kahn matches kahnSort: " + topoSame);
+        System.out.println("DAG paths match fresh buffers: " + pathsSame);
+
+        // Stale entries from a previous run are never visible
+        List<String> nodes = Arrays.asList("A", "B", "C", "D");
+        List<String[]> edges = Arrays.asList(new String[]{"A", "B"}, new String[]{"B", "C"}, new String[]{"A", "C"});
+        Map<String, Integer> weights = new HashMap<>();
+        weights.put("A-B", 2);
+        weights.put("B-C", 2);
+        weights.put("A-C", 5);
+        DirectedGraph small = new DirectedGraph(nodes, edges, weights);
+        List<Integer> smallOrder = new TopologicalSort(small, metrics).kahnSort();
+        DAGShortestPaths sp = new DAGShortestPaths(small, metrics, workspace);
+        sp.shortestPathResult(0, smallOrder);
+        ShortestPathResult fromB = sp.shortestPathResult(1, smallOrder);
+        System.out.println("From B: reaches A " + fromB.isReachable(0) + ", C at " + fromB.distance(2)
+                + ", path " + fromB.namedPathTo(2) + ", distances "
+                + Arrays.toString(Arrays.copyOf(fromB.getDistances(), small.nodeCount())));
+
+        // Steady state: repeated runs on the same graph allocate no new buffers
+        DirectedGraph g = new WorkloadGenerator(WorkloadGenerator.Shape.PLANTED_SCCS, 20_000, 7).averageDegree(4).generate();
+        SCCResult scc = new Tarjan(g, metrics).findComponents();
+        DirectedGraph dag = g.buildCondensation(scc.getComponentOf(), scc.getComponentCount(), WeightPolicy.MIN);
+        Workspace steady = Workspace.perThread();
+        long allocations = 0;
+        for (int run = 0; run < 50; run++) {
+            new Tarjan(g, metrics, steady).findComponents();
+            int[] order = new TopologicalSort(dag, metrics, steady).kahnOrder();
+            new DAGShortestPaths(dag, metrics, steady).shortestPathResult(order[0], order);
+            if (run == 0) {
+                allocations = steady.allocations();
+            }
+        }
+        System.out.println("Buffers after first run: " + allocations + ", after 50 runs: " + steady.allocations());
+        System.out.println("Same workspace on this thread: " + (steady == Workspace.perThread()));
+    }
+
+    private static List<Integer> boxed(int[] order, int n) {
+        List<Integer> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            list.add(order[i]);
+        }
+        return list;
+    }
+
+    private static List<List<Integer>> sortedGroups(SCCResult sccs) {
+        List<List<Integer>> groups = sccs.toLists();
+        for (List<Integer> group : groups) {
+            Collections.sort(group);
+        }
+        return groups;
+    }
+
+    static class SimpleMetrics implements Metrics {
+        long start;
+        Map<String, Long> c = new HashMap<>();
+        public void startTiming() { start = System.nanoTime(); }
+        public long stopTiming() { return System.nanoTime() - start; }
+        public void incrementCounter(String n) { c.put(n, c.getOrDefault(n, 0L) + 1); }
+        public long getCounter(String n) { return c.getOrDefault(n, 0L); }
+        public void reset() { c.clear(); }
+    }
+}